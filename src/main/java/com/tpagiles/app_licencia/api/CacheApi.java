@@ -0,0 +1,78 @@
+package com.tpagiles.app_licencia.api;
+
+import com.tpagiles.app_licencia.dto.ErrorResponse;
+import com.tpagiles.app_licencia.dto.RegionCacheRecord;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.List;
+
+@Tag(name = "Caché", description = "Caché de segundo nivel de usuarios, titulares y tarifario (solo SUPER_USER)")
+@SecurityRequirement(name = "bearerAuth")
+@RequestMapping("/api/admin/cache")
+public interface CacheApi {
+
+    @Operation(
+            summary = "Aciertos y fallos por región",
+            description = """
+            Contadores de cada región de la caché de segundo nivel desde el arranque del nodo que atiende
+            la llamada: aciertos, fallos, escrituras, tasa de aciertos y cantidad máxima de entradas.
+            """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Una entrada por región",
+                            content = @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = RegionCacheRecord.class)))
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Acceso denegado",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping
+    ResponseEntity<List<RegionCacheRecord>> estadisticasCache();
+
+    @Operation(
+            summary = "Vaciar una región",
+            description = """
+            Descarta las entradas de la región en este nodo; las próximas lecturas van a la base. Sirve después
+            de cambiar datos por fuera de la aplicación (SQL directo).
+            """,
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Región vaciada"),
+                    @ApiResponse(responseCode = "404", description = "Región inexistente",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Acceso denegado",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @DeleteMapping("/{region}")
+    ResponseEntity<Void> vaciarRegion(
+            @Parameter(description = "Nombre de la región, como lo devuelve GET /api/admin/cache", example = "titulares")
+            @PathVariable("region") String region
+    );
+
+    @Operation(
+            summary = "Vaciar toda la caché",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Caché vaciada"),
+                    @ApiResponse(responseCode = "403", description = "Acceso denegado",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @DeleteMapping
+    ResponseEntity<Void> vaciarCache();
+}
@@ -0,0 +1,51 @@
+package com.tpagiles.app_licencia.api;
+
+import com.tpagiles.app_licencia.dto.ErrorResponse;
+import com.tpagiles.app_licencia.dto.FacetasResponseRecord;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Tag(name = "Estadísticas", description = "Conteos agregados sobre titulares y licencias")
+@SecurityRequirement(name = "bearerAuth")
+@RequestMapping("/api/estadisticas")
+public interface EstadisticasApi {
+
+    @Operation(
+            summary = "Conteos por faceta",
+            description = """
+            Cuenta licencias (o titulares) que cumplen el filtro y las desglosa por grupo sanguíneo,
+            factor RH, donante, clase y vigencia. El filtro combina facetas con AND, OR, NOT y paréntesis;
+            varios valores separados por coma equivalen a un OR. Con unidad=titulares y facetas de licencia
+            en el filtro se cuentan los titulares que tienen al menos una licencia que lo cumple, y el
+            desglose es solo por los atributos del titular.
+            Se resuelve en memoria: los cambios se ven apenas se confirman en este nodo y los de otros
+            nodos en la siguiente conciliación.
+            """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Total y desglose por faceta",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = FacetasResponseRecord.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Filtro o unidad inválidos",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/facetas")
+    ResponseEntity<FacetasResponseRecord> contarPorFacetas(
+            @Parameter(description = "Expresión sobre grupoSanguineo, factorRh, donanteOrganos, clase y vigente; vacío = todas",
+                    example = "donanteOrganos:true AND grupoSanguineo:O AND (clase:D,E OR NOT vigente:true)")
+            @RequestParam(required = false) String filtro,
+            @Parameter(description = "Qué se cuenta: licencias o titulares", example = "licencias")
+            @RequestParam(defaultValue = "licencias") String unidad
+    );
+}
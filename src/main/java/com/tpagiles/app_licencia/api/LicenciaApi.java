@@ -14,13 +14,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.UUID;
 
 
 @Tag(name = "Licencias", description = "Operaciones para emisión de licencias")
@@ -31,7 +36,14 @@ public interface LicenciaApi {
 
     @Operation(
             summary     = "Emitir licencia (OPERADOR, SUPER_USER)",
-            description = "Emite una licencia de clase A o B para un titular existente. Se debe indicar el mail del emisor. Requiere rol SUPER_USER o OPERADOR.",
+            parameters  = @Parameter(
+                    name        = "Idempotency-Key",
+                    in          = ParameterIn.HEADER,
+                    required    = false,
+                    description = "Clave opcional para reintentos seguros: si se repite con el mismo cuerpo se devuelve la respuesta original (cabecera Idempotent-Replayed: true) sin volver a procesar la solicitud",
+                    schema      = @Schema(type = "string", maxLength = 100)
+            ),
+            description = "Emite una licencia de clase A o B para un titular existente. El emisor es el usuario autenticado; solo un SUPER_USER puede indicar otro mail de emisor. Requiere rol SUPER_USER o OPERADOR.",
             security    = @SecurityRequirement(name = "bearerAuth"),
             responses = {
                     @ApiResponse(responseCode = "201", description = "Licencia emitida exitosamente"),
@@ -50,6 +62,9 @@ public interface LicenciaApi {
                                     )
                             )
                     ),
+                    @ApiResponse(responseCode = "403", description = "Un OPERADOR intentó emitir a nombre de otro usuario",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    ),
                     @ApiResponse(responseCode = "404", description = "Titular o emisor no encontrado",
                             content = @Content(
                                     mediaType = "application/json",
@@ -87,9 +102,119 @@ public interface LicenciaApi {
             @Valid @RequestBody LicenciaRecord record
     );
 
+    @Operation(
+            summary     = "Emitir licencias en lote (OPERADOR, SUPER_USER)",
+            parameters  = @Parameter(
+                    name        = "Idempotency-Key",
+                    in          = ParameterIn.HEADER,
+                    required    = false,
+                    description = "Clave opcional para reintentos seguros: si se repite con el mismo cuerpo se devuelve la respuesta original (cabecera Idempotent-Replayed: true) sin volver a procesar la solicitud",
+                    schema      = @Schema(type = "string", maxLength = 100)
+            ),
+            description = """
+            Emite varias licencias en una sola operación. Cada elemento se valida con las mismas reglas
+            que la emisión individual; los que fallan se informan en la respuesta sin impedir que se emitan
+            los demás. Máximo 500 elementos por lote. Requiere rol OPERADOR o SUPER_USER.
+            """,
+            security    = @SecurityRequirement(name = "bearerAuth"),
+            requestBody = @RequestBody(
+                    description = "Licencias a emitir",
+                    required    = true,
+                    content     = @Content(
+                            mediaType = "application/json",
+                            schema    = @Schema(implementation = LoteLicenciasRequest.class),
+                            examples  = @ExampleObject(
+                                    name  = "Lote",
+                                    value = """
+                        {
+                          "licencias": [
+                            { "titularId": 42, "clase": "B", "emisor": "admin@municipio.gob" },
+                            { "titularId": 43, "clase": "A", "emisor": "admin@municipio.gob" }
+                          ]
+                        }"""
+                            )
+                    )
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote procesado; ver el resultado de cada elemento",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema    = @Schema(implementation = LoteLicenciasResponseRecord.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Lote vacío, demasiado grande o con elementos inválidos",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Forbidden: rol insuficiente",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @PostMapping("/lote")
+    ResponseEntity<LoteLicenciasResponseRecord> emitirLote(
+            @Valid @RequestBody LoteLicenciasRequest request
+    );
+
+    @Operation(
+            summary     = "Emitir licencia en forma asíncrona (OPERADOR, SUPER_USER)",
+            description = """
+            Acepta la solicitud de emisión y la encola; devuelve 202 con un ticket cuyo estado se consulta en
+            GET /api/licencias/tickets/{id} (cabecera Location). Aplica las mismas validaciones que la emisión
+            sincrónica. Si la cola está llena responde 429 con Retry-After. Requiere rol OPERADOR o SUPER_USER.
+            """,
+            security    = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Solicitud aceptada",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema    = @Schema(implementation = TicketEmisionRecord.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Datos inválidos",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Forbidden: rol insuficiente o emisor no permitido",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "429", description = "Cola de emisión llena",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @PostMapping("/async")
+    ResponseEntity<TicketEmisionRecord> emitirLicenciaAsync(
+            @Valid @RequestBody LicenciaRecord record
+    );
+
+    @Operation(
+            summary     = "Consultar ticket de emisión asíncrona (OPERADOR, SUPER_USER)",
+            description = "Devuelve el estado de una emisión encolada y, si terminó, la licencia emitida o el motivo del rechazo. Requiere rol OPERADOR o SUPER_USER.",
+            security    = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Estado del ticket",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema    = @Schema(implementation = TicketEmisionRecord.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "404", description = "Ticket inexistente o ya depurado",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/tickets/{id}")
+    ResponseEntity<TicketEmisionRecord> consultarTicket(
+            @Parameter(description = "ID del ticket", required = true, in = ParameterIn.PATH)
+            @PathVariable("id") UUID id
+    );
+
     @Operation(
             summary     = "Listar licencias vencidas (OPERADOR, SUPER_USER)",
-            description = "Recupera todas las licencias cuya fecha de vencimiento sea anterior al día actual. Requiere rol OPERADOR o SUPER_USER.",
+            description = """
+            Recupera las licencias cuya fecha de vencimiento sea anterior al día actual, ordenadas por vencimiento.
+            Paginado por cursor: la cabecera Link (rel="next") trae la URL de la página siguiente y X-Total-Count
+            el total de vencidas. Requiere rol OPERADOR o SUPER_USER.
+            """,
             security    = @SecurityRequirement(name = "bearerAuth"),
             responses = {
                     @ApiResponse(responseCode = "200", description = "Listado de licencias vencidas",
@@ -112,7 +237,40 @@ public interface LicenciaApi {
             }
     )
     @GetMapping("/vencidas")
-    ResponseEntity<List<LicenciaResponseRecord>> listarVencidas();
+    ResponseEntity<List<LicenciaResponseRecord>> listarVencidas(
+            @Parameter(description = "Cantidad máxima de filas por página (1 a 500)", example = "50")
+            @RequestParam(defaultValue = "50")
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = PaginaRecord.LIMITE_MAXIMO, message = "limit no puede superar 500") int limit,
+            @Parameter(description = "Cursor opaco de la página siguiente, tomado de la cabecera Link")
+            @RequestParam(required = false) String after
+    );
+
+    @Operation(
+            summary     = "Exportar licencias vencidas (OPERADOR, SUPER_USER)",
+            description = """
+            Descarga todas las licencias vencidas en CSV o NDJSON, sin paginar. Las filas se escriben a medida
+            que se leen de la base, así que el consumo de memoria no depende de la cantidad; si el cliente envía
+            Accept-Encoding: gzip la respuesta se comprime al vuelo. Requiere rol OPERADOR o SUPER_USER.
+            """,
+            security    = @SecurityRequirement(name = "bearerAuth"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Archivo CSV (text/csv) o NDJSON (application/x-ndjson)"),
+                    @ApiResponse(responseCode = "400", description = "Formato no soportado",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "403", description = "Forbidden: rol insuficiente",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/vencidas/export")
+    ResponseEntity<StreamingResponseBody> exportarVencidas(
+            @Parameter(description = "Formato de salida: csv o ndjson", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    );
 
     @Operation(
             summary     = "Contar licencias vencidas (OPERADOR, SUPER_USER)",
@@ -362,6 +520,13 @@ public interface LicenciaApi {
     );
     @Operation(
             summary = "Emitir copia de licencia (OPERADOR, SUPER_USER)",
+            parameters  = @Parameter(
+                    name        = "Idempotency-Key",
+                    in          = ParameterIn.HEADER,
+                    required    = false,
+                    description = "Clave opcional para reintentos seguros: si se repite con el mismo cuerpo se devuelve la respuesta original (cabecera Idempotent-Replayed: true) sin volver a procesar la solicitud",
+                    schema      = @Schema(type = "string", maxLength = 100)
+            ),
             description = "Emite una nueva copia de una licencia existente (por pérdida, robo, deterioro). Requiere rol OPERADOR o SUPER_USER.",
             security = @SecurityRequirement(name = "bearerAuth"),
             requestBody = @RequestBody(
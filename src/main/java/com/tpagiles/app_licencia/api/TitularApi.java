@@ -12,16 +12,23 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 
 @Tag(name = "Titulares", description = "API para gestión de titulares")
 @SecurityRequirement(name = "bearerAuth")    // ← aquí
@@ -31,6 +38,13 @@ public interface TitularApi {
 
     @Operation(
             summary     = "Crear un nuevo Titular",
+            parameters  = @Parameter(
+                    name        = "Idempotency-Key",
+                    in          = ParameterIn.HEADER,
+                    required    = false,
+                    description = "Clave opcional para reintentos seguros: si se repite con el mismo cuerpo se devuelve la respuesta original (cabecera Idempotent-Replayed: true) sin volver a procesar la solicitud",
+                    schema      = @Schema(type = "string", maxLength = 100)
+            ),
             description = "Valida y persiste un Titular. Devuelve el recurso creado con su ID.",
             tags        = { "Titulares" },
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -178,6 +192,10 @@ public interface TitularApi {
                                     )
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description  = "Sin cambios desde el ETag enviado en If-None-Match (sin cuerpo)"
+                    ),
                     @ApiResponse(
                             responseCode = "400",
                             description  = "ID inválido: violación de @Positive",
@@ -216,7 +234,9 @@ public interface TitularApi {
     )
     @GetMapping("/{id}")
     ResponseEntity<TitularResponseRecord> obtenerTitular(
-            @PathVariable @Positive Long id
+            @PathVariable @Positive Long id,
+            @Parameter(description = "ETag de una respuesta anterior; si el titular no cambió se responde 304")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     );
 
     @Operation(
@@ -304,6 +324,10 @@ public interface TitularApi {
                                     )
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description  = "Sin cambios desde el ETag enviado en If-None-Match (sin cuerpo)"
+                    ),
                     @ApiResponse(
                             responseCode = "400",
                             description  = "Parámetros inválidos (@NotNull o @NotBlank)",
@@ -343,12 +367,17 @@ public interface TitularApi {
     @GetMapping(params = { "tipoDocumento", "numeroDocumento" })
     ResponseEntity<TitularResponseRecord> buscarPorTipoYNumeroDocumento(
             @RequestParam @NotNull TipoDocumento tipoDocumento,
-            @RequestParam @NotBlank String numeroDocumento
+            @RequestParam @NotBlank String numeroDocumento,
+            @Parameter(description = "ETag de una respuesta anterior; si el titular no cambió se responde 304")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     );
 
     @Operation(
             summary = "Modificar un Titular por tipo y número de documento",
-            description = "Actualiza los datos de un titular identificándolo por su tipo y número de documento.",
+            description = "Actualiza los datos de un titular identificándolo por su tipo y número de documento. "
+                    + "Exige If-Match con el ETag de un GET anterior (sin él responde 428): la modificación solo se "
+                    + "aplica si el titular no cambió desde entonces; si cambió, o si otra modificación se confirma "
+                    + "al mismo tiempo, responde 412.",
             parameters = {
                     @Parameter(
                             name = "tipoDocumento",
@@ -399,6 +428,22 @@ public interface TitularApi {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorResponse.class)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "El titular cambió desde el ETag enviado en If-Match",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "428",
+                            description = "Falta la cabecera If-Match",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
                     )
             }
     )
@@ -406,17 +451,21 @@ public interface TitularApi {
     ResponseEntity<TitularResponseRecord> actualizarTitularPorDocumento(
             @RequestParam @NotNull TipoDocumento tipoDocumento,
             @RequestParam @NotBlank String numeroDocumento,
-            @Valid @RequestBody TitularRecord record
+            @Valid @RequestBody TitularRecord record,
+            @Parameter(description = "ETag de la versión que se modifica (obligatorio, sin él se responde 428); "
+                    + "si el titular cambió desde entonces se responde 412", required = true)
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     );
 
     @Operation(
             summary = "Listar titulares con licencias vigentes y filtros",
-            description = "Devuelve titulares que tienen al menos una licencia vigente. Se pueden aplicar filtros opcionales.",
+            description = "Devuelve titulares que tienen al menos una licencia vigente, una fila por licencia, ordenados por apellido y nombre. Se pueden aplicar filtros opcionales. Paginado por cursor: ver cabeceras Link (rel=\"next\") y X-Total-Count.",
             parameters = {
-                    @Parameter(name = "nombreApellido", description = "Filtro parcial por nombre o apellido", example = "Pérez"),
+                    @Parameter(name = "nombreApellido", description = "Prefijo de nombre, apellido o \"apellido nombre\", sin distinguir tildes ni mayúsculas", example = "Pérez"),
                     @Parameter(name = "grupoSanguineo", description = "Filtro por grupo sanguíneo (puede ser múltiple)", example = "A,B"),
                     @Parameter(name = "factorRh", description = "Filtro por factor RH", example = "POSITIVO"),
-                    @Parameter(name = "soloDonantes", description = "Si es true, devuelve solo donantes", example = "true")
+                    @Parameter(name = "soloDonantes", description = "Si es true, devuelve solo donantes", example = "true"),
+                    @Parameter(name = "phonetic", description = "Si es true, nombreApellido se compara por cómo suena: \"gonsales\" encuentra a González y Gonzáles", example = "true")
             }
     )
     @GetMapping("/licencias-vigentes")
@@ -424,8 +473,181 @@ public interface TitularApi {
             @RequestParam(required = false) String nombreApellido,
             @RequestParam(required = false) List<String> grupoSanguineo,
             @RequestParam(required = false) String factorRh,
-            @RequestParam(required = false) Boolean soloDonantes
+            @RequestParam(required = false) Boolean soloDonantes,
+            @RequestParam(defaultValue = "false") boolean phonetic,
+            @Parameter(description = "Cantidad máxima de filas por página (1 a 500)", example = "50")
+            @RequestParam(defaultValue = "50")
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = PaginaRecord.LIMITE_MAXIMO, message = "limit no puede superar 500") int limit,
+            @Parameter(description = "Cursor opaco de la página siguiente, tomado de la cabecera Link")
+            @RequestParam(required = false) String after
+    );
+
+    @Operation(
+            summary = "Exportar titulares con licencias vigentes (CSV o NDJSON)",
+            description = """
+            Descarga todas las filas del listado de titulares con licencias vigentes, con los mismos filtros,
+            sin paginar. Las filas se escriben a medida que se leen de la base; si el cliente envía
+            Accept-Encoding: gzip la respuesta se comprime al vuelo.
+            """,
+            parameters = {
+                    @Parameter(name = "nombreApellido", description = "Prefijo de nombre, apellido o \"apellido nombre\", sin distinguir tildes ni mayúsculas", example = "Pérez"),
+                    @Parameter(name = "grupoSanguineo", description = "Filtro por grupo sanguíneo (puede ser múltiple)", example = "A,B"),
+                    @Parameter(name = "factorRh", description = "Filtro por factor RH", example = "POSITIVO"),
+                    @Parameter(name = "soloDonantes", description = "Si es true, devuelve solo donantes", example = "true"),
+                    @Parameter(name = "phonetic", description = "Si es true, nombreApellido se compara por cómo suena: \"gonsales\" encuentra a González y Gonzáles", example = "true")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Archivo CSV (text/csv) o NDJSON (application/x-ndjson)"),
+                    @ApiResponse(responseCode = "400", description = "Formato o filtro inválido",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/licencias-vigentes/export")
+    ResponseEntity<StreamingResponseBody> exportarTitularesConLicenciasVigentes(
+            @RequestParam(required = false) String nombreApellido,
+            @RequestParam(required = false) List<String> grupoSanguineo,
+            @RequestParam(required = false) String factorRh,
+            @RequestParam(required = false) Boolean soloDonantes,
+            @RequestParam(defaultValue = "false") boolean phonetic,
+            @Parameter(description = "Formato de salida: csv o ndjson", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    );
+
+    @Operation(
+            summary = "Buscar titulares por texto",
+            description = """
+            Búsqueda de texto completo sobre nombre, apellido, número de documento y dirección. Cada palabra
+            puede coincidir exacta, por prefijo o de forma aproximada (errores de tipeo), sin distinguir
+            tildes ni mayúsculas. Los resultados vienen ordenados por relevancia; los cambios se reflejan
+            en el índice en menos de un segundo.
+            """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Titulares encontrados, de mayor a menor relevancia",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = TitularBusquedaResponseRecord.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Consulta o límite inválidos",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/search")
+    ResponseEntity<List<TitularBusquedaResponseRecord>> buscarTitulares(
+            @Parameter(description = "Texto a buscar", example = "gonzales ma")
+            @RequestParam @NotBlank(message = "q no puede estar vacío") String q,
+            @Parameter(description = "Cantidad máxima de resultados (1 a 100)", example = "20")
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = 100, message = "limit no puede superar 100") int limit
+    );
+
+    @Operation(
+            summary = "Autocompletar apellidos y números de documento",
+            description = """
+            Sugerencias para completar mientras se tipea: apellidos (sin distinguir tildes ni mayúsculas) y
+            números de documento (ignorando puntos y guiones) que empiezan con el prefijo, en orden alfabético
+            y con la cantidad de titulares de cada uno. Si el prefijo empieza con un dígito van primero los
+            documentos. Se resuelve en memoria, sin consultar la base.
+            """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Sugerencias encontradas",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = SugerenciaTitularRecord.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Prefijo o límite inválidos",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/autocomplete")
+    ResponseEntity<List<SugerenciaTitularRecord>> autocompletarTitulares(
+            @Parameter(description = "Comienzo del apellido o del número de documento", example = "gonz")
+            @RequestParam @NotBlank(message = "prefix no puede estar vacío") String prefix,
+            @Parameter(description = "Cantidad máxima de sugerencias (1 a 50)", example = "10")
+            @RequestParam(defaultValue = "10")
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = 50, message = "limit no puede superar 50") int limit
+    );
+
+    @Operation(
+            summary = "Importar titulares desde CSV (SUPER_USER)",
+            description = """
+            Carga masiva de titulares. El cuerpo es un CSV (UTF-8) con encabezado y las columnas nombre, apellido,
+            fechaNacimiento (AAAA-MM-DD), tipoDocumento, numeroDocumento, grupoSanguineo, factorRh, direccion,
+            donanteOrganos (true/false) y mail (opcional), en cualquier orden. Cada fila se valida como en el alta individual;
+            las inválidas o con un documento ya registrado (en la base o antes en el archivo) se rechazan y el resto
+            se inserta por lotes. La importación sigue en segundo plano: el progreso se consulta en la URL del
+            encabezado Location y el detalle de los rechazos en /rechazos. Una sola importación a la vez.
+            """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(mediaType = "text/csv", examples = @ExampleObject(name = "Titulares", value = """
+                            nombre,apellido,fechaNacimiento,tipoDocumento,numeroDocumento,grupoSanguineo,factorRh,direccion,donanteOrganos,mail
+                            Ana,García,1985-05-20,DNI,87654321,A,POSITIVO,"San Martín 1234, Ciudad",true,ana@mail.com
+                            """))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Importación iniciada",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ImportacionTitularesRecord.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Archivo vacío o encabezado inválido",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "409", description = "Ya hay una importación en curso",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @PostMapping(value = "/import", consumes = "text/csv")
+    ResponseEntity<ImportacionTitularesRecord> importarTitulares(
+            @Parameter(hidden = true) InputStream csv
+    ) throws IOException;
+
+    @Operation(
+            summary = "Consultar el progreso de una importación de titulares",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Líneas leídas, titulares insertados y rechazados hasta el momento",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ImportacionTitularesRecord.class))
+                    ),
+                    @ApiResponse(responseCode = "404", description = "Importación inexistente o ya depurada",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/import/{id}")
+    ResponseEntity<ImportacionTitularesRecord> consultarImportacion(
+            @Parameter(description = "Identificador de la importación") @PathVariable("id") UUID id
     );
 
+    @Operation(
+            summary = "Descargar los rechazos de una importación de titulares",
+            description = "CSV con linea, numeroDocumento y motivo de cada registro rechazado. Mientras la importación sigue en curso devuelve los rechazos encontrados hasta el momento.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Archivo CSV (text/csv)"),
+                    @ApiResponse(responseCode = "404", description = "Importación inexistente o ya depurada",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("/import/{id}/rechazos")
+    ResponseEntity<StreamingResponseBody> descargarRechazosImportacion(
+            @Parameter(description = "Identificador de la importación") @PathVariable("id") UUID id
+    );
 
+    @Operation(
+            summary = "Reconstruir el índice de búsqueda de titulares",
+            description = "Vuelve a cargar el índice desde la base (solo SUPER_USER). Mientras tanto las búsquedas siguen respondiendo con el índice anterior.",
+            responses = @ApiResponse(responseCode = "200", description = "Cantidad de titulares indexados",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "integer", format = "int64", example = "125000"))
+            )
+    )
+    @PostMapping("/search/reindex")
+    ResponseEntity<Long> reindexarTitulares();
 }
@@ -1,10 +1,12 @@
 package com.tpagiles.app_licencia.api;
 
 import com.tpagiles.app_licencia.dto.ErrorResponse;
+import com.tpagiles.app_licencia.dto.PaginaRecord;
 import com.tpagiles.app_licencia.dto.UsuarioRecord;
 import com.tpagiles.app_licencia.dto.UsuarioResponseRecord;
 import com.tpagiles.app_licencia.dto.UsuarioUpdateRecord;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,8 +14,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,6 +26,7 @@ import java.util.List;
 @Tag(name = "Usuarios", description = "Gestión de usuarios administrativos del sistema")
 @RequestMapping("/api/usuarios")
 @SecurityRequirement(name = "bearerAuth")
+@Validated
 public interface UsuarioApi {
 
     @Operation(
@@ -66,7 +72,7 @@ public interface UsuarioApi {
 
     @Operation(
             summary = "Listar usuarios",
-            description = "Obtiene la lista de todos los usuarios administrativos. Solo disponible para usuarios con rol SUPER_USER.",
+            description = "Obtiene la lista de usuarios administrativos (OPERADOR) ordenada por id. Paginado por cursor: ver cabeceras Link (rel=\"next\") y X-Total-Count. Solo disponible para usuarios con rol SUPER_USER.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -87,7 +93,14 @@ public interface UsuarioApi {
             }
     )
     @GetMapping
-    ResponseEntity<List<UsuarioResponseRecord>> listarUsuarios();
+    ResponseEntity<List<UsuarioResponseRecord>> listarUsuarios(
+            @Parameter(description = "Cantidad máxima de filas por página (1 a 500)", example = "50")
+            @RequestParam(defaultValue = "50")
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = PaginaRecord.LIMITE_MAXIMO, message = "limit no puede superar 500") int limit,
+            @Parameter(description = "Cursor opaco de la página siguiente, tomado de la cabecera Link")
+            @RequestParam(required = false) String after
+    );
 
     @Operation(
             summary = "Modificar usuario existente",
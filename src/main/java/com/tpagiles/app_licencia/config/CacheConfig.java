@@ -0,0 +1,95 @@
+package com.tpagiles.app_licencia.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache, con Caffeine en la memoria de cada nodo.
+ * Las regiones se crean acá con su tamaño máximo (al llenarse se desalojan las entradas menos
+ * usadas) y su expiración. Con varios nodos cada uno tiene su propia caché: un cambio hecho en
+ * otro nodo se ve, como mucho, cuando expira la entrada.
+ */
+@Configuration
+public class CacheConfig {
+
+    private record Region(String nombre, long maxEntradas, long expiracionSegundos) {
+    }
+
+    // valores por defecto; 0 = sin límite / sin expiración
+    private static final List<Region> REGIONES = List.of(
+            new Region(RegionesCache.USUARIOS, 1_000, 300),
+            new Region(RegionesCache.USUARIOS_ROLES, 1_000, 300),
+            new Region(RegionesCache.USUARIOS_MAIL, 1_000, 300),
+            new Region(RegionesCache.TITULARES, 50_000, 600),
+            new Region(RegionesCache.CONSULTAS, 1_000, 600)
+    );
+
+    /**
+     * No se cierra desde Spring: lo cierra Hibernate al cerrar la SessionFactory.
+     */
+    @Bean(destroyMethod = "")
+    public CacheManager cacheManagerSegundoNivel(Environment env) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager();
+        for (Region region : REGIONES) {
+            CaffeineConfiguration<Object, Object> configuracion = configuracion(env, region);
+            crearSiFalta(cacheManager, region.nombre(), configuracion);
+            if (region.nombre().equals(RegionesCache.CONSULTAS)) {
+                // consultas cacheables sin región propia: mismas cotas
+                crearSiFalta(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, configuracion);
+            }
+        }
+        // última escritura por tabla, contra la que se validan las consultas cacheadas: no debe perder entradas
+        crearSiFalta(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, configuracion(0, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+    }
+
+    // el CacheManager del proveedor es único por class loader: otro contexto (tests) pudo crearlas antes
+    private static void crearSiFalta(CacheManager cacheManager, String nombre,
+                                     CaffeineConfiguration<Object, Object> configuracion) {
+        if (cacheManager.getCache(nombre) == null) {
+            cacheManager.createCache(nombre, configuracion);
+        }
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(Environment env, Region region) {
+        String prefijo = "app.cache.regiones." + region.nombre() + ".";
+        long maxEntradas = env.getProperty(prefijo + "max-entradas", Long.class, region.maxEntradas());
+        long expiracion = env.getProperty(prefijo + "expiracion-segundos", Long.class, region.expiracionSegundos());
+        if (maxEntradas < 0 || expiracion < 0) {
+            throw new IllegalArgumentException(prefijo + "* no puede ser negativo");
+        }
+        return configuracion(maxEntradas, expiracion);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(long maxEntradas, long expiracionSegundos) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        // Hibernate guarda entradas que no modifica: no hace falta copiarlas en cada lectura
+        configuracion.setStoreByValue(false);
+        if (maxEntradas > 0) {
+            configuracion.setMaximumSize(OptionalLong.of(maxEntradas));
+        }
+        if (expiracionSegundos > 0) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(expiracionSegundos)));
+        }
+        return configuracion;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tpagiles.app_licencia.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpagiles.app_licencia.security.IdempotenciaFilter;
+import com.tpagiles.app_licencia.service.IIdempotenciaStore;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+@Configuration
+public class IdempotenciaConfig {
+
+    // endpoints de creación que aceptan Idempotency-Key
+    private static final Set<String> RUTAS = Set.of(
+            "/api/licencias",
+            "/api/licencias/copias",
+            "/api/licencias/lote",
+            "/api/titulares"
+    );
+
+    // se registra después de la cadena de Spring Security para poder aislar la clave por usuario
+    @Bean
+    public FilterRegistrationBean<IdempotenciaFilter> idempotenciaFilter(IIdempotenciaStore store,
+                                                                         ErrorResponseFactory factory,
+                                                                         ObjectMapper mapper) {
+        FilterRegistrationBean<IdempotenciaFilter> registro =
+                new FilterRegistrationBean<>(new IdempotenciaFilter(store, RUTAS, factory, mapper));
+        registro.addUrlPatterns("/api/licencias", "/api/licencias/*", "/api/titulares");
+        registro.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registro;
+    }
+}
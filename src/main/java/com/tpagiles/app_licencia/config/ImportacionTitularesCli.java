@@ -0,0 +1,58 @@
+package com.tpagiles.app_licencia.config;
+
+import com.tpagiles.app_licencia.dto.ImportacionTitularesRecord;
+import com.tpagiles.app_licencia.model.enums.EstadoImportacion;
+import com.tpagiles.app_licencia.service.IImportacionTitularesService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Importación de titulares por línea de comandos, para migraciones que no conviene subir por HTTP:
+ * <pre>
+ * java -jar app-licencia.jar --spring.main.web-application-type=none \
+ *      --importar-titulares=padron.csv [--rechazos=padron.rechazos.csv]
+ * </pre>
+ * Importa el archivo, deja los rechazos al lado (o donde indique {@code --rechazos}) y termina con
+ * código 0 si la importación se completó, aunque haya filas rechazadas, o 1 si falló.
+ * Sin {@code --importar-titulares} no hace nada.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportacionTitularesCli implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionTitularesCli.class);
+
+    private static final String OPCION_ARCHIVO = "importar-titulares";
+    private static final String OPCION_RECHAZOS = "rechazos";
+
+    private final IImportacionTitularesService importacion;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(OPCION_ARCHIVO)) {
+            return;
+        }
+        Path csv = Path.of(args.getOptionValues(OPCION_ARCHIVO).getFirst());
+        Path rechazos = args.containsOption(OPCION_RECHAZOS)
+                ? Path.of(args.getOptionValues(OPCION_RECHAZOS).getFirst())
+                : csv.resolveSibling(csv.getFileName() + ".rechazos.csv");
+
+        ImportacionTitularesRecord resultado = importacion.importar(csv, rechazos);
+        logger.info("Importación de {}: {} titulares insertados, {} rechazados (detalle en {})",
+                csv, resultado.insertados(), resultado.rechazados(), rechazos);
+        if (resultado.error() != null) {
+            logger.error("La importación falló: {}", resultado.error());
+        }
+        int codigo = resultado.estado() == EstadoImportacion.COMPLETADA ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> codigo));
+    }
+}
@@ -55,6 +55,14 @@ public class OpenApiConfig {
                 .build();
     }
 
+    @Bean
+    public GroupedOpenApi estadisticasGroup() {
+        return GroupedOpenApi.builder()
+                .group("estadisticas")
+                .pathsToMatch("/api/estadisticas/**")
+                .build();
+    }
+
     @Bean
     public GroupedOpenApi allApi() {
         return GroupedOpenApi.builder()
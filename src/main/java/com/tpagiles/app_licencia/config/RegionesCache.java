@@ -0,0 +1,19 @@
+package com.tpagiles.app_licencia.config;
+
+/**
+ * Nombres de las regiones de la caché de segundo nivel. Cada una se dimensiona con
+ * {@code app.cache.regiones.<region>.max-entradas} y {@code .expiracion-segundos} (ver {@link CacheConfig}).
+ */
+public final class RegionesCache {
+
+    public static final String USUARIOS = "usuarios";
+    public static final String USUARIOS_ROLES = "usuarios-roles";
+    // mail → id del usuario
+    public static final String USUARIOS_MAIL = "usuarios-mail";
+    public static final String TITULARES = "titulares";
+    // resultados de las consultas marcadas como cacheables
+    public static final String CONSULTAS = "consultas";
+
+    private RegionesCache() {
+    }
+}
@@ -5,6 +5,7 @@ import com.tpagiles.app_licencia.dto.ErrorResponse;
 import com.tpagiles.app_licencia.model.enums.Rol;
 import com.tpagiles.app_licencia.security.JwtAuthenticationFilter;
 import com.tpagiles.app_licencia.service.JwtService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.*;
 import org.springframework.http.*;
@@ -44,6 +45,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // el dispatch ASYNC que cierra una exportación en streaming ya se autorizó en el REQUEST original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
@@ -55,10 +58,14 @@ public class SecurityConfig {
                         .hasAnyRole(Rol.OPERADOR.name(), Rol.SUPER_USER.name())
                         .requestMatchers(HttpMethod.POST,  "/api/licencias/**")
                         .hasAnyRole(Rol.OPERADOR.name(), Rol.SUPER_USER.name())
+                        .requestMatchers(HttpMethod.POST, "/api/titulares/search/reindex")
+                        .hasRole(Rol.SUPER_USER.name())
                         .requestMatchers(HttpMethod.POST, "/api/titulares/**")
                         .hasAnyRole(Rol.OPERADOR.name(), Rol.SUPER_USER.name())
                         .requestMatchers(HttpMethod.GET, "/api/titulares/**")
                         .hasAnyRole(Rol.OPERADOR.name(), Rol.SUPER_USER.name())
+                        .requestMatchers(HttpMethod.GET, "/api/estadisticas/**")
+                        .hasAnyRole(Rol.OPERADOR.name(), Rol.SUPER_USER.name())
                         .anyRequest().hasRole(Rol.SUPER_USER.name())
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -103,7 +110,7 @@ public class SecurityConfig {
         config.setAllowedOrigins(List.of("http://localhost:3000")); // poner explícito
         config.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS","PATCH"));
         config.setAllowedHeaders(List.of("*"));
-        config.setExposedHeaders(List.of("Authorization", "Link", "X-Total-Count"));
+        config.setExposedHeaders(List.of("Authorization", "ETag", "Link", "X-Total-Count", "Idempotent-Replayed"));
         config.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource src = new UrlBasedCorsConfigurationSource();
         src.registerCorsConfiguration("/**", config);
@@ -0,0 +1,39 @@
+package com.tpagiles.app_licencia.controllers;
+
+import com.tpagiles.app_licencia.api.CacheApi;
+import com.tpagiles.app_licencia.dto.RegionCacheRecord;
+import com.tpagiles.app_licencia.service.ICacheSegundoNivelService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheController implements CacheApi {
+
+    private final ICacheSegundoNivelService cacheService;
+
+    @Override
+    @PreAuthorize("hasRole('SUPER_USER')")
+    public ResponseEntity<List<RegionCacheRecord>> estadisticasCache() {
+        return ResponseEntity.ok(cacheService.estadisticas());
+    }
+
+    @Override
+    @PreAuthorize("hasRole('SUPER_USER')")
+    public ResponseEntity<Void> vaciarRegion(@PathVariable("region") String region) {
+        cacheService.vaciar(region);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('SUPER_USER')")
+    public ResponseEntity<Void> vaciarCache() {
+        cacheService.vaciarTodas();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.tpagiles.app_licencia.controllers;
+
+import org.springframework.http.CacheControl;
+
+/**
+ * ETag fuertes de titulares y evaluación de If-None-Match / If-Match (RFC 9110, sección 13.1).
+ * El ETag es {@code "<id>-<version>"}: incluye el id porque la búsqueda por documento puede
+ * pasar a devolver otro titular (baja y alta con el mismo número) con la misma versión.
+ */
+final class CondicionalHeaders {
+
+    // el navegador puede guardar la respuesta, pero la revalida siempre con If-None-Match
+    static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    private CondicionalHeaders() {
+    }
+
+    static String etag(Long id, Long version) {
+        return "\"" + id + "-" + (version != null ? version : 0) + "\"";
+    }
+
+    /**
+     * If-None-Match usa comparación débil: {@code W/"1-3"} coincide con {@code "1-3"}.
+     */
+    static boolean coincideIfNoneMatch(String ifNoneMatch, String etag) {
+        return coincide(ifNoneMatch, etag, false);
+    }
+
+    /**
+     * If-Match usa comparación fuerte: un ETag débil nunca coincide.
+     */
+    static boolean coincideIfMatch(String ifMatch, String etag) {
+        return coincide(ifMatch, etag, true);
+    }
+
+    private static boolean coincide(String cabecera, String etag, boolean fuerte) {
+        for (String candidato : cabecera.split(",")) {
+            String valor = candidato.strip();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                if (fuerte) {
+                    continue;
+                }
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.tpagiles.app_licencia.controllers;
+
+import com.tpagiles.app_licencia.api.EstadisticasApi;
+import com.tpagiles.app_licencia.dto.FacetasResponseRecord;
+import com.tpagiles.app_licencia.model.enums.UnidadFacetas;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class EstadisticasController implements EstadisticasApi {
+
+    private final IFacetasService facetasService;
+
+    @Override
+    public ResponseEntity<FacetasResponseRecord> contarPorFacetas(
+            @RequestParam(required = false) String filtro,
+            @RequestParam(defaultValue = "licencias") String unidad) {
+        return ResponseEntity.ok(facetasService.contar(filtro, UnidadFacetas.desde(unidad)));
+    }
+}
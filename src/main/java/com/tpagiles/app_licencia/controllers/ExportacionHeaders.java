@@ -0,0 +1,57 @@
+package com.tpagiles.app_licencia.controllers;
+
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuesta de los endpoints de exportación: el cuerpo se escribe mientras se lee la consulta
+ * y se comprime con gzip al vuelo si el cliente lo acepta.
+ */
+final class ExportacionHeaders {
+
+    @FunctionalInterface
+    interface Exportacion {
+        void escribir(OutputStream out) throws IOException;
+    }
+
+    private ExportacionHeaders() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> respuesta(FormatoExportacion formato,
+                                                           String acceptEncoding,
+                                                           String nombreArchivo,
+                                                           Exportacion exportacion) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody cuerpo = out -> {
+            if (gzip) {
+                // syncFlush: cada flush del exportador llega comprimido al cliente sin esperar al final
+                GZIPOutputStream comprimido = new GZIPOutputStream(out, 8192, true);
+                exportacion.escribir(comprimido);
+                comprimido.finish();
+            } else {
+                exportacion.escribir(out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(nombreArchivo + "." + formato.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+}
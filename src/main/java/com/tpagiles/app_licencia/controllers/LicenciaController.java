@@ -2,32 +2,70 @@ package com.tpagiles.app_licencia.controllers;
 
 import com.tpagiles.app_licencia.api.LicenciaApi;
 import com.tpagiles.app_licencia.dto.*;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.service.IEmisionAsyncService;
+import com.tpagiles.app_licencia.service.ILicenciaLoteService;
 import com.tpagiles.app_licencia.service.ILicenciaService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequiredArgsConstructor
 public class LicenciaController implements LicenciaApi {
 
     private final ILicenciaService licenciaService;
+    private final ILicenciaLoteService licenciaLoteService;
+    private final IEmisionAsyncService emisionAsyncService;
 
     @Override
     public ResponseEntity<LicenciaResponseRecord> emitirLicencia(@Valid @RequestBody LicenciaRecord record) {
         LicenciaResponseRecord resp = licenciaService.emitirLicencia(record);
         return ResponseEntity.status(HttpStatus.CREATED).body(resp);
     }
+
+    @Override
+    public ResponseEntity<LoteLicenciasResponseRecord> emitirLote(@Valid @RequestBody LoteLicenciasRequest request) {
+        return ResponseEntity.ok(licenciaLoteService.emitirLote(request.licencias()));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportarVencidas(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        FormatoExportacion formato = FormatoExportacion.desde(format);
+        return ExportacionHeaders.respuesta(formato, acceptEncoding, "licencias-vencidas",
+                out -> licenciaService.exportarLicenciasVencidas(formato, out));
+    }
+
+    @Override
+    public ResponseEntity<TicketEmisionRecord> emitirLicenciaAsync(@Valid @RequestBody LicenciaRecord record) {
+        TicketEmisionRecord ticket = emisionAsyncService.encolar(record);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/licencias/tickets/" + ticket.id()))
+                .body(ticket);
+    }
+
+    @Override
+    public ResponseEntity<TicketEmisionRecord> consultarTicket(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(emisionAsyncService.consultar(id));
+    }
+
     @Override
-    public ResponseEntity<List<LicenciaResponseRecord>> listarVencidas() {
-        List<LicenciaResponseRecord> list = licenciaService.listarLicenciasVencidas();
-        return ResponseEntity.ok(list);
+    public ResponseEntity<List<LicenciaResponseRecord>> listarVencidas(
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after) {
+        return PaginacionHeaders.ok(licenciaService.listarLicenciasVencidas(limit, after), limit);
     }
 
     @Override
@@ -0,0 +1,33 @@
+package com.tpagiles.app_licencia.controllers;
+
+import com.tpagiles.app_licencia.dto.PaginaRecord;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Respuesta de los listados paginados: el cuerpo sigue siendo el arreglo de filas y la
+ * paginación va en las cabeceras Link (rel="next") y X-Total-Count.
+ */
+final class PaginacionHeaders {
+
+    static final String TOTAL_COUNT = "X-Total-Count";
+
+    private PaginacionHeaders() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(PaginaRecord<T> pagina, int limit) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .header(TOTAL_COUNT, String.valueOf(pagina.total()));
+        if (pagina.siguienteCursor() != null) {
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("limit", limit)
+                    .replaceQueryParam("after", pagina.siguienteCursor())
+                    .toUriString();
+            respuesta.header(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
+        }
+        return respuesta.body(pagina.items());
+    }
+}
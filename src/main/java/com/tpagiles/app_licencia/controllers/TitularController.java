@@ -1,17 +1,32 @@
 package com.tpagiles.app_licencia.controllers;
 
 import com.tpagiles.app_licencia.api.TitularApi;
+import com.tpagiles.app_licencia.dto.FiltroTitularesVigentesRecord;
+import com.tpagiles.app_licencia.dto.ImportacionTitularesRecord;
+import com.tpagiles.app_licencia.dto.SugerenciaTitularRecord;
+import com.tpagiles.app_licencia.dto.TitularBusquedaResponseRecord;
 import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
 import com.tpagiles.app_licencia.dto.TitularRecord;
 import com.tpagiles.app_licencia.dto.TitularResponseRecord;
+import com.tpagiles.app_licencia.dto.VersionTitularRecord;
+import com.tpagiles.app_licencia.exception.PrecondicionRequeridaException;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.service.IImportacionTitularesService;
 import com.tpagiles.app_licencia.service.ITitularService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
 
 
 @RestController
@@ -19,6 +34,8 @@ import java.util.List;
 public class TitularController implements TitularApi {
 
     private final ITitularService titularService;
+    private final IImportacionTitularesService importacionService;
+
     @Override
     public ResponseEntity<TitularResponseRecord> crearTitular(
             @Valid @RequestBody TitularRecord record
@@ -29,9 +46,17 @@ public class TitularController implements TitularApi {
                 .body(TitularResponseRecord.fromEntity(titular));
     }
     @Override
-    public ResponseEntity<TitularResponseRecord> obtenerTitular(@PathVariable Long id) {
-        var titular = titularService.obtenerPorId(id);
-        return ResponseEntity.ok(TitularResponseRecord.fromEntity(titular));
+    public ResponseEntity<TitularResponseRecord> obtenerTitular(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // 304 con una consulta de la versión, sin cargar ni serializar el titular
+        if (ifNoneMatch != null) {
+            ResponseEntity<TitularResponseRecord> sinCambios = sinCambios(titularService.obtenerVersion(id), ifNoneMatch);
+            if (sinCambios != null) {
+                return sinCambios;
+            }
+        }
+        return conEtag(HttpStatus.OK, titularService.obtenerPorId(id));
     }
 
     @Override
@@ -42,18 +67,33 @@ public class TitularController implements TitularApi {
     @Override
     public ResponseEntity<TitularResponseRecord> buscarPorTipoYNumeroDocumento(
             @RequestParam TipoDocumento tipoDocumento,
-            @RequestParam String numeroDocumento) {
-
+            @RequestParam String numeroDocumento,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            ResponseEntity<TitularResponseRecord> sinCambios = sinCambios(
+                    titularService.obtenerVersionPorDocumento(tipoDocumento, numeroDocumento), ifNoneMatch);
+            if (sinCambios != null) {
+                return sinCambios;
+            }
+        }
         var titular = titularService.obtenerPorTipoYNumeroDocumento(tipoDocumento, numeroDocumento);
-        return ResponseEntity.ok(TitularResponseRecord.fromEntity(titular));
+        return conEtag(HttpStatus.OK, titular);
     }
     @Override
     public ResponseEntity<TitularResponseRecord> actualizarTitularPorDocumento(
             @RequestParam TipoDocumento tipoDocumento,
             @RequestParam String numeroDocumento,
-            @RequestBody TitularRecord record) {
-        var actualizado = titularService.actualizarTitularPorDocumento(tipoDocumento, numeroDocumento, record);
-        return ResponseEntity.ok(TitularResponseRecord.fromEntity(actualizado));
+            @RequestBody TitularRecord record,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // sin If-Match la modificación pisaría a ciegas lo que otro haya guardado
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new PrecondicionRequeridaException(
+                    "Falta la cabecera If-Match con el ETag del titular que se modifica");
+        }
+        Predicate<Titular> precondicion = actual -> CondicionalHeaders.coincideIfMatch(ifMatch,
+                CondicionalHeaders.etag(actual.getId(), actual.getVersion()));
+        var actualizado = titularService.actualizarTitularPorDocumento(tipoDocumento, numeroDocumento, record, precondicion);
+        return conEtag(HttpStatus.OK, actualizado);
     }
 
     @Override
@@ -61,12 +101,96 @@ public class TitularController implements TitularApi {
             @RequestParam(required = false) String nombreApellido,
             @RequestParam(required = false) List<String> grupoSanguineo,
             @RequestParam(required = false) String factorRh,
-            @RequestParam(required = false) Boolean soloDonantes) {
+            @RequestParam(required = false) Boolean soloDonantes,
+            @RequestParam(defaultValue = "false") boolean phonetic,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after) {
+
+        var pagina = titularService.buscarTitularesConLicenciasVigentes(
+                nombreApellido, grupoSanguineo, factorRh, soloDonantes, phonetic, limit, after);
+
+        return PaginacionHeaders.ok(pagina, limit);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportarTitularesConLicenciasVigentes(
+            @RequestParam(required = false) String nombreApellido,
+            @RequestParam(required = false) List<String> grupoSanguineo,
+            @RequestParam(required = false) String factorRh,
+            @RequestParam(required = false) Boolean soloDonantes,
+            @RequestParam(defaultValue = "false") boolean phonetic,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // se valida todo antes de confirmar el 200: dentro del cuerpo un error ya no llega al cliente
+        FormatoExportacion formato = FormatoExportacion.desde(format);
+        FiltroTitularesVigentesRecord filtro = FiltroTitularesVigentesRecord.desde(
+                nombreApellido, grupoSanguineo, factorRh, soloDonantes, phonetic);
+        return ExportacionHeaders.respuesta(formato, acceptEncoding, "titulares-licencias-vigentes",
+                out -> titularService.exportarTitularesConLicenciasVigentes(filtro, formato, out));
+    }
 
-        List<TitularLicenciaVigenteResponseRecord> list = titularService
-                .buscarTitularesConLicenciasVigentes(nombreApellido, grupoSanguineo, factorRh, soloDonantes);
+    @Override
+    public ResponseEntity<List<TitularBusquedaResponseRecord>> buscarTitulares(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(titularService.buscarTitulares(q, limit));
+    }
 
-        return ResponseEntity.ok(list);
+    @Override
+    public ResponseEntity<List<SugerenciaTitularRecord>> autocompletarTitulares(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(titularService.sugerirTitulares(prefix, limit));
     }
 
+    @Override
+    public ResponseEntity<ImportacionTitularesRecord> importarTitulares(InputStream csv) throws IOException {
+        ImportacionTitularesRecord importacion = importacionService.iniciar(csv);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/titulares/import/" + importacion.id()))
+                .body(importacion);
+    }
+
+    @Override
+    public ResponseEntity<ImportacionTitularesRecord> consultarImportacion(@PathVariable("id") UUID id) {
+        return ResponseEntity.ok(importacionService.consultar(id));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> descargarRechazosImportacion(@PathVariable("id") UUID id) {
+        // 404 antes de empezar a escribir la respuesta
+        importacionService.consultar(id);
+        StreamingResponseBody cuerpo = out -> importacionService.escribirRechazos(id, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("rechazos-" + id + ".csv")
+                        .build()
+                        .toString())
+                .body(cuerpo);
+    }
+
+    @Override
+    public ResponseEntity<Long> reindexarTitulares() {
+        return ResponseEntity.ok(titularService.reindexarTitulares());
+    }
+
+    private static ResponseEntity<TitularResponseRecord> conEtag(HttpStatus status, Titular titular) {
+        return ResponseEntity.status(status)
+                .eTag(CondicionalHeaders.etag(titular.getId(), titular.getVersion()))
+                .cacheControl(CondicionalHeaders.REVALIDAR)
+                .body(TitularResponseRecord.fromEntity(titular));
+    }
+
+    // null si el ETag actual no está en If-None-Match y hay que devolver el titular
+    private static ResponseEntity<TitularResponseRecord> sinCambios(VersionTitularRecord actual, String ifNoneMatch) {
+        String etag = CondicionalHeaders.etag(actual.id(), actual.version());
+        if (!CondicionalHeaders.coincideIfNoneMatch(ifNoneMatch, etag)) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CondicionalHeaders.REVALIDAR)
+                .build();
+    }
 }
@@ -12,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -34,9 +35,10 @@ public class UsuarioController implements UsuarioApi {
 
     @Override
     @PreAuthorize("hasRole('SUPER_USER')")
-    public ResponseEntity<List<UsuarioResponseRecord>> listarUsuarios() {
-        var usuarios = usuarioService.listarTodos();
-        return ResponseEntity.ok(usuarios);
+    public ResponseEntity<List<UsuarioResponseRecord>> listarUsuarios(
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after) {
+        return PaginacionHeaders.ok(usuarioService.listarTodos(limit, after), limit);
     }
 
     @Override
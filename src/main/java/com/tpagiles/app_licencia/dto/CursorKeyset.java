@@ -0,0 +1,62 @@
+package com.tpagiles.app_licencia.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Posición de la última fila de una página: los valores de la clave de orden más el id como desempate.
+ * Viaja al cliente como un token opaco en base64url.
+ */
+public record CursorKeyset(List<String> claves, long id) {
+
+    private static final String SEPARADOR = "\u001F";
+
+    public static CursorKeyset de(long id, String... claves) {
+        return new CursorKeyset(List.of(claves), id);
+    }
+
+    public String codificar() {
+        String plano = claves.isEmpty() ? String.valueOf(id) : String.join(SEPARADOR, claves) + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null si no se envió cursor (primera página)
+     * @throws IllegalArgumentException si el cursor no corresponde al listado
+     */
+    public static CursorKeyset decodificar(String cursor, int cantidadClaves) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] partes = plano.split(SEPARADOR, -1);
+            if (partes.length != cantidadClaves + 1) {
+                throw new IllegalArgumentException("Cursor de paginación inválido");
+            }
+            return new CursorKeyset(
+                    List.of(Arrays.copyOf(partes, cantidadClaves)),
+                    Long.parseLong(partes[cantidadClaves]));
+        } catch (IllegalArgumentException e) {
+            // incluye base64 mal formado y NumberFormatException
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+
+    public String clave(int indice) {
+        return claves.get(indice);
+    }
+
+    public LocalDate fecha(int indice) {
+        try {
+            return LocalDate.parse(claves.get(indice));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Resumen del historial de licencias de un titular, suficiente para decidir
+ * si se le puede emitir una nueva licencia sin volver a consultar la base.
+ *
+ * @param titular                 entidad del titular
+ * @param clasesEmitidas          clases que el titular tuvo alguna vez
+ * @param clasesVigentes          clases con una licencia vigente y no vencida a la fecha
+ * @param primeraEmisionBVigente  fecha de emisión más antigua entre sus licencias B vigentes (o null)
+ */
+public record ElegibilidadTitularRecord(
+        Titular titular,
+        Set<ClaseLicencia> clasesEmitidas,
+        Set<ClaseLicencia> clasesVigentes,
+        LocalDate primeraEmisionBVigente
+) {
+
+    /**
+     * Agrupa las filas de historial por titular y arma un resumen para cada uno.
+     */
+    public static Map<Long, ElegibilidadTitularRecord> agrupar(List<HistorialLicenciaRecord> filas, LocalDate hoy) {
+        Map<Long, Titular> titulares = new HashMap<>();
+        Map<Long, Set<ClaseLicencia>> emitidas = new HashMap<>();
+        Map<Long, Set<ClaseLicencia>> vigentes = new HashMap<>();
+        Map<Long, LocalDate> primerasB = new HashMap<>();
+
+        for (HistorialLicenciaRecord fila : filas) {
+            Long id = fila.titular().getId();
+            titulares.putIfAbsent(id, fila.titular());
+            emitidas.computeIfAbsent(id, k -> EnumSet.noneOf(ClaseLicencia.class));
+            vigentes.computeIfAbsent(id, k -> EnumSet.noneOf(ClaseLicencia.class));
+            if (fila.clase() == null) {
+                continue; // titular sin licencias
+            }
+            emitidas.get(id).add(fila.clase());
+            boolean vigente = Boolean.TRUE.equals(fila.vigente());
+            if (vigente && fila.fechaVencimiento().isAfter(hoy)) {
+                vigentes.get(id).add(fila.clase());
+            }
+            if (vigente && fila.clase() == ClaseLicencia.B) {
+                primerasB.merge(id, fila.fechaEmision(), (a, b) -> a.isBefore(b) ? a : b);
+            }
+        }
+
+        Map<Long, ElegibilidadTitularRecord> resultado = new HashMap<>();
+        titulares.forEach((id, titular) -> resultado.put(id, new ElegibilidadTitularRecord(
+                titular,
+                Collections.unmodifiableSet(emitidas.get(id)),
+                Collections.unmodifiableSet(vigentes.get(id)),
+                primerasB.get(id)
+        )));
+        return resultado;
+    }
+
+    public boolean tieneVigente(ClaseLicencia clase) {
+        return clasesVigentes.contains(clase);
+    }
+
+    public boolean tuvoAlgunaClase(ClaseLicencia... clases) {
+        for (ClaseLicencia clase : clases) {
+            if (clasesEmitidas.contains(clase)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * True si tiene una licencia B vigente emitida hace más de un año.
+     */
+    public boolean tieneLicenciaBConAntiguedad(LocalDate hoy) {
+        return primeraEmisionBVigente != null && primeraEmisionBVigente.isBefore(hoy.minusYears(1));
+    }
+
+    /**
+     * Devuelve un nuevo resumen que incluye una licencia recién emitida de la clase indicada.
+     */
+    public ElegibilidadTitularRecord conEmision(ClaseLicencia clase, LocalDate fechaEmision) {
+        Set<ClaseLicencia> nuevasEmitidas = EnumSet.noneOf(ClaseLicencia.class);
+        nuevasEmitidas.addAll(clasesEmitidas);
+        nuevasEmitidas.add(clase);
+        Set<ClaseLicencia> nuevasVigentes = EnumSet.noneOf(ClaseLicencia.class);
+        nuevasVigentes.addAll(clasesVigentes);
+        nuevasVigentes.add(clase);
+        LocalDate primeraB = primeraEmisionBVigente;
+        if (clase == ClaseLicencia.B && primeraB == null) {
+            primeraB = fechaEmision;
+        }
+        return new ElegibilidadTitularRecord(
+                titular,
+                Collections.unmodifiableSet(nuevasEmitidas),
+                Collections.unmodifiableSet(nuevasVigentes),
+                primeraB
+        );
+    }
+}
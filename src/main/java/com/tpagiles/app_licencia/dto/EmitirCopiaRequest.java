@@ -16,7 +16,8 @@ public record EmitirCopiaRequest(
         @Size(max = 200)
         String motivo,
 
-        @Schema(description = "Username del emisor", example = "admin@municipio.gob", requiredMode = Schema.RequiredMode.REQUIRED)
-        @NotBlank
+        @Schema(description = "Username del emisor. Si se omite se usa el usuario autenticado; solo un SUPER_USER puede indicar otro",
+                example = "admin@municipio.gob", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+        @Size(max = 100)
         String emisor
 ) {}
@@ -0,0 +1,14 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+
+/**
+ * Atributos de una licencia que se indexan en los bitmaps de facetas.
+ */
+public record FacetaLicenciaRecord(
+        Long id,
+        Long titularId,
+        ClaseLicencia clase,
+        boolean vigente
+) {
+}
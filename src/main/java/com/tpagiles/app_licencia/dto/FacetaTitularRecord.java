@@ -0,0 +1,15 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+
+/**
+ * Atributos de un titular que se indexan en los bitmaps de facetas.
+ */
+public record FacetaTitularRecord(
+        Long id,
+        GrupoSanguineo grupoSanguineo,
+        FactorRh factorRh,
+        boolean donanteOrganos
+) {
+}
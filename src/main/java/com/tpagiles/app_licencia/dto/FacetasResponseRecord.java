@@ -0,0 +1,17 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.UnidadFacetas;
+
+import java.util.Map;
+
+/**
+ * Resultado de un conteo por facetas: el total que cumple el filtro y, para cada faceta,
+ * cuántos de ellos tienen cada valor.
+ */
+public record FacetasResponseRecord(
+        String filtro,
+        UnidadFacetas unidad,
+        long total,
+        Map<String, Map<String, Long>> facetas
+) {
+}
@@ -0,0 +1,58 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+
+import java.util.List;
+
+/**
+ * Filtros del listado de titulares con licencias vigentes; los null (o la lista vacía) no filtran.
+ * Con {@code fonetico}, nombreApellido se compara por cómo suena (ver CodificadorFonetico).
+ */
+public record FiltroTitularesVigentesRecord(String nombreApellido,
+                                            List<GrupoSanguineo> gruposSanguineos,
+                                            FactorRh factorRh,
+                                            Boolean soloDonantes,
+                                            boolean fonetico) {
+
+    /**
+     * Arma el filtro a partir de los parámetros de la solicitud.
+     *
+     * @throws IllegalArgumentException si un grupo sanguíneo o el factor Rh no son válidos
+     */
+    public static FiltroTitularesVigentesRecord desde(String nombreApellido, List<String> grupoSanguineoParam,
+                                                      String factorRhParam, Boolean soloDonantes, boolean fonetico) {
+        return new FiltroTitularesVigentesRecord(
+                nombreApellido,
+                parsearGruposSanguineos(grupoSanguineoParam),
+                parsearFactorRh(factorRhParam),
+                soloDonantes,
+                fonetico);
+    }
+
+    // Convertir List<String> → List<GrupoSanguineo>
+    private static List<GrupoSanguineo> parsearGruposSanguineos(List<String> grupoSanguineoParam) {
+        if (grupoSanguineoParam == null || grupoSanguineoParam.isEmpty()) {
+            return null;
+        }
+        return grupoSanguineoParam.stream()
+                .map(s -> parsear(GrupoSanguineo.class, s, "Grupo sanguíneo inválido: "))
+                .toList();
+    }
+
+    // Convertir String → FactorRh
+    private static FactorRh parsearFactorRh(String factorRhParam) {
+        if (factorRhParam == null || factorRhParam.isBlank()) {
+            return null;
+        }
+        return parsear(FactorRh.class, factorRhParam, "Factor Rh inválido: ");
+    }
+
+    private static <E extends Enum<E>> E parsear(Class<E> tipo, String valor, String mensaje) {
+        try {
+            return Enum.valueOf(tipo, valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(mensaje + valor);
+        }
+    }
+}
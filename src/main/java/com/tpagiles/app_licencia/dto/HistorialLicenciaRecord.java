@@ -0,0 +1,19 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de proyección: un titular junto con los datos mínimos de una de sus licencias.
+ * Si el titular no tiene licencias, los campos de la licencia llegan en null (LEFT JOIN).
+ */
+public record HistorialLicenciaRecord(
+        Titular titular,
+        ClaseLicencia clase,
+        Boolean vigente,
+        LocalDate fechaEmision,
+        LocalDate fechaVencimiento
+) {
+}
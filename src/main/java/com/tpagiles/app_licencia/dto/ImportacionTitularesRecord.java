@@ -0,0 +1,50 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.tpagiles.app_licencia.model.enums.EstadoImportacion;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+        "id",
+        "estado",
+        "iniciada",
+        "finalizada",
+        "lineasLeidas",
+        "insertados",
+        "rechazados",
+        "error"
+})
+@Schema(description = "Progreso de una importación masiva de titulares desde CSV")
+public record ImportacionTitularesRecord(
+
+        @Schema(description = "Identificador de la importación", example = "3f2b9c1e-8a4d-4f7a-9c55-0d1e2f3a4b5c")
+        UUID id,
+
+        @Schema(description = "Estado de la importación", example = "EN_CURSO")
+        EstadoImportacion estado,
+
+        @Schema(description = "Momento en que empezó", example = "2025-06-11T10:00:00Z")
+        Instant iniciada,
+
+        @Schema(description = "Momento en que terminó (solo si finalizó)", example = "2025-06-11T10:04:12Z")
+        Instant finalizada,
+
+        @Schema(description = "Registros de datos leídos hasta ahora (sin el encabezado)", example = "250000")
+        long lineasLeidas,
+
+        @Schema(description = "Titulares insertados", example = "249120")
+        long insertados,
+
+        @Schema(description = "Registros rechazados; el detalle por línea está en el archivo de rechazos", example = "880")
+        long rechazados,
+
+        @Schema(description = "Motivo de la falla (solo si FALLIDA). Los lotes ya confirmados quedan insertados",
+                example = "Error interno durante la importación")
+        String error
+) {
+}
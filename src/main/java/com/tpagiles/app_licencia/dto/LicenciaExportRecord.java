@@ -0,0 +1,35 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+
+import java.time.LocalDate;
+
+/**
+ * Fila plana de licencia para exportación: se proyecta directo desde la consulta,
+ * sin hidratar entidades Licencia ni Titular.
+ */
+public record LicenciaExportRecord(
+        Long id,
+        String apellido,
+        String nombre,
+        String tipoDocumento,
+        String numeroDocumento,
+        String clase,
+        LocalDate fechaEmision,
+        LocalDate fechaVencimiento,
+        Boolean vigente,
+        Integer numeroCopia
+) {
+    // Constructor que acepta ENUMS, usado por la proyección JPQL
+    public LicenciaExportRecord(Long id, String apellido, String nombre,
+                                TipoDocumento tipoDocumento, String numeroDocumento,
+                                ClaseLicencia clase, LocalDate fechaEmision,
+                                LocalDate fechaVencimiento, Boolean vigente, Integer numeroCopia) {
+        this(id, apellido, nombre,
+                tipoDocumento != null ? tipoDocumento.name() : null,
+                numeroDocumento,
+                clase != null ? clase.name() : null,
+                fechaEmision, fechaVencimiento, vigente, numeroCopia);
+    }
+}
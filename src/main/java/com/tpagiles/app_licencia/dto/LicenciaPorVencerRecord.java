@@ -0,0 +1,16 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+
+import java.time.LocalDate;
+
+/**
+ * Licencia vigente con los datos del titular necesarios para armar su recordatorio de vencimiento.
+ */
+public record LicenciaPorVencerRecord(Long id,
+                                      String mail,
+                                      String nombre,
+                                      String apellido,
+                                      ClaseLicencia clase,
+                                      LocalDate fechaVencimiento) {
+}
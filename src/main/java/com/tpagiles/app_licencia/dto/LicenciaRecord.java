@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
@@ -56,11 +55,12 @@ public record LicenciaRecord(
         String motivoCopia,
 
         @Schema(
-                description = "Username del usuario que emite la licencia",
+                description = "Username del usuario que emite la licencia. Si se omite se usa el usuario autenticado; " +
+                        "solo un SUPER_USER puede indicar otro emisor",
                 example = "admin@municipio.gob",
-                requiredMode = Schema.RequiredMode.REQUIRED
+                requiredMode = Schema.RequiredMode.NOT_REQUIRED
         )
-        @NotBlank(message = "Debe indicar el username del emisor")
+        @Size(max = 100, message = "El username del emisor no puede superar 100 caracteres")
         String emisor
 ) {
 }
\ No newline at end of file
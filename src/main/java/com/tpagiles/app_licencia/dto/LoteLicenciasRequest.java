@@ -0,0 +1,22 @@
+package com.tpagiles.app_licencia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Lote de licencias a emitir en una sola operación")
+public record LoteLicenciasRequest(
+
+        @Schema(
+                description = "Licencias a emitir (máximo 500 por lote)",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotEmpty(message = "El lote debe contener al menos una licencia")
+        @Size(max = 500, message = "El lote no puede superar 500 licencias")
+        List<@NotNull(message = "El lote no puede contener licencias nulas") @Valid LicenciaRecord> licencias
+) {
+}
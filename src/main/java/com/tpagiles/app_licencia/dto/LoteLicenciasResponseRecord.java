@@ -0,0 +1,33 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@JsonPropertyOrder({ "total", "emitidas", "rechazadas", "resultados" })
+@Schema(description = "Resumen de la emisión de un lote de licencias")
+public record LoteLicenciasResponseRecord(
+
+        @Schema(description = "Cantidad de elementos recibidos", example = "3")
+        int total,
+
+        @Schema(description = "Cantidad de licencias emitidas", example = "2")
+        int emitidas,
+
+        @Schema(description = "Cantidad de elementos rechazados", example = "1")
+        int rechazadas,
+
+        @Schema(description = "Resultado por elemento, en el mismo orden del lote")
+        List<ResultadoLoteLicenciaRecord> resultados
+) {
+    public static LoteLicenciasResponseRecord from(List<ResultadoLoteLicenciaRecord> resultados) {
+        int emitidas = (int) resultados.stream().filter(ResultadoLoteLicenciaRecord::exitoso).count();
+        return new LoteLicenciasResponseRecord(
+                resultados.size(),
+                emitidas,
+                resultados.size() - emitidas,
+                resultados
+        );
+    }
+}
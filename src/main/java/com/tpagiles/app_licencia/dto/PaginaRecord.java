@@ -0,0 +1,34 @@
+package com.tpagiles.app_licencia.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado con paginación por cursor (keyset).
+ *
+ * @param items           filas de la página, en el orden del listado
+ * @param siguienteCursor cursor para pedir la página siguiente, o null si es la última
+ * @param total           cantidad total de filas que cumplen el filtro
+ */
+public record PaginaRecord<T>(List<T> items, String siguienteCursor, long total) {
+
+    public static final int LIMITE_POR_DEFECTO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    /**
+     * Arma la página a partir de una consulta que pidió limit + 1 filas: si volvió la fila extra
+     * hay página siguiente y el cursor se toma de la última fila que sí se devuelve.
+     */
+    public static <T> PaginaRecord<T> desde(List<T> filas, int limit, long total,
+                                            Function<T, CursorKeyset> cursorDe) {
+        if (filas.size() <= limit) {
+            return new PaginaRecord<>(filas, null, total);
+        }
+        List<T> pagina = filas.subList(0, limit);
+        return new PaginaRecord<>(List.copyOf(pagina), cursorDe.apply(pagina.getLast()).codificar(), total);
+    }
+
+    public <R> PaginaRecord<R> map(Function<T, R> mapper) {
+        return new PaginaRecord<>(items.stream().map(mapper).toList(), siguienteCursor, total);
+    }
+}
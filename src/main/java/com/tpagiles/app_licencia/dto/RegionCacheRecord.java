@@ -0,0 +1,37 @@
+package com.tpagiles.app_licencia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Contadores de una región de la caché de segundo nivel desde el arranque (o desde que se
+ * limpiaron las estadísticas de Hibernate).
+ *
+ * @param tasaAciertos aciertos / (aciertos + fallos); null si todavía no hubo lecturas
+ * @param maxEntradas  cota de la región; null = sin límite
+ */
+@Schema(description = "Aciertos y fallos de una región de la caché de segundo nivel")
+public record RegionCacheRecord(
+        @Schema(description = "Nombre de la región", example = "usuarios")
+        String region,
+
+        @Schema(description = "Lecturas resueltas desde la caché", example = "9520")
+        long aciertos,
+
+        @Schema(description = "Lecturas que tuvieron que ir a la base", example = "480")
+        long fallos,
+
+        @Schema(description = "Entradas escritas en la caché", example = "510")
+        long escrituras,
+
+        @Schema(description = "Proporción de aciertos entre 0 y 1", example = "0.952")
+        Double tasaAciertos,
+
+        @Schema(description = "Cantidad máxima de entradas antes de desalojar", example = "1000")
+        Long maxEntradas
+) {
+    public static RegionCacheRecord de(String region, long aciertos, long fallos, long escrituras, Long maxEntradas) {
+        long lecturas = aciertos + fallos;
+        Double tasa = lecturas == 0 ? null : (double) aciertos / lecturas;
+        return new RegionCacheRecord(region, aciertos, fallos, escrituras, tasa, maxEntradas);
+    }
+}
@@ -0,0 +1,18 @@
+package com.tpagiles.app_licencia.dto;
+
+/**
+ * Respuesta HTTP ya completada que se guarda para repetirla ante un reintento
+ * con la misma Idempotency-Key.
+ *
+ * @param huella      hash SHA-256 del cuerpo de la solicitud original
+ * @param status      código HTTP devuelto
+ * @param contentType content type de la respuesta (puede ser null)
+ * @param cuerpo      bytes del cuerpo de la respuesta
+ */
+public record RespuestaIdempotenteRecord(
+        String huella,
+        int status,
+        String contentType,
+        byte[] cuerpo
+) {
+}
@@ -0,0 +1,44 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+        "indice",
+        "titularId",
+        "clase",
+        "exitoso",
+        "licencia",
+        "error"
+})
+@Schema(description = "Resultado de la emisión de un elemento del lote")
+public record ResultadoLoteLicenciaRecord(
+
+        @Schema(description = "Posición del elemento dentro del lote (desde 0)", example = "0")
+        int indice,
+
+        @Schema(description = "ID del titular solicitado", example = "42")
+        Long titularId,
+
+        @Schema(description = "Clase solicitada", example = "B")
+        String clase,
+
+        @Schema(description = "Indica si la licencia se emitió", example = "true")
+        boolean exitoso,
+
+        @Schema(description = "Licencia emitida (solo si exitoso)")
+        LicenciaResponseRecord licencia,
+
+        @Schema(description = "Motivo del rechazo (solo si no exitoso)", example = "Titular no encontrado con id: 42")
+        String error
+) {
+    public static ResultadoLoteLicenciaRecord exito(int indice, LicenciaRecord req, LicenciaResponseRecord licencia) {
+        return new ResultadoLoteLicenciaRecord(indice, req.titularId(), req.clase().name(), true, licencia, null);
+    }
+
+    public static ResultadoLoteLicenciaRecord rechazo(int indice, LicenciaRecord req, String error) {
+        return new ResultadoLoteLicenciaRecord(indice, req.titularId(), req.clase().name(), false, null, error);
+    }
+}
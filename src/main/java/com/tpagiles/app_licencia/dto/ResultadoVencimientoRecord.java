@@ -0,0 +1,28 @@
+package com.tpagiles.app_licencia.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Resumen de una corrida del job de vencimientos.
+ *
+ * @param fechaCorte  se desactivaron las licencias vigentes con vencimiento anterior a esta fecha
+ * @param filas       licencias desactivadas en esta corrida (sin contar lotes de una corrida anterior)
+ * @param lotes       lotes confirmados en esta corrida
+ * @param duracionMs  duración de la corrida
+ * @param reanudada   true si continuó desde la marca de agua de una corrida interrumpida
+ */
+public record ResultadoVencimientoRecord(
+        LocalDate fechaCorte,
+        long filas,
+        int lotes,
+        long duracionMs,
+        boolean reanudada
+) {
+    public static ResultadoVencimientoRecord sinCambios(LocalDate fechaCorte) {
+        return new ResultadoVencimientoRecord(fechaCorte, 0, 0, 0, false);
+    }
+
+    public double filasPorSegundo() {
+        return duracionMs == 0 ? filas : filas * 1000.0 / duracionMs;
+    }
+}
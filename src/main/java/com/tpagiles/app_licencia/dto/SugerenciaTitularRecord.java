@@ -0,0 +1,14 @@
+package com.tpagiles.app_licencia.dto;
+
+/**
+ * Sugerencia de autocompletado: un apellido o un número de documento que empieza con lo tipeado.
+ *
+ * @param campo     "apellido" o "numeroDocumento"
+ * @param titulares cantidad de titulares con ese valor
+ */
+public record SugerenciaTitularRecord(
+        String texto,
+        String campo,
+        int titulares
+) {
+}
@@ -0,0 +1,42 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.tpagiles.app_licencia.model.enums.EstadoTicket;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+        "id",
+        "estado",
+        "recibido",
+        "finalizado",
+        "licencia",
+        "error"
+})
+@Schema(description = "Estado de una emisión asíncrona de licencia")
+public record TicketEmisionRecord(
+
+        @Schema(description = "Identificador del ticket", example = "3f2b9c1e-8a4d-4f7a-9c55-0d1e2f3a4b5c")
+        UUID id,
+
+        @Schema(description = "Estado actual de la emisión", example = "COMPLETADO")
+        EstadoTicket estado,
+
+        @Schema(description = "Momento en que se aceptó la solicitud", example = "2025-06-11T10:00:00Z")
+        Instant recibido,
+
+        @Schema(description = "Momento en que terminó el procesamiento (solo si finalizó)", example = "2025-06-11T10:00:01Z")
+        Instant finalizado,
+
+        @Schema(description = "Licencia emitida (solo si COMPLETADO)")
+        LicenciaResponseRecord licencia,
+
+        @Schema(description = "Motivo del rechazo o falla (solo si RECHAZADO o FALLIDO)",
+                example = "El titular ya posee una licencia vigente de clase B")
+        String error
+) {
+}
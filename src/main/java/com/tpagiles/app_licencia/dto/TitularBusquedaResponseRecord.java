@@ -0,0 +1,17 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+
+/**
+ * Resultado de la búsqueda de texto completo de titulares, ordenado por relevancia.
+ */
+public record TitularBusquedaResponseRecord(
+        Long id,
+        String nombre,
+        String apellido,
+        TipoDocumento tipoDocumento,
+        String numeroDocumento,
+        String direccion,
+        float relevancia
+) {
+}
@@ -0,0 +1,16 @@
+package com.tpagiles.app_licencia.dto;
+
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+
+/**
+ * Campos de un titular que se copian al índice de texto completo.
+ */
+public record TitularIndiceRecord(
+        Long id,
+        String nombre,
+        String apellido,
+        TipoDocumento tipoDocumento,
+        String numeroDocumento,
+        String direccion
+) {
+}
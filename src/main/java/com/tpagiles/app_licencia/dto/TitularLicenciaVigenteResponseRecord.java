@@ -1,6 +1,7 @@
 package com.tpagiles.app_licencia.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
@@ -52,7 +53,12 @@ public record TitularLicenciaVigenteResponseRecord(
 
         @Schema(description = "Fecha de vencimiento de la licencia vigente", example = "2028-05-16")
         @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
-        LocalDate fechaVencimiento
+        LocalDate fechaVencimiento,
+
+        // desempate del cursor de paginación; no se expone en la respuesta
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long licenciaId
 
 ) {
     // Constructor que acepta ENUMS y hace la conversión a String
@@ -63,7 +69,8 @@ public record TitularLicenciaVigenteResponseRecord(
                                                 FactorRh factorRh,
                                                 Boolean donanteOrganos,
                                                 ClaseLicencia claseLicencia,
-                                                LocalDate fechaVencimiento) {
+                                                LocalDate fechaVencimiento,
+                                                Long licenciaId) {
         this(nombre,
                 apellido,
                 tipoDocumento != null ? tipoDocumento.name() : null,
@@ -72,6 +79,7 @@ public record TitularLicenciaVigenteResponseRecord(
                 factorRh != null ? factorRh.name() : null,
                 donanteOrganos,
                 claseLicencia != null ? claseLicencia.name() : null,
-                fechaVencimiento);
+                fechaVencimiento,
+                licenciaId);
     }
 }
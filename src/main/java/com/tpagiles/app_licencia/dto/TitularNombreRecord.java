@@ -0,0 +1,7 @@
+package com.tpagiles.app_licencia.dto;
+
+/**
+ * Id, nombre y apellido de un titular, para recalcular sus columnas de búsqueda.
+ */
+public record TitularNombreRecord(Long id, String nombre, String apellido) {
+}
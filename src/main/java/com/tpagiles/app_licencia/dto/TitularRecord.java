@@ -22,7 +22,8 @@ import java.time.LocalDate;
         "grupoSanguineo",
         "factorRh",
         "direccion",
-        "donanteOrganos"
+        "donanteOrganos",
+        "mail"
 })
 @Schema(description = "Datos necesarios para dar de alta o modificar un Titular")
 public record TitularRecord(
@@ -103,7 +104,15 @@ public record TitularRecord(
                 requiredMode = Schema.RequiredMode.REQUIRED
         )
         @NotNull(message = "El campo donanteOrgános es obligatorio")
-        Boolean donanteOrganos
+        Boolean donanteOrganos,
+
+        @Schema(
+                description = "Mail de contacto para los recordatorios de vencimiento",
+                example = "juan.perez@mail.com"
+        )
+        @Email(message = "El mail no tiene un formato válido")
+        @Size(max = 100, message = "El mail no puede superar 100 caracteres")
+        String mail
 
 ) {
     public Titular toTitular() {
@@ -117,6 +126,7 @@ public record TitularRecord(
         t.setFactorRh(this.factorRh);
         t.setDireccion(this.direccion);
         t.setDonanteOrganos(this.donanteOrganos);
+        t.setMail(this.mail);
         return t;
     }
 }
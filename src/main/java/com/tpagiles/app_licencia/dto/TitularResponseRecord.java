@@ -18,7 +18,8 @@ import java.time.LocalDate;
         "grupoSanguineo",
         "factorRh",
         "direccion",
-        "donanteOrganos"
+        "donanteOrganos",
+        "mail"
 })
 @Schema(description = "Datos de un Titular ya registrado")
 public record TitularResponseRecord(
@@ -51,7 +52,10 @@ public record TitularResponseRecord(
         String direccion,
 
         @Schema(description = "Donante de órganos", example = "true")
-        Boolean donanteOrganos
+        Boolean donanteOrganos,
+
+        @Schema(description = "Mail de contacto", example = "juan.perez@mail.com")
+        String mail
 
 ) {
     public static TitularResponseRecord fromEntity(Titular t) {
@@ -65,7 +69,8 @@ public record TitularResponseRecord(
                 t.getGrupoSanguineo().name(),
                 t.getFactorRh().name(),
                 t.getDireccion(),
-                t.isDonanteOrganos()
+                t.isDonanteOrganos(),
+                t.getMail()
         );
     }
 }
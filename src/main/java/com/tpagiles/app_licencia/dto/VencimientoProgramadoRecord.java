@@ -0,0 +1,9 @@
+package com.tpagiles.app_licencia.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Licencia vigente y su fecha de vencimiento, para cargar la rueda de vencimientos.
+ */
+public record VencimientoProgramadoRecord(Long id, LocalDate fechaVencimiento) {
+}
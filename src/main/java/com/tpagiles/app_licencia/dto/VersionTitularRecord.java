@@ -0,0 +1,7 @@
+package com.tpagiles.app_licencia.dto;
+
+/**
+ * Id y versión optimista de un titular: alcanza para armar su ETag sin cargar la entidad.
+ */
+public record VersionTitularRecord(Long id, Long version) {
+}
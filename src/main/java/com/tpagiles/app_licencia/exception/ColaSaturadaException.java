@@ -0,0 +1,7 @@
+package com.tpagiles.app_licencia.exception;
+
+public class ColaSaturadaException extends RuntimeException {
+    public ColaSaturadaException(String message) {
+        super(message);
+    }
+}
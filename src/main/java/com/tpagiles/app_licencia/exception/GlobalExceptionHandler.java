@@ -3,6 +3,7 @@ package com.tpagiles.app_licencia.exception;
 import com.tpagiles.app_licencia.dto.ErrorResponse;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.*;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -89,6 +90,57 @@ public class GlobalExceptionHandler {
                 .body(buildError(HttpStatus.BAD_REQUEST, ex.getMessage()));
     }
 
+    @ExceptionHandler(OperacionNoPermitidaException.class)
+    public ResponseEntity<ErrorResponse> handleOperacionNoPermitida(OperacionNoPermitidaException ex) {
+        logger.error("OperacionNoPermitida: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(buildError(HttpStatus.FORBIDDEN, ex.getMessage()));
+    }
+
+    @ExceptionHandler(SolicitudEnCursoException.class)
+    public ResponseEntity<ErrorResponse> handleSolicitudEnCurso(SolicitudEnCursoException ex) {
+        logger.warn("SolicitudEnCurso: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(buildError(HttpStatus.CONFLICT, ex.getMessage()));
+    }
+
+    @ExceptionHandler(PrecondicionFallidaException.class)
+    public ResponseEntity<ErrorResponse> handlePrecondicionFallida(PrecondicionFallidaException ex) {
+        logger.warn("PrecondicionFallida: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(buildError(HttpStatus.PRECONDITION_FAILED, ex.getMessage()));
+    }
+
+    @ExceptionHandler(PrecondicionRequeridaException.class)
+    public ResponseEntity<ErrorResponse> handlePrecondicionRequerida(PrecondicionRequeridaException ex) {
+        logger.warn("PrecondicionRequerida: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_REQUIRED)
+                .body(buildError(HttpStatus.PRECONDITION_REQUIRED, ex.getMessage()));
+    }
+
+    // @Version: otra operación confirmó un cambio sobre la misma fila entre la lectura y la escritura
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        logger.warn("OptimisticLockingFailure: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(buildError(HttpStatus.PRECONDITION_FAILED,
+                        "El recurso fue modificado por otra operación; vuelva a consultarlo e intente de nuevo"));
+    }
+
+    @ExceptionHandler(ColaSaturadaException.class)
+    public ResponseEntity<ErrorResponse> handleColaSaturada(ColaSaturadaException ex) {
+        logger.warn("ColaSaturada: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildError(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<ErrorResponse> handleMissingRequestParam(MissingServletRequestParameterException ex) {
         String mensaje = String.format("Falta el parámetro requerido '%s'", ex.getParameterName());
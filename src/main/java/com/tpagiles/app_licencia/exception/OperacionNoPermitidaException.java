@@ -0,0 +1,7 @@
+package com.tpagiles.app_licencia.exception;
+
+public class OperacionNoPermitidaException extends RuntimeException {
+    public OperacionNoPermitidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tpagiles.app_licencia.exception;
+
+public class PrecondicionFallidaException extends RuntimeException {
+    public PrecondicionFallidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tpagiles.app_licencia.exception;
+
+public class PrecondicionRequeridaException extends RuntimeException {
+    public PrecondicionRequeridaException(String message) {
+        super(message);
+    }
+}
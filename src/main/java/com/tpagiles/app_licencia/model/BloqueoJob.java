@@ -0,0 +1,32 @@
+package com.tpagiles.app_licencia.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Lease de un job programado: el nodo {@code propietario} lo ejecuta hasta {@code bloqueadoHasta},
+ * plazo que renueva mientras sigue corriendo. Vencido el plazo cualquier otro nodo puede tomarlo.
+ */
+@Entity
+@Table(name = "bloqueos_job")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BloqueoJob {
+
+    @Id
+    @Column(name = "nombre", length = 60)
+    private String nombre;
+
+    @Column(name = "propietario", nullable = false, length = 100)
+    private String propietario;
+
+    @Column(name = "bloqueado_hasta", nullable = false)
+    private Instant bloqueadoHasta;
+
+    @Column(name = "bloqueado_en", nullable = false)
+    private Instant bloqueadoEn;
+}
@@ -0,0 +1,33 @@
+package com.tpagiles.app_licencia.model;
+
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Último valor conciliado de un contador del tablero, para no arrancar en cero tras un reinicio.
+ */
+@Entity
+@Table(name = "contadores")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Contador {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "nombre", length = 40)
+    private TipoContador nombre;
+
+    @Column(name = "valor", nullable = false)
+    private long valor;
+
+    @Column(name = "actualizado_en", nullable = false)
+    private Instant actualizadoEn;
+}
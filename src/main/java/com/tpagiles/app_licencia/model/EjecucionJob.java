@@ -0,0 +1,46 @@
+package com.tpagiles.app_licencia.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Progreso de un job por lotes. {@code fechaEnCurso} y {@code ultimoId} son la marca de agua
+ * de una corrida sin terminar; {@code fechaProcesada} es el último corte completado.
+ */
+@Entity
+@Table(name = "ejecuciones_job")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EjecucionJob {
+
+    @Id
+    @Column(name = "nombre", length = 60)
+    private String nombre;
+
+    @Column(name = "fecha_procesada")
+    private LocalDate fechaProcesada;
+
+    @Column(name = "fecha_en_curso")
+    private LocalDate fechaEnCurso;
+
+    @Column(name = "ultimo_id", nullable = false)
+    private long ultimoId;
+
+    @Column(name = "filas", nullable = false)
+    private long filas;
+
+    @Column(name = "iniciado_en")
+    private Instant iniciadoEn;
+
+    @Column(name = "finalizado_en")
+    private Instant finalizadoEn;
+
+    @Column(name = "duracion_ms")
+    private Long duracionMs;
+}
@@ -4,11 +4,21 @@ import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "licencias")
+@Table(name = "licencias", indexes = {
+        // paginación keyset de vencidas (sirve también para los conteos por fecha_vencimiento)
+        @Index(name = "idx_licencias_vencimiento_id", columnList = "fecha_vencimiento, id"),
+        // historial por titular (findHistorialByTitularId/s), del que sale también la vigente por clase
+        @Index(name = "idx_licencias_titular_clase_vigente",
+                columnList = "titular_id, clase, vigente, fecha_vencimiento, fecha_emision"),
+        // desactivación diaria de vencidas
+        @Index(name = "idx_licencias_vigente_vencimiento", columnList = "vigente, fecha_vencimiento")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,15 +27,18 @@ import java.time.LocalDate;
 public class Licencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "licencias_seq")
+    @SequenceGenerator(name = "licencias_seq", sequenceName = "licencias_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // LAZY: cada consulta de lectura declara con @EntityGraph si necesita al titular
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "titular_id", nullable = false)
     private Titular titular;
 
     @NotNull
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "clase", nullable = false, length = 20)
     private ClaseLicencia clase;
 
@@ -48,7 +61,8 @@ public class Licencia {
     @Column(name = "numero_copia")
     private Integer numeroCopia;
 
-    @ManyToOne
+    // LAZY: en EAGER cada copia arrastraba en cascada toda la cadena de originales
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "licencia_original_id")
     private Licencia licenciaOriginal;
 
@@ -59,6 +73,10 @@ public class Licencia {
     @Column(name = "vigente", nullable = false)
     private boolean vigente;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false) //para que no cargue automaticamente la relacion, sólo se materializa si llamas a licencia.getEmisor()
     @JoinColumn(name = "emisor_id", nullable = false)
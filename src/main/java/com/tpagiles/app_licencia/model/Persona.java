@@ -19,8 +19,10 @@ import java.time.Period;
 @SuperBuilder
 @MappedSuperclass
 public class Persona {
+    // ids por bloques de 50 (secuencia en H2, tabla titulares_seq en MySQL): Hibernate puede agrupar los INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "titulares_seq")
+    @SequenceGenerator(name = "titulares_seq", sequenceName = "titulares_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String nombre;
@@ -0,0 +1,68 @@
+package com.tpagiles.app_licencia.model;
+
+import com.tpagiles.app_licencia.model.enums.EstadoRecordatorio;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Fila de la bandeja de salida de recordatorios. El mensaje se arma al generarla, así el envío
+ * no vuelve a leer licencias ni titulares; la clave única (licencia, ventana) hace que cada
+ * recordatorio se genere una sola vez aunque el job se repita.
+ */
+@Entity
+@Table(name = "recordatorios_vencimiento", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_recordatorios_licencia_ventana", columnNames = {"licencia_id", "ventana_dias"})
+}, indexes = {
+        // lectura de pendientes a enviar
+        @Index(name = "idx_recordatorios_estado_proximo", columnList = "estado, proximo_intento")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecordatorioVencimiento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "licencia_id", nullable = false)
+    private Long licenciaId;
+
+    @Column(name = "ventana_dias", nullable = false)
+    private int ventanaDias;
+
+    @Column(name = "destinatario", nullable = false, length = 100)
+    private String destinatario;
+
+    @Column(name = "asunto", nullable = false, length = 200)
+    private String asunto;
+
+    @Column(name = "cuerpo", nullable = false, length = 2000)
+    private String cuerpo;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoRecordatorio estado;
+
+    @Column(name = "intentos", nullable = false)
+    private int intentos;
+
+    @Column(name = "creado_en", nullable = false)
+    private Instant creadoEn;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private Instant proximoIntento;
+
+    @Column(name = "enviado_en")
+    private Instant enviadoEn;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+}
@@ -0,0 +1,41 @@
+package com.tpagiles.app_licencia.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotencia_respuestas", indexes = {
+        // purga de expiradas
+        @Index(name = "idx_idempotencia_expira_en", columnList = "expira_en")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroIdempotencia {
+
+    @Id
+    @Column(name = "clave", length = 300)
+    private String clave;
+
+    @Column(name = "huella", nullable = false, length = 64)
+    private String huella;
+
+    @Column(name = "completada", nullable = false)
+    private boolean completada;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(name = "cuerpo")
+    private byte[] cuerpo;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+}
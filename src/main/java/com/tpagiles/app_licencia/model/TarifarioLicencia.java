@@ -7,8 +7,13 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Entity
+@Table(name = "tarifario_licencia", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tarifario_clase_vigencia", columnNames = {"clase_licencia", "vigencia_anios"})
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -19,6 +24,8 @@ public class TarifarioLicencia {
     private Long id;
     @NotNull
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "clase_licencia", nullable = false, length = 20)
     ClaseLicencia claseLicencia;
     @NotNull
     private int vigenciaAnios;
@@ -1,14 +1,22 @@
 package com.tpagiles.app_licencia.model;
 
+import com.tpagiles.app_licencia.config.RegionesCache;
 import com.tpagiles.app_licencia.model.enums.FactorRh;
 import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.service.helper.CodificadorFonetico;
+import com.tpagiles.app_licencia.service.helper.NormalizadorTexto;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,7 +24,23 @@ import java.util.List;
 @Entity
 @Table(name = "titulares", uniqueConstraints = {
         @UniqueConstraint(columnNames = "numero_documento")
+}, indexes = {
+        // orden del listado de titulares con licencias vigentes
+        @Index(name = "idx_titulares_apellido_nombre", columnList = "apellido, nombre"),
+        // búsqueda por tipo y número de documento
+        @Index(name = "idx_titulares_tipo_numero_documento", columnList = "tipo_documento, numero_documento"),
+        // búsqueda por prefijo de nombre/apellido sobre las columnas normalizadas
+        @Index(name = "idx_titulares_apellido_nombre_norm", columnList = "apellido_normalizado, nombre_normalizado"),
+        @Index(name = "idx_titulares_nombre_norm", columnList = "nombre_normalizado"),
+        @Index(name = "idx_titulares_nombre_completo_norm", columnList = "nombre_completo_normalizado"),
+        // búsqueda fonética (ver CodificadorFonetico), también por prefijo
+        @Index(name = "idx_titulares_apellido_nombre_fon", columnList = "apellido_fonetico, nombre_fonetico"),
+        @Index(name = "idx_titulares_nombre_fon", columnList = "nombre_fonetico"),
+        @Index(name = "idx_titulares_nombre_completo_fon", columnList = "nombre_completo_fonetico")
 })
+// cargas por id (licencias, emisión); las lecturas con ETag van a la base (TitularRepository.findActual*).
+// Los UPDATE por JDBC (backfill de columnas de búsqueda) vacían la región
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegionesCache.TITULARES)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,6 +50,7 @@ public class Titular extends Persona {
 
     @NotNull
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "tipo_documento", nullable = false, length = 20)
     private TipoDocumento tipoDocumento;
 
@@ -36,11 +61,13 @@ public class Titular extends Persona {
 
     @NotNull
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "grupo_sanguineo", nullable = false, length = 5)
     private GrupoSanguineo grupoSanguineo;
 
     @NotNull
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "factor_rh", nullable = false, length = 10)
     private FactorRh factorRh;
 
@@ -52,8 +79,56 @@ public class Titular extends Persona {
     @Column(name = "donante_organos", nullable = false)
     private boolean donanteOrganos;
 
+    // contacto para los recordatorios de vencimiento; opcional
+    @Email
+    @Size(max = 100)
+    @Column(name = "mail", length = 100)
+    private String mail;
+
+    // columnas de búsqueda derivadas de nombre y apellido (ver NormalizadorTexto y
+    // CodificadorFonetico); las filas anteriores a las migraciones las completa NormalizacionTitularesService
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_normalizado", length = 255)
+    private String nombreNormalizado;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "apellido_normalizado", length = 255)
+    private String apellidoNormalizado;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_completo_normalizado", length = 511)
+    private String nombreCompletoNormalizado;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_fonetico", length = 255)
+    private String nombreFonetico;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "apellido_fonetico", length = 255)
+    private String apellidoFonetico;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nombre_completo_fonetico", length = 511)
+    private String nombreCompletoFonetico;
+
+    // versión optimista: la usan los ETag de /api/titulares y el If-Match de las modificaciones
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "titular", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default //asigno el valor incial
     private List<Licencia> licencias = new ArrayList<>();
 
+    // los servicios la llaman al cambiar nombre o apellido; los callbacks cubren cualquier otro camino
+    @PrePersist
+    @PreUpdate
+    public void actualizarCamposBusqueda() {
+        this.nombreNormalizado = NormalizadorTexto.normalizar(getNombre());
+        this.apellidoNormalizado = NormalizadorTexto.normalizar(getApellido());
+        this.nombreCompletoNormalizado = NormalizadorTexto.nombreCompleto(getApellido(), getNombre());
+        this.nombreFonetico = CodificadorFonetico.codificar(getNombre());
+        this.apellidoFonetico = CodificadorFonetico.codificar(getApellido());
+        this.nombreCompletoFonetico = CodificadorFonetico.nombreCompleto(getApellido(), getNombre());
+    }
 }
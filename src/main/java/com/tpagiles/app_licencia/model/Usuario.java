@@ -1,8 +1,15 @@
 package com.tpagiles.app_licencia.model;
 
+import com.tpagiles.app_licencia.config.RegionesCache;
 import com.tpagiles.app_licencia.model.enums.Rol;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.type.SqlTypes;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,11 +19,15 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "usuarios")
+// se carga por mail en cada request autenticado (loadUserByUsername)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegionesCache.USUARIOS)
+@NaturalIdCache(region = RegionesCache.USUARIOS_MAIL)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class Usuario implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -25,6 +36,7 @@ public class Usuario implements UserDetails {
     @Column(nullable = false, length = 100)
     private String apellido;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false, length = 100)
     private String mail;
 
@@ -32,11 +44,15 @@ public class Usuario implements UserDetails {
     private String password;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegionesCache.USUARIOS_ROLES)
     @CollectionTable(
             name = "usuario_roles",
-            joinColumns = @JoinColumn(name = "usuario_id")
+            joinColumns = @JoinColumn(name = "usuario_id"),
+            // listado de operadores
+            indexes = @Index(name = "idx_usuario_roles_rol", columnList = "rol, usuario_id")
     )
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "rol", length = 20)
     private Set<Rol> roles = new HashSet<>();
 
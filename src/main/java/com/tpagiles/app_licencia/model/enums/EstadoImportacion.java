@@ -0,0 +1,12 @@
+package com.tpagiles.app_licencia.model.enums;
+
+public enum EstadoImportacion {
+    EN_CURSO,
+    COMPLETADA,
+    FALLIDA;
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,12 @@
+package com.tpagiles.app_licencia.model.enums;
+
+public enum EstadoRecordatorio {
+    PENDIENTE,
+    ENVIADO,
+    FALLIDO;
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
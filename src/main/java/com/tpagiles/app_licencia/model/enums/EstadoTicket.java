@@ -0,0 +1,18 @@
+package com.tpagiles.app_licencia.model.enums;
+
+public enum EstadoTicket {
+    PENDIENTE,
+    PROCESANDO,
+    COMPLETADO,
+    RECHAZADO,
+    FALLIDO;
+
+    public boolean finalizado() {
+        return this == COMPLETADO || this == RECHAZADO || this == FALLIDO;
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
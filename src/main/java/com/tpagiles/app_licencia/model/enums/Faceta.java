@@ -0,0 +1,66 @@
+package com.tpagiles.app_licencia.model.enums;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dimensiones de los conteos por faceta. Las del titular también se pueden usar al contar
+ * licencias (cada licencia lleva los atributos de su titular); las de licencia solo ahí.
+ */
+public enum Faceta {
+    GRUPO_SANGUINEO("grupoSanguineo", false, nombres(GrupoSanguineo.values())),
+    FACTOR_RH("factorRh", false, nombres(FactorRh.values())),
+    DONANTE_ORGANOS("donanteOrganos", false, List.of("true", "false")),
+    CLASE("clase", true, nombres(ClaseLicencia.values())),
+    VIGENTE("vigente", true, List.of("true", "false"));
+
+    private final String clave;
+    private final boolean deLicencia;
+    private final List<String> valores;
+
+    Faceta(String clave, boolean deLicencia, List<String> valores) {
+        this.clave = clave;
+        this.deLicencia = deLicencia;
+        this.valores = valores;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public boolean isDeLicencia() {
+        return deLicencia;
+    }
+
+    public List<String> getValores() {
+        return valores;
+    }
+
+    public static Faceta desde(String clave) {
+        return Arrays.stream(values())
+                .filter(f -> f.clave.equalsIgnoreCase(clave.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Faceta desconocida: " + clave
+                        + " (use grupoSanguineo, factorRh, donanteOrganos, clase o vigente)"));
+    }
+
+    /**
+     * @return el valor en su forma canónica ("o" → "O", "TRUE" → "true")
+     */
+    public String valor(String valor) {
+        return valores.stream()
+                .filter(v -> v.equalsIgnoreCase(valor.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Valor inválido para " + clave + ": " + valor
+                        + " (use " + String.join(", ", valores) + ")"));
+    }
+
+    private static List<String> nombres(Enum<?>[] constantes) {
+        return Arrays.stream(constantes).map(Enum::name).toList();
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
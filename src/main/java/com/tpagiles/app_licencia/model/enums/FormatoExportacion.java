@@ -0,0 +1,35 @@
+package com.tpagiles.app_licencia.model.enums;
+
+public enum FormatoExportacion {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    FormatoExportacion(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static FormatoExportacion desde(String valor) {
+        try {
+            return FormatoExportacion.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + valor + " (use csv o ndjson)");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,12 @@
+package com.tpagiles.app_licencia.model.enums;
+
+public enum TipoContador {
+    LICENCIAS_EMITIDAS,
+    LICENCIAS_VENCIDAS,
+    TITULARES;
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,22 @@
+package com.tpagiles.app_licencia.model.enums;
+
+/**
+ * Qué se cuenta en los conteos por faceta.
+ */
+public enum UnidadFacetas {
+    LICENCIAS,
+    TITULARES;
+
+    public static UnidadFacetas desde(String valor) {
+        try {
+            return UnidadFacetas.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unidad no soportada: " + valor + " (use licencias o titulares)");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
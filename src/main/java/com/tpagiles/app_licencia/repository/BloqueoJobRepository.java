@@ -0,0 +1,45 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.BloqueoJob;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface BloqueoJobRepository extends JpaRepository<BloqueoJob, String> {
+
+    // primera vez que se pide el job: si otro nodo lo inserta antes falla por PK
+    // tabla declarada: si no, el INSERT nativo vacía toda la caché de segundo nivel
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bloqueos_job"))
+    @Query(value = """
+        INSERT INTO bloqueos_job (nombre, propietario, bloqueado_hasta, bloqueado_en)
+        VALUES (:nombre, :propietario, :hasta, :ahora)
+        """, nativeQuery = true)
+    int insertar(@Param("nombre") String nombre, @Param("propietario") String propietario,
+                 @Param("hasta") Instant hasta, @Param("ahora") Instant ahora);
+
+    // el UPDATE condicional es atómico en MySQL y H2: de varios nodos compitiendo solo uno ve 1 fila
+    @Modifying
+    @Query("""
+        UPDATE BloqueoJob b SET b.propietario = :propietario, b.bloqueadoHasta = :hasta, b.bloqueadoEn = :ahora
+        WHERE b.nombre = :nombre AND b.bloqueadoHasta <= :ahora
+        """)
+    int tomarSiLibre(@Param("nombre") String nombre, @Param("propietario") String propietario,
+                     @Param("hasta") Instant hasta, @Param("ahora") Instant ahora);
+
+    @Modifying
+    @Query("""
+        UPDATE BloqueoJob b SET b.bloqueadoHasta = :hasta
+        WHERE b.nombre = :nombre AND b.propietario = :propietario
+        """)
+    int extender(@Param("nombre") String nombre, @Param("propietario") String propietario,
+                 @Param("hasta") Instant hasta);
+}
@@ -0,0 +1,10 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.Contador;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContadorRepository extends JpaRepository<Contador, TipoContador> {
+}
@@ -0,0 +1,9 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.EjecucionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EjecucionJobRepository extends JpaRepository<EjecucionJob, String> {
+}
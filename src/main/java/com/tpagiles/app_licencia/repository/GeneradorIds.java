@@ -0,0 +1,36 @@
+package com.tpagiles.app_licencia.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ids para las entidades que se insertan por JDBC, tomados del mismo generador (y del mismo
+ * bloque en memoria) que usa Hibernate al persistirlas: así las inserciones por JPA y por JDBC
+ * no chocan. Requiere una transacción activa.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeneradorIds {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Devuelve un id nuevo para cada entidad, en el mismo orden.
+     */
+    public long[] generar(List<?> entidades) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        long[] ids = new long[entidades.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Object entidad = entidades.get(i);
+            IdentifierGenerator generador =
+                    (IdentifierGenerator) session.getEntityPersister(null, entidad).getGenerator();
+            ids[i] = ((Number) generador.generate(session, entidad)).longValue();
+        }
+        return ids;
+    }
+}
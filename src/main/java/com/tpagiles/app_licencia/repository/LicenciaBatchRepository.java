@@ -0,0 +1,70 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.Licencia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserciones masivas de licencias por JDBC: un único batch sin pasar por el contexto de
+ * persistencia. Los ids salen del mismo generador que usa Hibernate ({@link GeneradorIds}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class LicenciaBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO licencias (id, titular_id, clase, vigencia_anios, fecha_emision, fecha_vencimiento,
+                                   costo, numero_copia, licencia_original_id, motivo_copia, vigente, emisor_id, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneradorIds generadorIds;
+
+    /**
+     * Asigna un id a cada licencia e inserta todas en un solo batch.
+     */
+    public void insertarTodas(List<Licencia> licencias) {
+        if (licencias.isEmpty()) {
+            return;
+        }
+        long[] ids = generadorIds.generar(licencias);
+        for (int i = 0; i < ids.length; i++) {
+            licencias.get(i).setId(ids[i]);
+            licencias.get(i).setVersion(0L);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Licencia l = licencias.get(i);
+                ps.setLong(1, l.getId());
+                ps.setLong(2, l.getTitular().getId());
+                ps.setString(3, l.getClase().name());
+                ps.setInt(4, l.getVigenciaAnios());
+                ps.setDate(5, Date.valueOf(l.getFechaEmision()));
+                ps.setDate(6, Date.valueOf(l.getFechaVencimiento()));
+                ps.setDouble(7, l.getCosto());
+                if (l.getNumeroCopia() != null) ps.setInt(8, l.getNumeroCopia());
+                else ps.setNull(8, Types.INTEGER);
+                if (l.getLicenciaOriginal() != null) ps.setLong(9, l.getLicenciaOriginal().getId());
+                else ps.setNull(9, Types.BIGINT);
+                ps.setString(10, l.getMotivoCopia());
+                ps.setBoolean(11, l.isVigente());
+                ps.setLong(12, l.getEmisor().getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return licencias.size();
+            }
+        });
+    }
+}
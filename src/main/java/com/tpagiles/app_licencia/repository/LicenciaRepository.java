@@ -1,28 +1,189 @@
 package com.tpagiles.app_licencia.repository;
 
+import com.tpagiles.app_licencia.dto.FacetaLicenciaRecord;
+import com.tpagiles.app_licencia.dto.HistorialLicenciaRecord;
+import com.tpagiles.app_licencia.dto.LicenciaExportRecord;
+import com.tpagiles.app_licencia.dto.LicenciaPorVencerRecord;
+import com.tpagiles.app_licencia.dto.VencimientoProgramadoRecord;
 import com.tpagiles.app_licencia.model.Licencia;
-import com.tpagiles.app_licencia.model.Titular;
-import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LicenciaRepository extends JpaRepository<Licencia, Long> {
     long count();
+    // Job de vencimientos: un rango de ids por transacción para no bloquear toda la tabla de una vez
     @Modifying
-    @Query("UPDATE Licencia l SET l.vigente = false WHERE l.vigente = true AND l.fechaVencimiento < :fecha")
-    void deactivateExpired(@Param("fecha") LocalDate fecha);
-    List<Licencia> findByFechaVencimientoBefore(LocalDate fechaVencimiento);
+    @Query("""
+    UPDATE Licencia l SET l.vigente = false, l.version = l.version + 1
+    WHERE l.vigente = true AND l.fechaVencimiento < :fecha
+    AND l.id > :desdeId AND l.id <= :hastaId
+""")
+    int desactivarVencidasEnRango(@Param("fecha") LocalDate fecha,
+                                  @Param("desdeId") long desdeId,
+                                  @Param("hastaId") long hastaId);
+
+    @Query("SELECT COALESCE(MAX(l.id), 0) FROM Licencia l")
+    long findMaxId();
+
+    // Bitmaps de facetas: carga completa por keyset de id
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.FacetaLicenciaRecord(l.id, l.titular.id, l.clase, l.vigente)
+    FROM Licencia l
+    WHERE l.id > :despuesId
+    ORDER BY l.id ASC
+""")
+    List<FacetaLicenciaRecord> findFacetas(@Param("despuesId") long despuesId, Limit limit);
+
+    // Motor de vencimientos: carga de la rueda y desactivación puntual de las que vencieron
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.VencimientoProgramadoRecord(l.id, l.fechaVencimiento)
+    FROM Licencia l
+    WHERE l.vigente = true AND l.fechaVencimiento < :hasta
+""")
+    List<VencimientoProgramadoRecord> findVigentesQueVencenAntesDe(@Param("hasta") LocalDate hasta);
+
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.VencimientoProgramadoRecord(l.id, l.fechaVencimiento)
+    FROM Licencia l
+    WHERE l.vigente = true AND l.fechaVencimiento >= :desde AND l.fechaVencimiento < :hasta
+""")
+    List<VencimientoProgramadoRecord> findVigentesQueVencenEntre(@Param("desde") LocalDate desde,
+                                                                 @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @Query("""
+    UPDATE Licencia l SET l.vigente = false, l.version = l.version + 1
+    WHERE l.id IN :ids AND l.vigente = true AND l.fechaVencimiento < :hoy
+""")
+    int desactivarVencidas(@Param("ids") Collection<Long> ids, @Param("hoy") LocalDate hoy);
+    // Recordatorios: rango (desde, hasta] sobre idx_licencias_vigente_vencimiento, paginado por keyset
+    // (fecha_vencimiento, id) y sin las licencias que ya tienen el recordatorio de esa ventana
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.LicenciaPorVencerRecord(
+        l.id, t.mail, t.nombre, t.apellido, l.clase, l.fechaVencimiento)
+    FROM Licencia l
+    JOIN l.titular t
+    WHERE l.vigente = true
+    AND l.fechaVencimiento > :desde AND l.fechaVencimiento <= :hasta
+    AND (l.fechaVencimiento > :despuesFecha
+         OR (l.fechaVencimiento = :despuesFecha AND l.id > :despuesId))
+    AND t.mail IS NOT NULL
+    AND NOT EXISTS (
+        SELECT r.id FROM RecordatorioVencimiento r
+        WHERE r.licenciaId = l.id AND r.ventanaDias = :ventana)
+    ORDER BY l.fechaVencimiento ASC, l.id ASC
+""")
+    List<LicenciaPorVencerRecord> findPorVencerSinRecordatorio(@Param("desde") LocalDate desde,
+                                                               @Param("hasta") LocalDate hasta,
+                                                               @Param("ventana") int ventana,
+                                                               @Param("despuesFecha") LocalDate despuesFecha,
+                                                               @Param("despuesId") long despuesId,
+                                                               Limit limit);
     long countByFechaVencimientoBefore(LocalDate fechaVencimiento);
-    boolean existsByTitularIdAndClaseAndVigenteTrueAndFechaVencimientoAfter(long TitularId, ClaseLicencia clase, LocalDate fechaVencimiento);
-    boolean existsByTitularAndClase(Titular titular, ClaseLicencia claseLicencia);
-    List<Licencia> findByTitularAndClase(Titular titular, ClaseLicencia clase);
+    @EntityGraph(attributePaths = "titular")
     List<Licencia> findByTitularTipoDocumentoAndTitularNumeroDocumento(TipoDocumento tipoDocumento, String numeroDocumento);
-}
\ No newline at end of file
+
+    // Una fila por licencia (o una sola con nulls si el titular no tiene), sin hidratar entidades Licencia
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.HistorialLicenciaRecord(
+        t,
+        l.clase,
+        l.vigente,
+        l.fechaEmision,
+        l.fechaVencimiento
+    )
+    FROM Titular t
+    LEFT JOIN t.licencias l
+    WHERE t.id IN :titularIds
+""")
+    List<HistorialLicenciaRecord> findHistorialByTitularIds(@Param("titularIds") Collection<Long> titularIds);
+
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.HistorialLicenciaRecord(
+        t,
+        l.clase,
+        l.vigente,
+        l.fechaEmision,
+        l.fechaVencimiento
+    )
+    FROM Titular t
+    LEFT JOIN t.licencias l
+    WHERE t.id = :titularId
+""")
+    List<HistorialLicenciaRecord> findHistorialByTitularId(@Param("titularId") Long titularId);
+
+    @Query("SELECT l.titular.id FROM Licencia l WHERE l.id = :licenciaId")
+    Optional<Long> findTitularIdById(@Param("licenciaId") Long licenciaId);
+
+    @Query("SELECT MAX(l.numeroCopia) FROM Licencia l WHERE l.licenciaOriginal.id = :licenciaOriginalId")
+    Optional<Integer> findMaxNumeroCopiaByLicenciaOriginalId(@Param("licenciaOriginalId") Long licenciaOriginalId);
+
+    // Renovación y copia: la licencia junto con su titular en un solo SELECT
+    @EntityGraph(attributePaths = "titular")
+    @Query("SELECT l FROM Licencia l WHERE l.id = :id")
+    Optional<Licencia> findConTitularById(@Param("id") Long id);
+
+    // Paginación keyset de vencidas sobre (fecha_vencimiento, id). El (k, id) > (?, ?) va expandido
+    // porque MySQL no siempre resuelve la comparación de tuplas como rango sobre el índice.
+    @EntityGraph(attributePaths = "titular")
+    @Query("""
+    SELECT l FROM Licencia l
+    WHERE l.fechaVencimiento < :hoy
+    ORDER BY l.fechaVencimiento ASC, l.id ASC
+""")
+    List<Licencia> findVencidasPrimeraPagina(@Param("hoy") LocalDate hoy, Limit limit);
+
+    @EntityGraph(attributePaths = "titular")
+    @Query("""
+    SELECT l FROM Licencia l
+    WHERE l.fechaVencimiento < :hoy
+    AND (l.fechaVencimiento > :despuesFecha
+         OR (l.fechaVencimiento = :despuesFecha AND l.id > :despuesId))
+    ORDER BY l.fechaVencimiento ASC, l.id ASC
+""")
+    List<Licencia> findVencidasDespuesDe(@Param("hoy") LocalDate hoy,
+                                         @Param("despuesFecha") LocalDate despuesFecha,
+                                         @Param("despuesId") Long despuesId,
+                                         Limit limit);
+
+    // Exportación de vencidas: cursor forward-only, filas planas sin entidades en el contexto de persistencia
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.LicenciaExportRecord(
+        l.id,
+        t.apellido,
+        t.nombre,
+        t.tipoDocumento,
+        t.numeroDocumento,
+        l.clase,
+        l.fechaEmision,
+        l.fechaVencimiento,
+        l.vigente,
+        l.numeroCopia
+    )
+    FROM Licencia l
+    JOIN l.titular t
+    WHERE l.fechaVencimiento < :hoy
+    ORDER BY l.fechaVencimiento ASC, l.id ASC
+""")
+    Stream<LicenciaExportRecord> streamVencidas(@Param("hoy") LocalDate hoy);
+}
@@ -0,0 +1,28 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.Usuario;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Búsquedas por clave natural ({@code @NaturalId}): pasan por la caché de clave natural → id y
+ * después por la de entidades, así una búsqueda repetida no llega a la base. Un
+ * {@code findByMail} derivado de Spring Data es una consulta JPQL y no usa esas cachés.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class NaturalIdRepository {
+
+    private final EntityManager em;
+
+    public Optional<Usuario> buscarUsuarioPorMail(String mail) {
+        return em.unwrap(Session.class).bySimpleNaturalId(Usuario.class).loadOptional(mail);
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.RecordatorioVencimiento;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserción de recordatorios en la bandeja de salida con un único batch JDBC por lote
+ * (con IDENTITY Hibernate insertaría fila por fila). No hacen falta las claves generadas.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecordatorioBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO recordatorios_vencimiento (licencia_id, ventana_dias, destinatario, asunto, cuerpo,
+                                                   estado, intentos, creado_en, proximo_intento)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertarTodos(List<RecordatorioVencimiento> recordatorios) {
+        if (recordatorios.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, recordatorios, recordatorios.size(), (ps, r) -> {
+            ps.setLong(1, r.getLicenciaId());
+            ps.setInt(2, r.getVentanaDias());
+            ps.setString(3, r.getDestinatario());
+            ps.setString(4, r.getAsunto());
+            ps.setString(5, r.getCuerpo());
+            ps.setString(6, r.getEstado().name());
+            ps.setInt(7, r.getIntentos());
+            ps.setTimestamp(8, Timestamp.from(r.getCreadoEn()));
+            ps.setTimestamp(9, Timestamp.from(r.getProximoIntento()));
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.RecordatorioVencimiento;
+import com.tpagiles.app_licencia.model.enums.EstadoRecordatorio;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecordatorioVencimientoRepository extends JpaRepository<RecordatorioVencimiento, Long> {
+
+    // usa idx_recordatorios_estado_proximo
+    @Query("""
+    SELECT r FROM RecordatorioVencimiento r
+    WHERE r.estado = com.tpagiles.app_licencia.model.enums.EstadoRecordatorio.PENDIENTE
+    AND r.proximoIntento <= :ahora
+    ORDER BY r.proximoIntento ASC, r.id ASC
+""")
+    List<RecordatorioVencimiento> findPendientes(@Param("ahora") Instant ahora, Limit limit);
+
+    @Modifying
+    @Query("""
+    UPDATE RecordatorioVencimiento r
+    SET r.estado = com.tpagiles.app_licencia.model.enums.EstadoRecordatorio.ENVIADO,
+        r.enviadoEn = :ahora, r.intentos = r.intentos + 1, r.ultimoError = null
+    WHERE r.id IN :ids
+""")
+    int marcarEnviados(@Param("ids") Collection<Long> ids, @Param("ahora") Instant ahora);
+
+    long countByEstado(EstadoRecordatorio estado);
+}
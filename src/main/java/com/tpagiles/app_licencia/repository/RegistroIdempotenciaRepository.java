@@ -0,0 +1,35 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.model.RegistroIdempotencia;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface RegistroIdempotenciaRepository extends JpaRepository<RegistroIdempotencia, String> {
+
+    // INSERT explícito: si la clave ya existe falla por PK en lugar de pisar la fila como haría save()
+    // sin la tabla declarada, Hibernate vacía toda la caché de segundo nivel en cada INSERT nativo
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotencia_respuestas"))
+    @Query(value = """
+        INSERT INTO idempotencia_respuestas (clave, huella, completada, expira_en)
+        VALUES (:clave, :huella, false, :expiraEn)
+        """, nativeQuery = true)
+    int reservar(@Param("clave") String clave, @Param("huella") String huella, @Param("expiraEn") Instant expiraEn);
+
+    @Modifying
+    @Query("DELETE FROM RegistroIdempotencia r WHERE r.clave = :clave AND r.expiraEn < :ahora")
+    int deleteExpirada(@Param("clave") String clave, @Param("ahora") Instant ahora);
+
+    @Modifying
+    @Query("DELETE FROM RegistroIdempotencia r WHERE r.expiraEn < :ahora")
+    int deleteExpiradas(@Param("ahora") Instant ahora);
+}
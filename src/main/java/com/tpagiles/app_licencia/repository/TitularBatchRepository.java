@@ -0,0 +1,116 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.dto.TitularNombreRecord;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.service.helper.CodificadorFonetico;
+import com.tpagiles.app_licencia.service.helper.NormalizadorTexto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Escrituras masivas sobre titulares por JDBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TitularBatchRepository {
+
+    // si la fila se modificó entre la lectura y el UPDATE ya tiene sus columnas: no se pisan
+    private static final String ACTUALIZAR_BUSQUEDA_SQL = """
+            UPDATE titulares
+            SET nombre_normalizado = ?, apellido_normalizado = ?, nombre_completo_normalizado = ?,
+                nombre_fonetico = ?, apellido_fonetico = ?, nombre_completo_fonetico = ?
+            WHERE id = ? AND (nombre_completo_normalizado IS NULL OR nombre_completo_fonetico IS NULL)
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO titulares (id, nombre, apellido, fecha_nacimiento, tipo_documento, numero_documento,
+                                   grupo_sanguineo, factor_rh, direccion, donante_organos, mail,
+                                   nombre_normalizado, apellido_normalizado, nombre_completo_normalizado,
+                                   nombre_fonetico, apellido_fonetico, nombre_completo_fonetico, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private static final String NUMEROS_DOCUMENTO_SQL = "SELECT numero_documento FROM titulares";
+
+    // filas por ida y vuelta al recorrer todos los documentos (con useCursorFetch en MySQL)
+    private static final int FILAS_POR_FETCH = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeneradorIds generadorIds;
+
+    /**
+     * Asigna un id a cada titular ({@link GeneradorIds}) y los inserta en un único batch, con sus
+     * columnas de búsqueda ya calculadas ({@link Titular#actualizarCamposBusqueda()}).
+     */
+    public void insertarTodas(List<Titular> titulares) {
+        if (titulares.isEmpty()) {
+            return;
+        }
+        long[] ids = generadorIds.generar(titulares);
+        for (int i = 0; i < ids.length; i++) {
+            titulares.get(i).setId(ids[i]);
+            titulares.get(i).setVersion(0L);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, titulares, titulares.size(), (ps, t) -> {
+            ps.setLong(1, t.getId());
+            ps.setString(2, t.getNombre());
+            ps.setString(3, t.getApellido());
+            ps.setDate(4, Date.valueOf(t.getFechaNacimiento()));
+            ps.setString(5, t.getTipoDocumento().name());
+            ps.setString(6, t.getNumeroDocumento());
+            ps.setString(7, t.getGrupoSanguineo().name());
+            ps.setString(8, t.getFactorRh().name());
+            ps.setString(9, t.getDireccion());
+            ps.setBoolean(10, t.isDonanteOrganos());
+            ps.setString(11, t.getMail());
+            ps.setString(12, t.getNombreNormalizado());
+            ps.setString(13, t.getApellidoNormalizado());
+            ps.setString(14, t.getNombreCompletoNormalizado());
+            ps.setString(15, t.getNombreFonetico());
+            ps.setString(16, t.getApellidoFonetico());
+            ps.setString(17, t.getNombreCompletoFonetico());
+        });
+    }
+
+    /**
+     * Recorre los números de documento de todos los titulares sin cargarlos juntos en memoria.
+     */
+    public void recorrerNumerosDocumento(Consumer<String> consumidor) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(NUMEROS_DOCUMENTO_SQL);
+            ps.setFetchSize(FILAS_POR_FETCH);
+            return ps;
+        }, rs -> {
+            consumidor.accept(rs.getString(1));
+        });
+    }
+
+    /**
+     * Completa las columnas de búsqueda normalizadas y fonéticas en un único batch.
+     *
+     * @return filas actualizadas
+     */
+    public int completarCamposBusqueda(List<TitularNombreRecord> titulares) {
+        if (titulares.isEmpty()) {
+            return 0;
+        }
+        int[][] resultados = jdbcTemplate.batchUpdate(ACTUALIZAR_BUSQUEDA_SQL, titulares, titulares.size(), (ps, t) -> {
+            ps.setString(1, NormalizadorTexto.normalizar(t.nombre()));
+            ps.setString(2, NormalizadorTexto.normalizar(t.apellido()));
+            ps.setString(3, NormalizadorTexto.nombreCompleto(t.apellido(), t.nombre()));
+            ps.setString(4, CodificadorFonetico.codificar(t.nombre()));
+            ps.setString(5, CodificadorFonetico.codificar(t.apellido()));
+            ps.setString(6, CodificadorFonetico.nombreCompleto(t.apellido(), t.nombre()));
+            ps.setLong(7, t.id());
+        });
+        // algunos drivers informan SUCCESS_NO_INFO (-2) por sentencia en lugar de la cantidad
+        return Arrays.stream(resultados).flatMapToInt(Arrays::stream).map(n -> n < 0 ? 1 : n).sum();
+    }
+}
@@ -0,0 +1,136 @@
+package com.tpagiles.app_licencia.repository;
+
+import com.tpagiles.app_licencia.dto.CursorKeyset;
+import com.tpagiles.app_licencia.dto.FiltroTitularesVigentesRecord;
+import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.service.helper.CodificadorFonetico;
+import com.tpagiles.app_licencia.service.helper.NormalizadorTexto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Búsqueda de titulares con licencias vigentes armada con Criteria: solo lleva los predicados de
+ * los filtros que llegaron, sin {@code (:x IS NULL OR ...)}, así el optimizador ve condiciones
+ * concretas y puede usar los índices (el rango del cursor sobre idx_titulares_apellido_nombre y
+ * el prefijo de nombre sobre las columnas normalizadas o fonéticas). Proyecta directo al DTO, sin hidratar entidades.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TitularBusquedaRepository {
+
+    private static final int FETCH_SIZE_EXPORTACION = 500;
+    // no la barra invertida: en MySQL también escapa dentro del literal de ESCAPE
+    private static final char ESCAPE_LIKE = '!';
+
+    private final EntityManager em;
+
+    /**
+     * Página ordenada por (apellido, nombre, id de licencia); con cursor continúa después de él.
+     */
+    public List<TitularLicenciaVigenteResponseRecord> buscarConLicenciasVigentes(FiltroTitularesVigentesRecord filtro,
+                                                                                CursorKeyset cursor,
+                                                                                int limite) {
+        return em.createQuery(consulta(filtro, cursor))
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    public long contarConLicenciasVigentes(FiltroTitularesVigentesRecord filtro) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Titular> t = cq.from(Titular.class);
+        Join<Titular, Licencia> l = t.join("licencias");
+        cq.select(cb.count(l)).where(predicados(cb, t, l, filtro, null));
+        return em.createQuery(cq).getSingleResult();
+    }
+
+    /**
+     * Para exportar: cursor forward-only; el Stream debe cerrarse dentro de la transacción.
+     */
+    public Stream<TitularLicenciaVigenteResponseRecord> streamConLicenciasVigentes(FiltroTitularesVigentesRecord filtro) {
+        return em.createQuery(consulta(filtro, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE_EXPORTACION)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<TitularLicenciaVigenteResponseRecord> consulta(FiltroTitularesVigentesRecord filtro,
+                                                                        CursorKeyset cursor) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<TitularLicenciaVigenteResponseRecord> cq = cb.createQuery(TitularLicenciaVigenteResponseRecord.class);
+        Root<Titular> t = cq.from(Titular.class);
+        Join<Titular, Licencia> l = t.join("licencias");
+        cq.select(cb.construct(TitularLicenciaVigenteResponseRecord.class,
+                        t.get("nombre"),
+                        t.get("apellido"),
+                        t.get("tipoDocumento"),
+                        t.get("numeroDocumento"),
+                        t.get("grupoSanguineo"),
+                        t.get("factorRh"),
+                        t.get("donanteOrganos"),
+                        l.get("clase"),
+                        l.get("fechaVencimiento"),
+                        l.get("id")))
+                .where(predicados(cb, t, l, filtro, cursor))
+                .orderBy(cb.asc(t.get("apellido")), cb.asc(t.get("nombre")), cb.asc(l.get("id")));
+        return cq;
+    }
+
+    private Predicate[] predicados(CriteriaBuilder cb, Root<Titular> t, Join<Titular, Licencia> l,
+                                   FiltroTitularesVigentesRecord filtro, CursorKeyset cursor) {
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.isTrue(l.get("vigente")));
+        predicados.add(t.get("tipoDocumento").in(TipoDocumento.DNI, TipoDocumento.PASAPORTE));
+
+        String buscado = filtro.fonetico()
+                ? CodificadorFonetico.codificar(filtro.nombreApellido())
+                : NormalizadorTexto.normalizar(filtro.nombreApellido());
+        if (buscado != null && !buscado.isEmpty()) {
+            // prefijo sobre columnas ya normalizadas (o codificadas): cada LIKE 'X%' es un rango sobre su índice
+            String patron = escaparLike(buscado) + "%";
+            String sufijo = filtro.fonetico() ? "Fonetico" : "Normalizado";
+            predicados.add(cb.or(
+                    cb.like(t.get("apellido" + sufijo), patron, ESCAPE_LIKE),
+                    cb.like(t.get("nombre" + sufijo), patron, ESCAPE_LIKE),
+                    cb.like(t.get("nombreCompleto" + sufijo), patron, ESCAPE_LIKE)));
+        }
+        if (filtro.gruposSanguineos() != null && !filtro.gruposSanguineos().isEmpty()) {
+            predicados.add(t.get("grupoSanguineo").in(filtro.gruposSanguineos()));
+        }
+        if (filtro.factorRh() != null) {
+            predicados.add(cb.equal(t.get("factorRh"), filtro.factorRh()));
+        }
+        if (filtro.soloDonantes() != null) {
+            predicados.add(cb.equal(t.get("donanteOrganos"), filtro.soloDonantes()));
+        }
+
+        if (cursor != null) {
+            // (apellido, nombre, id) > cursor expandido, igual que en la paginación de vencidas; el
+            // apellido >= redundante deja al optimizador un rango sobre idx_titulares_apellido_nombre
+            Path<String> apellido = t.get("apellido");
+            Path<String> nombre = t.get("nombre");
+            Path<Long> id = l.get("id");
+            predicados.add(cb.greaterThanOrEqualTo(apellido, cursor.clave(0)));
+            predicados.add(cb.or(
+                    cb.greaterThan(apellido, cursor.clave(0)),
+                    cb.and(cb.equal(apellido, cursor.clave(0)), cb.greaterThan(nombre, cursor.clave(1))),
+                    cb.and(cb.equal(apellido, cursor.clave(0)), cb.equal(nombre, cursor.clave(1)),
+                            cb.greaterThan(id, cursor.id()))));
+        }
+        return predicados.toArray(Predicate[]::new);
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
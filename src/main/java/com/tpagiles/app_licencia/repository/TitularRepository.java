@@ -1,51 +1,108 @@
 package com.tpagiles.app_licencia.repository;
 
-import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
+import com.tpagiles.app_licencia.dto.FacetaTitularRecord;
+import com.tpagiles.app_licencia.dto.TitularIndiceRecord;
+import com.tpagiles.app_licencia.dto.TitularNombreRecord;
+import com.tpagiles.app_licencia.dto.VersionTitularRecord;
 import com.tpagiles.app_licencia.model.Titular;
-import com.tpagiles.app_licencia.model.enums.FactorRh;
-import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TitularRepository extends JpaRepository<Titular, Long> {
+
     boolean existsByNumeroDocumento(String numeroDocumento);
     Optional<Titular> findByTipoDocumentoAndNumeroDocumento(TipoDocumento tipoDocumento, String numeroDocumento);
+
+    // Lecturas que emiten o comparan un ETag: la fila de la base y no la copia de la caché de segundo nivel
+    // de este nodo, que puede ir atrasada (hasta que expira) respecto de un cambio hecho en otro nodo;
+    // de paso se reemplaza esa copia
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH"))
+    @Query("SELECT t FROM Titular t WHERE t.id = :id")
+    Optional<Titular> findActualById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH"))
+    @Query("""
+    SELECT t FROM Titular t
+    WHERE t.tipoDocumento = :tipoDocumento AND t.numeroDocumento = :numeroDocumento
+""")
+    Optional<Titular> findActualByTipoDocumentoAndNumeroDocumento(
+            @Param("tipoDocumento") TipoDocumento tipoDocumento,
+            @Param("numeroDocumento") String numeroDocumento);
+
+    // GET condicionales (If-None-Match): solo la versión, sin cargar la entidad
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.VersionTitularRecord(t.id, t.version)
+    FROM Titular t
+    WHERE t.id = :id
+""")
+    Optional<VersionTitularRecord> findVersionById(@Param("id") Long id);
+
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.VersionTitularRecord(t.id, t.version)
+    FROM Titular t
+    WHERE t.tipoDocumento = :tipoDocumento AND t.numeroDocumento = :numeroDocumento
+""")
+    Optional<VersionTitularRecord> findVersionByTipoDocumentoAndNumeroDocumento(
+            @Param("tipoDocumento") TipoDocumento tipoDocumento,
+            @Param("numeroDocumento") String numeroDocumento);
+
+    // Bitmaps de facetas: carga completa por keyset de id
     @Query("""
-    SELECT new com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord(
-        t.nombre,
-        t.apellido,
-        t.tipoDocumento,
-        t.numeroDocumento,
-        t.grupoSanguineo,
-        t.factorRh,
-        t.donanteOrganos,
-        l.clase,
-        l.fechaVencimiento
-    )
+    SELECT new com.tpagiles.app_licencia.dto.FacetaTitularRecord(t.id, t.grupoSanguineo, t.factorRh, t.donanteOrganos)
     FROM Titular t
-    JOIN t.licencias l
-    WHERE l.vigente = true
-    AND t.tipoDocumento IN (com.tpagiles.app_licencia.model.enums.TipoDocumento.DNI, com.tpagiles.app_licencia.model.enums.TipoDocumento.PASAPORTE)
-    AND (:nombreApellido IS NULL OR 
-         UPPER(t.nombre) LIKE :nombreApellido OR 
-         UPPER(t.apellido) LIKE :nombreApellido)
-    AND (:grupoSanguineo IS NULL OR t.grupoSanguineo IN (:grupoSanguineo))
-    AND (:factorRh IS NULL OR t.factorRh = :factorRh)
-    AND (:soloDonantes IS NULL OR t.donanteOrganos = :soloDonantes)
-    ORDER BY t.apellido ASC, t.nombre ASC
+    WHERE t.id > :despuesId
+    ORDER BY t.id ASC
 """)
-    List<TitularLicenciaVigenteResponseRecord> findTitularesConLicenciasVigentes(
-            @Param("nombreApellido") String nombreApellido,
-            @Param("grupoSanguineo") List<GrupoSanguineo> grupoSanguineo,
-            @Param("factorRh") FactorRh factorRh,
-            @Param("soloDonantes") Boolean soloDonantes
-    );
-
-}
\ No newline at end of file
+    List<FacetaTitularRecord> findFacetas(@Param("despuesId") long despuesId, Limit limit);
+
+    // Índice de texto completo: reconstrucción por rangos de id y reindexado de un titular
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.TitularIndiceRecord(
+        t.id, t.nombre, t.apellido, t.tipoDocumento, t.numeroDocumento, t.direccion)
+    FROM Titular t
+    WHERE t.id > :despuesId AND t.id <= :hastaId
+    ORDER BY t.id ASC
+""")
+    List<TitularIndiceRecord> findParaIndice(@Param("despuesId") long despuesId,
+                                             @Param("hastaId") long hastaId,
+                                             Limit limit);
+
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.TitularIndiceRecord(
+        t.id, t.nombre, t.apellido, t.tipoDocumento, t.numeroDocumento, t.direccion)
+    FROM Titular t
+    WHERE t.id = :id
+""")
+    Optional<TitularIndiceRecord> findParaIndiceById(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Titular t")
+    long findMaxId();
+
+    // Backfill de las columnas de búsqueda (normalizadas y fonéticas): filas todavía sin completar, por keyset de id
+    @Query("""
+    SELECT new com.tpagiles.app_licencia.dto.TitularNombreRecord(t.id, t.nombre, t.apellido)
+    FROM Titular t
+    WHERE (t.nombreCompletoNormalizado IS NULL OR t.nombreCompletoFonetico IS NULL) AND t.id > :despuesId
+    ORDER BY t.id ASC
+""")
+    List<TitularNombreRecord> findSinNormalizar(@Param("despuesId") long despuesId, Limit limit);
+
+    // SELECT ... FOR UPDATE: serializa las escrituras de un titular entre nodos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Titular t WHERE t.id IN :ids ORDER BY t.id")
+    List<Titular> bloquearPorIds(@Param("ids") Collection<Long> ids);
+}
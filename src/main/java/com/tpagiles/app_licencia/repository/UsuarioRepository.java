@@ -1,8 +1,16 @@
 package com.tpagiles.app_licencia.repository;
+import com.tpagiles.app_licencia.config.RegionesCache;
 import com.tpagiles.app_licencia.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +18,25 @@ import java.util.Optional;
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByMail(String mail);
     boolean existsByMail(String mail);
-}
\ No newline at end of file
+    List<Usuario> findByMailIn(Collection<String> mails);
+
+    // Paginación keyset por id de los usuarios con rol OPERADOR
+    @Query("""
+    SELECT u FROM Usuario u JOIN u.roles r
+    WHERE r = com.tpagiles.app_licencia.model.enums.Rol.OPERADOR
+    AND u.id > :despuesId
+    ORDER BY u.id ASC
+""")
+    List<Usuario> findOperadoresDespuesDe(@Param("despuesId") long despuesId, Limit limit);
+
+    // total del listado paginado: cacheado hasta el próximo cambio en usuarios o usuario_roles
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RegionesCache.CONSULTAS)
+    })
+    @Query("""
+    SELECT COUNT(u) FROM Usuario u JOIN u.roles r
+    WHERE r = com.tpagiles.app_licencia.model.enums.Rol.OPERADOR
+""")
+    long countOperadores();
+}
@@ -0,0 +1,28 @@
+package com.tpagiles.app_licencia.scheduler;
+
+import java.lang.annotation.*;
+
+/**
+ * Marca un método programado para que, con varios nodos, solo lo ejecute el que tome el
+ * bloqueo {@link #nombre()} en la tabla bloqueos_job; en los demás la invocación se omite.
+ * Mientras corre, el nodo renueva el lease cada tercio de {@link #vigenciaMs()}.
+ * Solo tiene sentido en métodos void: si se omite, el aspecto devuelve null.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EjecucionExclusiva {
+
+    String nombre();
+
+    /**
+     * Plazo del lease; si el nodo cae, otro puede tomar el job a lo sumo pasado este tiempo.
+     */
+    long vigenciaMs() default 60_000;
+
+    /**
+     * Tiempo mínimo que el bloqueo queda tomado aunque el job termine antes, para que un nodo
+     * con el reloj algo atrasado no repita la misma corrida programada.
+     */
+    long minimoMs() default 30_000;
+}
@@ -0,0 +1,78 @@
+package com.tpagiles.app_licencia.scheduler;
+
+import com.tpagiles.app_licencia.service.IBloqueoJobService;
+import jakarta.annotation.PreDestroy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica {@link EjecucionExclusiva}: toma el bloqueo, programa el latido mientras el método
+ * corre y lo libera al terminar, aunque el método falle.
+ */
+@Aspect
+@Component
+public class EjecucionExclusivaAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjecucionExclusivaAspect.class);
+
+    private final IBloqueoJobService bloqueos;
+    private final ScheduledExecutorService latidos = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("bloqueo-job-latido").daemon().factory());
+
+    public EjecucionExclusivaAspect(IBloqueoJobService bloqueos) {
+        this.bloqueos = bloqueos;
+    }
+
+    @Around("@annotation(exclusiva)")
+    public Object ejecutar(ProceedingJoinPoint pjp, EjecucionExclusiva exclusiva) throws Throwable {
+        String nombre = exclusiva.nombre();
+        Duration vigencia = Duration.ofMillis(exclusiva.vigenciaMs());
+        if (!bloqueos.adquirir(nombre, vigencia)) {
+            logger.debug("{}: lo está ejecutando otro nodo, se omite", nombre);
+            return null;
+        }
+
+        Instant inicio = Instant.now();
+        long intervalo = Math.max(1, exclusiva.vigenciaMs() / 3);
+        ScheduledFuture<?> latido = latidos.scheduleAtFixedRate(
+                () -> latir(nombre, vigencia), intervalo, intervalo, TimeUnit.MILLISECONDS);
+        try {
+            return pjp.proceed();
+        } finally {
+            latido.cancel(false);
+            try {
+                bloqueos.liberar(nombre, inicio.plusMillis(exclusiva.minimoMs()));
+            } catch (RuntimeException e) {
+                // sin liberar, el bloqueo vence solo al terminar el lease
+                logger.warn("{}: no se pudo liberar el bloqueo", nombre, e);
+            }
+        }
+    }
+
+    private void latir(String nombre, Duration vigencia) {
+        try {
+            if (!bloqueos.renovar(nombre, vigencia)) {
+                logger.warn("{}: el bloqueo venció y lo tomó otro nodo mientras seguía en ejecución", nombre);
+            }
+        } catch (RuntimeException e) {
+            // se reintenta en el próximo latido; si la base sigue caída el lease vence
+            logger.warn("{}: no se pudo renovar el bloqueo", nombre, e);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        latidos.shutdownNow();
+    }
+}
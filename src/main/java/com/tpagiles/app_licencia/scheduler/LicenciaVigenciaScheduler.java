@@ -1,24 +1,66 @@
 package com.tpagiles.app_licencia.scheduler;
 
-import com.tpagiles.app_licencia.repository.LicenciaRepository;
-import lombok.RequiredArgsConstructor;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+import com.tpagiles.app_licencia.service.IContadorService;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import com.tpagiles.app_licencia.service.IVencimientoLicenciasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 
+/**
+ * Con varios nodos detrás del balanceador, el bloqueo {@value #JOB} en bloqueos_job hace que
+ * cada corrida la ejecute uno solo; los demás la omiten.
+ */
 @Service
-@RequiredArgsConstructor
 @EnableScheduling
 public class LicenciaVigenciaScheduler {
 
-    private final LicenciaRepository licenciaRepo;
+    private static final Logger logger = LoggerFactory.getLogger(LicenciaVigenciaScheduler.class);
+    static final String JOB = "marcar-vencidas";
 
-    @Scheduled(cron = "0 0 0 * * *")//basicamente lo hago todos los dias a las 00:00
-    @Transactional
+    private final IVencimientoLicenciasService vencimientos;
+    private final IContadorService contadores;
+    private final IFacetasService facetas;
+    private final boolean recuperarAlIniciar;
+
+    public LicenciaVigenciaScheduler(IVencimientoLicenciasService vencimientos,
+                                     IContadorService contadores,
+                                     IFacetasService facetas,
+                                     @Value("${app.vencimiento-job.recuperar-al-iniciar:true}") boolean recuperarAlIniciar) {
+        this.vencimientos = vencimientos;
+        this.contadores = contadores;
+        this.facetas = facetas;
+        this.recuperarAlIniciar = recuperarAlIniciar;
+    }
+
+    @Scheduled(cron = "${app.vencimiento-job.cron:0 0 0 * * *}")//basicamente lo hago todos los dias a las 00:00
+    @EjecucionExclusiva(nombre = JOB)
     public void marcarVencidas() {
-        licenciaRepo.deactivateExpired(LocalDate.now());
+        ejecutar();
+    }
+
+    // si el cluster estaba caído a la medianoche o la corrida quedó a medias, se completa al arrancar;
+    // tarea única posterior al arranque, así pasa por el mismo bloqueo que la corrida diaria
+    @Scheduled(initialDelayString = "${app.vencimiento-job.recuperacion-demora-ms:10000}")
+    @EjecucionExclusiva(nombre = JOB)
+    public void recuperarCorridaPendiente() {
+        if (recuperarAlIniciar && vencimientos.pendiente(LocalDate.now())) {
+            logger.info("Se retoma la corrida de vencimientos pendiente");
+            ejecutar();
+        }
+    }
+
+    private void ejecutar() {
+        vencimientos.procesar(LocalDate.now());
+        // al cambiar el día pasan a vencidas todas las que vencieron ayer
+        contadores.recalcular(TipoContador.LICENCIAS_VENCIDAS);
+        // el job desactiva con UPDATE masivos, sin saber qué ids tocó
+        facetas.reconstruir();
     }
 }
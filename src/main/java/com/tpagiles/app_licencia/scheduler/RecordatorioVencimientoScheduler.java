@@ -0,0 +1,35 @@
+package com.tpagiles.app_licencia.scheduler;
+
+import com.tpagiles.app_licencia.service.IRecordatorioVencimientoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Generación diaria y envío periódico de recordatorios de vencimiento, cada uno en un solo nodo.
+ */
+@Service
+@ConditionalOnProperty(name = "app.recordatorios.habilitado", havingValue = "true", matchIfMissing = true)
+public class RecordatorioVencimientoScheduler {
+
+    private final IRecordatorioVencimientoService recordatorios;
+
+    public RecordatorioVencimientoScheduler(IRecordatorioVencimientoService recordatorios) {
+        this.recordatorios = recordatorios;
+    }
+
+    @Scheduled(cron = "${app.recordatorios.cron:0 0 6 * * *}")
+    @EjecucionExclusiva(nombre = "generar-recordatorios")
+    public void generar() {
+        recordatorios.generar(LocalDate.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.recordatorios.envio-ms:60000}",
+            initialDelayString = "${app.recordatorios.envio-ms:60000}")
+    @EjecucionExclusiva(nombre = "enviar-recordatorios")
+    public void enviar() {
+        recordatorios.enviarPendientes();
+    }
+}
@@ -0,0 +1,94 @@
+package com.tpagiles.app_licencia.security;
+
+import com.tpagiles.app_licencia.exception.OperacionNoPermitidaException;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.repository.NaturalIdRepository;
+import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Determina qué Usuario figura como emisor de una licencia.
+ * Por defecto es el usuario autenticado (ya cargado por {@link JwtAuthenticationFilter}),
+ * referenciado por id sin un SELECT extra. Solo un SUPER_USER puede indicar otro emisor.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmisorResolver {
+
+    private final UsuarioRepository usuarioRepo;
+    private final NaturalIdRepository naturalIds;
+
+    /**
+     * Devuelve el emisor para una operación de escritura.
+     *
+     * @param emisorSolicitado mail enviado en el cuerpo (opcional)
+     */
+    public Usuario resolver(String emisorSolicitado) {
+        String mail = mailDeOverride(emisorSolicitado);
+        if (mail == null) {
+            return referenciaAutenticado();
+        }
+        return naturalIds.buscarUsuarioPorMail(mail)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario emisor no encontrado: " + mail));
+    }
+
+    /**
+     * Devuelve null si corresponde usar al usuario autenticado, o el mail que hay que buscar.
+     *
+     * @throws OperacionNoPermitidaException si un no SUPER_USER intenta emitir a nombre de otro
+     * @throws IllegalArgumentException si no hay usuario autenticado ni emisor indicado
+     */
+    public String mailDeOverride(String emisorSolicitado) {
+        boolean indicado = emisorSolicitado != null && !emisorSolicitado.isBlank();
+        Usuario autenticado = usuarioAutenticado();
+
+        if (autenticado == null) {
+            // llamadas internas sin contexto de seguridad: se exige el emisor explícito
+            if (!indicado) {
+                throw new IllegalArgumentException("Debe indicar el mail del emisor");
+            }
+            return emisorSolicitado.trim();
+        }
+        if (!indicado || autenticado.getMail().equalsIgnoreCase(emisorSolicitado.trim())) {
+            return null;
+        }
+        if (!autenticado.getRoles().contains(Rol.SUPER_USER)) {
+            throw new OperacionNoPermitidaException(
+                    "Solo un SUPER_USER puede registrar una emisión a nombre de otro usuario");
+        }
+        return emisorSolicitado.trim();
+    }
+
+    /**
+     * Mail del emisor que corresponde a esta solicitud: el override permitido o el del usuario autenticado.
+     * Sirve para fijar el emisor antes de procesar la emisión fuera del hilo de la solicitud.
+     */
+    public String mailEfectivo(String emisorSolicitado) {
+        String mail = mailDeOverride(emisorSolicitado);
+        return mail != null ? mail : usuarioAutenticado().getMail();
+    }
+
+    /**
+     * Referencia administrada al usuario autenticado; no dispara ninguna consulta.
+     */
+    public Usuario referenciaAutenticado() {
+        Usuario autenticado = usuarioAutenticado();
+        if (autenticado == null) {
+            throw new IllegalArgumentException("Debe indicar el mail del emisor");
+        }
+        return usuarioRepo.getReferenceById(autenticado.getId());
+    }
+
+    private Usuario usuarioAutenticado() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof Usuario usuario) {
+            return usuario;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.tpagiles.app_licencia.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpagiles.app_licencia.config.ErrorResponseFactory;
+import com.tpagiles.app_licencia.dto.RespuestaIdempotenteRecord;
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.service.IIdempotenciaStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Aplica la cabecera Idempotency-Key a los POST de creación: la primera solicitud se procesa
+ * y su respuesta se guarda; los reintentos con la misma clave reciben esa respuesta sin volver
+ * a pasar por el controlador. La clave se aísla por usuario, método y ruta.
+ */
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+    private static final int LARGO_MAXIMO_CLAVE = 100;
+
+    private final IIdempotenciaStore store;
+    private final Set<String> rutas;
+    private final ErrorResponseFactory factory;
+    private final ObjectMapper mapper;
+
+    public IdempotenciaFilter(IIdempotenciaStore store, Set<String> rutas,
+                              ErrorResponseFactory factory, ObjectMapper mapper) {
+        this.store = store;
+        this.rutas = rutas;
+        this.factory = factory;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest req) {
+        return !HttpMethod.POST.matches(req.getMethod())
+                || req.getHeader(HEADER) == null
+                || !rutas.contains(req.getRequestURI().substring(req.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest req,
+                                    @NonNull HttpServletResponse res,
+                                    @NonNull FilterChain chain)
+            throws ServletException, IOException {
+        String clave = req.getHeader(HEADER).trim();
+        if (clave.isEmpty() || clave.length() > LARGO_MAXIMO_CLAVE) {
+            escribirError(res, HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key debe tener entre 1 y " + LARGO_MAXIMO_CLAVE + " caracteres");
+            return;
+        }
+
+        byte[] cuerpo = req.getInputStream().readAllBytes();
+        String huella = huella(cuerpo);
+        String ambito = usuarioActual() + "|" + req.getMethod() + "|" + req.getRequestURI() + "|" + clave;
+
+        Optional<RespuestaIdempotenteRecord> guardada;
+        try {
+            guardada = store.reservarOEsperar(ambito, huella);
+        } catch (SolicitudEnCursoException ex) {
+            escribirError(res, HttpStatus.CONFLICT, ex.getMessage());
+            return;
+        }
+
+        if (guardada.isPresent()) {
+            repetir(guardada.get(), huella, res);
+            return;
+        }
+
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(res);
+        boolean completada = false;
+        try {
+            chain.doFilter(new CuerpoCacheadoRequest(req, cuerpo), respuesta);
+            // los 5xx no se guardan: el cliente puede reintentar con la misma clave
+            if (respuesta.getStatus() < 500) {
+                store.completar(ambito, new RespuestaIdempotenteRecord(
+                        huella, respuesta.getStatus(), respuesta.getContentType(),
+                        respuesta.getContentAsByteArray()));
+                completada = true;
+            }
+        } finally {
+            if (!completada) {
+                store.liberar(ambito);
+            }
+            respuesta.copyBodyToResponse();
+        }
+    }
+
+    private void repetir(RespuestaIdempotenteRecord guardada, String huella, HttpServletResponse res)
+            throws IOException {
+        if (!guardada.huella().equals(huella)) {
+            escribirError(res, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "La Idempotency-Key ya se usó con un cuerpo de solicitud distinto");
+            return;
+        }
+        res.setStatus(guardada.status());
+        if (guardada.contentType() != null) {
+            res.setContentType(guardada.contentType());
+        }
+        res.setHeader(HEADER_REPETIDA, "true");
+        res.setContentLength(guardada.cuerpo().length);
+        res.getOutputStream().write(guardada.cuerpo());
+    }
+
+    private void escribirError(HttpServletResponse res, HttpStatus status, String mensaje) throws IOException {
+        res.setStatus(status.value());
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(res.getWriter(), factory.build(status, mensaje));
+    }
+
+    private static String usuarioActual() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : "anonimo";
+    }
+
+    private static String huella(byte[] cuerpo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cuerpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /** Request con el cuerpo ya leído, para poder calcular la huella y seguir con la cadena. */
+    private static final class CuerpoCacheadoRequest extends HttpServletRequestWrapper {
+        private final byte[] cuerpo;
+
+        CuerpoCacheadoRequest(HttpServletRequest req, byte[] cuerpo) {
+            super(req);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override public boolean isFinished() { return in.available() == 0; }
+                @Override public boolean isReady() { return true; }
+                @Override public int read() { return in.read(); }
+                @Override public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+
+                // lectura no bloqueante: el cuerpo ya está en memoria, así que está todo disponible de una vez
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return cuerpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return cuerpo.length;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.SugerenciaTitularRecord;
+import com.tpagiles.app_licencia.model.Titular;
+
+import java.util.List;
+
+/**
+ * Autocompletado de apellidos y números de documento resuelto en memoria, sin consultar la base.
+ * Los cambios se aplican al confirmarse la transacción en curso y una reconstrucción periódica
+ * corrige cualquier desvío.
+ */
+public interface IAutocompletarService {
+
+    /**
+     * Apellidos (sin distinguir tildes ni mayúsculas) y números de documento (ignorando puntos
+     * y guiones) que empiezan con {@code prefijo}, en orden alfabético. Si el prefijo empieza con
+     * un dígito van primero los documentos; si no, los apellidos.
+     */
+    List<SugerenciaTitularRecord> sugerir(String prefijo, int limite);
+
+    void registrarAlta(Titular titular);
+
+    /**
+     * @param apellidoAnterior        apellido antes del cambio
+     * @param numeroDocumentoAnterior documento antes del cambio
+     */
+    void registrarCambio(String apellidoAnterior, String numeroDocumentoAnterior, Titular titular);
+
+    void registrarBaja(String apellido, String numeroDocumento);
+
+    /**
+     * Vuelve a cargar los diccionarios desde la base. Las sugerencias siguen respondiendo con los
+     * anteriores hasta que termina.
+     *
+     * @return cantidad de titulares leídos
+     */
+    long reconstruir();
+}
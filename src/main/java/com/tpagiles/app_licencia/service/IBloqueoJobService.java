@@ -0,0 +1,35 @@
+package com.tpagiles.app_licencia.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bloqueo por nombre de job compartido entre nodos, con vencimiento: si el nodo que lo tiene
+ * cae sin liberarlo, otro puede tomarlo cuando pasa el plazo.
+ */
+public interface IBloqueoJobService {
+
+    /**
+     * Toma el bloqueo por {@code vigencia} si está libre o vencido.
+     *
+     * @return false si otro nodo lo tiene vigente
+     */
+    boolean adquirir(String nombre, Duration vigencia);
+
+    /**
+     * Latido: extiende el plazo mientras el job sigue corriendo.
+     *
+     * @return false si el bloqueo ya no es de este nodo (venció y lo tomó otro)
+     */
+    boolean renovar(String nombre, Duration vigencia);
+
+    /**
+     * Libera el bloqueo; queda tomado hasta {@code libreDesde} si es posterior a ahora.
+     */
+    void liberar(String nombre, Instant libreDesde);
+
+    /**
+     * Identificador de este nodo como propietario de los bloqueos.
+     */
+    String nodo();
+}
@@ -0,0 +1,24 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.RegionCacheRecord;
+
+import java.util.List;
+
+/**
+ * Estadísticas y vaciado manual de la caché de segundo nivel de Hibernate (ver {@code CacheConfig}).
+ * Todo es local al nodo que atiende la llamada.
+ */
+public interface ICacheSegundoNivelService {
+
+    /**
+     * Una entrada por región, ordenadas por nombre; vacía si la caché está deshabilitada.
+     */
+    List<RegionCacheRecord> estadisticas();
+
+    /**
+     * @throws com.tpagiles.app_licencia.exception.ResourceNotFoundException si la región no existe
+     */
+    void vaciar(String region);
+
+    void vaciarTodas();
+}
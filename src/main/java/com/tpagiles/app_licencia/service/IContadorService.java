@@ -0,0 +1,30 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+
+/**
+ * Totales del tablero mantenidos en memoria. Las lecturas no hacen I/O; las escrituras
+ * se aplican al confirmarse la transacción en curso y un proceso periódico los concilia
+ * con la base.
+ */
+public interface IContadorService {
+
+    long valor(TipoContador tipo);
+
+    /**
+     * Suma {@code delta} (puede ser negativo) cuando la transacción actual hace commit,
+     * o en el momento si no hay transacción activa.
+     */
+    void sumar(TipoContador tipo, long delta);
+
+    /**
+     * Recalcula los contadores indicados contra la base después del commit, para
+     * operaciones cuyo efecto no se conoce de antemano (por ejemplo borrados en cascada).
+     */
+    void recalcular(TipoContador... tipos);
+
+    /**
+     * Concilia todos los contadores con la base y persiste sus valores.
+     */
+    void conciliar();
+}
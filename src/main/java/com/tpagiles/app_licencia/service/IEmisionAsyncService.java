@@ -0,0 +1,18 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.LicenciaRecord;
+import com.tpagiles.app_licencia.dto.TicketEmisionRecord;
+
+import java.util.UUID;
+
+public interface IEmisionAsyncService {
+
+    /**
+     * Acepta la solicitud y la deja en la cola de emisión.
+     *
+     * @throws com.tpagiles.app_licencia.exception.ColaSaturadaException si la cola está llena
+     */
+    TicketEmisionRecord encolar(LicenciaRecord req);
+
+    TicketEmisionRecord consultar(UUID ticketId);
+}
@@ -0,0 +1,47 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.FacetasResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.UnidadFacetas;
+
+import java.util.Collection;
+
+/**
+ * Conteos por grupo sanguíneo, factor RH, donante, clase y vigencia resueltos con bitmaps en
+ * memoria, sin consultar la base. Las escrituras se aplican al confirmarse la transacción en
+ * curso y una reconstrucción periódica corrige cualquier desvío.
+ */
+public interface IFacetasService {
+
+    /**
+     * @param filtro expresión AND/OR/NOT sobre las facetas (ver {@code ExpresionFacetas});
+     *               vacío = sin filtro
+     * @param unidad con {@link UnidadFacetas#TITULARES} y facetas de licencia en el filtro, se
+     *               cuentan los titulares que tienen al menos una licencia que lo cumple
+     */
+    FacetasResponseRecord contar(String filtro, UnidadFacetas unidad);
+
+    /**
+     * Alta o cambio de un titular; sus licencias toman los nuevos atributos.
+     */
+    void registrarTitular(Titular titular);
+
+    /**
+     * Baja de un titular junto con sus licencias.
+     */
+    void eliminarTitular(Long titularId);
+
+    /**
+     * Alta o cambio de una licencia (emisión, renovación, copia).
+     */
+    void registrarLicencia(Licencia licencia);
+
+    void marcarNoVigentes(Collection<Long> licenciaIds);
+
+    /**
+     * Vuelve a cargar todos los bitmaps desde la base. Los conteos siguen respondiendo con los
+     * bitmaps anteriores hasta que termina.
+     */
+    void reconstruir();
+}
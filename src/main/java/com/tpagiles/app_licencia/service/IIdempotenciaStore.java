@@ -0,0 +1,30 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.RespuestaIdempotenteRecord;
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+
+import java.util.Optional;
+
+/**
+ * Almacén de respuestas para solicitudes con Idempotency-Key.
+ */
+public interface IIdempotenciaStore {
+
+    /**
+     * Reserva la clave para la solicitud actual o devuelve la respuesta ya guardada.
+     * Si otra solicitud con la misma clave está en curso, espera a que termine.
+     *
+     * @return vacío si la clave quedó reservada (hay que llamar a completar o liberar),
+     *         o la respuesta guardada para repetirla
+     * @throws SolicitudEnCursoException si la solicitud original no terminó dentro de la espera
+     */
+    Optional<RespuestaIdempotenteRecord> reservarOEsperar(String clave, String huella);
+
+    void completar(String clave, RespuestaIdempotenteRecord respuesta);
+
+    /**
+     * Libera una clave reservada sin guardar respuesta (por ejemplo tras un error 5xx),
+     * para que un reintento vuelva a procesarse.
+     */
+    void liberar(String clave);
+}
@@ -0,0 +1,38 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.ImportacionTitularesRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Carga masiva de titulares desde CSV, con encabezado y una columna por campo de
+ * {@code TitularRecord}. Cada registro se valida con las mismas reglas que el alta individual;
+ * los inválidos o con documento repetido se rechazan con su número de línea y el resto se
+ * inserta por lotes, una transacción por lote.
+ */
+public interface IImportacionTitularesService {
+
+    /**
+     * Guarda el CSV recibido y lo importa en segundo plano. El encabezado se valida antes de volver.
+     *
+     * @throws IllegalArgumentException si el encabezado no tiene las columnas esperadas
+     * @throws com.tpagiles.app_licencia.exception.SolicitudEnCursoException si ya hay una importación en curso
+     */
+    ImportacionTitularesRecord iniciar(InputStream csv) throws IOException;
+
+    ImportacionTitularesRecord consultar(UUID id);
+
+    /**
+     * Escribe el archivo de rechazos (CSV: linea, numeroDocumento, motivo) tal como está hasta el momento.
+     */
+    void escribirRechazos(UUID id, OutputStream out) throws IOException;
+
+    /**
+     * Importa {@code csv} en el hilo actual y deja los rechazos en {@code rechazos} (modo línea de comandos).
+     */
+    ImportacionTitularesRecord importar(Path csv, Path rechazos) throws IOException;
+}
@@ -0,0 +1,40 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.TitularBusquedaResponseRecord;
+
+import java.util.List;
+
+/**
+ * Índice de texto completo de titulares (nombre, apellido, documento y dirección), local a cada nodo.
+ */
+public interface IIndiceTitularesService {
+
+    /**
+     * Búsqueda tolerante a errores de tipeo: cada palabra matchea exacta, por prefijo o
+     * aproximada (distancia de edición 1 o 2 según su largo), sin distinguir tildes ni mayúsculas.
+     *
+     * @return hasta {@code limite} titulares, de mayor a menor relevancia
+     */
+    List<TitularBusquedaResponseRecord> buscar(String consulta, int limite);
+
+    /**
+     * Programa el reindexado del titular cuando confirme la transacción en curso (o ya mismo si no
+     * hay una). El titular se vuelve a leer de la base, así que sirve tanto para altas y cambios
+     * como para bajas.
+     */
+    void registrarCambio(Long titularId);
+
+    /**
+     * Vuelve a cargar el índice completo desde la base, leyendo en paralelo por rangos de id.
+     * Las búsquedas siguen respondiendo con el índice anterior mientras tanto, y los cambios
+     * registrados durante la reconstrucción no se pierden.
+     *
+     * @return cantidad de titulares indexados
+     */
+    long reconstruir();
+
+    /**
+     * Espera a que se apliquen los cambios ya registrados y los deja visibles para las búsquedas.
+     */
+    void sincronizar();
+}
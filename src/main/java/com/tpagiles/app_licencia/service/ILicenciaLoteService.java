@@ -0,0 +1,10 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.LicenciaRecord;
+import com.tpagiles.app_licencia.dto.LoteLicenciasResponseRecord;
+
+import java.util.List;
+
+public interface ILicenciaLoteService {
+    LoteLicenciasResponseRecord emitirLote(List<LicenciaRecord> solicitudes);
+}
@@ -1,16 +1,25 @@
 package com.tpagiles.app_licencia.service;
 
 import com.tpagiles.app_licencia.dto.*;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface ILicenciaService {
     LicenciaResponseRecord emitirLicencia(LicenciaRecord request);
 
     @Transactional(readOnly = true)
-    List<LicenciaResponseRecord> listarLicenciasVencidas();
+    PaginaRecord<LicenciaResponseRecord> listarLicenciasVencidas(int limit, String after);
+
+    /**
+     * Escribe todas las licencias vencidas en el formato pedido, fila por fila.
+     *
+     * @return cantidad de filas exportadas
+     */
+    long exportarLicenciasVencidas(FormatoExportacion formato, OutputStream out) throws IOException;
 
     @Transactional(readOnly = true)
     long contarLicenciasVencidas();
@@ -0,0 +1,17 @@
+package com.tpagiles.app_licencia.service;
+
+import java.time.LocalDate;
+
+/**
+ * Pasa las licencias a no vigentes en cuanto vence su fecha, en lugar de esperar al job
+ * nocturno. Con el motor activo el flag {@code vigente} es autoritativo.
+ */
+public interface IMotorVencimientoService {
+
+    /**
+     * Agenda una licencia recién guardada. Si hay una transacción activa se agenda al
+     * confirmarse; si vence más allá del horizonte de la rueda se cargará desde la base
+     * cuando la rueda avance.
+     */
+    void registrar(Long licenciaId, LocalDate fechaVencimiento);
+}
@@ -0,0 +1,15 @@
+package com.tpagiles.app_licencia.service;
+
+/**
+ * Completa las columnas de búsqueda normalizadas y fonéticas de los titulares cargados antes de que existieran.
+ */
+public interface INormalizacionTitularesService {
+
+    /**
+     * Recorre por lotes los titulares con columnas de búsqueda pendientes y las completa, un lote por
+     * transacción. Es idempotente: una corrida interrumpida se retoma con la siguiente.
+     *
+     * @return cantidad de titulares actualizados
+     */
+    long completarPendientes();
+}
@@ -0,0 +1,27 @@
+package com.tpagiles.app_licencia.service;
+
+import java.time.LocalDate;
+
+/**
+ * Recordatorios de vencimiento a los titulares: se generan por lotes en una bandeja de salida
+ * persistente y se entregan aparte a través de {@link IRemitenteNotificaciones}.
+ */
+public interface IRecordatorioVencimientoService {
+
+    /**
+     * Genera los recordatorios de cada ventana (por defecto 30, 15 y 7 días antes del vencimiento)
+     * para las licencias vigentes de titulares con mail. Es idempotente por (licencia, ventana):
+     * repetirlo en el mismo día no genera nada nuevo.
+     *
+     * @return cantidad de recordatorios generados
+     */
+    long generar(LocalDate hoy);
+
+    /**
+     * Entrega los recordatorios pendientes con concurrencia y tasa acotadas; los que fallan se
+     * reprograman con espera creciente hasta agotar los intentos.
+     *
+     * @return cantidad de recordatorios enviados
+     */
+    long enviarPendientes();
+}
@@ -0,0 +1,13 @@
+package com.tpagiles.app_licencia.service;
+
+/**
+ * Canal de entrega de las notificaciones de la bandeja de salida. La implementación se elige
+ * con {@code app.recordatorios.remitente} (log, smtp).
+ */
+public interface IRemitenteNotificaciones {
+
+    /**
+     * Entrega el mensaje o lanza una excepción si no pudo; el llamador decide los reintentos.
+     */
+    void enviar(String destinatario, String asunto, String cuerpo);
+}
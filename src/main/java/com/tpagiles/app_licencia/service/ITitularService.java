@@ -1,20 +1,43 @@
 package com.tpagiles.app_licencia.service;
 
+import com.tpagiles.app_licencia.dto.FiltroTitularesVigentesRecord;
+import com.tpagiles.app_licencia.dto.PaginaRecord;
+import com.tpagiles.app_licencia.dto.SugerenciaTitularRecord;
+import com.tpagiles.app_licencia.dto.TitularBusquedaResponseRecord;
 import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
 import com.tpagiles.app_licencia.dto.TitularRecord;
+import com.tpagiles.app_licencia.dto.VersionTitularRecord;
 import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface ITitularService {
     Titular createTitular(TitularRecord titular);
     Titular obtenerPorId(Long id);
     List<Titular> listarTodos();
+
+    /**
+     * Versión actual del titular, sin cargar la entidad (GET condicionales).
+     */
+    VersionTitularRecord obtenerVersion(Long id);
+
+    VersionTitularRecord obtenerVersionPorDocumento(TipoDocumento tipoDocumento, String numeroDocumento);
+
+    /**
+     * @param precondicion se evalúa sobre el titular actual antes de modificarlo (If-Match); null si no hay.
+     *                     Si no se cumple, o si otro cambio se confirma en el medio, la actualización falla
+     *                     sin pisar nada
+     */
     Titular actualizarTitularPorDocumento(TipoDocumento tipoDocumento,
                                           String numeroDocumento,
-                                          TitularRecord titular);
+                                          TitularRecord titular,
+                                          Predicate<Titular> precondicion);
     void eliminarTitular(Long id);
 
     @Transactional(readOnly = true)
@@ -23,10 +46,42 @@ public interface ITitularService {
     @Transactional(readOnly = true)
     Titular obtenerPorTipoYNumeroDocumento(TipoDocumento tipoDocumento,
                                            String numeroDocumento);
-    List<TitularLicenciaVigenteResponseRecord> buscarTitularesConLicenciasVigentes(
+    PaginaRecord<TitularLicenciaVigenteResponseRecord> buscarTitularesConLicenciasVigentes(
             String nombreApellido,
             List<String> grupoSanguineo,
             String factorRh,
-            Boolean soloDonantes
+            Boolean soloDonantes,
+            boolean fonetico,
+            int limit,
+            String after
     );
+
+    /**
+     * Exporta todas las filas del listado de titulares con licencias vigentes, con los mismos filtros.
+     * El filtro llega ya validado: cuando se escribe la primera fila la respuesta ya no puede ser un 400.
+     *
+     * @return cantidad de filas exportadas
+     */
+    long exportarTitularesConLicenciasVigentes(
+            FiltroTitularesVigentesRecord filtro,
+            FormatoExportacion formato,
+            OutputStream out
+    ) throws IOException;
+
+    /**
+     * Búsqueda de texto completo (nombre, apellido, documento y dirección), tolerante a errores de tipeo.
+     */
+    List<TitularBusquedaResponseRecord> buscarTitulares(String consulta, int limit);
+
+    /**
+     * Sugerencias de apellidos y números de documento que empiezan con {@code prefijo}, resueltas en memoria.
+     */
+    List<SugerenciaTitularRecord> sugerirTitulares(String prefijo, int limit);
+
+    /**
+     * Reconstruye el índice de búsqueda desde la base.
+     *
+     * @return cantidad de titulares indexados
+     */
+    long reindexarTitulares();
 }
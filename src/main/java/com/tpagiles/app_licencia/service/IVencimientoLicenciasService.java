@@ -0,0 +1,23 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.ResultadoVencimientoRecord;
+
+import java.time.LocalDate;
+
+/**
+ * Desactiva las licencias vencidas por lotes de ids, confirmando cada lote por separado.
+ */
+public interface IVencimientoLicenciasService {
+
+    /**
+     * Marca como no vigentes las licencias con vencimiento anterior a {@code fechaCorte}.
+     * Si una corrida para la misma fecha quedó a medias la retoma desde su marca de agua;
+     * si ya se completó no hace nada.
+     */
+    ResultadoVencimientoRecord procesar(LocalDate fechaCorte);
+
+    /**
+     * true si la última corrida completada es anterior a {@code fechaCorte} o quedó una a medias.
+     */
+    boolean pendiente(LocalDate fechaCorte);
+}
@@ -0,0 +1,209 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.Faceta;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.No;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.Nodo;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.O;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.Valores;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.Y;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Un bitmap comprimido (Roaring) por valor de faceta, en dos universos: titulares, con sus
+ * atributos, y licencias, con clase, vigencia y una copia de los atributos de su titular para
+ * poder cruzarlos sin join. Un filtro se resuelve con AND/OR/ANDNOT entre bitmaps y cada conteo
+ * del desglose es una intersección que solo calcula la cardinalidad.
+ * <p>
+ * Los ids se guardan como int. No es thread-safe: {@code FacetasService} serializa las escrituras.
+ */
+public class BitmapsFacetas {
+
+    private static final List<Faceta> DEL_TITULAR =
+            Arrays.stream(Faceta.values()).filter(f -> !f.isDeLicencia()).toList();
+
+    private final RoaringBitmap titulares = new RoaringBitmap();
+    private final RoaringBitmap licencias = new RoaringBitmap();
+    private final Map<Faceta, Map<String, RoaringBitmap>> porTitular = new EnumMap<>(Faceta.class);
+    private final Map<Faceta, Map<String, RoaringBitmap>> porLicencia = new EnumMap<>(Faceta.class);
+    // titular de cada licencia, indexado por id de licencia (los ids son secuenciales)
+    private int[] titularDeLicencia = new int[1024];
+
+    public BitmapsFacetas() {
+        for (Faceta faceta : Faceta.values()) {
+            if (!faceta.isDeLicencia()) {
+                porTitular.put(faceta, bitmapsPorValor(faceta));
+            }
+            porLicencia.put(faceta, bitmapsPorValor(faceta));
+        }
+    }
+
+    public void ponerTitular(long titularId, GrupoSanguineo grupo, FactorRh factor, boolean donante) {
+        int id = Math.toIntExact(titularId);
+        Map<Faceta, String> valores = new EnumMap<>(Faceta.class);
+        valores.put(Faceta.GRUPO_SANGUINEO, grupo.name());
+        valores.put(Faceta.FACTOR_RH, factor.name());
+        valores.put(Faceta.DONANTE_ORGANOS, String.valueOf(donante));
+
+        boolean existente = titulares.contains(id);
+        boolean cambio = !existente
+                || DEL_TITULAR.stream().anyMatch(f -> !valores.get(f).equals(valorDe(porTitular, f, id)));
+        titulares.add(id);
+        valores.forEach((faceta, valor) -> asignar(porTitular, faceta, id, valor));
+        // un titular nuevo todavía no tiene licencias; uno existente solo si cambió algo (poco frecuente)
+        if (existente && cambio) {
+            licencias.forEach((int licencia) -> {
+                if (titularDe(licencia) == id) {
+                    valores.forEach((faceta, valor) -> asignar(porLicencia, faceta, licencia, valor));
+                }
+            });
+        }
+    }
+
+    public void quitarTitular(long titularId) {
+        int id = Math.toIntExact(titularId);
+        titulares.remove(id);
+        porTitular.values().forEach(m -> m.values().forEach(b -> b.remove(id)));
+        RoaringBitmap suyas = new RoaringBitmap();
+        licencias.forEach((int licencia) -> {
+            if (titularDe(licencia) == id) {
+                suyas.add(licencia);
+            }
+        });
+        suyas.forEach((int licencia) -> quitarLicencia(licencia));
+    }
+
+    public void ponerLicencia(long licenciaId, long titularId, ClaseLicencia clase, boolean vigente) {
+        int id = Math.toIntExact(licenciaId);
+        int titular = Math.toIntExact(titularId);
+        licencias.add(id);
+        if (id >= titularDeLicencia.length) {
+            titularDeLicencia = Arrays.copyOf(titularDeLicencia, Math.max(id + 1, titularDeLicencia.length * 2));
+        }
+        titularDeLicencia[id] = titular;
+        asignar(porLicencia, Faceta.CLASE, id, clase.name());
+        asignar(porLicencia, Faceta.VIGENTE, id, String.valueOf(vigente));
+        for (Faceta faceta : DEL_TITULAR) {
+            String valor = valorDe(porTitular, faceta, titular);
+            if (valor != null) {
+                asignar(porLicencia, faceta, id, valor);
+            }
+        }
+    }
+
+    public void marcarNoVigente(long licenciaId) {
+        int id = Math.toIntExact(licenciaId);
+        if (licencias.contains(id)) {
+            asignar(porLicencia, Faceta.VIGENTE, id, "false");
+        }
+    }
+
+    /**
+     * Deja los bitmaps en su representación más compacta (conviene después de una carga completa).
+     */
+    public void compactar() {
+        titulares.runOptimize();
+        licencias.runOptimize();
+        porTitular.values().forEach(m -> m.values().forEach(RoaringBitmap::runOptimize));
+        porLicencia.values().forEach(m -> m.values().forEach(RoaringBitmap::runOptimize));
+    }
+
+    /**
+     * Conjunto de licencias que cumplen el filtro ({@code null} = todas).
+     */
+    public RoaringBitmap licencias(Nodo filtro) {
+        return filtro == null ? licencias.clone() : evaluar(filtro, licencias, porLicencia);
+    }
+
+    /**
+     * Conjunto de titulares que cumplen el filtro. Si usa facetas de licencia, los titulares
+     * con al menos una licencia que lo cumple.
+     */
+    public RoaringBitmap titulares(Nodo filtro) {
+        if (filtro == null) {
+            return titulares.clone();
+        }
+        if (!ExpresionFacetas.usaFacetasDeLicencia(filtro)) {
+            return evaluar(filtro, titulares, porTitular);
+        }
+        RoaringBitmap resultado = new RoaringBitmap();
+        evaluar(filtro, licencias, porLicencia).forEach((int licencia) -> resultado.add(titularDe(licencia)));
+        return resultado;
+    }
+
+    /**
+     * Para cada faceta del universo, cuántos elementos de {@code conjunto} tienen cada valor.
+     */
+    public Map<String, Map<String, Long>> desglose(RoaringBitmap conjunto, boolean deLicencias) {
+        Map<Faceta, Map<String, RoaringBitmap>> universo = deLicencias ? porLicencia : porTitular;
+        Map<String, Map<String, Long>> desglose = new LinkedHashMap<>();
+        universo.forEach((faceta, bitmaps) -> {
+            Map<String, Long> conteos = new LinkedHashMap<>();
+            bitmaps.forEach((valor, bitmap) -> conteos.put(valor, (long) RoaringBitmap.andCardinality(conjunto, bitmap)));
+            desglose.put(faceta.getClave(), conteos);
+        });
+        return desglose;
+    }
+
+    private static RoaringBitmap evaluar(Nodo nodo, RoaringBitmap universo,
+                                         Map<Faceta, Map<String, RoaringBitmap>> bitmaps) {
+        return switch (nodo) {
+            case Y y -> y.operandos().stream()
+                    .map(n -> evaluar(n, universo, bitmaps))
+                    .reduce((a, b) -> RoaringBitmap.and(a, b))
+                    .orElseThrow();
+            case O o -> o.operandos().stream()
+                    .map(n -> evaluar(n, universo, bitmaps))
+                    .reduce((a, b) -> RoaringBitmap.or(a, b))
+                    .orElseThrow();
+            case No no -> RoaringBitmap.andNot(universo, evaluar(no.operando(), universo, bitmaps));
+            case Valores v -> {
+                RoaringBitmap union = new RoaringBitmap();
+                v.valores().forEach(valor -> union.or(bitmaps.get(v.faceta()).get(valor)));
+                yield union;
+            }
+        };
+    }
+
+    private int titularDe(int licenciaId) {
+        return licenciaId < titularDeLicencia.length ? titularDeLicencia[licenciaId] : 0;
+    }
+
+    private static void asignar(Map<Faceta, Map<String, RoaringBitmap>> universo, Faceta faceta, int id, String valor) {
+        universo.get(faceta).forEach((v, bitmap) -> {
+            if (v.equals(valor)) {
+                bitmap.add(id);
+            } else {
+                bitmap.remove(id);
+            }
+        });
+    }
+
+    private void quitarLicencia(int id) {
+        licencias.remove(id);
+        porLicencia.values().forEach(m -> m.values().forEach(b -> b.remove(id)));
+    }
+
+    private static String valorDe(Map<Faceta, Map<String, RoaringBitmap>> universo, Faceta faceta, int id) {
+        for (Map.Entry<String, RoaringBitmap> e : universo.get(faceta).entrySet()) {
+            if (e.getValue().contains(id)) {
+                return e.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, RoaringBitmap> bitmapsPorValor(Faceta faceta) {
+        Map<String, RoaringBitmap> bitmaps = new LinkedHashMap<>();
+        faceta.getValores().forEach(v -> bitmaps.put(v, new RoaringBitmap()));
+        return bitmaps;
+    }
+}
@@ -0,0 +1,104 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializa las escrituras de licencias de un mismo titular (emisión, renovación, copia).
+ * Usa un arreglo fijo de locks indexado por el hash del id del titular: titulares distintos
+ * casi nunca comparten lock, así que siguen procesándose en paralelo.
+ * El lock se toma dentro de la transacción y se libera recién después del commit o rollback,
+ * para que la siguiente operación del mismo titular vea lo que escribió la anterior.
+ * Con varios nodos, app.bloqueo-titular.db=true agrega un SELECT ... FOR UPDATE sobre el titular.
+ */
+@Component
+public class BloqueoTitularHelper {
+
+    private final TitularRepository titularRepository;
+    private final ReentrantLock[] locks;
+    private final int mascara;
+    private final long esperaMs;
+    private final boolean bloqueoDb;
+
+    public BloqueoTitularHelper(TitularRepository titularRepository,
+                                @Value("${app.bloqueo-titular.stripes:1024}") int stripes,
+                                @Value("${app.bloqueo-titular.espera-ms:10000}") long esperaMs,
+                                @Value("${app.bloqueo-titular.db:false}") boolean bloqueoDb) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("app.bloqueo-titular.stripes debe ser potencia de 2");
+        }
+        this.titularRepository = titularRepository;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mascara = stripes - 1;
+        this.esperaMs = esperaMs;
+        this.bloqueoDb = bloqueoDb;
+    }
+
+    /**
+     * Bloquea al titular hasta que termine la transacción actual.
+     *
+     * @throws SolicitudEnCursoException si otra operación del titular no terminó dentro de la espera
+     */
+    public void bloquearHastaFinDeTransaccion(Long titularId) {
+        bloquearHastaFinDeTransaccion(List.of(titularId));
+    }
+
+    /**
+     * Variante para lotes: los locks se toman en orden de índice para evitar deadlocks
+     * entre lotes que comparten titulares.
+     */
+    public void bloquearHastaFinDeTransaccion(Collection<Long> titularIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo por titular requiere una transacción activa");
+        }
+        int[] indices = titularIds.stream().mapToInt(this::indice).distinct().sorted().toArray();
+        for (int i : indices) {
+            ReentrantLock lock = locks[i];
+            adquirir(lock);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+        if (bloqueoDb) {
+            titularRepository.bloquearPorIds(titularIds.stream().distinct().sorted().toList());
+        }
+    }
+
+    /** Lock que corresponde al titular; expuesto para el benchmark de contención. */
+    public Lock lockDe(Long titularId) {
+        return locks[indice(titularId)];
+    }
+
+    private int indice(Long titularId) {
+        int h = Long.hashCode(titularId);
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private void adquirir(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(esperaMs, TimeUnit.MILLISECONDS)) {
+                throw new SolicitudEnCursoException(
+                        "Hay otra operación en curso sobre el mismo titular, reintente más tarde");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolicitudEnCursoException("Espera interrumpida por el bloqueo del titular");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cambios aplicados mientras una reconstrucción lee la base, para volver a aplicarlos sobre la
+ * estructura nueva antes de publicarla: la lectura puede haber tomado la fila antes del cambio.
+ * Fuera de una reconstrucción no guarda nada. Thread-safe; el servicio tiene que llamar a
+ * {@link #terminar()} bajo el mismo lock con el que aplica los cambios y publica la estructura,
+ * así ningún cambio queda entre la repetición y el reemplazo.
+ */
+public class CambiosDuranteReconstruccion<T> {
+
+    // no nulo mientras hay una reconstrucción en curso
+    private List<T> cambios;
+
+    public synchronized void iniciar() {
+        cambios = new ArrayList<>();
+    }
+
+    public synchronized void registrar(T cambio) {
+        if (cambios != null) {
+            cambios.add(cambio);
+        }
+    }
+
+    public synchronized void registrarTodos(Collection<? extends T> nuevos) {
+        if (cambios != null) {
+            cambios.addAll(nuevos);
+        }
+    }
+
+    /**
+     * @return los cambios registrados desde {@link #iniciar()}, en orden; vacío si no había reconstrucción
+     */
+    public synchronized List<T> terminar() {
+        List<T> registrados = cambios;
+        cambios = null;
+        return registrados != null ? registrados : List.of();
+    }
+}
@@ -0,0 +1,174 @@
+package com.tpagiles.app_licencia.service.helper;
+
+/**
+ * Código fonético para nombres en español: dos grafías que se pronuncian igual dan el mismo
+ * código. "González", "Gonzales" y "Gonsález" → "GONSALES"; "Giménez" y "Ximénez" → "JIMENES".
+ * <ul>
+ *   <li>sin tildes ni diéresis, Ñ → N, H muda</li>
+ *   <li>B/V → B; W → U; N antes de B, V o P → M</li>
+ *   <li>Z, S y C antes de E/I → S; C, K y QU → K; CH → X</li>
+ *   <li>G antes de E/I y J → J; GU antes de E/I → G (GÜ conserva la U)</li>
+ *   <li>LL e Y antes de vocal → Y (yeísmo); Y final o antes de consonante → I</li>
+ *   <li>PH → F; X inicial → J, X interna → KS</li>
+ *   <li>las letras repetidas se colapsan (RR → R)</li>
+ * </ul>
+ * Las palabras quedan separadas por un espacio; guiones y espacios separan palabras y el resto
+ * de los signos se ignora. Se calcula en cada alta y cambio de titular: recorre el texto dos veces
+ * sobre arreglos de char, sin expresiones regulares ni {@code Normalizer}.
+ */
+public final class CodificadorFonetico {
+
+    private static final char SEPARADOR = ' ';
+    private static final char IGNORAR = 0;
+
+    private CodificadorFonetico() {
+    }
+
+    /**
+     * @return null si {@code texto} es null
+     */
+    public static String codificar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int largo = texto.length();
+        // letras ya plegadas a A-Z; se conserva Ü para distinguir GÜE de GUE
+        char[] letras = new char[largo];
+        int n = 0;
+        for (int i = 0; i < largo; i++) {
+            char c = plegar(texto.charAt(i));
+            if (c == IGNORAR || (c == SEPARADOR && (n == 0 || letras[n - 1] == SEPARADOR))) {
+                continue;
+            }
+            letras[n++] = c;
+        }
+        if (n > 0 && letras[n - 1] == SEPARADOR) {
+            n--;
+        }
+
+        // X → KS es la única regla que alarga
+        char[] codigo = new char[n * 2];
+        int m = 0;
+        char ultimo = IGNORAR;
+        for (int i = 0; i < n; i++) {
+            char c = letras[i];
+            char siguiente = i + 1 < n ? letras[i + 1] : SEPARADOR;
+            boolean inicioPalabra = i == 0 || letras[i - 1] == SEPARADOR;
+            char emitido;
+            switch (c) {
+                case SEPARADOR -> {
+                    codigo[m++] = SEPARADOR;
+                    ultimo = IGNORAR;
+                    continue;
+                }
+                case 'A', 'E', 'I', 'O', 'U' -> emitido = c;
+                case 'Ü' -> emitido = 'U';
+                case 'B', 'V' -> emitido = 'B';
+                case 'W' -> emitido = 'U';
+                case 'C' -> {
+                    if (siguiente == 'H') {
+                        emitido = 'X';
+                        i++;
+                    } else {
+                        emitido = esEoI(siguiente) ? 'S' : 'K';
+                    }
+                }
+                case 'K' -> emitido = 'K';
+                case 'Q' -> {
+                    emitido = 'K';
+                    if (siguiente == 'U') {
+                        i++;
+                    }
+                }
+                case 'G' -> {
+                    if (esEoI(siguiente)) {
+                        emitido = 'J';
+                    } else {
+                        emitido = 'G';
+                        if (siguiente == 'U' && i + 2 < n && esEoI(letras[i + 2])) {
+                            i++;
+                        }
+                    }
+                }
+                case 'J' -> emitido = 'J';
+                case 'H' -> {
+                    continue;
+                }
+                case 'L' -> {
+                    if (siguiente == 'L') {
+                        emitido = 'Y';
+                        i++;
+                    } else {
+                        emitido = 'L';
+                    }
+                }
+                case 'Y' -> emitido = esVocal(siguiente) ? 'Y' : 'I';
+                case 'N' -> emitido = siguiente == 'B' || siguiente == 'V' || siguiente == 'P' ? 'M' : 'N';
+                case 'P' -> {
+                    if (siguiente == 'H') {
+                        emitido = 'F';
+                        i++;
+                    } else {
+                        emitido = 'P';
+                    }
+                }
+                case 'S', 'Z' -> emitido = 'S';
+                case 'X' -> {
+                    if (inicioPalabra) {
+                        emitido = 'J';
+                    } else {
+                        if (ultimo != 'K') {
+                            codigo[m++] = 'K';
+                        }
+                        emitido = 'S';
+                        ultimo = 'K';
+                    }
+                }
+                default -> emitido = c;
+            }
+            if (emitido != ultimo) {
+                codigo[m++] = emitido;
+                ultimo = emitido;
+            }
+        }
+        return new String(codigo, 0, m);
+    }
+
+    /**
+     * "apellido nombre" codificado, para buscar por prefijo sobre el nombre completo.
+     */
+    public static String nombreCompleto(String apellido, String nombre) {
+        return codificar((apellido != null ? apellido : "") + " " + (nombre != null ? nombre : ""));
+    }
+
+    // A-Z en mayúscula, Ü, SEPARADOR o IGNORAR
+    private static char plegar(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+        return switch (c) {
+            case 'á', 'à', 'â', 'ä', 'Á', 'À', 'Â', 'Ä' -> 'A';
+            case 'é', 'è', 'ê', 'ë', 'É', 'È', 'Ê', 'Ë' -> 'E';
+            case 'í', 'ì', 'î', 'ï', 'Í', 'Ì', 'Î', 'Ï' -> 'I';
+            case 'ó', 'ò', 'ô', 'ö', 'Ó', 'Ò', 'Ô', 'Ö' -> 'O';
+            case 'ú', 'ù', 'û', 'Ú', 'Ù', 'Û' -> 'U';
+            case 'ü', 'Ü' -> 'Ü';
+            case 'ñ', 'Ñ' -> 'N';
+            case 'ç', 'Ç' -> 'Z';
+            case '-', '\t', '\n', '\r', ' ', '\u00a0' -> SEPARADOR;
+            // apóstrofos, puntos, dígitos y marcas combinantes (texto en NFD)
+            default -> IGNORAR;
+        };
+    }
+
+    private static boolean esEoI(char c) {
+        return c == 'E' || c == 'I';
+    }
+
+    private static boolean esVocal(char c) {
+        return c == 'A' || c == 'E' || c == 'I' || c == 'O' || c == 'U' || c == 'Ü';
+    }
+}
@@ -0,0 +1,54 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Números de documento ya usados, para detectar duplicados en una importación sin consultar la
+ * base fila por fila. Los que son un número sin ceros a la izquierda que entra en 32 bits sin
+ * signo (los DNI) van en un {@link RoaringBitmap}: unos pocos bytes por documento en lugar de un
+ * String por entrada. El resto (pasaportes, cédulas con letras) va en un {@link HashSet}.
+ * <p>
+ * No es thread-safe.
+ */
+public final class ConjuntoDocumentos {
+
+    private static final long MAXIMO_NUMERICO = 0xFFFF_FFFFL;
+
+    private final RoaringBitmap numericos = new RoaringBitmap();
+    private final Set<String> otros = new HashSet<>();
+
+    /**
+     * @return false si el documento ya estaba
+     */
+    public boolean agregar(String numeroDocumento) {
+        long valor = comoNumero(numeroDocumento);
+        if (valor >= 0) {
+            return numericos.checkedAdd((int) valor);
+        }
+        return otros.add(numeroDocumento);
+    }
+
+    public long tamanio() {
+        return numericos.getLongCardinality() + otros.size();
+    }
+
+    // -1 si no es un número canónico ("0123" y "123" son documentos distintos) o no entra en 32 bits
+    private static long comoNumero(String texto) {
+        int largo = texto.length();
+        if (largo == 0 || largo > 10 || (texto.charAt(0) == '0' && largo > 1)) {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = 0; i < largo; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor <= MAXIMO_NUMERICO ? valor : -1;
+    }
+}
@@ -7,7 +7,6 @@ import com.tpagiles.app_licencia.repository.TarifarioLicenciaRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -17,7 +16,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
-@DependsOn("dataSourceScriptDatabaseInitializer")
 @RequiredArgsConstructor
 public class CostoLicenciaHelper {
 
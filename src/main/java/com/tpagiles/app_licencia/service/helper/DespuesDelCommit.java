@@ -0,0 +1,28 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cambios a estructuras en memoria (contadores, facetas, autocompletado, índice, rueda de
+ * vencimientos) que tienen que reflejar solo lo confirmado: dentro de una transacción se aplican
+ * al hacer commit y se descartan si hace rollback; sin transacción, enseguida.
+ */
+public final class DespuesDelCommit {
+
+    private DespuesDelCommit() {
+    }
+
+    public static void ejecutar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,203 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Diccionario inmutable de claves ordenadas para búsquedas por prefijo. Las claves van
+ * empaquetadas en un único {@code char[]} con sus offsets (sin un objeto por clave); las que
+ * empiezan con un prefijo forman un rango contiguo que se ubica con una búsqueda binaria.
+ * <p>
+ * Cada clave lleva el texto a mostrar (solo si difiere de la clave) y la cantidad de titulares.
+ */
+public final class DiccionarioPrefijos {
+
+    public static final DiccionarioPrefijos VACIO = new Escritor(0).construir();
+
+    /**
+     * Cambio pendiente sobre una clave: suma {@code delta} titulares. {@code texto} solo se usa si
+     * la clave es nueva; una clave existente conserva el texto con el que entró.
+     */
+    public record Ajuste(String texto, int delta) {
+
+        public Ajuste sumar(Ajuste otro) {
+            return new Ajuste(texto != null ? texto : otro.texto, delta + otro.delta);
+        }
+    }
+
+    private final char[] datos;
+    // la clave i ocupa datos[inicios[i], inicios[i + 1])
+    private final int[] inicios;
+    private final String[] textos;
+    private final int[] cantidades;
+
+    private DiccionarioPrefijos(char[] datos, int[] inicios, String[] textos, int[] cantidades) {
+        this.datos = datos;
+        this.inicios = inicios;
+        this.textos = textos;
+        this.cantidades = cantidades;
+    }
+
+    /**
+     * @param entradas clave → ajuste; las claves con cantidad menor o igual a cero se descartan
+     */
+    public static DiccionarioPrefijos de(Map<String, Ajuste> entradas) {
+        String[] claves = entradas.keySet().toArray(String[]::new);
+        Arrays.sort(claves);
+        Escritor escritor = new Escritor(claves.length);
+        for (String clave : claves) {
+            Ajuste a = entradas.get(clave);
+            escritor.agregar(clave, a.texto(), a.delta());
+        }
+        return escritor.construir();
+    }
+
+    /**
+     * Nuevo diccionario con los ajustes aplicados, en una sola pasada sobre los dos conjuntos ordenados.
+     */
+    public DiccionarioPrefijos fusionar(NavigableMap<String, Ajuste> ajustes) {
+        Escritor escritor = new Escritor(tamanio() + ajustes.size());
+        Iterator<Map.Entry<String, Ajuste>> it = ajustes.entrySet().iterator();
+        Map.Entry<String, Ajuste> ajuste = it.hasNext() ? it.next() : null;
+        int i = 0;
+        while (i < tamanio() || ajuste != null) {
+            int cmp = i == tamanio() ? 1 : ajuste == null ? -1 : compararClave(i, ajuste.getKey());
+            if (cmp < 0) {
+                escritor.agregar(clave(i), textos[i], cantidades[i]);
+                i++;
+            } else if (cmp > 0) {
+                escritor.agregar(ajuste.getKey(), ajuste.getValue().texto(), ajuste.getValue().delta());
+                ajuste = it.hasNext() ? it.next() : null;
+            } else {
+                escritor.agregar(clave(i), textos[i], cantidades[i] + ajuste.getValue().delta());
+                i++;
+                ajuste = it.hasNext() ? it.next() : null;
+            }
+        }
+        return escritor.construir();
+    }
+
+    public int tamanio() {
+        return cantidades.length;
+    }
+
+    /**
+     * @return posición de la primera clave mayor o igual a {@code prefijo}
+     */
+    public int primera(String prefijo) {
+        int bajo = 0;
+        int alto = tamanio();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (compararClave(medio, prefijo) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    public boolean empiezaCon(int i, String prefijo) {
+        int inicio = inicios[i];
+        if (inicios[i + 1] - inicio < prefijo.length()) {
+            return false;
+        }
+        for (int k = 0; k < prefijo.length(); k++) {
+            if (datos[inicio + k] != prefijo.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String clave(int i) {
+        return new String(datos, inicios[i], inicios[i + 1] - inicios[i]);
+    }
+
+    public String texto(int i) {
+        return textos[i] != null ? textos[i] : clave(i);
+    }
+
+    public int cantidad(int i) {
+        return cantidades[i];
+    }
+
+    /**
+     * Compara la clave {@code i} con {@code otra}, con el mismo orden que {@link String#compareTo}.
+     */
+    public int compararClave(int i, String otra) {
+        int inicio = inicios[i];
+        int largo = inicios[i + 1] - inicio;
+        int comun = Math.min(largo, otra.length());
+        for (int k = 0; k < comun; k++) {
+            char c = datos[inicio + k];
+            char o = otra.charAt(k);
+            if (c != o) {
+                return c - o;
+            }
+        }
+        return largo - otra.length();
+    }
+
+    /**
+     * Memoria aproximada del diccionario: arreglos más los textos distintos de su clave.
+     */
+    public long bytesEstimados() {
+        long bytes = 16L + datos.length * 2L + 16L + inicios.length * 4L + 16L + cantidades.length * 4L
+                + 16L + textos.length * 4L;
+        for (String texto : textos) {
+            if (texto != null) {
+                // cabecera del String y del arreglo + contenido (compact strings: Latin-1 ocupa 1 byte)
+                bytes += 40L + texto.length() * 2L;
+            }
+        }
+        return bytes;
+    }
+
+    private static final class Escritor {
+
+        private char[] datos;
+        private int[] inicios;
+        private String[] textos;
+        private int[] cantidades;
+        private int n;
+        private int largo;
+
+        Escritor(int capacidad) {
+            datos = new char[Math.max(16, capacidad * 8)];
+            inicios = new int[capacidad + 1];
+            textos = new String[capacidad];
+            cantidades = new int[capacidad];
+        }
+
+        void agregar(String clave, String texto, int cantidad) {
+            if (cantidad <= 0) {
+                return;
+            }
+            if (n == cantidades.length) {
+                int capacidad = Math.max(16, n * 2);
+                inicios = Arrays.copyOf(inicios, capacidad + 1);
+                textos = Arrays.copyOf(textos, capacidad);
+                cantidades = Arrays.copyOf(cantidades, capacidad);
+            }
+            if (largo + clave.length() > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, largo + clave.length()));
+            }
+            clave.getChars(0, clave.length(), datos, largo);
+            inicios[n] = largo;
+            largo += clave.length();
+            inicios[n + 1] = largo;
+            textos[n] = clave.equals(texto) ? null : texto;
+            cantidades[n] = cantidad;
+            n++;
+        }
+
+        DiccionarioPrefijos construir() {
+            return new DiccionarioPrefijos(Arrays.copyOf(datos, largo), Arrays.copyOf(inicios, n + 1),
+                    Arrays.copyOf(textos, n), Arrays.copyOf(cantidades, n));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Escribe filas en CSV (RFC 4180, con encabezado) o NDJSON (un objeto JSON por línea)
+ * a medida que se leen del cursor, sin acumularlas en memoria.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportacionHelper {
+
+    // cada cuántas filas se empuja el buffer al cliente
+    private static final int FILAS_POR_FLUSH = 500;
+
+    private final ObjectMapper mapper;
+
+    public record Columna<T>(String nombre, Function<T, Object> valor) {
+
+        /**
+         * Columna que se exporta como texto (fechas, por ejemplo), y vacía si el valor es null.
+         */
+        public static <T> Columna<T> texto(String nombre, Function<T, ?> valor) {
+            return new Columna<>(nombre, fila -> {
+                Object v = valor.apply(fila);
+                return v != null ? v.toString() : null;
+            });
+        }
+    }
+
+    /**
+     * @return cantidad de filas escritas
+     */
+    public <T> long escribir(Stream<T> filas, List<Columna<T>> columnas,
+                             FormatoExportacion formato, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (formato == FormatoExportacion.CSV) {
+            writer.write(columnas.stream().map(Columna::nombre).collect(Collectors.joining(",")));
+            writer.write("\r\n");
+        }
+
+        long escritas = 0;
+        Iterator<T> it = filas.iterator();
+        while (it.hasNext()) {
+            T fila = it.next();
+            if (formato == FormatoExportacion.CSV) {
+                escribirCsv(writer, fila, columnas);
+            } else {
+                escribirJson(writer, fila, columnas);
+            }
+            if (++escritas % FILAS_POR_FLUSH == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return escritas;
+    }
+
+    private <T> void escribirCsv(Writer writer, T fila, List<Columna<T>> columnas) throws IOException {
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object valor = columnas.get(i).valor().apply(fila);
+            if (valor != null) {
+                writer.write(escaparCsv(valor.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private <T> void escribirJson(Writer writer, T fila, List<Columna<T>> columnas) throws IOException {
+        Map<String, Object> objeto = new LinkedHashMap<>();
+        for (Columna<T> columna : columnas) {
+            objeto.put(columna.nombre(), columna.valor().apply(fila));
+        }
+        writer.write(mapper.writeValueAsString(objeto));
+        writer.write('\n');
+    }
+
+    public static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0
+                && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
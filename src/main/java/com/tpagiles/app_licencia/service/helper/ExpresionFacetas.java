@@ -0,0 +1,141 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import com.tpagiles.app_licencia.model.enums.Faceta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Filtro de los conteos por faceta, por ejemplo
+ * {@code donanteOrganos:true AND grupoSanguineo:O AND factorRh:NEGATIVO AND (clase:D,E OR NOT vigente:true)}.
+ * <pre>
+ * expresion := termino (OR termino)*
+ * termino   := factor (AND factor)*
+ * factor    := NOT factor | '(' expresion ')' | faceta ':' valor (',' valor)*
+ * </pre>
+ * Los valores separados por coma se combinan con OR. Palabras clave, facetas y valores no
+ * distinguen mayúsculas.
+ */
+public final class ExpresionFacetas {
+
+    public sealed interface Nodo permits Y, O, No, Valores {
+    }
+
+    public record Y(List<Nodo> operandos) implements Nodo {
+    }
+
+    public record O(List<Nodo> operandos) implements Nodo {
+    }
+
+    public record No(Nodo operando) implements Nodo {
+    }
+
+    public record Valores(Faceta faceta, List<String> valores) implements Nodo {
+    }
+
+    private static final Pattern TOKEN = Pattern.compile("\\s*([()\\:,]|[\\p{L}\\p{N}_]+)");
+
+    private final List<String> tokens;
+    private int pos;
+
+    private ExpresionFacetas(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * @throws IllegalArgumentException si la expresión no es válida
+     */
+    public static Nodo parsear(String texto) {
+        ExpresionFacetas parser = new ExpresionFacetas(tokenizar(texto));
+        Nodo nodo = parser.expresion();
+        if (parser.pos < parser.tokens.size()) {
+            throw new IllegalArgumentException("Filtro inválido: sobra '" + parser.tokens.get(parser.pos) + "'");
+        }
+        return nodo;
+    }
+
+    /**
+     * @return true si la expresión usa alguna faceta propia de la licencia
+     */
+    public static boolean usaFacetasDeLicencia(Nodo nodo) {
+        return switch (nodo) {
+            case Y y -> y.operandos().stream().anyMatch(ExpresionFacetas::usaFacetasDeLicencia);
+            case O o -> o.operandos().stream().anyMatch(ExpresionFacetas::usaFacetasDeLicencia);
+            case No no -> usaFacetasDeLicencia(no.operando());
+            case Valores v -> v.faceta().isDeLicencia();
+        };
+    }
+
+    private static List<String> tokenizar(String texto) {
+        List<String> tokens = new ArrayList<>();
+        Matcher m = TOKEN.matcher(texto);
+        int fin = 0;
+        while (m.lookingAt()) {
+            tokens.add(m.group(1));
+            fin = m.end();
+            m.region(fin, texto.length());
+        }
+        if (!texto.substring(fin).isBlank()) {
+            throw new IllegalArgumentException("Filtro inválido: carácter inesperado en '" + texto.substring(fin).trim() + "'");
+        }
+        return tokens;
+    }
+
+    private Nodo expresion() {
+        List<Nodo> operandos = new ArrayList<>(List.of(termino()));
+        while (consumir("OR")) {
+            operandos.add(termino());
+        }
+        return operandos.size() == 1 ? operandos.getFirst() : new O(operandos);
+    }
+
+    private Nodo termino() {
+        List<Nodo> operandos = new ArrayList<>(List.of(factor()));
+        while (consumir("AND")) {
+            operandos.add(factor());
+        }
+        return operandos.size() == 1 ? operandos.getFirst() : new Y(operandos);
+    }
+
+    private Nodo factor() {
+        if (consumir("NOT")) {
+            return new No(factor());
+        }
+        if (consumir("(")) {
+            Nodo nodo = expresion();
+            esperar(")");
+            return nodo;
+        }
+        Faceta faceta = Faceta.desde(siguiente("una faceta"));
+        esperar(":");
+        List<String> valores = new ArrayList<>();
+        do {
+            valores.add(faceta.valor(siguiente("un valor de " + faceta.getClave())));
+        } while (consumir(","));
+        return new Valores(faceta, valores);
+    }
+
+    private boolean consumir(String esperado) {
+        if (pos < tokens.size() && tokens.get(pos).equalsIgnoreCase(esperado)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void esperar(String esperado) {
+        if (!consumir(esperado)) {
+            throw new IllegalArgumentException("Filtro inválido: se esperaba '" + esperado + "'"
+                    + (pos < tokens.size() ? " y llegó '" + tokens.get(pos) + "'" : " al final"));
+        }
+    }
+
+    private String siguiente(String descripcion) {
+        if (pos >= tokens.size()) {
+            throw new IllegalArgumentException("Filtro inválido: se esperaba " + descripcion + " al final");
+        }
+        return tokens.get(pos++);
+    }
+}
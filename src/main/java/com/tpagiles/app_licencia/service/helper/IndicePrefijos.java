@@ -0,0 +1,116 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import com.tpagiles.app_licencia.service.helper.DiccionarioPrefijos.Ajuste;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link DiccionarioPrefijos} con cambios incrementales. Los cambios se acumulan en un mapa
+ * ordenado chico y, al pasar {@code umbralCompactacion} claves, se fusionan en un diccionario
+ * nuevo. Las lecturas no toman locks: leen el par (diccionario, cambios) vigente y combinan los
+ * dos rangos del prefijo, ya ordenados, en una sola pasada.
+ * <p>
+ * Las escrituras se serializan entre sí ({@code synchronized}).
+ */
+public final class IndicePrefijos {
+
+    /**
+     * @param texto     texto a mostrar
+     * @param cantidad  titulares con esa clave
+     */
+    public record Sugerencia(String texto, int cantidad) {
+    }
+
+    // se reemplaza entero al compactar: una lectura nunca ve el diccionario nuevo con los cambios viejos
+    private record Estado(DiccionarioPrefijos base, ConcurrentSkipListMap<String, Ajuste> cambios) {
+    }
+
+    private final int umbralCompactacion;
+    private volatile Estado estado;
+
+    public IndicePrefijos(DiccionarioPrefijos base, int umbralCompactacion) {
+        this.umbralCompactacion = umbralCompactacion;
+        this.estado = new Estado(base, new ConcurrentSkipListMap<>());
+    }
+
+    /**
+     * Suma {@code delta} titulares a {@code clave}. {@code texto} es el texto a mostrar si la clave
+     * todavía no existe. Una clave que queda en cero deja de sugerirse.
+     */
+    public synchronized void ajustar(String clave, String texto, int delta) {
+        if (clave == null || clave.isEmpty()) {
+            return;
+        }
+        Estado actual = estado;
+        actual.cambios().merge(clave, new Ajuste(texto, delta), Ajuste::sumar);
+        if (actual.cambios().size() > umbralCompactacion) {
+            estado = new Estado(actual.base().fusionar(actual.cambios()), new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Claves que empiezan con {@code prefijo}, en orden alfabético.
+     */
+    public List<Sugerencia> sugerir(String prefijo, int limite) {
+        Estado actual = estado;
+        DiccionarioPrefijos base = actual.base();
+        Iterator<Map.Entry<String, Ajuste>> cambios = actual.cambios().tailMap(prefijo).entrySet().iterator();
+        Map.Entry<String, Ajuste> cambio = siguiente(cambios, prefijo);
+
+        List<Sugerencia> resultado = new ArrayList<>(Math.min(limite, 16));
+        int i = base.primera(prefijo);
+        while (resultado.size() < limite) {
+            boolean hayBase = i < base.tamanio() && base.empiezaCon(i, prefijo);
+            if (!hayBase && cambio == null) {
+                break;
+            }
+            int cmp = !hayBase ? 1 : cambio == null ? -1 : base.compararClave(i, cambio.getKey());
+            String texto;
+            int cantidad;
+            if (cmp < 0) {
+                texto = base.texto(i);
+                cantidad = base.cantidad(i);
+                i++;
+            } else if (cmp > 0) {
+                texto = cambio.getValue().texto() != null ? cambio.getValue().texto() : cambio.getKey();
+                cantidad = cambio.getValue().delta();
+                cambio = siguiente(cambios, prefijo);
+            } else {
+                texto = base.texto(i);
+                cantidad = base.cantidad(i) + cambio.getValue().delta();
+                i++;
+                cambio = siguiente(cambios, prefijo);
+            }
+            if (cantidad > 0) {
+                resultado.add(new Sugerencia(texto, cantidad));
+            }
+        }
+        return resultado;
+    }
+
+    // aproximado: una clave con cambios pendientes que ya estaba en el diccionario cuenta dos veces
+    public int claves() {
+        Estado actual = estado;
+        return actual.base().tamanio() + actual.cambios().size();
+    }
+
+    /**
+     * Memoria aproximada: el diccionario más unos 100 bytes por cambio pendiente (nodo del mapa, clave y ajuste).
+     */
+    public long bytesEstimados() {
+        Estado actual = estado;
+        return actual.base().bytesEstimados() + actual.cambios().size() * 100L;
+    }
+
+    private static Map.Entry<String, Ajuste> siguiente(Iterator<Map.Entry<String, Ajuste>> it, String prefijo) {
+        if (!it.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, Ajuste> e = it.next();
+        return e.getKey().startsWith(prefijo) ? e : null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee CSV (RFC 4180) registro por registro, sin cargar el archivo: campos entre comillas con
+ * comas, comillas dobles ("") y saltos de línea adentro. Acepta fin de línea CRLF o LF e ignora
+ * el BOM inicial que agregan algunas planillas.
+ */
+public final class LectorCsv implements Closeable {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int posicion;
+    private int largo;
+
+    // línea física donde empieza el próximo registro y donde empezó el último leído
+    private long lineaActual = 1;
+    private long lineaRegistro;
+
+    public LectorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return los campos del próximo registro, o null al final del archivo
+     * @throws IllegalArgumentException si el archivo termina con una comilla sin cerrar
+     */
+    public List<String> leer() throws IOException {
+        int c = siguiente();
+        if (c == -1) {
+            return null;
+        }
+        if (lineaActual == 1 && lineaRegistro == 0 && c == '\uFEFF') {
+            c = siguiente();
+            if (c == -1) {
+                return null;
+            }
+        }
+        lineaRegistro = lineaActual;
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Comilla sin cerrar en el registro que empieza en la línea " + lineaRegistro);
+                }
+                if (c == '"') {
+                    c = siguiente();
+                    if (c == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineaActual++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') {
+                    lineaActual++;
+                }
+                int fin = campo.length();
+                if (fin > 0 && campo.charAt(fin - 1) == '\r') {
+                    campo.setLength(fin - 1);
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = siguiente();
+        }
+    }
+
+    /**
+     * Línea (desde 1) donde empieza el último registro devuelto por {@link #leer()}.
+     */
+    public long linea() {
+        return lineaRegistro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int siguiente() throws IOException {
+        if (posicion == largo) {
+            largo = reader.read(buffer);
+            posicion = 0;
+            if (largo <= 0) {
+                largo = 0;
+                return -1;
+            }
+        }
+        return buffer[posicion++];
+    }
+}
@@ -1,38 +1,32 @@
 package com.tpagiles.app_licencia.service.helper;
 
+import com.tpagiles.app_licencia.dto.ElegibilidadTitularRecord;
 import com.tpagiles.app_licencia.exception.InvalidLicenseException;
-import com.tpagiles.app_licencia.model.Licencia;
-import com.tpagiles.app_licencia.model.Titular;
 import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
-import com.tpagiles.app_licencia.repository.LicenciaRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class LicenciaHelper {
 
     private static final int EDAD_MINIMA_GENERAL = 17;
     private static final int EDAD_MINIMA_PROFESIONAL = 21;
     private static final int EDAD_MAXIMA_PROFESIONAL = 65;
 
-    private final LicenciaRepository licenciaRepository;
-
     /**
-     * Valida si un titular puede obtener la clase solicitada según su edad y condiciones
+     * Valida si un titular puede obtener la clase solicitada según su edad y condiciones.
+     * Decide a partir del resumen precargado, sin consultar la base.
      */
-    public void validarClaseYRestricciones(Titular titular, ClaseLicencia clase) {
-        int edad = titular.getEdad();
+    public void validarClaseYRestricciones(ElegibilidadTitularRecord elegibilidad, ClaseLicencia clase) {
+        int edad = elegibilidad.titular().getEdad();
 
         switch (clase) {
             case C, D, E -> {
                 if (edad < EDAD_MINIMA_PROFESIONAL)
                     throw new InvalidLicenseException("La edad mínima para clase " + clase + " es 21 años.");
 
-                if (!titularTieneLicenciaB(titular))
+                if (!elegibilidad.tieneLicenciaBConAntiguedad(LocalDate.now()))
                     throw new InvalidLicenseException("Para obtener clase " + clase + " debe tener una licencia clase B vigente con al menos 1 año.");
 
                 if (edad > EDAD_MAXIMA_PROFESIONAL)
@@ -46,17 +40,10 @@ public class LicenciaHelper {
         }
     }
 
-    private boolean titularTieneLicenciaB(Titular titular) {
-        List<Licencia> licenciasB = licenciaRepository.findByTitularAndClase(titular, ClaseLicencia.B);
-        return licenciasB.stream()
-                .anyMatch(lic -> lic.isVigente()
-                        && lic.getFechaEmision().isBefore(LocalDate.now().minusYears(1)));
-    }
-
-    public int calcularVigencia(Titular titular) {
-        int edad = titular.getEdad();
+    public int calcularVigencia(ElegibilidadTitularRecord elegibilidad) {
+        int edad = elegibilidad.titular().getEdad();
         if (edad < 21) {
-            boolean yaTiene = licenciaRepository.existsByTitularAndClase(titular, ClaseLicencia.A) || licenciaRepository.existsByTitularAndClase(titular, ClaseLicencia.B);
+            boolean yaTiene = elegibilidad.tuvoAlgunaClase(ClaseLicencia.A, ClaseLicencia.B);
             return yaTiene ? 3 : 1;
         } else if (edad <= 46) {
             return 5;
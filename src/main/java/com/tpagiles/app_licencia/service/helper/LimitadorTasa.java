@@ -0,0 +1,42 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limita a {@code porSegundo} las operaciones por segundo repartiéndolas de forma pareja:
+ * cada llamada reserva el próximo turno libre y espera hasta que llegue. Thread-safe.
+ */
+public class LimitadorTasa {
+
+    private final long intervaloNanos;
+    private long proximoTurno;
+
+    public LimitadorTasa(double porSegundo) {
+        if (porSegundo <= 0) {
+            throw new IllegalArgumentException("La tasa debe ser positiva");
+        }
+        this.intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo);
+        this.proximoTurno = System.nanoTime();
+    }
+
+    /**
+     * Bloquea hasta que haya un turno disponible (o hasta que interrumpan el hilo).
+     */
+    public void adquirir() {
+        long espera = reservar();
+        while (espera > 0 && !Thread.currentThread().isInterrupted()) {
+            long desde = System.nanoTime();
+            LockSupport.parkNanos(espera);
+            espera -= System.nanoTime() - desde;
+        }
+    }
+
+    // sin ráfagas acumuladas: un período ocioso no deja turnos guardados para después
+    private synchronized long reservar() {
+        long ahora = System.nanoTime();
+        long turno = Math.max(ahora, proximoTurno);
+        proximoTurno = turno + intervaloNanos;
+        return turno - ahora;
+    }
+}
@@ -0,0 +1,36 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Forma canónica de nombres para búsqueda: mayúsculas, sin tildes ni diéresis (también Ñ → N)
+ * y con los espacios colapsados. "  Pérez  Núñez " → "PEREZ NUNEZ".
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * @return null si {@code texto} es null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinMarcas.toUpperCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * "apellido nombre" normalizado, para buscar por prefijo sobre el nombre completo.
+     */
+    public static String nombreCompleto(String apellido, String nombre) {
+        return normalizar((apellido != null ? apellido : "") + " " + (nombre != null ? nombre : ""));
+    }
+}
@@ -0,0 +1,113 @@
+package com.tpagiles.app_licencia.service.helper;
+
+import java.util.Arrays;
+
+/**
+ * Rueda de tiempos con granularidad de un día: un casillero por día para los próximos
+ * {@code dias} días, cada uno con los ids (long primitivos) de las licencias que vencen ese día.
+ * Agregar y avanzar un día son O(1) por licencia, sin ordenar ni boxear.
+ * <p>
+ * Es el nivel inferior de la jerarquía: lo que cae más allá del horizonte no se guarda acá
+ * sino que se carga desde la base cuando la rueda avanza (ver {@code MotorVencimientoService}).
+ * El día de una entrada es el primer día en que la licencia está vencida
+ * ({@code fechaVencimiento + 1}), coherente con {@code fechaVencimiento < hoy}.
+ */
+public class RuedaVencimientos {
+
+    private static final long[] VACIO = new long[0];
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final int dias;
+    private final long[][] casilleros;
+    private final int[] tamanios;
+    private long diaActual;
+
+    public RuedaVencimientos(int dias, long diaActual) {
+        if (dias < 2) {
+            throw new IllegalArgumentException("La rueda necesita al menos 2 días");
+        }
+        this.dias = dias;
+        this.casilleros = new long[dias][];
+        this.tamanios = new int[dias];
+        this.diaActual = diaActual;
+    }
+
+    /**
+     * Agenda una licencia para el día {@code diaVencida} (epoch day).
+     * Si ese día ya pasó queda en el casillero actual, para el próximo {@link #avanzarHasta}.
+     *
+     * @return false si cae más allá del horizonte y no se agendó
+     */
+    public synchronized boolean agregar(long licenciaId, long diaVencida) {
+        if (diaVencida > horizonte()) {
+            return false;
+        }
+        int i = indice(Math.max(diaVencida, diaActual));
+        long[] casillero = casilleros[i];
+        if (casillero == null) {
+            casillero = casilleros[i] = new long[CAPACIDAD_INICIAL];
+        } else if (tamanios[i] == casillero.length) {
+            casillero = casilleros[i] = Arrays.copyOf(casillero, casillero.length * 2);
+        }
+        casillero[tamanios[i]++] = licenciaId;
+        return true;
+    }
+
+    /**
+     * Mueve la rueda hasta {@code dia} (epoch day) y devuelve los ids de todos los casilleros
+     * recorridos, incluido el de {@code dia}, que quedan vacíos.
+     */
+    public synchronized long[] avanzarHasta(long dia) {
+        long desde = diaActual;
+        if (dia > diaActual) {
+            diaActual = dia;
+        }
+        // si se saltearon más días que casilleros, cada casillero se recorre una sola vez
+        long hasta = Math.min(diaActual, desde + dias - 1);
+        int total = 0;
+        for (long d = desde; d <= hasta; d++) {
+            total += tamanios[indice(d)];
+        }
+        if (total == 0) {
+            return VACIO;
+        }
+        long[] vencidas = new long[total];
+        int n = 0;
+        for (long d = desde; d <= hasta; d++) {
+            int i = indice(d);
+            if (tamanios[i] > 0) {
+                System.arraycopy(casilleros[i], 0, vencidas, n, tamanios[i]);
+                n += tamanios[i];
+                tamanios[i] = 0;
+                // se libera el arreglo si creció mucho (por ejemplo en la carga inicial)
+                if (casilleros[i].length > CAPACIDAD_INICIAL * 64) {
+                    casilleros[i] = null;
+                }
+            }
+        }
+        return vencidas;
+    }
+
+    /**
+     * Último día que entra en la rueda.
+     */
+    public synchronized long horizonte() {
+        return diaActual + dias - 1;
+    }
+
+    public synchronized long diaActual() {
+        return diaActual;
+    }
+
+    public synchronized int pendientes() {
+        int total = 0;
+        for (int tamanio : tamanios) {
+            total += tamanio;
+        }
+        return total;
+    }
+
+    private int indice(long dia) {
+        return (int) Math.floorMod(dia, (long) dias);
+    }
+}
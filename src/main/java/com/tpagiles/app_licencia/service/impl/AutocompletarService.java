@@ -0,0 +1,249 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.SugerenciaTitularRecord;
+import com.tpagiles.app_licencia.dto.TitularIndiceRecord;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.IAutocompletarService;
+import com.tpagiles.app_licencia.service.helper.CambiosDuranteReconstruccion;
+import com.tpagiles.app_licencia.service.helper.DespuesDelCommit;
+import com.tpagiles.app_licencia.service.helper.DiccionarioPrefijos;
+import com.tpagiles.app_licencia.service.helper.DiccionarioPrefijos.Ajuste;
+import com.tpagiles.app_licencia.service.helper.IndicePrefijos;
+import com.tpagiles.app_licencia.service.helper.NormalizadorTexto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Autocompletado sobre dos {@link IndicePrefijos}: apellidos normalizados y números de documento
+ * sin separadores. Las consultas no toman locks ni tocan la base.
+ * <p>
+ * Cada escritura confirmada suma o resta un titular a una clave. A diferencia de las facetas esos
+ * ajustes no son idempotentes: si una escritura se confirma mientras corre la reconstrucción y la
+ * lectura de la base ya la incluía, al volver a aplicarla la clave queda contada de más. Solo
+ * afecta al número informado (una clave en cero deja de sugerirse igual) y lo corrige la próxima
+ * reconstrucción ({@code app.autocompletar.conciliacion-ms}), que también levanta los cambios
+ * hechos en otros nodos.
+ */
+@Service
+public class AutocompletarService implements IAutocompletarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompletarService.class);
+
+    private static final String CAMPO_APELLIDO = "apellido";
+    private static final String CAMPO_DOCUMENTO = "numeroDocumento";
+
+    private record Cambio(boolean documento, String clave, String texto, int delta) {
+    }
+
+    private final TitularRepository titularRepo;
+    private final int tamanioLote;
+    private final int umbralCompactacion;
+    private final Timer consultas;
+
+    private volatile IndicePrefijos apellidos;
+    private volatile IndicePrefijos documentos;
+
+    // serializa la aplicación de cambios con el reemplazo de los índices al reconstruir
+    private final Object monitor = new Object();
+    private final CambiosDuranteReconstruccion<Cambio> duranteReconstruccion = new CambiosDuranteReconstruccion<>();
+
+    public AutocompletarService(TitularRepository titularRepo,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.autocompletar.tamanio-lote:5000}") int tamanioLote,
+                                @Value("${app.autocompletar.umbral-compactacion:1000}") int umbralCompactacion) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.autocompletar.tamanio-lote debe ser mayor a cero");
+        }
+        this.titularRepo = titularRepo;
+        this.tamanioLote = tamanioLote;
+        this.umbralCompactacion = umbralCompactacion;
+        this.apellidos = new IndicePrefijos(DiccionarioPrefijos.VACIO, umbralCompactacion);
+        this.documentos = new IndicePrefijos(DiccionarioPrefijos.VACIO, umbralCompactacion);
+
+        registrarMedidores(meterRegistry, CAMPO_APELLIDO, false);
+        registrarMedidores(meterRegistry, CAMPO_DOCUMENTO, true);
+        this.consultas = Timer.builder("titulares.autocompletar.consulta")
+                .description("Tiempo de resolución de una sugerencia de autocompletado")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private void registrarMedidores(MeterRegistry meterRegistry, String campo, boolean documento) {
+        Gauge.builder("titulares.autocompletar.claves", this, s -> s.indice(documento).claves())
+                .description("Valores distintos disponibles para autocompletar")
+                .tag("campo", campo)
+                .register(meterRegistry);
+        Gauge.builder("titulares.autocompletar.memoria", this, s -> s.indice(documento).bytesEstimados())
+                .description("Memoria aproximada del diccionario de autocompletado")
+                .baseUnit("bytes")
+                .tag("campo", campo)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    @Override
+    public List<SugerenciaTitularRecord> sugerir(String prefijo, int limite) {
+        if (prefijo == null || prefijo.isBlank() || limite <= 0) {
+            return List.of();
+        }
+        return consultas.record(() -> {
+            String apellido = claveApellido(prefijo);
+            String documento = claveDocumento(prefijo);
+            List<SugerenciaTitularRecord> resultado = new ArrayList<>();
+            if (Character.isDigit(prefijo.strip().charAt(0))) {
+                agregar(resultado, documentos, documento, CAMPO_DOCUMENTO, limite);
+                agregar(resultado, apellidos, apellido, CAMPO_APELLIDO, limite);
+            } else {
+                agregar(resultado, apellidos, apellido, CAMPO_APELLIDO, limite);
+                agregar(resultado, documentos, documento, CAMPO_DOCUMENTO, limite);
+            }
+            return resultado;
+        });
+    }
+
+    private static void agregar(List<SugerenciaTitularRecord> resultado, IndicePrefijos indice,
+                                String prefijo, String campo, int limite) {
+        if (prefijo.isEmpty() || resultado.size() >= limite) {
+            return;
+        }
+        for (IndicePrefijos.Sugerencia s : indice.sugerir(prefijo, limite - resultado.size())) {
+            resultado.add(new SugerenciaTitularRecord(s.texto(), campo, s.cantidad()));
+        }
+    }
+
+    @Override
+    public void registrarAlta(Titular titular) {
+        List<Cambio> cambios = List.of(
+                new Cambio(false, claveApellido(titular.getApellido()), titular.getApellido().strip(), 1),
+                new Cambio(true, claveDocumento(titular.getNumeroDocumento()), titular.getNumeroDocumento(), 1));
+        DespuesDelCommit.ejecutar(() -> aplicar(cambios));
+    }
+
+    @Override
+    public void registrarCambio(String apellidoAnterior, String numeroDocumentoAnterior, Titular titular) {
+        List<Cambio> cambios = new ArrayList<>(4);
+        String apellidoViejo = claveApellido(apellidoAnterior);
+        String apellidoNuevo = claveApellido(titular.getApellido());
+        if (!Objects.equals(apellidoViejo, apellidoNuevo)) {
+            cambios.add(new Cambio(false, apellidoViejo, null, -1));
+            cambios.add(new Cambio(false, apellidoNuevo, titular.getApellido().strip(), 1));
+        }
+        String documentoViejo = claveDocumento(numeroDocumentoAnterior);
+        String documentoNuevo = claveDocumento(titular.getNumeroDocumento());
+        if (!Objects.equals(documentoViejo, documentoNuevo)) {
+            cambios.add(new Cambio(true, documentoViejo, null, -1));
+            cambios.add(new Cambio(true, documentoNuevo, titular.getNumeroDocumento(), 1));
+        }
+        if (!cambios.isEmpty()) {
+            DespuesDelCommit.ejecutar(() -> aplicar(cambios));
+        }
+    }
+
+    @Override
+    public void registrarBaja(String apellido, String numeroDocumento) {
+        List<Cambio> cambios = List.of(
+                new Cambio(false, claveApellido(apellido), null, -1),
+                new Cambio(true, claveDocumento(numeroDocumento), null, -1));
+        DespuesDelCommit.ejecutar(() -> aplicar(cambios));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.autocompletar.conciliacion-ms:3600000}",
+            initialDelayString = "${app.autocompletar.conciliacion-ms:3600000}")
+    public synchronized long reconstruir() {
+        long inicio = System.nanoTime();
+        duranteReconstruccion.iniciar();
+
+        Map<String, Ajuste> porApellido = new HashMap<>();
+        Map<String, Ajuste> porDocumento = new HashMap<>();
+        long titulares = 0;
+        try {
+            long despuesId = 0;
+            List<TitularIndiceRecord> pagina;
+            do {
+                pagina = titularRepo.findParaIndice(despuesId, Long.MAX_VALUE, Limit.of(tamanioLote));
+                for (TitularIndiceRecord t : pagina) {
+                    acumular(porApellido, claveApellido(t.apellido()), t.apellido());
+                    acumular(porDocumento, claveDocumento(t.numeroDocumento()), t.numeroDocumento());
+                    despuesId = t.id();
+                }
+                titulares += pagina.size();
+            } while (pagina.size() == tamanioLote);
+        } catch (RuntimeException e) {
+            duranteReconstruccion.terminar();
+            throw e;
+        }
+
+        IndicePrefijos nuevosApellidos = new IndicePrefijos(DiccionarioPrefijos.de(porApellido), umbralCompactacion);
+        IndicePrefijos nuevosDocumentos = new IndicePrefijos(DiccionarioPrefijos.de(porDocumento), umbralCompactacion);
+        synchronized (monitor) {
+            for (Cambio c : duranteReconstruccion.terminar()) {
+                (c.documento() ? nuevosDocumentos : nuevosApellidos).ajustar(c.clave(), c.texto(), c.delta());
+            }
+            apellidos = nuevosApellidos;
+            documentos = nuevosDocumentos;
+        }
+        logger.info("Autocompletado reconstruido: {} titulares, {} apellidos y {} documentos en {} ms",
+                titulares, nuevosApellidos.claves(), nuevosDocumentos.claves(),
+                (System.nanoTime() - inicio) / 1_000_000);
+        return titulares;
+    }
+
+    private static void acumular(Map<String, Ajuste> destino, String clave, String texto) {
+        if (clave != null && !clave.isEmpty()) {
+            destino.merge(clave, new Ajuste(texto.strip(), 1), (actual, nuevo) -> new Ajuste(actual.texto(), actual.delta() + 1));
+        }
+    }
+
+    private IndicePrefijos indice(boolean documento) {
+        return documento ? documentos : apellidos;
+    }
+
+    private void aplicar(List<Cambio> cambios) {
+        synchronized (monitor) {
+            for (Cambio c : cambios) {
+                indice(c.documento()).ajustar(c.clave(), c.texto(), c.delta());
+            }
+            duranteReconstruccion.registrarTodos(cambios);
+        }
+    }
+
+    private static String claveApellido(String apellido) {
+        return NormalizadorTexto.normalizar(apellido);
+    }
+
+    // "20.123.456" y "20123456" son la misma clave
+    private static String claveDocumento(String numeroDocumento) {
+        if (numeroDocumento == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(numeroDocumento.length());
+        for (int i = 0; i < numeroDocumento.length(); i++) {
+            char c = numeroDocumento.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toUpperCase(c));
+            }
+        }
+        return sb.toString();
+    }
+}
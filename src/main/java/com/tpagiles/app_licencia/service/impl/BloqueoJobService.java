@@ -0,0 +1,88 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.repository.BloqueoJobRepository;
+import com.tpagiles.app_licencia.service.IBloqueoJobService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Bloqueos sobre la tabla bloqueos_job con SQL portable (MySQL y H2 en modo servidor).
+ * Los plazos se calculan con el reloj de cada nodo, así que los nodos deben estar
+ * sincronizados (NTP) con un desvío bastante menor que la vigencia del lease.
+ */
+@Service
+public class BloqueoJobService implements IBloqueoJobService {
+
+    private final BloqueoJobRepository repo;
+    private final TransactionTemplate tx;
+    private final String nodo;
+
+    public BloqueoJobService(BloqueoJobRepository repo,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.bloqueo-job.nodo:}") String nodo) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodo = nodo.isBlank() ? generarNodo() : nodo;
+    }
+
+    @Override
+    public boolean adquirir(String nombre, Duration vigencia) {
+        Instant ahora = Instant.now();
+        Instant hasta = ahora.plus(vigencia);
+        Integer tomadas = tx.execute(status -> repo.tomarSiLibre(nombre, nodo, hasta, ahora));
+        if (tomadas != null && tomadas == 1) {
+            return true;
+        }
+        if (repo.existsById(nombre)) {
+            return false;
+        }
+        try {
+            tx.executeWithoutResult(status -> repo.insertar(nombre, nodo, hasta, ahora));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // otro nodo creó la fila primero y es el dueño
+            return false;
+        }
+    }
+
+    @Override
+    public boolean renovar(String nombre, Duration vigencia) {
+        Integer renovadas = tx.execute(status -> repo.extender(nombre, nodo, Instant.now().plus(vigencia)));
+        return renovadas != null && renovadas == 1;
+    }
+
+    @Override
+    public void liberar(String nombre, Instant libreDesde) {
+        Instant ahora = Instant.now();
+        Instant hasta = libreDesde.isAfter(ahora) ? libreDesde : ahora;
+        tx.executeWithoutResult(status -> repo.extender(nombre, nodo, hasta));
+    }
+
+    @Override
+    public String nodo() {
+        return nodo;
+    }
+
+    // el sufijo distingue dos instancias en el mismo host
+    private static String generarNodo() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "desconocido";
+        }
+        String nodo = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return nodo.length() <= 100 ? nodo : nodo.substring(nodo.length() - 100);
+    }
+}
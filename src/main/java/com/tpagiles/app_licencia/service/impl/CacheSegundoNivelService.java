@@ -0,0 +1,96 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.tpagiles.app_licencia.dto.RegionCacheRecord;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.service.ICacheSegundoNivelService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+
+/**
+ * Lee los contadores de Hibernate (hibernate.generate_statistics) y la cota de cada región de la
+ * configuración de Caffeine.
+ */
+@Service
+public class CacheSegundoNivelService implements ICacheSegundoNivelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSegundoNivelService.class);
+
+    private final CacheImplementor cache;
+    private final Statistics statistics;
+    private final CacheManager cacheManager;
+
+    public CacheSegundoNivelService(EntityManagerFactory emf, CacheManager cacheManagerSegundoNivel) {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        this.cache = sessionFactory.getCache();
+        this.statistics = sessionFactory.getStatistics();
+        this.cacheManager = cacheManagerSegundoNivel;
+    }
+
+    @Override
+    public List<RegionCacheRecord> estadisticas() {
+        return cache.getCacheRegionNames().stream()
+                .sorted()
+                .map(this::estadisticas)
+                .toList();
+    }
+
+    private RegionCacheRecord estadisticas(String nombre) {
+        Region region = cache.getRegion(nombre);
+        if (region instanceof TimestampsRegion) {
+            return RegionCacheRecord.de(nombre, statistics.getUpdateTimestampsCacheHitCount(),
+                    statistics.getUpdateTimestampsCacheMissCount(), statistics.getUpdateTimestampsCachePutCount(),
+                    maxEntradas(nombre));
+        }
+        CacheRegionStatistics stats = region instanceof QueryResultsRegion
+                ? statistics.getQueryRegionStatistics(nombre)
+                : statistics.getDomainDataRegionStatistics(nombre);
+        if (stats == null) {
+            return RegionCacheRecord.de(nombre, 0, 0, 0, maxEntradas(nombre));
+        }
+        return RegionCacheRecord.de(nombre, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                maxEntradas(nombre));
+    }
+
+    private Long maxEntradas(String nombre) {
+        Cache<Object, Object> jcache = cacheManager.getCache(nombre);
+        if (jcache == null) {
+            return null;
+        }
+        CaffeineConfiguration<?, ?> configuracion = jcache.getConfiguration(CaffeineConfiguration.class);
+        return configuracion.getMaximumSize().isPresent() ? configuracion.getMaximumSize().getAsLong() : null;
+    }
+
+    @Override
+    public void vaciar(String nombre) {
+        Region region = cache.getRegion(nombre);
+        if (region == null) {
+            throw new ResourceNotFoundException("Región de caché no encontrada: " + nombre);
+        }
+        cache.evictRegion(nombre);
+        if (region instanceof TimestampsRegion) {
+            // sin las marcas de escritura, una consulta cacheada vieja pasaría por vigente
+            cache.evictQueryRegions();
+        }
+        logger.info("Región de caché {} vaciada", nombre);
+    }
+
+    @Override
+    public void vaciarTodas() {
+        cache.evictAllRegions();
+        logger.info("Caché de segundo nivel vaciada");
+    }
+}
@@ -0,0 +1,130 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.model.Contador;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+import com.tpagiles.app_licencia.repository.ContadorRepository;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.IContadorService;
+import com.tpagiles.app_licencia.service.helper.DespuesDelCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria con {@link LongAdder}: los incrementos concurrentes no compiten por
+ * una misma celda y la lectura es una suma de pocas celdas, sin tocar la base.
+ * <p>
+ * Al arrancar se cargan los últimos valores persistidos en la tabla {@code contadores}
+ * (o se cuentan en la base si todavía no hay). La conciliación periódica corrige cualquier
+ * desvío (cambios hechos por otro nodo, por SQL directo o perdidos en una caída) y
+ * vuelve a persistir los valores.
+ */
+@Service
+public class ContadorService implements IContadorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContadorService.class);
+
+    private final ContadorRepository contadorRepo;
+    private final LicenciaRepository licenciaRepo;
+    private final TitularRepository titularRepo;
+
+    private final Map<TipoContador, LongAdder> contadores = new EnumMap<>(TipoContador.class);
+    private volatile boolean inicializado;
+
+    public ContadorService(ContadorRepository contadorRepo,
+                           LicenciaRepository licenciaRepo,
+                           TitularRepository titularRepo) {
+        this.contadorRepo = contadorRepo;
+        this.licenciaRepo = licenciaRepo;
+        this.titularRepo = titularRepo;
+        for (TipoContador tipo : TipoContador.values()) {
+            contadores.put(tipo, new LongAdder());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        asegurarInicializado();
+    }
+
+    @Override
+    public long valor(TipoContador tipo) {
+        asegurarInicializado();
+        return Math.max(0, contadores.get(tipo).sum());
+    }
+
+    @Override
+    public void sumar(TipoContador tipo, long delta) {
+        DespuesDelCommit.ejecutar(() -> contadores.get(tipo).add(delta));
+    }
+
+    @Override
+    public void recalcular(TipoContador... tipos) {
+        List<TipoContador> aRecalcular = List.of(tipos);
+        DespuesDelCommit.ejecutar(() -> aRecalcular.forEach(this::ajustar));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.contadores.conciliacion-ms:300000}",
+            initialDelayString = "${app.contadores.conciliacion-inicial-ms:30000}")
+    public void conciliar() {
+        asegurarInicializado();
+        Instant ahora = Instant.now();
+        List<Contador> valores = new ArrayList<>();
+        for (TipoContador tipo : TipoContador.values()) {
+            valores.add(new Contador(tipo, ajustar(tipo), ahora));
+        }
+        contadorRepo.saveAll(valores);
+    }
+
+    /**
+     * Lleva el contador al valor real de la base. Los incrementos que se confirmen mientras
+     * corre el COUNT pueden quedar contados dos veces; la próxima conciliación los corrige.
+     */
+    private long ajustar(TipoContador tipo) {
+        LongAdder contador = contadores.get(tipo);
+        long enMemoria = contador.sum();
+        long real = contarEnBase(tipo);
+        if (real != enMemoria) {
+            contador.add(real - enMemoria);
+            logger.info("Contador {} conciliado: memoria={}, base={}", tipo, enMemoria, real);
+        }
+        return real;
+    }
+
+    private void asegurarInicializado() {
+        if (inicializado) {
+            return;
+        }
+        synchronized (this) {
+            if (inicializado) {
+                return;
+            }
+            Map<TipoContador, Long> guardados = new EnumMap<>(TipoContador.class);
+            contadorRepo.findAll().forEach(c -> guardados.put(c.getNombre(), c.getValor()));
+            for (TipoContador tipo : TipoContador.values()) {
+                Long guardado = guardados.get(tipo);
+                // lo sumado antes de inicializar se conserva: son altas ya confirmadas
+                contadores.get(tipo).add(guardado != null ? guardado : contarEnBase(tipo));
+            }
+            inicializado = true;
+        }
+    }
+
+    private long contarEnBase(TipoContador tipo) {
+        return switch (tipo) {
+            case LICENCIAS_EMITIDAS -> licenciaRepo.count();
+            case LICENCIAS_VENCIDAS -> licenciaRepo.countByFechaVencimientoBefore(LocalDate.now());
+            case TITULARES -> titularRepo.count();
+        };
+    }
+}
@@ -0,0 +1,264 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.*;
+import com.tpagiles.app_licencia.exception.ColaSaturadaException;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.model.enums.EstadoTicket;
+import com.tpagiles.app_licencia.security.EmisorResolver;
+import com.tpagiles.app_licencia.service.IEmisionAsyncService;
+import com.tpagiles.app_licencia.service.ILicenciaLoteService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión asíncrona: las solicitudes se encolan en una cola acotada y un grupo de workers
+ * (hilos virtuales) las procesa en lotes a través de {@link ILicenciaLoteService},
+ * que valida en memoria y persiste cada lote con un único batch insert. Al detenerse deja de aceptar,
+ * espera (acotado) a que los workers vacíen la cola y marca FALLIDO lo que quede.
+ */
+@Service
+public class EmisionAsyncService implements IEmisionAsyncService {
+
+    private final Logger logger = LoggerFactory.getLogger(EmisionAsyncService.class);
+
+    // cada cuánto un worker sin trabajo vuelve a mirar si el servicio se está deteniendo
+    private static final long ESPERA_COLA_MS = 100;
+
+    private final ILicenciaLoteService licenciaLoteService;
+    private final EmisorResolver emisorResolver;
+
+    private final BlockingQueue<Pendiente> cola;
+    private final Map<UUID, Ticket> tickets = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final int cantidadWorkers;
+    private final int tamanioLote;
+    private final Duration retencion;
+    private final Duration esperaDetencion;
+
+    private final Timer tiempoEnCola;
+    private final Counter rechazadas;
+
+    // acepta solicitudes desde que se crea (se encolan aunque los workers no hayan arrancado) hasta detenerse
+    private volatile boolean activo = true;
+
+    public EmisionAsyncService(ILicenciaLoteService licenciaLoteService,
+                               EmisorResolver emisorResolver,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.emision-async.capacidad-cola:1000}") int capacidadCola,
+                               @Value("${app.emision-async.workers:4}") int cantidadWorkers,
+                               @Value("${app.emision-async.tamanio-lote:50}") int tamanioLote,
+                               @Value("${app.emision-async.retencion-minutos:60}") long retencionMinutos,
+                               @Value("${app.emision-async.espera-detencion-ms:10000}") long esperaDetencionMs) {
+        this.licenciaLoteService = licenciaLoteService;
+        this.emisorResolver = emisorResolver;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.cantidadWorkers = cantidadWorkers;
+        this.tamanioLote = tamanioLote;
+        this.retencion = Duration.ofMinutes(retencionMinutos);
+        this.esperaDetencion = Duration.ofMillis(esperaDetencionMs);
+
+        Gauge.builder("licencias.emision.cola.profundidad", cola, Collection::size)
+                .description("Solicitudes de emisión esperando en la cola")
+                .register(meterRegistry);
+        this.tiempoEnCola = Timer.builder("licencias.emision.cola.espera")
+                .description("Tiempo que pasa una solicitud en la cola hasta que un worker la toma")
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("licencias.emision.cola.rechazadas")
+                .description("Solicitudes rechazadas con 429 por cola llena")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciarWorkers() {
+        for (int i = 0; i < cantidadWorkers; i++) {
+            workers.add(Thread.ofVirtual().name("emision-async-" + i).start(this::drenar));
+        }
+    }
+
+    @PreDestroy
+    public void detenerWorkers() {
+        activo = false;
+        long limite = System.nanoTime() + esperaDetencion.toNanos();
+        for (Thread worker : workers) {
+            try {
+                worker.join(Duration.ofNanos(Math.max(limite - System.nanoTime(), 0)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.forEach(Thread::interrupt);
+
+        List<Pendiente> restantes = new ArrayList<>();
+        cola.drainTo(restantes);
+        if (!restantes.isEmpty()) {
+            logger.warn("Emisión asíncrona detenida con {} solicitudes sin procesar", restantes.size());
+            restantes.forEach(p -> p.ticket.finalizar(EstadoTicket.FALLIDO, null,
+                    "El servicio se detuvo antes de procesar la solicitud, reintente"));
+        }
+    }
+
+    @Override
+    public TicketEmisionRecord encolar(LicenciaRecord req) {
+        if (!activo) {
+            throw new ColaSaturadaException("La emisión asíncrona se está deteniendo, reintente la solicitud");
+        }
+        // el emisor se fija ahora: el worker no tiene el contexto de seguridad de la solicitud
+        LicenciaRecord conEmisor = LicenciaRecord.builder()
+                .titularId(req.titularId())
+                .clase(req.clase())
+                .numeroCopia(req.numeroCopia())
+                .motivoCopia(req.motivoCopia())
+                .emisor(emisorResolver.mailEfectivo(req.emisor()))
+                .build();
+
+        Ticket ticket = new Ticket(UUID.randomUUID(), Instant.now());
+        tickets.put(ticket.id, ticket);
+        // la foto se toma antes de encolar: un worker libre puede empezar a procesarlo enseguida
+        TicketEmisionRecord encolado = ticket.snapshot();
+        Pendiente pendiente = new Pendiente(ticket, conEmisor);
+        if (!cola.offer(pendiente)) {
+            tickets.remove(ticket.id);
+            rechazadas.increment();
+            throw new ColaSaturadaException("La cola de emisión está llena, reintente en unos segundos");
+        }
+        // si la detención empezó mientras se encolaba puede que ya nadie la tome: se retira si sigue ahí
+        if (!activo && cola.remove(pendiente)) {
+            tickets.remove(ticket.id);
+            throw new ColaSaturadaException("La emisión asíncrona se está deteniendo, reintente la solicitud");
+        }
+        return encolado;
+    }
+
+    @Override
+    public TicketEmisionRecord consultar(UUID ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Ticket de emisión no encontrado: " + ticketId);
+        }
+        return ticket.snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${app.emision-async.limpieza-ms:60000}")
+    public void purgarTicketsFinalizados() {
+        Instant limite = Instant.now().minus(retencion);
+        tickets.values().removeIf(t -> t.estado.finalizado() && t.finalizado.isBefore(limite));
+    }
+
+    // al detenerse sigue hasta vaciar la cola; detenerWorkers acota la espera
+    private void drenar() {
+        List<Pendiente> lote = new ArrayList<>(tamanioLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Pendiente primera = cola.poll(ESPERA_COLA_MS, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, tamanioLote - 1);
+                procesar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    void procesar(List<Pendiente> lote) {
+        Instant inicio = Instant.now();
+        for (Pendiente p : lote) {
+            tiempoEnCola.record(Duration.between(p.ticket.recibido, inicio));
+            p.ticket.estado = EstadoTicket.PROCESANDO;
+        }
+
+        try {
+            finalizar(lote, licenciaLoteService.emitirLote(lote.stream().map(Pendiente::solicitud).toList()));
+        } catch (RuntimeException ex) {
+            if (lote.size() == 1) {
+                fallida(lote.getFirst(), ex);
+                return;
+            }
+            // una sola solicitud puede tumbar el lote entero: se reintentan de a una
+            logger.warn("Falló la emisión asíncrona de un lote de {} solicitudes, se reintentan de a una",
+                    lote.size(), ex);
+            for (Pendiente p : lote) {
+                try {
+                    finalizar(List.of(p), licenciaLoteService.emitirLote(List.of(p.solicitud)));
+                } catch (RuntimeException exIndividual) {
+                    fallida(p, exIndividual);
+                }
+            }
+        }
+    }
+
+    private void finalizar(List<Pendiente> lote, LoteLicenciasResponseRecord respuesta) {
+        for (ResultadoLoteLicenciaRecord r : respuesta.resultados()) {
+            Ticket ticket = lote.get(r.indice()).ticket;
+            if (r.exitoso()) {
+                ticket.finalizar(EstadoTicket.COMPLETADO, r.licencia(), null);
+            } else {
+                ticket.finalizar(EstadoTicket.RECHAZADO, null, r.error());
+            }
+        }
+    }
+
+    private void fallida(Pendiente p, RuntimeException ex) {
+        logger.error("Falló la emisión asíncrona de la solicitud del ticket {}", p.ticket.id, ex);
+        p.ticket.finalizar(EstadoTicket.FALLIDO, null, "Error interno al emitir la licencia, reintente la solicitud");
+    }
+
+    int profundidadCola() {
+        return cola.size();
+    }
+
+    record Pendiente(Ticket ticket, LicenciaRecord solicitud) {
+    }
+
+    static final class Ticket {
+        private final UUID id;
+        private final Instant recibido;
+        private volatile EstadoTicket estado = EstadoTicket.PENDIENTE;
+        private volatile Instant finalizado;
+        private volatile LicenciaResponseRecord licencia;
+        private volatile String error;
+
+        Ticket(UUID id, Instant recibido) {
+            this.id = id;
+            this.recibido = recibido;
+        }
+
+        void finalizar(EstadoTicket estadoFinal, LicenciaResponseRecord licencia, String error) {
+            this.licencia = licencia;
+            this.error = error;
+            this.finalizado = Instant.now();
+            // el estado se escribe último para que un snapshot COMPLETADO siempre traiga la licencia
+            this.estado = estadoFinal;
+        }
+
+        TicketEmisionRecord snapshot() {
+            EstadoTicket e = estado;
+            return new TicketEmisionRecord(id, e, recibido,
+                    e.finalizado() ? finalizado : null, licencia, error);
+        }
+    }
+}
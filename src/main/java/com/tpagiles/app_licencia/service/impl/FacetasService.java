@@ -0,0 +1,179 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.FacetaLicenciaRecord;
+import com.tpagiles.app_licencia.dto.FacetaTitularRecord;
+import com.tpagiles.app_licencia.dto.FacetasResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.UnidadFacetas;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import com.tpagiles.app_licencia.service.helper.CambiosDuranteReconstruccion;
+import com.tpagiles.app_licencia.service.helper.DespuesDelCommit;
+import com.tpagiles.app_licencia.service.helper.BitmapsFacetas;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Facetas sobre {@link BitmapsFacetas}. Los conteos toman el lock de lectura y las escrituras
+ * (ya confirmadas) el de escritura, que se retiene apenas lo que tarda en tocar unos pocos bits.
+ * <p>
+ * Cada escritura es una asignación idempotente ("la licencia 7 es clase B y no está vigente"),
+ * así que aplicarla de más no cambia el resultado. La reconstrucción lee la base sin bloquear a
+ * nadie, guarda las escrituras que se confirman mientras tanto y las vuelve a aplicar sobre los
+ * bitmaps nuevos antes de reemplazar a los anteriores.
+ * <p>
+ * Los bitmaps son locales a cada nodo. Lo que no pasa por este servicio (cambios hechos en otro
+ * nodo, SQL directo) se corrige en la reconstrucción periódica ({@code app.facetas.conciliacion-ms}).
+ */
+@Service
+public class FacetasService implements IFacetasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetasService.class);
+
+    private final TitularRepository titularRepo;
+    private final LicenciaRepository licenciaRepo;
+    private final int tamanioLote;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BitmapsFacetas bitmaps = new BitmapsFacetas();
+    private final CambiosDuranteReconstruccion<Consumer<BitmapsFacetas>> duranteReconstruccion =
+            new CambiosDuranteReconstruccion<>();
+
+    public FacetasService(TitularRepository titularRepo,
+                          LicenciaRepository licenciaRepo,
+                          @Value("${app.facetas.tamanio-lote:5000}") int tamanioLote) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.facetas.tamanio-lote debe ser mayor a cero");
+        }
+        this.titularRepo = titularRepo;
+        this.licenciaRepo = licenciaRepo;
+        this.tamanioLote = tamanioLote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    @Override
+    public FacetasResponseRecord contar(String filtro, UnidadFacetas unidad) {
+        ExpresionFacetas.Nodo nodo = filtro == null || filtro.isBlank() ? null : ExpresionFacetas.parsear(filtro);
+        boolean deLicencias = unidad == UnidadFacetas.LICENCIAS;
+        lock.readLock().lock();
+        try {
+            RoaringBitmap conjunto = deLicencias ? bitmaps.licencias(nodo) : bitmaps.titulares(nodo);
+            return new FacetasResponseRecord(
+                    filtro == null ? "" : filtro.trim(),
+                    unidad,
+                    conjunto.getLongCardinality(),
+                    bitmaps.desglose(conjunto, deLicencias));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void registrarTitular(Titular titular) {
+        long id = titular.getId();
+        var grupo = titular.getGrupoSanguineo();
+        var factor = titular.getFactorRh();
+        boolean donante = titular.isDonanteOrganos();
+        DespuesDelCommit.ejecutar(() -> aplicar(b -> b.ponerTitular(id, grupo, factor, donante)));
+    }
+
+    @Override
+    public void eliminarTitular(Long titularId) {
+        DespuesDelCommit.ejecutar(() -> aplicar(b -> b.quitarTitular(titularId)));
+    }
+
+    @Override
+    public void registrarLicencia(Licencia licencia) {
+        long id = licencia.getId();
+        long titularId = licencia.getTitular().getId();
+        var clase = licencia.getClase();
+        boolean vigente = licencia.isVigente();
+        DespuesDelCommit.ejecutar(() -> aplicar(b -> b.ponerLicencia(id, titularId, clase, vigente)));
+    }
+
+    @Override
+    public void marcarNoVigentes(Collection<Long> licenciaIds) {
+        List<Long> ids = List.copyOf(licenciaIds);
+        DespuesDelCommit.ejecutar(() -> aplicar(b -> ids.forEach(b::marcarNoVigente)));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.facetas.conciliacion-ms:3600000}",
+            initialDelayString = "${app.facetas.conciliacion-ms:3600000}")
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        duranteReconstruccion.iniciar();
+
+        BitmapsFacetas nuevos = new BitmapsFacetas();
+        long titulares = 0;
+        long licencias = 0;
+        try {
+            // primero los titulares: cada licencia copia los atributos de su titular al cargarse
+            long despuesId = 0;
+            List<FacetaTitularRecord> paginaTitulares;
+            do {
+                paginaTitulares = titularRepo.findFacetas(despuesId, Limit.of(tamanioLote));
+                for (FacetaTitularRecord t : paginaTitulares) {
+                    nuevos.ponerTitular(t.id(), t.grupoSanguineo(), t.factorRh(), t.donanteOrganos());
+                    despuesId = t.id();
+                }
+                titulares += paginaTitulares.size();
+            } while (paginaTitulares.size() == tamanioLote);
+
+            despuesId = 0;
+            List<FacetaLicenciaRecord> paginaLicencias;
+            do {
+                paginaLicencias = licenciaRepo.findFacetas(despuesId, Limit.of(tamanioLote));
+                for (FacetaLicenciaRecord l : paginaLicencias) {
+                    nuevos.ponerLicencia(l.id(), l.titularId(), l.clase(), l.vigente());
+                    despuesId = l.id();
+                }
+                licencias += paginaLicencias.size();
+            } while (paginaLicencias.size() == tamanioLote);
+            nuevos.compactar();
+        } catch (RuntimeException e) {
+            duranteReconstruccion.terminar();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            duranteReconstruccion.terminar().forEach(cambio -> cambio.accept(nuevos));
+            bitmaps = nuevos;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Facetas reconstruidas: {} titulares y {} licencias en {} ms",
+                titulares, licencias, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void aplicar(Consumer<BitmapsFacetas> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(bitmaps);
+            duranteReconstruccion.registrar(cambio);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
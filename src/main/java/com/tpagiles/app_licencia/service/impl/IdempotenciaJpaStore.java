@@ -0,0 +1,113 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.RespuestaIdempotenteRecord;
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.model.RegistroIdempotencia;
+import com.tpagiles.app_licencia.repository.RegistroIdempotenciaRepository;
+import com.tpagiles.app_licencia.scheduler.EjecucionExclusiva;
+import com.tpagiles.app_licencia.service.IIdempotenciaStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Almacén respaldado por la tabla idempotencia_respuestas, para despliegues con varios nodos.
+ * La reserva es un INSERT con la clave como PK; los duplicados consultan la fila hasta que
+ * la solicitud original la completa o la libera.
+ */
+@Service
+@ConditionalOnProperty(name = "app.idempotencia.store", havingValue = "db")
+public class IdempotenciaJpaStore implements IIdempotenciaStore {
+
+    private static final long INTERVALO_CONSULTA_MS = 100;
+
+    private final RegistroIdempotenciaRepository repo;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+    private final Duration espera;
+
+    public IdempotenciaJpaStore(RegistroIdempotenciaRepository repo,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.idempotencia.ttl-minutos:1440}") long ttlMinutos,
+                                @Value("${app.idempotencia.espera-ms:10000}") long esperaMs) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofMinutes(ttlMinutos);
+        this.espera = Duration.ofMillis(esperaMs);
+    }
+
+    @Override
+    public Optional<RespuestaIdempotenteRecord> reservarOEsperar(String clave, String huella) {
+        Instant limite = Instant.now().plus(espera);
+        while (true) {
+            if (intentarReservar(clave, huella)) {
+                return Optional.empty();
+            }
+            Optional<RegistroIdempotencia> registro = repo.findById(clave);
+            if (registro.isPresent() && registro.get().isCompletada()) {
+                RegistroIdempotencia r = registro.get();
+                return Optional.of(new RespuestaIdempotenteRecord(
+                        r.getHuella(), r.getStatus(), r.getContentType(), r.getCuerpo()));
+            }
+            if (registro.isEmpty()) {
+                continue; // se liberó entre el INSERT y la lectura
+            }
+            if (Instant.now().isAfter(limite)) {
+                throw new SolicitudEnCursoException(
+                        "Hay una solicitud con la misma Idempotency-Key en curso, reintente más tarde");
+            }
+            try {
+                Thread.sleep(INTERVALO_CONSULTA_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SolicitudEnCursoException("Espera interrumpida para la Idempotency-Key indicada");
+            }
+        }
+    }
+
+    @Override
+    public void completar(String clave, RespuestaIdempotenteRecord respuesta) {
+        tx.executeWithoutResult(status -> repo.findById(clave).ifPresent(r -> {
+            r.setCompletada(true);
+            r.setStatus(respuesta.status());
+            r.setContentType(respuesta.contentType());
+            r.setCuerpo(respuesta.cuerpo());
+            r.setExpiraEn(Instant.now().plus(ttl));
+        }));
+    }
+
+    @Override
+    public void liberar(String clave) {
+        tx.executeWithoutResult(status -> repo.deleteById(clave));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotencia.limpieza-ms:60000}")
+    @EjecucionExclusiva(nombre = "purgar-idempotencia")
+    public void purgarExpiradas() {
+        tx.executeWithoutResult(status -> repo.deleteExpiradas(Instant.now()));
+    }
+
+    private boolean intentarReservar(String clave, String huella) {
+        Instant ahora = Instant.now();
+        try {
+            // la reserva en curso vence sola si el nodo cae antes de completarla
+            tx.executeWithoutResult(status -> {
+                repo.deleteExpirada(clave, ahora);
+                repo.reservar(clave, huella, ahora.plus(espera.multipliedBy(6)));
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.RespuestaIdempotenteRecord;
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.service.IIdempotenciaStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Almacén en memoria, acotado en cantidad de entradas y con expiración por TTL.
+ * Las solicitudes concurrentes con la misma clave esperan sobre el futuro de la primera.
+ * Las completadas se encolan en el orden en que se completan, que con un TTL fijo es también
+ * el de expiración: descartar la más vieja o las vencidas es sacar de la cabeza de la cola.
+ */
+@Service
+@ConditionalOnProperty(name = "app.idempotencia.store", havingValue = "memoria", matchIfMissing = true)
+public class IdempotenciaMemoriaStore implements IIdempotenciaStore {
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    // solo se agrega al final sin lock; quien saca de la cabeza lo hace con el monitor de la cola
+    private final Queue<Completada> completadas = new ConcurrentLinkedQueue<>();
+
+    private final long ttlMs;
+    private final long esperaMs;
+    private final int maxEntradas;
+
+    public IdempotenciaMemoriaStore(
+            @Value("${app.idempotencia.ttl-minutos:1440}") long ttlMinutos,
+            @Value("${app.idempotencia.espera-ms:10000}") long esperaMs,
+            @Value("${app.idempotencia.max-entradas:10000}") int maxEntradas) {
+        this.ttlMs = TimeUnit.MINUTES.toMillis(ttlMinutos);
+        this.esperaMs = esperaMs;
+        this.maxEntradas = maxEntradas;
+    }
+
+    @Override
+    public Optional<RespuestaIdempotenteRecord> reservarOEsperar(String clave, String huella) {
+        long limite = System.currentTimeMillis() + esperaMs;
+        while (true) {
+            Entrada nueva = new Entrada();
+            Entrada existente = entradas.putIfAbsent(clave, nueva);
+            if (existente == null) {
+                acotar();
+                return Optional.empty();
+            }
+            if (existente.expirada()) {
+                entradas.remove(clave, existente);
+                continue;
+            }
+            long restante = limite - System.currentTimeMillis();
+            try {
+                return Optional.of(existente.futuro.get(Math.max(restante, 0), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                throw new SolicitudEnCursoException(
+                        "Hay una solicitud con la misma Idempotency-Key en curso, reintente más tarde");
+            } catch (CancellationException | ExecutionException e) {
+                // la solicitud original se liberó sin respuesta: intentamos tomar la clave
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SolicitudEnCursoException("Espera interrumpida para la Idempotency-Key indicada");
+            }
+        }
+    }
+
+    @Override
+    public void completar(String clave, RespuestaIdempotenteRecord respuesta) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null) {
+            entrada.expiraEn = System.currentTimeMillis() + ttlMs;
+            if (entrada.futuro.complete(respuesta)) {
+                completadas.offer(new Completada(clave, entrada));
+            }
+        }
+    }
+
+    @Override
+    public void liberar(String clave) {
+        Entrada entrada = entradas.remove(clave);
+        if (entrada != null) {
+            entrada.futuro.cancel(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotencia.limpieza-ms:60000}")
+    public void purgarExpiradas() {
+        synchronized (completadas) {
+            Completada masVieja;
+            while ((masVieja = completadas.peek()) != null && masVieja.entrada().expirada()) {
+                descartar(completadas.poll());
+            }
+        }
+    }
+
+    int tamanio() {
+        return entradas.size();
+    }
+
+    /**
+     * Si se superó el máximo, descarta las completadas más viejas (las expiradas van primero).
+     * Las que están en curso nunca se descartan para no romper la espera de los duplicados.
+     */
+    private void acotar() {
+        if (entradas.size() <= maxEntradas) {
+            return;
+        }
+        synchronized (completadas) {
+            while (entradas.size() > maxEntradas) {
+                Completada masVieja = completadas.poll();
+                if (masVieja == null) {
+                    return;
+                }
+                descartar(masVieja);
+            }
+        }
+    }
+
+    // si la clave ya se descartó y se volvió a reservar, la entrada nueva no se toca
+    private void descartar(Completada completada) {
+        entradas.remove(completada.clave(), completada.entrada());
+    }
+
+    private record Completada(String clave, Entrada entrada) {
+    }
+
+    private static final class Entrada {
+        private final CompletableFuture<RespuestaIdempotenteRecord> futuro = new CompletableFuture<>();
+        // mientras está en curso no expira; al completarse se fija el TTL
+        private volatile long expiraEn = Long.MAX_VALUE;
+
+        boolean expirada() {
+            return futuro.isDone() && expiraEn < System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.ImportacionTitularesRecord;
+import com.tpagiles.app_licencia.dto.TitularRecord;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.EstadoImportacion;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularBatchRepository;
+import com.tpagiles.app_licencia.service.IAutocompletarService;
+import com.tpagiles.app_licencia.service.IContadorService;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import com.tpagiles.app_licencia.service.IImportacionTitularesService;
+import com.tpagiles.app_licencia.service.IIndiceTitularesService;
+import com.tpagiles.app_licencia.service.helper.ConjuntoDocumentos;
+import com.tpagiles.app_licencia.service.helper.ExportacionHelper;
+import com.tpagiles.app_licencia.service.helper.LectorCsv;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importación de titulares en una tubería de tres etapas, con a lo sumo dos lotes en memoria:
+ * <ol>
+ *   <li>el hilo de la importación lee {@code app.importacion-titulares.tamanio-lote} registros del CSV;</li>
+ *   <li>un {@link ForkJoinPool} los convierte a {@link TitularRecord} y los valida en paralelo,
+ *       mientras se inserta el lote anterior;</li>
+ *   <li>el hilo de la importación descarta los documentos repetidos, en el orden del archivo,
+ *       e inserta el resto con un batch JDBC en su propia transacción.</li>
+ * </ol>
+ * Los documentos existentes se precargan una vez en un {@link ConjuntoDocumentos} en lugar de
+ * consultar la base por fila. Si alguien da de alta el mismo documento entre la precarga y el
+ * INSERT, la restricción única hace fallar el lote y se reintenta fila por fila.
+ * <p>
+ * Las altas no pasan por los avisos individuales (índice de búsqueda, facetas, autocompletado):
+ * esas estructuras se reconstruyen una sola vez al terminar. Hay una sola importación a la vez
+ * por nodo; el CSV recibido y el archivo de rechazos se guardan en archivos temporales.
+ */
+@Service
+public class ImportacionTitularesService implements IImportacionTitularesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionTitularesService.class);
+
+    // encabezado esperado: los campos de TitularRecord, en cualquier orden
+    static final List<String> COLUMNAS = List.of("nombre", "apellido", "fechaNacimiento", "tipoDocumento",
+            "numeroDocumento", "grupoSanguineo", "factorRh", "direccion", "donanteOrganos", "mail");
+    // pueden faltar en el encabezado: el campo queda en null
+    static final Set<String> OPCIONALES = Set.of("mail");
+
+    private static final String ENCABEZADO_RECHAZOS = "linea,numeroDocumento,motivo\r\n";
+    private static final long LINEAS_POR_LOG = 100_000;
+
+    private final TitularBatchRepository batchRepo;
+    private final Validator validator;
+    private final IContadorService contadores;
+    private final IIndiceTitularesService indiceTitulares;
+    private final IFacetasService facetas;
+    private final IAutocompletarService autocompletar;
+    private final TransactionTemplate tx;
+    private final int tamanioLote;
+    private final int hilos;
+    private final Duration retencion;
+
+    private final Map<UUID, Importacion> importaciones = new ConcurrentHashMap<>();
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    public ImportacionTitularesService(TitularBatchRepository batchRepo,
+                                       Validator validator,
+                                       IContadorService contadores,
+                                       IIndiceTitularesService indiceTitulares,
+                                       IFacetasService facetas,
+                                       IAutocompletarService autocompletar,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.importacion-titulares.tamanio-lote:1000}") int tamanioLote,
+                                       @Value("${app.importacion-titulares.hilos:0}") int hilos,
+                                       @Value("${app.importacion-titulares.retencion-minutos:1440}") long retencionMinutos) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.importacion-titulares.tamanio-lote debe ser mayor a cero");
+        }
+        this.batchRepo = batchRepo;
+        this.validator = validator;
+        this.contadores = contadores;
+        this.indiceTitulares = indiceTitulares;
+        this.facetas = facetas;
+        this.autocompletar = autocompletar;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.retencion = Duration.ofMinutes(retencionMinutos);
+    }
+
+    @Override
+    public ImportacionTitularesRecord iniciar(InputStream csv) throws IOException {
+        tomarTurno();
+        Path archivo = null;
+        Path rechazos = null;
+        try {
+            archivo = Files.createTempFile("importacion-titulares-", ".csv");
+            Files.copy(csv, archivo, StandardCopyOption.REPLACE_EXISTING);
+            leerEncabezado(archivo);
+            rechazos = Files.createTempFile("importacion-titulares-", ".rechazos.csv");
+        } catch (IOException | RuntimeException e) {
+            enCurso.set(false);
+            borrar(archivo);
+            borrar(rechazos);
+            throw e;
+        }
+
+        Importacion importacion = new Importacion(UUID.randomUUID(), rechazos);
+        importaciones.put(importacion.id, importacion);
+        Path recibido = archivo;
+        Thread.ofVirtual().name("importacion-titulares").start(() -> {
+            try {
+                ejecutar(importacion, recibido);
+            } finally {
+                borrar(recibido);
+                enCurso.set(false);
+            }
+        });
+        return importacion.snapshot();
+    }
+
+    @Override
+    public ImportacionTitularesRecord importar(Path csv, Path rechazos) throws IOException {
+        tomarTurno();
+        try {
+            leerEncabezado(csv);
+            Importacion importacion = new Importacion(UUID.randomUUID(), rechazos);
+            ejecutar(importacion, csv);
+            return importacion.snapshot();
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    @Override
+    public ImportacionTitularesRecord consultar(UUID id) {
+        return buscar(id).snapshot();
+    }
+
+    @Override
+    public void escribirRechazos(UUID id, OutputStream out) throws IOException {
+        Files.copy(buscar(id).rechazos, out);
+    }
+
+    @Scheduled(fixedDelayString = "${app.importacion-titulares.limpieza-ms:600000}")
+    public void purgarImportacionesFinalizadas() {
+        Instant limite = Instant.now().minus(retencion);
+        importaciones.values().removeIf(i -> {
+            boolean vencida = i.estado != EstadoImportacion.EN_CURSO && i.finalizada.isBefore(limite);
+            if (vencida) {
+                borrar(i.rechazos);
+            }
+            return vencida;
+        });
+    }
+
+    private Importacion buscar(UUID id) {
+        Importacion importacion = importaciones.get(id);
+        if (importacion == null) {
+            throw new ResourceNotFoundException("Importación de titulares no encontrada: " + id);
+        }
+        return importacion;
+    }
+
+    private void tomarTurno() {
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new SolicitudEnCursoException("Ya hay una importación de titulares en curso");
+        }
+    }
+
+    private void ejecutar(Importacion importacion, Path csv) {
+        long inicio = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        EstadoImportacion estado = EstadoImportacion.COMPLETADA;
+        String error = null;
+        try (LectorCsv lector = abrir(csv);
+             Writer rechazos = Files.newBufferedWriter(importacion.rechazos, StandardCharsets.UTF_8)) {
+            Encabezado encabezado = encabezado(lector.leer());
+            rechazos.write(ENCABEZADO_RECHAZOS);
+
+            ConjuntoDocumentos documentos = new ConjuntoDocumentos();
+            batchRepo.recorrerNumerosDocumento(documentos::agregar);
+            logger.info("Importación {}: {} documentos existentes precargados", importacion.id, documentos.tamanio());
+
+            long proximoLog = LINEAS_POR_LOG;
+            ForkJoinTask<List<Fila>> enValidacion = validar(pool, leerLote(lector, importacion), encabezado);
+            while (true) {
+                List<Fila> validadas = enValidacion.join();
+                if (validadas.isEmpty()) {
+                    break;
+                }
+                // el próximo lote se lee y se valida mientras este se inserta
+                enValidacion = validar(pool, leerLote(lector, importacion), encabezado);
+                guardar(validadas, documentos, rechazos, importacion);
+                rechazos.flush();
+
+                if (importacion.lineasLeidas.get() >= proximoLog) {
+                    logger.info("Importación {}: {} líneas leídas, {} titulares insertados, {} rechazados",
+                            importacion.id, importacion.lineasLeidas.get(), importacion.insertados.get(),
+                            importacion.rechazados.get());
+                    proximoLog += LINEAS_POR_LOG;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            estado = EstadoImportacion.FALLIDA;
+            error = e.getMessage();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Falló la importación de titulares {}", importacion.id, e);
+            estado = EstadoImportacion.FALLIDA;
+            error = "Error interno durante la importación";
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (importacion.insertados.get() > 0) {
+            reconstruirEstructuras();
+        }
+        importacion.finalizar(estado, error);
+        logger.info("Importación {} {}: {} líneas, {} titulares insertados y {} rechazados en {} ms",
+                importacion.id, estado, importacion.lineasLeidas.get(), importacion.insertados.get(),
+                importacion.rechazados.get(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void reconstruirEstructuras() {
+        try {
+            facetas.reconstruir();
+            autocompletar.reconstruir();
+            indiceTitulares.reconstruir();
+        } catch (RuntimeException e) {
+            // los titulares ya están en la base: la próxima conciliación periódica los levanta
+            logger.warn("No se pudieron reconstruir las estructuras en memoria después de la importación", e);
+        }
+    }
+
+    private List<LineaCsv> leerLote(LectorCsv lector, Importacion importacion) throws IOException {
+        List<LineaCsv> lote = new ArrayList<>(tamanioLote);
+        List<String> campos;
+        while (lote.size() < tamanioLote && (campos = lector.leer()) != null) {
+            if (campos.size() == 1 && campos.getFirst().isBlank()) {
+                continue;
+            }
+            lote.add(new LineaCsv(lector.linea(), campos));
+        }
+        importacion.lineasLeidas.addAndGet(lote.size());
+        return lote;
+    }
+
+    private ForkJoinTask<List<Fila>> validar(ForkJoinPool pool, List<LineaCsv> lote, Encabezado encabezado) {
+        // un parallelStream lanzado desde una tarea del pool usa ese pool y no el común
+        return pool.submit(() -> lote.parallelStream().map(l -> validar(l, encabezado)).toList());
+    }
+
+    private Fila validar(LineaCsv linea, Encabezado encabezado) {
+        List<String> campos = linea.campos();
+        if (campos.size() != encabezado.columnas()) {
+            return rechazo(linea, null,
+                    "Se esperaban " + encabezado.columnas() + " columnas y hay " + campos.size());
+        }
+        String numeroDocumento = encabezado.campo(campos, 4);
+        try {
+            TitularRecord record = new TitularRecord(
+                    encabezado.campo(campos, 0),
+                    encabezado.campo(campos, 1),
+                    fecha(encabezado.campo(campos, 2)),
+                    enumerado(encabezado.campo(campos, 3), "tipoDocumento", TipoDocumento::from),
+                    numeroDocumento,
+                    enumerado(encabezado.campo(campos, 5), "grupoSanguineo", GrupoSanguineo::from),
+                    enumerado(encabezado.campo(campos, 6), "factorRh", FactorRh::from),
+                    encabezado.campo(campos, 7),
+                    booleano(encabezado.campo(campos, 8)),
+                    encabezado.campo(campos, 9));
+            var violaciones = validator.validate(record);
+            if (!violaciones.isEmpty()) {
+                return rechazo(linea, numeroDocumento, violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+            Titular titular = record.toTitular();
+            titular.actualizarCamposBusqueda();
+            return new Fila(linea.numero(), numeroDocumento, titular, null);
+        } catch (IllegalArgumentException e) {
+            return rechazo(linea, numeroDocumento, e.getMessage());
+        }
+    }
+
+    private void guardar(List<Fila> validadas, ConjuntoDocumentos documentos, Writer rechazos,
+                         Importacion importacion) throws IOException {
+        List<Fila> aceptadas = new ArrayList<>(validadas.size());
+        for (Fila fila : validadas) {
+            if (fila.motivo() != null) {
+                rechazar(rechazos, importacion, fila.linea(), fila.numeroDocumento(), fila.motivo());
+            } else if (!documentos.agregar(fila.numeroDocumento())) {
+                rechazar(rechazos, importacion, fila.linea(), fila.numeroDocumento(),
+                        "Ya existe un Titular con documento: " + fila.numeroDocumento());
+            } else {
+                aceptadas.add(fila);
+            }
+        }
+        if (aceptadas.isEmpty()) {
+            return;
+        }
+
+        try {
+            insertar(aceptadas.stream().map(Fila::titular).toList());
+            importacion.insertados.addAndGet(aceptadas.size());
+        } catch (DataIntegrityViolationException e) {
+            for (Fila fila : aceptadas) {
+                try {
+                    insertar(List.of(fila.titular()));
+                    importacion.insertados.incrementAndGet();
+                } catch (DataIntegrityViolationException duplicado) {
+                    rechazar(rechazos, importacion, fila.linea(), fila.numeroDocumento(),
+                            "Ya existe un Titular con documento: " + fila.numeroDocumento());
+                }
+            }
+        }
+    }
+
+    private void insertar(List<Titular> titulares) {
+        tx.executeWithoutResult(status -> {
+            batchRepo.insertarTodas(titulares);
+            contadores.sumar(TipoContador.TITULARES, titulares.size());
+        });
+    }
+
+    private static void rechazar(Writer rechazos, Importacion importacion, long linea,
+                                 String numeroDocumento, String motivo) throws IOException {
+        rechazos.write(Long.toString(linea));
+        rechazos.write(',');
+        if (numeroDocumento != null) {
+            rechazos.write(ExportacionHelper.escaparCsv(numeroDocumento));
+        }
+        rechazos.write(',');
+        rechazos.write(ExportacionHelper.escaparCsv(motivo));
+        rechazos.write("\r\n");
+        importacion.rechazados.incrementAndGet();
+    }
+
+    private static Fila rechazo(LineaCsv linea, String numeroDocumento, String motivo) {
+        return new Fila(linea.numero(), numeroDocumento, null, motivo);
+    }
+
+    private static void leerEncabezado(Path csv) throws IOException {
+        try (LectorCsv lector = abrir(csv)) {
+            encabezado(lector.leer());
+        }
+    }
+
+    /**
+     * Todas las columnas de {@link #COLUMNAS} salvo las {@link #OPCIONALES}, sin repetidas ni desconocidas.
+     */
+    static Encabezado encabezado(List<String> encabezado) {
+        if (encabezado == null) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        List<String> nombres = encabezado.stream().map(String::strip).toList();
+        boolean completo = COLUMNAS.stream().allMatch(c -> OPCIONALES.contains(c) || nombres.contains(c));
+        if (!completo || !COLUMNAS.containsAll(nombres) || Set.copyOf(nombres).size() != nombres.size()) {
+            throw new IllegalArgumentException("El encabezado debe tener las columnas " + String.join(",", COLUMNAS)
+                    + " (en cualquier orden; opcionales: " + String.join(",", OPCIONALES) + ")");
+        }
+        return new Encabezado(COLUMNAS.stream().mapToInt(nombres::indexOf).toArray(), nombres.size());
+    }
+
+    private static LocalDate fecha(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("fechaNacimiento inválida: " + valor + " (formato AAAA-MM-DD)");
+        }
+    }
+
+    private static <E extends Enum<E>> E enumerado(String valor, String nombre, Function<String, E> desde) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return desde.apply(valor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(nombre + " inválido: " + valor);
+        }
+    }
+
+    private static Boolean booleano(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (valor.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("donanteOrganos debe ser true o false: " + valor);
+    }
+
+    private static LectorCsv abrir(Path csv) throws IOException {
+        return new LectorCsv(Files.newBufferedReader(csv, StandardCharsets.UTF_8));
+    }
+
+    private static void borrar(Path archivo) {
+        if (archivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el archivo temporal {}", archivo, e);
+        }
+    }
+
+    record LineaCsv(long numero, List<String> campos) {
+    }
+
+    /**
+     * @param posiciones para cada campo de {@link #COLUMNAS}, su posición en el archivo (-1 si no está)
+     * @param columnas   cantidad de columnas del archivo
+     */
+    record Encabezado(int[] posiciones, int columnas) {
+
+        String campo(List<String> campos, int columna) {
+            int posicion = posiciones[columna];
+            if (posicion < 0) {
+                return null;
+            }
+            String valor = campos.get(posicion).strip();
+            return valor.isEmpty() ? null : valor;
+        }
+    }
+
+    // titular != null si la fila es válida; si no, motivo explica el rechazo
+    record Fila(long linea, String numeroDocumento, Titular titular, String motivo) {
+    }
+
+    private static final class Importacion {
+        private final UUID id;
+        private final Instant iniciada = Instant.now();
+        private final Path rechazos;
+        private final AtomicLong lineasLeidas = new AtomicLong();
+        private final AtomicLong insertados = new AtomicLong();
+        private final AtomicLong rechazados = new AtomicLong();
+        private volatile EstadoImportacion estado = EstadoImportacion.EN_CURSO;
+        private volatile Instant finalizada;
+        private volatile String error;
+
+        Importacion(UUID id, Path rechazos) {
+            this.id = id;
+            this.rechazos = rechazos;
+        }
+
+        void finalizar(EstadoImportacion estadoFinal, String error) {
+            this.error = error;
+            this.finalizada = Instant.now();
+            this.estado = estadoFinal;
+        }
+
+        ImportacionTitularesRecord snapshot() {
+            return new ImportacionTitularesRecord(id, estado, iniciada, finalizada,
+                    lineasLeidas.get(), insertados.get(), rechazados.get(), error);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.TitularBusquedaResponseRecord;
+import com.tpagiles.app_licencia.dto.TitularIndiceRecord;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.IIndiceTitularesService;
+import com.tpagiles.app_licencia.service.helper.CambiosDuranteReconstruccion;
+import com.tpagiles.app_licencia.service.helper.DespuesDelCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Índice Lucene de titulares en disco ({@code app.indice-titulares.directorio}; vacío = en memoria).
+ * <p>
+ * Escrituras: los servicios avisan qué titular cambió y, después del commit, un único hilo
+ * indexador lo vuelve a leer de la base y reemplaza su documento. Como siempre se indexa el estado
+ * confirmado más reciente, el orden en que llegan los avisos de escrituras concurrentes no importa.
+ * Cada lote de cambios se publica para las búsquedas (near-real-time) y se confirma en disco.
+ * <p>
+ * Reconstrucción: {@code app.indice-titulares.hilos} lectores recorren rangos de id en paralelo y
+ * escriben sobre el mismo {@link IndexWriter}. Cada documento lleva el número de corrida que lo
+ * escribió; al terminar se borran los de corridas anteriores (titulares que ya no existen) y se
+ * reindexan los que el indexador tocó mientras tanto, por si la reconstrucción los pisó con datos
+ * leídos antes del cambio.
+ * <p>
+ * El índice es local a cada nodo: los cambios hechos en otro nodo, y los lotes que el indexador no
+ * pudo aplicar, se ven recién en la siguiente reconstrucción periódica
+ * ({@code app.indice-titulares.reconstruccion-ms}, cada hora por defecto).
+ */
+@Service
+public class IndiceTitularesService implements IIndiceTitularesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceTitularesService.class);
+
+    private static final String ID = "id";
+    private static final String NOMBRE = "nombre";
+    private static final String APELLIDO = "apellido";
+    private static final String TIPO_DOCUMENTO = "tipoDocumento";
+    private static final String NUMERO_DOCUMENTO = "numeroDocumento";
+    // número de documento sin puntos ni guiones, para buscar por prefijo
+    private static final String DOCUMENTO = "documento";
+    private static final String DIRECCION = "direccion";
+    private static final String CORRIDA = "corrida";
+
+    private static final int MAX_CAMBIOS_POR_LOTE = 500;
+    private static final long ESPERA_SINCRONIZAR_SEGUNDOS = 30;
+
+    private record Pendiente(Long titularId, CompletableFuture<Void> aviso) {
+    }
+
+    // detiene al indexador sin interrumpirlo: Lucene cierra el writer si se interrumpe una escritura
+    private static final Pendiente FIN = new Pendiente(null, null);
+
+    private final TitularRepository titularRepo;
+    private final int hilos;
+    private final int tamanioLote;
+    private final boolean reconstruirAlIniciar;
+    private final Analyzer analizador = analizador();
+    private final Directory directorio;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final BlockingQueue<Pendiente> cola = new LinkedBlockingQueue<>();
+    private Thread indexador;
+
+    private volatile long corridaActual = System.currentTimeMillis();
+    // titulares que el indexador tocó mientras se reconstruía: se reindexan al terminar
+    private final CambiosDuranteReconstruccion<Long> tocadosDuranteReconstruccion = new CambiosDuranteReconstruccion<>();
+
+    public IndiceTitularesService(TitularRepository titularRepo,
+                                  @Value("${app.indice-titulares.directorio:data/indice-titulares}") String directorio,
+                                  @Value("${app.indice-titulares.hilos:4}") int hilos,
+                                  @Value("${app.indice-titulares.tamanio-lote:1000}") int tamanioLote,
+                                  @Value("${app.indice-titulares.reconstruir-al-iniciar:true}") boolean reconstruirAlIniciar)
+            throws IOException {
+        if (hilos <= 0 || tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.indice-titulares.hilos y tamanio-lote deben ser mayores a cero");
+        }
+        this.titularRepo = titularRepo;
+        this.hilos = hilos;
+        this.tamanioLote = tamanioLote;
+        this.reconstruirAlIniciar = reconstruirAlIniciar;
+        this.directorio = directorio.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(directorio));
+        this.writer = new IndexWriter(this.directorio, new IndexWriterConfig(analizador)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        indexador = Thread.ofPlatform().daemon().name("indice-titulares").start(this::indexarCambios);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (reconstruirAlIniciar) {
+            // las búsquedas responden con el índice que haya en disco hasta que termine
+            Thread.ofVirtual().name("reconstruir-indice-titulares").start(this::reconstruirProgramado);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.indice-titulares.reconstruccion-ms:3600000}",
+            initialDelayString = "${app.indice-titulares.reconstruccion-ms:3600000}")
+    public void reconstruirProgramado() {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            logger.error("Falló la reconstrucción del índice de titulares", e);
+        }
+    }
+
+    @Override
+    public List<TitularBusquedaResponseRecord> buscar(String consulta, int limite) {
+        try {
+            Query query = armarConsulta(consulta);
+            if (query == null) {
+                return List.of();
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs encontrados = searcher.search(query, limite);
+                StoredFields campos = searcher.storedFields();
+                List<TitularBusquedaResponseRecord> resultado = new ArrayList<>(encontrados.scoreDocs.length);
+                for (ScoreDoc sd : encontrados.scoreDocs) {
+                    Document doc = campos.document(sd.doc);
+                    resultado.add(new TitularBusquedaResponseRecord(
+                            Long.valueOf(doc.get(ID)),
+                            doc.get(NOMBRE),
+                            doc.get(APELLIDO),
+                            TipoDocumento.valueOf(doc.get(TIPO_DOCUMENTO)),
+                            doc.get(NUMERO_DOCUMENTO),
+                            doc.get(DIRECCION),
+                            sd.score));
+                }
+                return resultado;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo consultar el índice de titulares", e);
+        }
+    }
+
+    @Override
+    public void registrarCambio(Long titularId) {
+        // si la transacción hace rollback no hay nada que reindexar
+        DespuesDelCommit.ejecutar(() -> cola.offer(new Pendiente(titularId, null)));
+    }
+
+    @Override
+    public synchronized long reconstruir() {
+        long inicio = System.nanoTime();
+        long corrida = Math.max(corridaActual + 1, System.currentTimeMillis());
+        corridaActual = corrida;
+        tocadosDuranteReconstruccion.iniciar();
+        try {
+            long maxId = titularRepo.findMaxId();
+            long porRango = Math.max(1, (maxId + hilos - 1) / hilos);
+            long total = 0;
+            try (ExecutorService lectores = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Long>> rangos = new ArrayList<>();
+                for (long desde = 0; desde < maxId; desde += porRango) {
+                    long despuesId = desde;
+                    long hastaId = Math.min(maxId, desde + porRango);
+                    rangos.add(lectores.submit(() -> indexarRango(despuesId, hastaId, corrida)));
+                }
+                for (Future<Long> rango : rangos) {
+                    total += rango.get();
+                }
+            }
+            // lo que no se reescribió en esta corrida ya no está en la base
+            writer.deleteDocuments(LongPoint.newRangeQuery(CORRIDA, Long.MIN_VALUE, corrida - 1));
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            logger.info("Índice de titulares reconstruido: {} documentos en {} ms",
+                    total, (System.nanoTime() - inicio) / 1_000_000);
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo reconstruir el índice de titulares", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo reconstruir el índice de titulares", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstrucción del índice de titulares interrumpida", e);
+        } finally {
+            Set.copyOf(tocadosDuranteReconstruccion.terminar()).forEach(id -> cola.offer(new Pendiente(id, null)));
+        }
+    }
+
+    @Override
+    public void sincronizar() {
+        CompletableFuture<Void> aviso = new CompletableFuture<>();
+        cola.offer(new Pendiente(null, aviso));
+        try {
+            aviso.get(ESPERA_SINCRONIZAR_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sincronización del índice de titulares interrumpida", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("El índice de titulares no terminó de aplicar los cambios", e);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() throws IOException, InterruptedException {
+        cola.offer(FIN);
+        indexador.join(TimeUnit.SECONDS.toMillis(5));
+        searcherManager.close();
+        writer.close();
+        directorio.close();
+    }
+
+    private long indexarRango(long despuesId, long hastaId, long corrida) throws IOException {
+        long indexados = 0;
+        while (true) {
+            List<TitularIndiceRecord> pagina = titularRepo.findParaIndice(despuesId, hastaId, Limit.of(tamanioLote));
+            for (TitularIndiceRecord titular : pagina) {
+                writer.updateDocument(new Term(ID, titular.id().toString()), documento(titular, corrida));
+            }
+            indexados += pagina.size();
+            if (pagina.size() < tamanioLote) {
+                return indexados;
+            }
+            despuesId = pagina.getLast().id();
+        }
+    }
+
+    // hilo indexador: toma los cambios de a lotes, los aplica, publica y confirma
+    private void indexarCambios() {
+        List<Pendiente> lote = new ArrayList<>(MAX_CAMBIOS_POR_LOTE);
+        boolean seguir = true;
+        while (seguir) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            cola.drainTo(lote, MAX_CAMBIOS_POR_LOTE - 1);
+            seguir = lote.stream().noneMatch(p -> p == FIN);
+            try {
+                for (Pendiente pendiente : lote) {
+                    if (pendiente.titularId() != null) {
+                        reindexar(pendiente.titularId());
+                    }
+                }
+                searcherManager.maybeRefreshBlocking();
+                writer.commit();
+            } catch (IOException | RuntimeException e) {
+                logger.error("No se pudieron aplicar {} cambios al índice de titulares; "
+                        + "se corrigen en la próxima reconstrucción", lote.size(), e);
+            } finally {
+                lote.forEach(p -> {
+                    if (p.aviso() != null) {
+                        p.aviso().complete(null);
+                    }
+                });
+                lote.clear();
+            }
+        }
+    }
+
+    private void reindexar(Long titularId) throws IOException {
+        tocadosDuranteReconstruccion.registrar(titularId);
+        Term id = new Term(ID, titularId.toString());
+        Optional<TitularIndiceRecord> titular = titularRepo.findParaIndiceById(titularId);
+        if (titular.isPresent()) {
+            writer.updateDocument(id, documento(titular.get(), corridaActual));
+        } else {
+            writer.deleteDocuments(id);
+        }
+    }
+
+    private static Document documento(TitularIndiceRecord titular, long corrida) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, titular.id().toString(), Field.Store.YES));
+        doc.add(new TextField(NOMBRE, titular.nombre(), Field.Store.YES));
+        doc.add(new TextField(APELLIDO, titular.apellido(), Field.Store.YES));
+        doc.add(new StoredField(TIPO_DOCUMENTO, titular.tipoDocumento().name()));
+        doc.add(new StoredField(NUMERO_DOCUMENTO, titular.numeroDocumento()));
+        doc.add(new StringField(DOCUMENTO, soloAlfanumericos(titular.numeroDocumento()), Field.Store.NO));
+        if (titular.direccion() != null) {
+            doc.add(new TextField(DIRECCION, titular.direccion(), Field.Store.YES));
+        }
+        doc.add(new LongPoint(CORRIDA, corrida));
+        return doc;
+    }
+
+    // cada palabra de la consulta tiene que matchear algún campo; con tres o más se tolera una que no
+    private Query armarConsulta(String consulta) throws IOException {
+        if (consulta == null || consulta.isBlank()) {
+            return null;
+        }
+        List<String> terminos = new ArrayList<>();
+        try (TokenStream tokens = analizador.tokenStream(APELLIDO, consulta)) {
+            CharTermAttribute termino = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terminos.add(termino.toString());
+            }
+            tokens.end();
+        }
+        if (terminos.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        terminos.forEach(t -> query.add(porTermino(t), BooleanClause.Occur.SHOULD));
+        query.setMinimumNumberShouldMatch(terminos.size() <= 2 ? terminos.size() : terminos.size() - 1);
+        return query.build();
+    }
+
+    // exacta > prefijo > aproximada; el documento pesa casi como el nombre y la dirección poco
+    private static Query porTermino(String termino) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        int ediciones = termino.length() < 3 ? 0 : termino.length() <= 5 ? 1 : 2;
+        for (String campo : List.of(APELLIDO, NOMBRE)) {
+            Term term = new Term(campo, termino);
+            query.add(new BoostQuery(new TermQuery(term), 4f), BooleanClause.Occur.SHOULD);
+            query.add(new BoostQuery(new PrefixQuery(term), 2f), BooleanClause.Occur.SHOULD);
+            if (ediciones > 0) {
+                query.add(new FuzzyQuery(term, ediciones, 1), BooleanClause.Occur.SHOULD);
+            }
+        }
+        query.add(new BoostQuery(new PrefixQuery(new Term(DIRECCION, termino)), 0.5f), BooleanClause.Occur.SHOULD);
+        String documento = soloAlfanumericos(termino);
+        if (documento.length() >= 3) {
+            query.add(new BoostQuery(new PrefixQuery(new Term(DOCUMENTO, documento)), 3f), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private static String soloAlfanumericos(String texto) {
+        return texto.replaceAll("[^\\p{Alnum}]", "").toLowerCase(Locale.ROOT);
+    }
+
+    // minúsculas y sin tildes: "Pérez" y "PEREZ" generan el mismo término
+    private static Analyzer analizador() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String campo) {
+                Tokenizer tokenizer = new StandardTokenizer();
+                TokenStream filtros = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+                return new TokenStreamComponents(tokenizer, filtros);
+            }
+
+            @Override
+            protected TokenStream normalize(String campo, TokenStream entrada) {
+                return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+            }
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.*;
+import com.tpagiles.app_licencia.exception.InvalidLicenseException;
+import com.tpagiles.app_licencia.exception.OperacionNoPermitidaException;
+import com.tpagiles.app_licencia.exception.ResourceAlreadyExistsException;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+import com.tpagiles.app_licencia.repository.LicenciaBatchRepository;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import com.tpagiles.app_licencia.security.EmisorResolver;
+import com.tpagiles.app_licencia.service.IContadorService;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import com.tpagiles.app_licencia.service.ILicenciaLoteService;
+import com.tpagiles.app_licencia.service.IMotorVencimientoService;
+import com.tpagiles.app_licencia.service.helper.BloqueoTitularHelper;
+import com.tpagiles.app_licencia.service.helper.CostoLicenciaHelper;
+import com.tpagiles.app_licencia.service.helper.LicenciaHelper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Emisión de licencias en lote. Aplica las mismas reglas que
+ * {@link LicenciaService#emitirLicencia} pero precarga titulares, emisores e historial
+ * con consultas por conjunto y persiste todas las licencias en un único batch JDBC.
+ */
+@Service
+@RequiredArgsConstructor
+public class LicenciaLoteService implements ILicenciaLoteService {
+
+    private final LicenciaRepository licenciaRepo;
+    private final LicenciaBatchRepository licenciaBatchRepo;
+    private final UsuarioRepository usuarioRepo;
+    private final EmisorResolver emisorResolver;
+    private final CostoLicenciaHelper costoHelper;
+    private final LicenciaHelper licenciaHelper;
+    private final BloqueoTitularHelper bloqueoTitular;
+    private final IContadorService contadores;
+    private final IMotorVencimientoService motorVencimientos;
+    private final IFacetasService facetas;
+
+    @Override
+    @Transactional
+    public LoteLicenciasResponseRecord emitirLote(List<LicenciaRecord> solicitudes) {
+        LocalDate hoy = LocalDate.now();
+
+        // 1. Precarga: una consulta para titulares + historial y otra para emisores
+        Set<Long> titularIds = solicitudes.stream()
+                .map(LicenciaRecord::titularId)
+                .collect(Collectors.toSet());
+        bloqueoTitular.bloquearHastaFinDeTransaccion(titularIds);
+        Map<Long, ElegibilidadTitularRecord> elegibilidades = ElegibilidadTitularRecord.agrupar(
+                licenciaRepo.findHistorialByTitularIds(titularIds), hoy);
+
+        // solo se buscan los emisores indicados explícitamente; el resto es el usuario autenticado
+        Set<String> mails = solicitudes.stream()
+                .map(LicenciaRecord::emisor)
+                .filter(m -> m != null && !m.isBlank())
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        Map<String, Usuario> emisores = mails.isEmpty()
+                ? Map.of()
+                : usuarioRepo.findByMailIn(mails).stream()
+                        .collect(Collectors.toMap(Usuario::getMail, Function.identity()));
+
+        // 2. Validación en memoria, en el orden del lote
+        ResultadoLoteLicenciaRecord[] resultados = new ResultadoLoteLicenciaRecord[solicitudes.size()];
+        List<Licencia> aInsertar = new ArrayList<>();
+        List<Integer> indicesInsertados = new ArrayList<>();
+
+        for (int i = 0; i < solicitudes.size(); i++) {
+            LicenciaRecord req = solicitudes.get(i);
+            try {
+                ElegibilidadTitularRecord elegibilidad = elegibilidades.get(req.titularId());
+                Licencia licencia = construirLicencia(req, elegibilidad, emisores, hoy);
+                // lo que se emite en el lote cuenta para las solicitudes siguientes del mismo titular
+                elegibilidades.put(req.titularId(), elegibilidad.conEmision(req.clase(), hoy));
+                aInsertar.add(licencia);
+                indicesInsertados.add(i);
+            } catch (ResourceNotFoundException | ResourceAlreadyExistsException | InvalidLicenseException
+                     | OperacionNoPermitidaException | IllegalArgumentException ex) {
+                resultados[i] = ResultadoLoteLicenciaRecord.rechazo(i, req, ex.getMessage());
+            }
+        }
+
+        // 3. Persistencia en un único batch
+        licenciaBatchRepo.insertarTodas(aInsertar);
+        contadores.sumar(TipoContador.LICENCIAS_EMITIDAS, aInsertar.size());
+        aInsertar.forEach(l -> motorVencimientos.registrar(l.getId(), l.getFechaVencimiento()));
+        aInsertar.forEach(facetas::registrarLicencia);
+
+        for (int j = 0; j < aInsertar.size(); j++) {
+            int i = indicesInsertados.get(j);
+            resultados[i] = ResultadoLoteLicenciaRecord.exito(
+                    i, solicitudes.get(i), LicenciaResponseRecord.fromEntity(aInsertar.get(j)));
+        }
+        return LoteLicenciasResponseRecord.from(Arrays.asList(resultados));
+    }
+
+    private Licencia construirLicencia(LicenciaRecord req,
+                                       ElegibilidadTitularRecord elegibilidad,
+                                       Map<String, Usuario> emisores,
+                                       LocalDate hoy) {
+        if (elegibilidad == null) {
+            throw new ResourceNotFoundException("Titular no encontrado con id: " + req.titularId());
+        }
+        if (elegibilidad.tieneVigente(req.clase())) {
+            throw new ResourceAlreadyExistsException(
+                    "No es posible emitir licencia de clase " + req.clase() +
+                            " para el titular con id " + req.titularId() +
+                            ". Hay una vigente, debe renovarla."
+            );
+        }
+        licenciaHelper.validarClaseYRestricciones(elegibilidad, req.clase());
+        int vigencia = licenciaHelper.calcularVigencia(elegibilidad);
+        LocalDate vencimiento = licenciaHelper.calcularFechaVencimiento(
+                hoy, elegibilidad.titular().getFechaNacimiento(), vigencia);
+        double costo = costoHelper.obtenerCosto(req.clase(), vigencia);
+
+        Usuario emisor = resolverEmisor(req.emisor(), emisores);
+
+        return Licencia.builder()
+                .titular(elegibilidad.titular())
+                .clase(req.clase())
+                .vigenciaAnios(vigencia)
+                .fechaEmision(hoy)
+                .fechaVencimiento(vencimiento)
+                .costo(costo)
+                .emisor(emisor)
+                .vigente(true)
+                .build();
+    }
+
+    private Usuario resolverEmisor(String emisorSolicitado, Map<String, Usuario> emisores) {
+        String mail = emisorResolver.mailDeOverride(emisorSolicitado);
+        if (mail == null) {
+            return emisorResolver.referenciaAutenticado();
+        }
+        Usuario emisor = emisores.get(mail);
+        if (emisor == null) {
+            throw new ResourceNotFoundException("Usuario emisor no encontrado: " + mail);
+        }
+        return emisor;
+    }
+}
@@ -6,63 +6,94 @@ import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
 import com.tpagiles.app_licencia.model.Licencia;
 import com.tpagiles.app_licencia.model.Titular;
 import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
 import com.tpagiles.app_licencia.model.enums.MotivoRenovacion;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
 import com.tpagiles.app_licencia.repository.LicenciaRepository;
 import com.tpagiles.app_licencia.repository.TitularRepository;
-import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import com.tpagiles.app_licencia.security.EmisorResolver;
+import com.tpagiles.app_licencia.service.IAutocompletarService;
+import com.tpagiles.app_licencia.service.IContadorService;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import com.tpagiles.app_licencia.service.IIndiceTitularesService;
 import com.tpagiles.app_licencia.service.ILicenciaService;
-import com.tpagiles.app_licencia.service.ITitularService;
+import com.tpagiles.app_licencia.service.IMotorVencimientoService;
+import com.tpagiles.app_licencia.service.helper.BloqueoTitularHelper;
 import com.tpagiles.app_licencia.service.helper.CostoLicenciaHelper;
+import com.tpagiles.app_licencia.service.helper.ExportacionHelper;
 import com.tpagiles.app_licencia.service.helper.LicenciaHelper;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class LicenciaService implements ILicenciaService {
 
-    private final ITitularService titularService;
+    private static final List<ExportacionHelper.Columna<LicenciaExportRecord>> COLUMNAS_EXPORTACION = List.of(
+            new ExportacionHelper.Columna<>("id", LicenciaExportRecord::id),
+            new ExportacionHelper.Columna<>("apellido", LicenciaExportRecord::apellido),
+            new ExportacionHelper.Columna<>("nombre", LicenciaExportRecord::nombre),
+            new ExportacionHelper.Columna<>("tipoDocumento", LicenciaExportRecord::tipoDocumento),
+            new ExportacionHelper.Columna<>("numeroDocumento", LicenciaExportRecord::numeroDocumento),
+            new ExportacionHelper.Columna<>("clase", LicenciaExportRecord::clase),
+            ExportacionHelper.Columna.texto("fechaEmision", LicenciaExportRecord::fechaEmision),
+            ExportacionHelper.Columna.texto("fechaVencimiento", LicenciaExportRecord::fechaVencimiento),
+            new ExportacionHelper.Columna<>("vigente", LicenciaExportRecord::vigente),
+            new ExportacionHelper.Columna<>("numeroCopia", LicenciaExportRecord::numeroCopia)
+    );
+
     private final LicenciaRepository licenciaRepo;
     private final CostoLicenciaHelper costoHelper;
     private final LicenciaHelper licenciaHelper;
+    private final BloqueoTitularHelper bloqueoTitular;
+    private final ExportacionHelper exportacionHelper;
+    private final IContadorService contadores;
+    private final IMotorVencimientoService motorVencimientos;
 
-    // Inyectamos el repo de Usuario directamente por ahora despues seria IUsuarioSerie
-    private final UsuarioRepository usuarioRepo;
+    private final EmisorResolver emisorResolver;
     private final TitularRepository titularRepository;
+    private final IIndiceTitularesService indiceTitulares;
+    private final IFacetasService facetas;
+    private final IAutocompletarService autocompletar;
+    private final TransactionTemplate tx;
 
     @Override
     @Transactional
     public LicenciaResponseRecord emitirLicencia(LicenciaRecord req) {
-        Titular titular = titularService.obtenerPorId(req.titularId());
-        if (licenciaRepo.existsByTitularIdAndClaseAndVigenteTrueAndFechaVencimientoAfter(
-                req.titularId(), req.clase(), LocalDate.now())) {
+        // Sin el bloqueo, dos emisiones simultáneas podrían pasar ambas el chequeo de vigente
+        bloqueoTitular.bloquearHastaFinDeTransaccion(req.titularId());
+        // Una sola consulta trae al titular y el resumen de su historial
+        ElegibilidadTitularRecord elegibilidad = obtenerElegibilidad(req.titularId());
+        if (elegibilidad.tieneVigente(req.clase())) {
             throw new ResourceAlreadyExistsException(
                     "No es posible emitir licencia de clase " + req.clase() +
                             " para el titular con id " + req.titularId() +
                             ". Hay una vigente, debe renovarla."
             );
         }
-        licenciaHelper.validarClaseYRestricciones(titular, req.clase());
-        int vigencia = licenciaHelper.calcularVigencia(titular);
+        licenciaHelper.validarClaseYRestricciones(elegibilidad, req.clase());
+        int vigencia = licenciaHelper.calcularVigencia(elegibilidad);
 
+        Titular titular = elegibilidad.titular();
         LocalDate hoy = LocalDate.now();
         LocalDate vencimiento = licenciaHelper
                 .calcularFechaVencimiento(hoy, titular.getFechaNacimiento(), vigencia);
 
         double costo = costoHelper.obtenerCosto(req.clase(), vigencia);
 
-        // Usamos ahora el repo directamente para buscar al emisor pero despues seria le IUsuarioService en el sprint 2
-        Usuario emisor = usuarioRepo
-                .findByMail(req.emisor())
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Usuario emisor no encontrado: " + req.emisor())
-                );
+        // El emisor es el usuario autenticado, salvo override explícito de un SUPER_USER
+        Usuario emisor = emisorResolver.resolver(req.emisor());
 
         Licencia licencia = Licencia.builder()
                 .titular(titular)
@@ -75,28 +106,46 @@ public class LicenciaService implements ILicenciaService {
                 .vigente(true)
                 .build();
 
-        return LicenciaResponseRecord.fromEntity(licenciaRepo.save(licencia));
+        Licencia guardada = licenciaRepo.save(licencia);
+        contadores.sumar(TipoContador.LICENCIAS_EMITIDAS, 1);
+        facetas.registrarLicencia(guardada);
+        motorVencimientos.registrar(guardada.getId(), guardada.getFechaVencimiento());
+        return LicenciaResponseRecord.fromEntity(guardada);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<LicenciaResponseRecord> listarLicenciasVencidas() {
+    public PaginaRecord<LicenciaResponseRecord> listarLicenciasVencidas(int limit, String after) {
         LocalDate hoy = LocalDate.now();
-        return licenciaRepo.findByFechaVencimientoBefore(hoy).stream()
-                .map(LicenciaResponseRecord::fromEntity)
-                .collect(Collectors.toList());
+        CursorKeyset cursor = CursorKeyset.decodificar(after, 1);
+        // se pide una fila de más para saber si hay página siguiente
+        Limit filas = Limit.of(limit + 1);
+        List<Licencia> licencias = cursor == null
+                ? licenciaRepo.findVencidasPrimeraPagina(hoy, filas)
+                : licenciaRepo.findVencidasDespuesDe(hoy, cursor.fecha(0), cursor.id(), filas);
+
+        return PaginaRecord.desde(licencias, limit, licenciaRepo.countByFechaVencimientoBefore(hoy),
+                        l -> CursorKeyset.de(l.getId(), l.getFechaVencimiento().toString()))
+                .map(LicenciaResponseRecord::fromEntity);
     }
 
     @Transactional(readOnly = true)
+    @Override
+    public long exportarLicenciasVencidas(FormatoExportacion formato, OutputStream out) throws IOException {
+        // el Stream mantiene abierto el cursor: debe cerrarse dentro de la transacción
+        try (Stream<LicenciaExportRecord> filas = licenciaRepo.streamVencidas(LocalDate.now())) {
+            return exportacionHelper.escribir(filas, COLUMNAS_EXPORTACION, formato, out);
+        }
+    }
+
     @Override
     public long contarLicenciasVencidas() {
-        return licenciaRepo.countByFechaVencimientoBefore(LocalDate.now());
+        return contadores.valor(TipoContador.LICENCIAS_VENCIDAS);
     }
 
-    @Transactional(readOnly = true)
     @Override
     public long contarTotalLicenciasEmitidas() {
-        return licenciaRepo.count();
+        return contadores.valor(TipoContador.LICENCIAS_EMITIDAS);
     }
     @Transactional(readOnly = true)
     @Override
@@ -129,10 +178,15 @@ public class LicenciaService implements ILicenciaService {
     }
 
     @Override
-    @Transactional
     public LicenciaResponseRecord renovarLicencia(RenovarLicenciaRequest request) {
-        // 1. Buscar la licencia existente
-        Licencia licenciaExistente = licenciaRepo.findById(request.licenciaId())
+        Long titularId = titularDeLicencia(request.licenciaId());
+        return tx.execute(estado -> renovarLicencia(request, titularId));
+    }
+
+    private LicenciaResponseRecord renovarLicencia(RenovarLicenciaRequest request, Long titularId) {
+        // 1. Bloquear al titular y recién después leer la licencia existente
+        bloquearTitular(titularId);
+        Licencia licenciaExistente = licenciaRepo.findConTitularById(request.licenciaId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Licencia no encontrada con ID: " + request.licenciaId())
                 );
@@ -156,6 +210,10 @@ public class LicenciaService implements ILicenciaService {
         licenciaExistente.setVigente(false);
         licenciaRepo.save(licenciaExistente);
         Licencia nuevaLicencia = licenciaRepo.save(licenciaRenovada);
+        contadores.sumar(TipoContador.LICENCIAS_EMITIDAS, 1);
+        facetas.registrarLicencia(licenciaExistente);
+        facetas.registrarLicencia(nuevaLicencia);
+        motorVencimientos.registrar(nuevaLicencia.getId(), nuevaLicencia.getFechaVencimiento());
 
         // 6. Retornar respuesta
         return LicenciaResponseRecord.fromEntity(nuevaLicencia);
@@ -168,11 +226,15 @@ public class LicenciaService implements ILicenciaService {
     }
 
     private void actualizarDatosTitular(Titular titular, RenovarLicenciaRequest request) {
+        String apellidoAnterior = titular.getApellido();
         if (request.nuevoNombre() != null) titular.setNombre(request.nuevoNombre());
         if (request.nuevoApellido() != null) titular.setApellido(request.nuevoApellido());
         if (request.nuevaDireccion() != null) titular.setDireccion(request.nuevaDireccion());
+        titular.actualizarCamposBusqueda();
 
         titularRepository.save(titular);
+        indiceTitulares.registrarCambio(titular.getId());
+        autocompletar.registrarCambio(apellidoAnterior, titular.getNumeroDocumento(), titular);
     }
 
     private void validarMotivoRenovacion(Licencia licencia, MotivoRenovacion motivo) {
@@ -219,7 +281,7 @@ public class LicenciaService implements ILicenciaService {
 
     private Licencia crearLicenciaRenovada(Licencia licenciaAnterior, RenovarLicenciaRequest request) {
         Titular titular = licenciaAnterior.getTitular();
-        int vigencia = licenciaHelper.calcularVigencia(titular);
+        int vigencia = licenciaHelper.calcularVigencia(obtenerElegibilidad(titular.getId()));
 
         LocalDate hoy = LocalDate.now();
         LocalDate vencimiento = licenciaHelper.calcularFechaVencimiento(
@@ -252,24 +314,59 @@ public class LicenciaService implements ILicenciaService {
                 .licenciaOriginal(licenciaOriginal)
                 .build();
     }
+
+    /**
+     * Titular de la licencia, leído antes de abrir la transacción de escritura: en MySQL (REPEATABLE READ)
+     * la primera lectura fija la instantánea, y si se hiciera antes del bloqueo las lecturas posteriores
+     * no verían lo que confirmó la operación que lo tenía tomado. El titular de una licencia no cambia.
+     */
+    private Long titularDeLicencia(Long licenciaId) {
+        return licenciaRepo.findTitularIdById(licenciaId).orElse(null);
+    }
+
+    // sin titular la licencia no existe: la lectura siguiente informa el 404
+    private void bloquearTitular(Long titularId) {
+        if (titularId != null) {
+            bloqueoTitular.bloquearHastaFinDeTransaccion(titularId);
+        }
+    }
+
+    private ElegibilidadTitularRecord obtenerElegibilidad(Long titularId) {
+        ElegibilidadTitularRecord elegibilidad = ElegibilidadTitularRecord
+                .agrupar(licenciaRepo.findHistorialByTitularId(titularId), LocalDate.now())
+                .get(titularId);
+        if (elegibilidad == null) {
+            throw new ResourceNotFoundException("Titular no encontrado con id: " + titularId);
+        }
+        return elegibilidad;
+    }
+
     @Override
-    @Transactional
     public LicenciaResponseRecord emitirCopia(EmitirCopiaRequest request) {
-        Licencia original = licenciaRepo.findById(request.licenciaOriginalId())
+        Long titularId = titularDeLicencia(request.licenciaOriginalId());
+        return tx.execute(estado -> emitirCopia(request, titularId));
+    }
+
+    private LicenciaResponseRecord emitirCopia(EmitirCopiaRequest request, Long titularId) {
+        // El número de copia sale de las copias ya emitidas: dos copias simultáneas repetirían el número
+        bloquearTitular(titularId);
+        Licencia original = licenciaRepo.findConTitularById(request.licenciaOriginalId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Licencia original no encontrada con ID: " + request.licenciaOriginalId())
                 );
 
-        if (!original.isVigente() || original.getFechaVencimiento().isBefore(LocalDate.now())) {
+        // el motor de vencimientos desactiva la licencia en cuanto vence: vigente alcanza
+        if (!original.isVigente()) {
             throw new IllegalArgumentException("No se puede emitir copia de una licencia vencida o inactiva.");
         }
 
         Titular titular = original.getTitular();
 
-        Usuario emisor = usuarioRepo.findByMail(request.emisor())
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario emisor no encontrado: " + request.emisor()));
+        Usuario emisor = emisorResolver.resolver(request.emisor());
 
-        int nuevoNroCopia = (original.getNumeroCopia() != null ? original.getNumeroCopia() : 0) + 1;
+        int nuevoNroCopia = Math.max(
+                original.getNumeroCopia() != null ? original.getNumeroCopia() : 0,
+                licenciaRepo.findMaxNumeroCopiaByLicenciaOriginalId(original.getId()).orElse(0)) + 1;
 
         Licencia copia = Licencia.builder()
                 .titular(titular)
@@ -285,7 +382,11 @@ public class LicenciaService implements ILicenciaService {
                 .vigente(true)
                 .build();
 
-        return LicenciaResponseRecord.fromEntity(licenciaRepo.save(copia));
+        Licencia guardada = licenciaRepo.save(copia);
+        contadores.sumar(TipoContador.LICENCIAS_EMITIDAS, 1);
+        facetas.registrarLicencia(guardada);
+        motorVencimientos.registrar(guardada.getId(), guardada.getFechaVencimiento());
+        return LicenciaResponseRecord.fromEntity(guardada);
     }
 
 }
@@ -0,0 +1,133 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.VencimientoProgramadoRecord;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import com.tpagiles.app_licencia.service.IMotorVencimientoService;
+import com.tpagiles.app_licencia.service.helper.DespuesDelCommit;
+import com.tpagiles.app_licencia.service.helper.RuedaVencimientos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantiene en una {@link RuedaVencimientos} las licencias vigentes que vencen dentro del
+ * horizonte. En cada tick avanza la rueda al día actual y desactiva en lotes chicos las que
+ * vencieron; al avanzar, carga desde la base las que entran en el nuevo horizonte.
+ * <p>
+ * El job nocturno ({@code VencimientoLicenciasService}) queda como respaldo para lo que el
+ * motor no haya visto (nodo caído, cambios por SQL directo).
+ */
+@Service
+public class MotorVencimientoService implements IMotorVencimientoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MotorVencimientoService.class);
+
+    private final LicenciaRepository licenciaRepo;
+    private final IFacetasService facetas;
+    private final TransactionTemplate tx;
+    private final boolean habilitado;
+    private final int diasRueda;
+    private final int tamanioLote;
+
+    private volatile RuedaVencimientos rueda;
+    // límite exclusivo de fechaVencimiento hasta donde ya se cargó la rueda desde la base
+    private LocalDate cargadoHasta;
+
+    public MotorVencimientoService(LicenciaRepository licenciaRepo,
+                                   IFacetasService facetas,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.vencimiento-motor.habilitado:true}") boolean habilitado,
+                                   @Value("${app.vencimiento-motor.dias-rueda:64}") int diasRueda,
+                                   @Value("${app.vencimiento-motor.tamanio-lote:200}") int tamanioLote) {
+        this.licenciaRepo = licenciaRepo;
+        this.facetas = facetas;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.diasRueda = diasRueda;
+        this.tamanioLote = tamanioLote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDate hoy = LocalDate.now();
+        RuedaVencimientos nueva = new RuedaVencimientos(diasRueda, hoy.toEpochDay());
+        // se publica antes de consultar: lo que se confirme mientras tanto se registra igual
+        rueda = nueva;
+        cargadoHasta = LocalDate.ofEpochDay(nueva.horizonte());
+        // incluye las vencidas que sigan vigentes: se desactivan en el primer tick
+        List<VencimientoProgramadoRecord> proximas = licenciaRepo.findVigentesQueVencenAntesDe(cargadoHasta);
+        proximas.forEach(this::agendar);
+        logger.info("Motor de vencimientos: {} licencias agendadas hasta {}", proximas.size(), cargadoHasta);
+    }
+
+    @Override
+    public void registrar(Long licenciaId, LocalDate fechaVencimiento) {
+        if (rueda == null) {
+            return; // todavía no cargó: la carga inicial la va a leer de la base
+        }
+        VencimientoProgramadoRecord vencimiento = new VencimientoProgramadoRecord(licenciaId, fechaVencimiento);
+        DespuesDelCommit.ejecutar(() -> agendar(vencimiento));
+    }
+
+    @Scheduled(fixedDelayString = "${app.vencimiento-motor.tick-ms:1000}")
+    public synchronized void tick() {
+        RuedaVencimientos actual = rueda;
+        if (actual == null) {
+            return;
+        }
+        LocalDate hoy = LocalDate.now();
+        long[] vencidas = actual.avanzarHasta(hoy.toEpochDay());
+        if (vencidas.length > 0) {
+            desactivar(vencidas, hoy);
+        }
+        extenderHorizonte(actual);
+    }
+
+    private void desactivar(long[] ids, LocalDate hoy) {
+        int desactivadas = 0;
+        for (int desde = 0; desde < ids.length; desde += tamanioLote) {
+            List<Long> lote = new ArrayList<>(Math.min(tamanioLote, ids.length - desde));
+            for (int i = desde; i < Math.min(desde + tamanioLote, ids.length); i++) {
+                lote.add(ids[i]);
+            }
+            try {
+                desactivadas += tx.execute(status -> licenciaRepo.desactivarVencidas(lote, hoy));
+                facetas.marcarNoVigentes(lote);
+            } catch (RuntimeException e) {
+                // se reintentan en el próximo tick
+                logger.warn("No se pudo desactivar un lote de {} licencias vencidas: {}", lote.size(), e.getMessage());
+                lote.forEach(id -> rueda.agregar(id, hoy.toEpochDay()));
+            }
+        }
+        logger.info("Motor de vencimientos: {} licencias desactivadas ({} agendadas)", desactivadas, ids.length);
+    }
+
+    private void extenderHorizonte(RuedaVencimientos actual) {
+        LocalDate nuevoHasta = LocalDate.ofEpochDay(actual.horizonte());
+        if (!nuevoHasta.isAfter(cargadoHasta)) {
+            return;
+        }
+        List<VencimientoProgramadoRecord> nuevas = licenciaRepo.findVigentesQueVencenEntre(cargadoHasta, nuevoHasta);
+        nuevas.forEach(this::agendar);
+        cargadoHasta = nuevoHasta;
+    }
+
+    private void agendar(VencimientoProgramadoRecord vencimiento) {
+        // vencida a partir del día siguiente a su fecha de vencimiento
+        rueda.agregar(vencimiento.id(), vencimiento.fechaVencimiento().toEpochDay() + 1);
+    }
+}
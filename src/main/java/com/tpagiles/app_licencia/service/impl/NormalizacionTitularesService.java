@@ -0,0 +1,82 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.TitularNombreRecord;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.repository.TitularBatchRepository;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.scheduler.EjecucionExclusiva;
+import com.tpagiles.app_licencia.service.INormalizacionTitularesService;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Backfill de las columnas de búsqueda agregadas en V7 (normalizadas) y V8 (fonéticas). Se lanza una vez después del arranque
+ * (en un solo nodo); cuando ya no quedan filas en NULL la corrida termina con una sola consulta.
+ */
+@Service
+public class NormalizacionTitularesService implements INormalizacionTitularesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalizacionTitularesService.class);
+
+    private final TitularRepository titularRepo;
+    private final TitularBatchRepository batchRepo;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate tx;
+    private final int tamanioLote;
+
+    public NormalizacionTitularesService(TitularRepository titularRepo,
+                                         TitularBatchRepository batchRepo,
+                                         EntityManagerFactory emf,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${app.normalizacion-titulares.tamanio-lote:1000}") int tamanioLote) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.normalizacion-titulares.tamanio-lote debe ser mayor a cero");
+        }
+        this.titularRepo = titularRepo;
+        this.batchRepo = batchRepo;
+        this.emf = emf;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+    }
+
+    @Scheduled(initialDelayString = "${app.normalizacion-titulares.demora-ms:20000}")
+    @EjecucionExclusiva(nombre = "normalizar-titulares")
+    public void completarAlIniciar() {
+        completarPendientes();
+    }
+
+    @Override
+    public long completarPendientes() {
+        long inicio = System.nanoTime();
+        long despuesId = 0;
+        long actualizados = 0;
+        while (true) {
+            List<TitularNombreRecord> lote = titularRepo.findSinNormalizar(despuesId, Limit.of(tamanioLote));
+            if (lote.isEmpty()) {
+                break;
+            }
+            Integer filas = tx.execute(status -> batchRepo.completarCamposBusqueda(lote));
+            actualizados += filas != null ? filas : 0;
+            despuesId = lote.getLast().id();
+            if (lote.size() < tamanioLote) {
+                break;
+            }
+        }
+        if (actualizados > 0) {
+            // los UPDATE por JDBC no pasan por Hibernate: los titulares cacheados quedaron sin las columnas nuevas
+            emf.getCache().evict(Titular.class);
+            logger.info("Columnas de búsqueda completadas para {} titulares en {} ms",
+                    actualizados, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return actualizados;
+    }
+}
@@ -0,0 +1,246 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.LicenciaPorVencerRecord;
+import com.tpagiles.app_licencia.model.RecordatorioVencimiento;
+import com.tpagiles.app_licencia.model.enums.EstadoRecordatorio;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.RecordatorioBatchRepository;
+import com.tpagiles.app_licencia.repository.RecordatorioVencimientoRepository;
+import com.tpagiles.app_licencia.service.IRecordatorioVencimientoService;
+import com.tpagiles.app_licencia.service.IRemitenteNotificaciones;
+import com.tpagiles.app_licencia.service.helper.LimitadorTasa;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generación: por cada ventana recorre por keyset el rango de fechas de vencimiento que le
+ * corresponde (idx_licencias_vigente_vencimiento) y escribe cada página en la bandeja con un
+ * batch JDBC en su propia transacción, así la memoria queda acotada al tamaño del lote.
+ * <p>
+ * Envío: lee pendientes por lotes y los entrega con un pool de {@code concurrencia} hilos
+ * virtuales y un {@link LimitadorTasa} compartido; el resultado del lote se confirma junto.
+ */
+@Service
+public class RecordatorioVencimientoService implements IRecordatorioVencimientoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordatorioVencimientoService.class);
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Duration REINTENTO_BASE = Duration.ofMinutes(1);
+    private static final Duration REINTENTO_MAXIMO = Duration.ofHours(6);
+
+    private final LicenciaRepository licenciaRepo;
+    private final RecordatorioVencimientoRepository recordatorioRepo;
+    private final RecordatorioBatchRepository batchRepo;
+    private final IRemitenteNotificaciones remitente;
+    private final TransactionTemplate tx;
+    private final int[] ventanas;
+    private final int tamanioLote;
+    private final int concurrencia;
+    private final int maxIntentos;
+    private final LimitadorTasa limitador;
+
+    public RecordatorioVencimientoService(LicenciaRepository licenciaRepo,
+                                          RecordatorioVencimientoRepository recordatorioRepo,
+                                          RecordatorioBatchRepository batchRepo,
+                                          IRemitenteNotificaciones remitente,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${app.recordatorios.ventanas-dias:30,15,7}") int[] ventanasDias,
+                                          @Value("${app.recordatorios.tamanio-lote:500}") int tamanioLote,
+                                          @Value("${app.recordatorios.concurrencia:4}") int concurrencia,
+                                          @Value("${app.recordatorios.envios-por-segundo:10}") double enviosPorSegundo,
+                                          @Value("${app.recordatorios.max-intentos:5}") int maxIntentos) {
+        if (ventanasDias.length == 0 || Arrays.stream(ventanasDias).anyMatch(d -> d <= 0)) {
+            throw new IllegalArgumentException("app.recordatorios.ventanas-dias debe tener días mayores a cero");
+        }
+        if (tamanioLote <= 0 || concurrencia <= 0) {
+            throw new IllegalArgumentException("app.recordatorios.tamanio-lote y concurrencia deben ser mayores a cero");
+        }
+        this.licenciaRepo = licenciaRepo;
+        this.recordatorioRepo = recordatorioRepo;
+        this.batchRepo = batchRepo;
+        this.remitente = remitente;
+        this.tx = new TransactionTemplate(transactionManager);
+        // de la ventana más lejana a la más cercana
+        this.ventanas = Arrays.stream(ventanasDias).boxed()
+                .sorted((a, b) -> b - a).mapToInt(Integer::intValue).distinct().toArray();
+        this.tamanioLote = tamanioLote;
+        this.concurrencia = concurrencia;
+        this.maxIntentos = maxIntentos;
+        this.limitador = new LimitadorTasa(enviosPorSegundo);
+    }
+
+    @Override
+    public long generar(LocalDate hoy) {
+        long inicio = System.nanoTime();
+        Instant ahora = Instant.now();
+        long total = 0;
+        for (int i = 0; i < ventanas.length; i++) {
+            // cada ventana cubre hasta la siguiente más corta: si el job se salteó días, la licencia
+            // recibe el recordatorio de la ventana en la que está ahora y no los de las ya pasadas
+            LocalDate desde = i + 1 < ventanas.length ? hoy.plusDays(ventanas[i + 1]) : hoy.minusDays(1);
+            LocalDate hasta = hoy.plusDays(ventanas[i]);
+            total += generarVentana(ventanas[i], desde, hasta, hoy, ahora);
+        }
+        long ms = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        logger.info("Recordatorios generados: {} en {} ms ({} filas/s)", total, ms, total * 1000 / ms);
+        return total;
+    }
+
+    private long generarVentana(int ventana, LocalDate desde, LocalDate hasta, LocalDate hoy, Instant ahora) {
+        LocalDate despuesFecha = desde;
+        long despuesId = 0;
+        long generados = 0;
+        while (true) {
+            List<LicenciaPorVencerRecord> pagina = licenciaRepo.findPorVencerSinRecordatorio(
+                    desde, hasta, ventana, despuesFecha, despuesId, Limit.of(tamanioLote));
+            if (pagina.isEmpty()) {
+                break;
+            }
+            List<RecordatorioVencimiento> lote = pagina.stream()
+                    .map(l -> armar(l, ventana, hoy, ahora))
+                    .toList();
+            generados += insertar(lote, ventana);
+            LicenciaPorVencerRecord ultima = pagina.getLast();
+            despuesFecha = ultima.fechaVencimiento();
+            despuesId = ultima.id();
+            if (pagina.size() < tamanioLote) {
+                break;
+            }
+        }
+        return generados;
+    }
+
+    // si otra corrida ya insertó parte del lote, el batch falla entero: se reintenta fila por fila y
+    // solo se omiten las duplicadas (el cursor ya pasó esta página y no vuelve sobre ella)
+    private int insertar(List<RecordatorioVencimiento> lote, int ventana) {
+        try {
+            tx.executeWithoutResult(status -> batchRepo.insertarTodos(lote));
+            return lote.size();
+        } catch (DuplicateKeyException e) {
+            int insertados = 0;
+            for (RecordatorioVencimiento r : lote) {
+                try {
+                    tx.executeWithoutResult(status -> batchRepo.insertarTodos(List.of(r)));
+                    insertados++;
+                } catch (DuplicateKeyException duplicado) {
+                    // ya tiene su recordatorio para esta ventana
+                }
+            }
+            logger.warn("Lote de recordatorios ({} días) con {} duplicados omitidos",
+                    ventana, lote.size() - insertados);
+            return insertados;
+        }
+    }
+
+    private RecordatorioVencimiento armar(LicenciaPorVencerRecord l, int ventana, LocalDate hoy, Instant ahora) {
+        String fecha = l.fechaVencimiento().format(FORMATO_FECHA);
+        long dias = ChronoUnit.DAYS.between(hoy, l.fechaVencimiento());
+        String cuerpo = """
+                Hola %s %s:
+
+                Le recordamos que su licencia de conducir clase %s vence el %s (en %d días).
+                Puede iniciar la renovación antes del vencimiento presentándose con su documento.
+                """.formatted(l.nombre(), l.apellido(), l.clase().name(), fecha, dias);
+        return RecordatorioVencimiento.builder()
+                .licenciaId(l.id())
+                .ventanaDias(ventana)
+                .destinatario(l.mail())
+                .asunto("Su licencia clase " + l.clase().name() + " vence el " + fecha)
+                .cuerpo(cuerpo)
+                .estado(EstadoRecordatorio.PENDIENTE)
+                .intentos(0)
+                .creadoEn(ahora)
+                .proximoIntento(ahora)
+                .build();
+    }
+
+    @Override
+    public long enviarPendientes() {
+        long enviados = 0;
+        long fallidos = 0;
+        try (ExecutorService pool = Executors.newFixedThreadPool(concurrencia,
+                Thread.ofVirtual().name("recordatorios-envio-", 0).factory())) {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<RecordatorioVencimiento> lote = recordatorioRepo.findPendientes(Instant.now(), Limit.of(tamanioLote));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                List<Future<?>> entregas = new ArrayList<>(lote.size());
+                for (RecordatorioVencimiento r : lote) {
+                    entregas.add(pool.submit(() -> {
+                        limitador.adquirir();
+                        remitente.enviar(r.getDestinatario(), r.getAsunto(), r.getCuerpo());
+                    }));
+                }
+
+                List<Long> ok = new ArrayList<>();
+                List<RecordatorioVencimiento> conError = new ArrayList<>();
+                for (int i = 0; i < lote.size(); i++) {
+                    RecordatorioVencimiento r = lote.get(i);
+                    try {
+                        entregas.get(i).get();
+                        ok.add(r.getId());
+                    } catch (ExecutionException e) {
+                        reprogramar(r, e.getCause());
+                        conError.add(r);
+                    } catch (InterruptedException e) {
+                        // lo no confirmado sigue PENDIENTE y se envía en la próxima corrida
+                        Thread.currentThread().interrupt();
+                        pool.shutdownNow();
+                        break;
+                    }
+                }
+                tx.executeWithoutResult(status -> {
+                    if (!ok.isEmpty()) {
+                        recordatorioRepo.marcarEnviados(ok, Instant.now());
+                    }
+                    if (!conError.isEmpty()) {
+                        recordatorioRepo.saveAll(conError);
+                    }
+                });
+                enviados += ok.size();
+                fallidos += conError.size();
+                if (lote.size() < tamanioLote) {
+                    break;
+                }
+            }
+        }
+        if (enviados > 0 || fallidos > 0) {
+            logger.info("Recordatorios enviados: {}, con error: {}", enviados, fallidos);
+        }
+        return enviados;
+    }
+
+    private void reprogramar(RecordatorioVencimiento r, Throwable causa) {
+        int intentos = r.getIntentos() + 1;
+        r.setIntentos(intentos);
+        String error = String.valueOf(causa.getMessage());
+        r.setUltimoError(error.length() <= 500 ? error : error.substring(0, 500));
+        if (intentos >= maxIntentos) {
+            r.setEstado(EstadoRecordatorio.FALLIDO);
+            logger.warn("Recordatorio {} descartado tras {} intentos: {}", r.getId(), intentos, error);
+            return;
+        }
+        Duration espera = REINTENTO_BASE.multipliedBy(1L << Math.min(intentos - 1, 20));
+        r.setProximoIntento(Instant.now().plus(espera.compareTo(REINTENTO_MAXIMO) < 0 ? espera : REINTENTO_MAXIMO));
+    }
+}
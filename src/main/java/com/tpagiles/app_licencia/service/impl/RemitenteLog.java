@@ -0,0 +1,22 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.service.IRemitenteNotificaciones;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Remitente por defecto (desarrollo y entornos sin servidor de correo): solo deja el mensaje en el log.
+ */
+@Service
+@ConditionalOnProperty(name = "app.recordatorios.remitente", havingValue = "log", matchIfMissing = true)
+public class RemitenteLog implements IRemitenteNotificaciones {
+
+    private final Logger logger = LoggerFactory.getLogger(RemitenteLog.class);
+
+    @Override
+    public void enviar(String destinatario, String asunto, String cuerpo) {
+        logger.info("Recordatorio para {}: {}", destinatario, asunto);
+    }
+}
@@ -0,0 +1,35 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.service.IRemitenteNotificaciones;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+/**
+ * Envío por SMTP con el {@link JavaMailSender} que arma Spring Boot a partir de spring.mail.*.
+ */
+@Service
+@ConditionalOnProperty(name = "app.recordatorios.remitente", havingValue = "smtp")
+public class RemitenteSmtp implements IRemitenteNotificaciones {
+
+    private final JavaMailSender mailSender;
+    private final String origen;
+
+    public RemitenteSmtp(JavaMailSender mailSender,
+                         @Value("${app.recordatorios.mail-origen:no-responder@licencias.local}") String origen) {
+        this.mailSender = mailSender;
+        this.origen = origen;
+    }
+
+    @Override
+    public void enviar(String destinatario, String asunto, String cuerpo) {
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setFrom(origen);
+        mensaje.setTo(destinatario);
+        mensaje.setSubject(asunto);
+        mensaje.setText(cuerpo);
+        mailSender.send(mensaje);
+    }
+}
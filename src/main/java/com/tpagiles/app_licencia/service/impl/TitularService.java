@@ -1,25 +1,61 @@
 package com.tpagiles.app_licencia.service.impl;
 
+import com.tpagiles.app_licencia.dto.CursorKeyset;
+import com.tpagiles.app_licencia.dto.FiltroTitularesVigentesRecord;
+import com.tpagiles.app_licencia.dto.PaginaRecord;
+import com.tpagiles.app_licencia.dto.SugerenciaTitularRecord;
+import com.tpagiles.app_licencia.dto.TitularBusquedaResponseRecord;
+import com.tpagiles.app_licencia.dto.TitularIndiceRecord;
 import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
 import com.tpagiles.app_licencia.dto.TitularRecord;
+import com.tpagiles.app_licencia.dto.VersionTitularRecord;
+import com.tpagiles.app_licencia.exception.PrecondicionFallidaException;
 import com.tpagiles.app_licencia.exception.ResourceAlreadyExistsException;
 import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
 import com.tpagiles.app_licencia.model.Titular;
-import com.tpagiles.app_licencia.model.enums.FactorRh;
-import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularBusquedaRepository;
 import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.IAutocompletarService;
+import com.tpagiles.app_licencia.service.IContadorService;
+import com.tpagiles.app_licencia.service.IFacetasService;
+import com.tpagiles.app_licencia.service.IIndiceTitularesService;
 import com.tpagiles.app_licencia.service.ITitularService;
+import com.tpagiles.app_licencia.service.helper.ExportacionHelper;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor //generate a private constructor for us that contains constants and variables decorated with the final keyword.
 public class TitularService implements ITitularService{
+    private static final List<ExportacionHelper.Columna<TitularLicenciaVigenteResponseRecord>> COLUMNAS_EXPORTACION = List.of(
+            new ExportacionHelper.Columna<>("apellido", TitularLicenciaVigenteResponseRecord::apellido),
+            new ExportacionHelper.Columna<>("nombre", TitularLicenciaVigenteResponseRecord::nombre),
+            new ExportacionHelper.Columna<>("tipoDocumento", TitularLicenciaVigenteResponseRecord::tipoDocumento),
+            new ExportacionHelper.Columna<>("numeroDocumento", TitularLicenciaVigenteResponseRecord::numeroDocumento),
+            new ExportacionHelper.Columna<>("grupoSanguineo", TitularLicenciaVigenteResponseRecord::grupoSanguineo),
+            new ExportacionHelper.Columna<>("factorRh", TitularLicenciaVigenteResponseRecord::factorRh),
+            new ExportacionHelper.Columna<>("donanteOrganos", TitularLicenciaVigenteResponseRecord::donanteOrganos),
+            new ExportacionHelper.Columna<>("claseLicencia", TitularLicenciaVigenteResponseRecord::claseLicencia),
+            ExportacionHelper.Columna.texto("fechaVencimiento", TitularLicenciaVigenteResponseRecord::fechaVencimiento)
+    );
+
     private final TitularRepository titularRepository;
+    private final TitularBusquedaRepository titularBusqueda;
+    private final ExportacionHelper exportacionHelper;
+    private final IContadorService contadores;
+    private final IIndiceTitularesService indiceTitulares;
+    private final IFacetasService facetas;
+    private final IAutocompletarService autocompletar;
 
     @Override
     public Titular createTitular(TitularRecord record) {
@@ -28,14 +64,20 @@ public class TitularService implements ITitularService{
                     "Ya existe un Titular con documento: " + record.numeroDocumento());
         }
         Titular titular = record.toTitular();
-        return titularRepository.save(titular);
+        titular.actualizarCamposBusqueda();
+        Titular guardado = titularRepository.save(titular);
+        contadores.sumar(TipoContador.TITULARES, 1);
+        indiceTitulares.registrarCambio(guardado.getId());
+        facetas.registrarTitular(guardado);
+        autocompletar.registrarAlta(guardado);
+        return guardado;
 
     }
 
     @Override
     @Transactional(readOnly = true)
     public Titular obtenerPorId(Long id) {
-        return titularRepository.findById(id)
+        return titularRepository.findActualById(id)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Titular no encontrado con id: " + id));
     }
@@ -46,14 +88,36 @@ public class TitularService implements ITitularService{
         return titularRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public VersionTitularRecord obtenerVersion(Long id) {
+        return titularRepository.findVersionById(id)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Titular no encontrado con id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionTitularRecord obtenerVersionPorDocumento(TipoDocumento tipoDocumento, String numeroDocumento) {
+        return titularRepository.findVersionByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Titular no encontrado con " + tipoDocumento + " Nº: " + numeroDocumento));
+    }
+
     @Override
     public Titular actualizarTitularPorDocumento(TipoDocumento tipoDocumento,
                                                  String numeroDocumento,
-                                                 TitularRecord updated) {
+                                                 TitularRecord updated,
+                                                 Predicate<Titular> precondicion) {
         Titular existente = titularRepository
-                .findByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
+                .findActualByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Titular no encontrado con " + tipoDocumento + " Nº: " + numeroDocumento));
+        // si otro cambio entra entre esta lectura y el save, lo detecta la versión al hacer el merge
+        if (precondicion != null && !precondicion.test(existente)) {
+            throw new PrecondicionFallidaException(
+                    "El titular fue modificado desde la versión indicada en If-Match");
+        }
 
         // Verificar si el nuevo número de documento ya existe en otro titular
         if (!existente.getNumeroDocumento().equals(updated.numeroDocumento()) &&
@@ -62,6 +126,8 @@ public class TitularService implements ITitularService{
                     "Ya existe otro Titular con documento: " + updated.numeroDocumento());
         }
 
+        String apellidoAnterior = existente.getApellido();
+        String documentoAnterior = existente.getNumeroDocumento();
         existente.setNombre(updated.nombre());
         existente.setApellido(updated.apellido());
         existente.setFechaNacimiento(updated.fechaNacimiento());
@@ -71,22 +137,32 @@ public class TitularService implements ITitularService{
         existente.setFactorRh(updated.factorRh());
         existente.setDireccion(updated.direccion());
         existente.setDonanteOrganos(updated.donanteOrganos());
-
-        return titularRepository.save(existente);
+        existente.setMail(updated.mail());
+        existente.actualizarCamposBusqueda();
+
+        Titular guardado = titularRepository.save(existente);
+        indiceTitulares.registrarCambio(guardado.getId());
+        facetas.registrarTitular(guardado);
+        autocompletar.registrarCambio(apellidoAnterior, documentoAnterior, guardado);
+        return guardado;
     }
 
     @Override
     public void eliminarTitular(Long id) {
-        if (!titularRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Titular no encontrado con id: " + id);
-        }
+        TitularIndiceRecord eliminado = titularRepository.findParaIndiceById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Titular no encontrado con id: " + id));
         titularRepository.deleteById(id);
+        indiceTitulares.registrarCambio(id);
+        facetas.eliminarTitular(id);
+        autocompletar.registrarBaja(eliminado.apellido(), eliminado.numeroDocumento());
+        contadores.sumar(TipoContador.TITULARES, -1);
+        // las licencias se borran en cascada: no sabemos cuántas sin contarlas
+        contadores.recalcular(TipoContador.LICENCIAS_EMITIDAS, TipoContador.LICENCIAS_VENCIDAS);
     }
 
-    @Transactional(readOnly = true)
     @Override
     public long contarTitulares() {
-        return titularRepository.count();
+        return contadores.valor(TipoContador.TITULARES);
     }
 
     @Transactional(readOnly = true)
@@ -94,40 +170,58 @@ public class TitularService implements ITitularService{
     public Titular obtenerPorTipoYNumeroDocumento(TipoDocumento tipoDocumento,
                                                   String numeroDocumento) {
         return titularRepository
-                .findByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
+                .findActualByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Titular no encontrado con " + tipoDocumento + " Nº: " + numeroDocumento));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TitularLicenciaVigenteResponseRecord> buscarTitularesConLicenciasVigentes(
+    public PaginaRecord<TitularLicenciaVigenteResponseRecord> buscarTitularesConLicenciasVigentes(
             String nombreApellido,
             List<String> grupoSanguineoParam,
             String factorRhParam,
-            Boolean soloDonantes) {
-
-        // Convertir List<String> → List<GrupoSanguineo>
-        List<GrupoSanguineo> grupoSanguineo = null;
-        if (grupoSanguineoParam != null && !grupoSanguineoParam.isEmpty()) {
-            grupoSanguineo = grupoSanguineoParam.stream()
-                    .map(s -> GrupoSanguineo.valueOf(s.trim().toUpperCase()))
-                    .toList();
-        }
+            Boolean soloDonantes,
+            boolean fonetico,
+            int limit,
+            String after) {
+
+        FiltroTitularesVigentesRecord filtro = FiltroTitularesVigentesRecord.desde(
+                nombreApellido, grupoSanguineoParam, factorRhParam, soloDonantes, fonetico);
+        CursorKeyset cursor = CursorKeyset.decodificar(after, 2);
+
+        List<TitularLicenciaVigenteResponseRecord> filas =
+                titularBusqueda.buscarConLicenciasVigentes(filtro, cursor, limit + 1);
+        long total = titularBusqueda.contarConLicenciasVigentes(filtro);
+        return PaginaRecord.desde(filas, limit, total,
+                r -> CursorKeyset.de(r.licenciaId(), r.apellido(), r.nombre()));
+    }
 
-        // Convertir String → FactorRh
-        FactorRh factorRh = null;
-        if (factorRhParam != null && !factorRhParam.isBlank()) {
-            factorRh = FactorRh.valueOf(factorRhParam.trim().toUpperCase());
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarTitularesConLicenciasVigentes(
+            FiltroTitularesVigentesRecord filtro,
+            FormatoExportacion formato,
+            OutputStream out) throws IOException {
+
+        // el Stream mantiene abierto el cursor: debe cerrarse dentro de la transacción
+        try (Stream<TitularLicenciaVigenteResponseRecord> filas = titularBusqueda.streamConLicenciasVigentes(filtro)) {
+            return exportacionHelper.escribir(filas, COLUMNAS_EXPORTACION, formato, out);
         }
+    }
 
-        return titularRepository.findTitularesConLicenciasVigentes(
-                nombreApellido != null ? "%" + nombreApellido.trim().toUpperCase() + "%" : null,
-                grupoSanguineo,
-                factorRh,
-                soloDonantes
-        );
+    @Override
+    public List<TitularBusquedaResponseRecord> buscarTitulares(String consulta, int limit) {
+        return indiceTitulares.buscar(consulta, limit);
     }
 
+    @Override
+    public List<SugerenciaTitularRecord> sugerirTitulares(String prefijo, int limit) {
+        return autocompletar.sugerir(prefijo, limit);
+    }
 
+    @Override
+    public long reindexarTitulares() {
+        return indiceTitulares.reconstruir();
+    }
 }
@@ -1,14 +1,18 @@
 package com.tpagiles.app_licencia.service.impl;
 
+import com.tpagiles.app_licencia.dto.CursorKeyset;
+import com.tpagiles.app_licencia.dto.PaginaRecord;
 import com.tpagiles.app_licencia.dto.UsuarioRecord;
 import com.tpagiles.app_licencia.dto.UsuarioResponseRecord;
 import com.tpagiles.app_licencia.dto.UsuarioUpdateRecord;
 import com.tpagiles.app_licencia.exception.ResourceAlreadyExistsException;
 import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
 import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.repository.NaturalIdRepository;
 import com.tpagiles.app_licencia.repository.UsuarioRepository;
 import com.tpagiles.app_licencia.service.IUsuarioService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -24,11 +28,13 @@ import java.util.stream.Collectors;
 public class UsuarioService implements UserDetailsService, IUsuarioService {
 
     private final UsuarioRepository repo;
+    private final NaturalIdRepository naturalIds;
     private final PasswordEncoder encoder;
 
     @Override
     public UserDetails loadUserByUsername(String mail) throws UsernameNotFoundException {
-        return repo.findByMail(mail)
+        // en cada request autenticado: sale de la caché de segundo nivel sin ir a la base
+        return naturalIds.buscarUsuarioPorMail(mail)
                 .orElseThrow(() -> new UsernameNotFoundException("No existe usuario con mail: " + mail));
     }
 
@@ -57,12 +63,12 @@ public class UsuarioService implements UserDetailsService, IUsuarioService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UsuarioResponseRecord> listarTodos() {
-        return repo.findAll().stream()
-                .filter(u -> u.getRoles().stream()
-                        .anyMatch(r -> r.name().equals("OPERADOR")))
-                .map(UsuarioResponseRecord::fromUsuario)
-                .collect(Collectors.toList());
+    public PaginaRecord<UsuarioResponseRecord> listarTodos(int limit, String after) {
+        CursorKeyset cursor = CursorKeyset.decodificar(after, 0);
+        List<Usuario> operadores = repo.findOperadoresDespuesDe(
+                cursor == null ? 0L : cursor.id(), Limit.of(limit + 1));
+        return PaginaRecord.desde(operadores, limit, repo.countOperadores(), u -> CursorKeyset.de(u.getId()))
+                .map(UsuarioResponseRecord::fromUsuario);
     }
 
 
@@ -0,0 +1,130 @@
+package com.tpagiles.app_licencia.service.impl;
+
+import com.tpagiles.app_licencia.dto.ResultadoVencimientoRecord;
+import com.tpagiles.app_licencia.model.EjecucionJob;
+import com.tpagiles.app_licencia.repository.EjecucionJobRepository;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.service.IVencimientoLicenciasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Recorre la tabla de licencias por rangos de id de tamaño fijo. Cada rango se actualiza en su
+ * propia transacción junto con la marca de agua, así los locks se sueltan entre lotes (las
+ * emisiones no esperan a toda la corrida) y una caída a mitad de camino se retoma desde el
+ * último lote confirmado.
+ */
+@Service
+public class VencimientoLicenciasService implements IVencimientoLicenciasService {
+
+    static final String JOB = "marcar-vencidas";
+
+    private static final Logger logger = LoggerFactory.getLogger(VencimientoLicenciasService.class);
+
+    private final LicenciaRepository licenciaRepo;
+    private final EjecucionJobRepository ejecucionRepo;
+    private final TransactionTemplate tx;
+    private final int tamanioLote;
+    private final long pausaMs;
+
+    public VencimientoLicenciasService(LicenciaRepository licenciaRepo,
+                                       EjecucionJobRepository ejecucionRepo,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.vencimiento-job.tamanio-lote:1000}") int tamanioLote,
+                                       @Value("${app.vencimiento-job.pausa-ms:0}") long pausaMs) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.vencimiento-job.tamanio-lote debe ser mayor a cero");
+        }
+        this.licenciaRepo = licenciaRepo;
+        this.ejecucionRepo = ejecucionRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+    }
+
+    @Override
+    public boolean pendiente(LocalDate fechaCorte) {
+        return ejecucionRepo.findById(JOB)
+                .map(e -> e.getFechaEnCurso() != null
+                        || e.getFechaProcesada() == null
+                        || e.getFechaProcesada().isBefore(fechaCorte))
+                .orElse(true);
+    }
+
+    @Override
+    public ResultadoVencimientoRecord procesar(LocalDate fechaCorte) {
+        EjecucionJob ejecucion = ejecucionRepo.findById(JOB)
+                .orElseGet(() -> EjecucionJob.builder().nombre(JOB).build());
+        if (ejecucion.getFechaEnCurso() == null && ejecucion.getFechaProcesada() != null
+                && !ejecucion.getFechaProcesada().isBefore(fechaCorte)) {
+            return ResultadoVencimientoRecord.sinCambios(fechaCorte);
+        }
+
+        // una corrida interrumpida para otra fecha se descarta: la de hoy cubre todo lo anterior
+        boolean reanudada = fechaCorte.equals(ejecucion.getFechaEnCurso());
+        if (!reanudada) {
+            ejecucion.setFechaEnCurso(fechaCorte);
+            ejecucion.setUltimoId(0);
+            ejecucion.setFilas(0);
+            ejecucion.setIniciadoEn(Instant.now());
+            ejecucion.setFinalizadoEn(null);
+            ejecucion.setDuracionMs(null);
+            ejecucionRepo.save(ejecucion);
+        }
+
+        long inicio = System.nanoTime();
+        // las licencias que se emitan durante la corrida no pueden estar vencidas
+        long maxId = licenciaRepo.findMaxId();
+        long desde = ejecucion.getUltimoId();
+        long filas = 0;
+        int lotes = 0;
+
+        while (desde < maxId) {
+            long hasta = Math.min(desde + tamanioLote, maxId);
+            long desdeLote = desde;
+            int actualizadas = tx.execute(status -> {
+                int n = licenciaRepo.desactivarVencidasEnRango(fechaCorte, desdeLote, hasta);
+                ejecucion.setUltimoId(hasta);
+                ejecucion.setFilas(ejecucion.getFilas() + n);
+                ejecucionRepo.save(ejecucion);
+                return n;
+            });
+            filas += actualizadas;
+            lotes++;
+            desde = hasta;
+            pausar();
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        ejecucion.setFechaProcesada(fechaCorte);
+        ejecucion.setFechaEnCurso(null);
+        ejecucion.setFinalizadoEn(Instant.now());
+        ejecucion.setDuracionMs(duracionMs);
+        ejecucionRepo.save(ejecucion);
+
+        ResultadoVencimientoRecord resultado =
+                new ResultadoVencimientoRecord(fechaCorte, filas, lotes, duracionMs, reanudada);
+        logger.info("Vencimientos al {}: {} licencias desactivadas en {} lotes, {} ms ({} filas/s){}",
+                fechaCorte, filas, lotes, duracionMs, String.format("%.1f", resultado.filasPorSegundo()),
+                reanudada ? ", corrida reanudada" : "");
+        return resultado;
+    }
+
+    private void pausar() {
+        if (pausaMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pausaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Versión optimista (@Version) de titulares y licencias; equivalente a db/migration/mysql/V10__versiones_optimistas.sql
+ALTER TABLE titulares ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE licencias ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
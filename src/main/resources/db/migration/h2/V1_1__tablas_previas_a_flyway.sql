@@ -0,0 +1,26 @@
+-- Equivalente a db/migration/mysql/V1_1__tablas_previas_a_flyway.sql
+
+CREATE TABLE IF NOT EXISTS idempotencia_respuestas (
+    clave        VARCHAR(300) NOT NULL,
+    huella       VARCHAR(64)  NOT NULL,
+    completada   BOOLEAN      NOT NULL,
+    status       INTEGER,
+    content_type VARCHAR(100),
+    cuerpo       BLOB,
+    expira_en    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (clave)
+);
+
+CREATE TABLE IF NOT EXISTS contadores (
+    nombre         VARCHAR(40)  NOT NULL,
+    valor          BIGINT       NOT NULL,
+    actualizado_en TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (nombre)
+);
+
+CREATE INDEX idx_titulares_apellido_nombre ON titulares (apellido, nombre);
+
+CREATE INDEX idx_licencias_vencimiento_id ON licencias (fecha_vencimiento, id);
+
+ALTER TABLE usuario_roles ALTER COLUMN rol SET NOT NULL;
+ALTER TABLE usuario_roles ADD PRIMARY KEY (usuario_id, rol);
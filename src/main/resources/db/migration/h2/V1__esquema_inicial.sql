@@ -0,0 +1,60 @@
+-- Esquema inicial para H2 (perfil test); equivalente a db/migration/mysql/V1__esquema_inicial.sql
+
+CREATE TABLE usuarios (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre   VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    mail     VARCHAR(100) NOT NULL,
+    password VARCHAR(100) NOT NULL,
+    activo   BOOLEAN      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_mail UNIQUE (mail)
+);
+
+CREATE TABLE usuario_roles (
+    usuario_id BIGINT      NOT NULL,
+    rol        VARCHAR(20),
+    CONSTRAINT fk_usuario_roles_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE titulares (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre           VARCHAR(255) NOT NULL,
+    apellido         VARCHAR(255) NOT NULL,
+    fecha_nacimiento DATE         NOT NULL,
+    tipo_documento   VARCHAR(20)  NOT NULL,
+    numero_documento VARCHAR(50)  NOT NULL,
+    grupo_sanguineo  VARCHAR(5)   NOT NULL,
+    factor_rh        VARCHAR(10)  NOT NULL,
+    direccion        VARCHAR(200) NOT NULL,
+    donante_organos  BOOLEAN      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_titulares_numero_documento UNIQUE (numero_documento)
+);
+
+CREATE TABLE licencias (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    titular_id           BIGINT           NOT NULL,
+    clase                VARCHAR(20)      NOT NULL,
+    vigencia_anios       INTEGER          NOT NULL,
+    fecha_emision        DATE             NOT NULL,
+    fecha_vencimiento    DATE             NOT NULL,
+    costo                DOUBLE PRECISION NOT NULL,
+    numero_copia         INTEGER,
+    licencia_original_id BIGINT,
+    motivo_copia         VARCHAR(200),
+    vigente              BOOLEAN          NOT NULL,
+    emisor_id            BIGINT           NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_licencias_titular FOREIGN KEY (titular_id) REFERENCES titulares (id),
+    CONSTRAINT fk_licencias_original FOREIGN KEY (licencia_original_id) REFERENCES licencias (id),
+    CONSTRAINT fk_licencias_emisor FOREIGN KEY (emisor_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE tarifario_licencia (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    clase_licencia VARCHAR(20)      NOT NULL,
+    vigencia_anios INTEGER          NOT NULL,
+    costo          DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,16 @@
+-- Índices de las consultas de LicenciaRepository, TitularRepository y UsuarioRepository;
+-- equivalente a db/migration/mysql/V2__indices_consultas.sql (sin la normalización de ENUM, que solo aplica a MySQL)
+
+CREATE INDEX idx_licencias_titular_clase_vigente
+    ON licencias (titular_id, clase, vigente, fecha_vencimiento, fecha_emision);
+
+CREATE INDEX idx_licencias_vigente_vencimiento ON licencias (vigente, fecha_vencimiento);
+
+CREATE INDEX idx_titulares_tipo_numero_documento ON titulares (tipo_documento, numero_documento);
+
+CREATE INDEX idx_usuario_roles_rol ON usuario_roles (rol, usuario_id);
+
+ALTER TABLE tarifario_licencia
+    ADD CONSTRAINT uk_tarifario_clase_vigencia UNIQUE (clase_licencia, vigencia_anios);
+
+CREATE INDEX idx_idempotencia_expira_en ON idempotencia_respuestas (expira_en);
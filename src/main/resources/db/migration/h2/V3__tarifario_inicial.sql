@@ -1,4 +1,4 @@
--- 1. BORRAR TODAS LAS TARIFAS ACTUALES (opcional si querés empezar limpio)
+-- Tarifario vigente (mismos valores que el script de MySQL).
 DELETE FROM tarifario_licencia;
 INSERT INTO tarifario_licencia (clase_licencia, vigencia_anios, costo) VALUES
 -- A
@@ -0,0 +1,12 @@
+-- Marca de agua de los jobs por lotes (job de vencimientos)
+CREATE TABLE ejecuciones_job (
+    nombre          VARCHAR(60) NOT NULL,
+    fecha_procesada DATE,
+    fecha_en_curso  DATE,
+    ultimo_id       BIGINT      NOT NULL,
+    filas           BIGINT      NOT NULL,
+    iniciado_en     TIMESTAMP(6),
+    finalizado_en   TIMESTAMP(6),
+    duracion_ms     BIGINT,
+    PRIMARY KEY (nombre)
+);
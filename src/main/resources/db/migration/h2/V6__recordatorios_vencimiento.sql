@@ -0,0 +1,21 @@
+-- Mail de contacto del titular (opcional) y bandeja de salida de recordatorios de vencimiento
+ALTER TABLE titulares ADD COLUMN mail VARCHAR(100);
+
+CREATE TABLE recordatorios_vencimiento (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    licencia_id       BIGINT        NOT NULL,
+    ventana_dias      INTEGER       NOT NULL,
+    destinatario      VARCHAR(100)  NOT NULL,
+    asunto            VARCHAR(200)  NOT NULL,
+    cuerpo            VARCHAR(2000) NOT NULL,
+    estado            VARCHAR(20)   NOT NULL,
+    intentos          INTEGER       NOT NULL,
+    creado_en         TIMESTAMP(6)  NOT NULL,
+    proximo_intento   TIMESTAMP(6)  NOT NULL,
+    enviado_en        TIMESTAMP(6),
+    ultimo_error      VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_recordatorios_licencia_ventana UNIQUE (licencia_id, ventana_dias)
+);
+
+CREATE INDEX idx_recordatorios_estado_proximo ON recordatorios_vencimiento (estado, proximo_intento);
@@ -0,0 +1,9 @@
+-- Columnas de búsqueda fonética (CodificadorFonetico: González / Gonsales → GONSALES).
+-- Quedan en NULL para las filas existentes: las completa NormalizacionTitularesService por lotes.
+ALTER TABLE titulares ADD COLUMN nombre_fonetico VARCHAR(255);
+ALTER TABLE titulares ADD COLUMN apellido_fonetico VARCHAR(255);
+ALTER TABLE titulares ADD COLUMN nombre_completo_fonetico VARCHAR(511);
+
+CREATE INDEX idx_titulares_apellido_nombre_fon ON titulares (apellido_fonetico, nombre_fonetico);
+CREATE INDEX idx_titulares_nombre_fon ON titulares (nombre_fonetico);
+CREATE INDEX idx_titulares_nombre_completo_fon ON titulares (nombre_completo_fonetico);
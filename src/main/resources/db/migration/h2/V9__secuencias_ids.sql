@@ -0,0 +1,6 @@
+-- Ids de titulares, licencias y usuarios por bloques de 50 (@SequenceGenerator, optimizador pooled);
+-- equivalente a db/migration/mysql/V9__secuencias_ids.sql, con secuencias nativas.
+-- La base H2 se crea vacía, así que arrancan en 1 como las que generaría Hibernate.
+CREATE SEQUENCE titulares_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE licencias_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE usuarios_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Versión optimista (@Version) de titulares y licencias: ETag de /api/titulares y If-Match en las
+-- modificaciones. Las filas existentes arrancan en 0.
+ALTER TABLE titulares ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE licencias ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
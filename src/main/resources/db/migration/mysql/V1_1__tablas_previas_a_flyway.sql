@@ -0,0 +1,32 @@
+-- Tablas e índices que se agregaron con ddl-auto=update después del esquema de V1.
+-- Una base creada con esa versión se registra con baseline en V1 y no los tiene, así que van acá;
+-- si la base ya los había creado, CREATE TABLE IF NOT EXISTS no hace nada.
+
+CREATE TABLE IF NOT EXISTS idempotencia_respuestas (
+    clave        VARCHAR(300) NOT NULL,
+    huella       VARCHAR(64)  NOT NULL,
+    completada   BIT          NOT NULL,
+    status       INT,
+    content_type VARCHAR(100),
+    cuerpo       LONGBLOB,
+    expira_en    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (clave)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS contadores (
+    nombre         VARCHAR(40) NOT NULL,
+    valor          BIGINT      NOT NULL,
+    actualizado_en DATETIME(6) NOT NULL,
+    PRIMARY KEY (nombre)
+) ENGINE = InnoDB;
+
+-- orden del listado de titulares con licencias vigentes
+CREATE INDEX idx_titulares_apellido_nombre ON titulares (apellido, nombre);
+
+-- paginación por keyset de las licencias vencidas
+CREATE INDEX idx_licencias_vencimiento_id ON licencias (fecha_vencimiento, id);
+
+-- ddl-auto=update no le creaba clave primaria a la colección de roles
+ALTER TABLE usuario_roles
+    MODIFY rol VARCHAR(20) NOT NULL,
+    ADD PRIMARY KEY (usuario_id, rol);
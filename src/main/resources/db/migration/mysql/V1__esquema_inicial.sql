@@ -0,0 +1,61 @@
+-- Esquema inicial: el mismo que generaba Hibernate con ddl-auto=update.
+-- Las bases creadas antes de Flyway se registran con baseline en esta versión (ver application.properties).
+
+CREATE TABLE usuarios (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre   VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    mail     VARCHAR(100) NOT NULL,
+    password VARCHAR(100) NOT NULL,
+    activo   BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_mail UNIQUE (mail)
+) ENGINE = InnoDB;
+
+CREATE TABLE usuario_roles (
+    usuario_id BIGINT      NOT NULL,
+    rol        VARCHAR(20),
+    CONSTRAINT fk_usuario_roles_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE titulares (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre           VARCHAR(255) NOT NULL,
+    apellido         VARCHAR(255) NOT NULL,
+    fecha_nacimiento DATE         NOT NULL,
+    tipo_documento   VARCHAR(20)  NOT NULL,
+    numero_documento VARCHAR(50)  NOT NULL,
+    grupo_sanguineo  VARCHAR(5)   NOT NULL,
+    factor_rh        VARCHAR(10)  NOT NULL,
+    direccion        VARCHAR(200) NOT NULL,
+    donante_organos  BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_titulares_numero_documento UNIQUE (numero_documento)
+) ENGINE = InnoDB;
+
+CREATE TABLE licencias (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    titular_id           BIGINT       NOT NULL,
+    clase                VARCHAR(20)  NOT NULL,
+    vigencia_anios       INT          NOT NULL,
+    fecha_emision        DATE         NOT NULL,
+    fecha_vencimiento    DATE         NOT NULL,
+    costo                DOUBLE       NOT NULL,
+    numero_copia         INT,
+    licencia_original_id BIGINT,
+    motivo_copia         VARCHAR(200),
+    vigente              BIT          NOT NULL,
+    emisor_id            BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_licencias_titular FOREIGN KEY (titular_id) REFERENCES titulares (id),
+    CONSTRAINT fk_licencias_original FOREIGN KEY (licencia_original_id) REFERENCES licencias (id),
+    CONSTRAINT fk_licencias_emisor FOREIGN KEY (emisor_id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tarifario_licencia (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    clase_licencia VARCHAR(20) NOT NULL,
+    vigencia_anios INT         NOT NULL,
+    costo          DOUBLE      NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
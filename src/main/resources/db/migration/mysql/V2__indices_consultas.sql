@@ -0,0 +1,32 @@
+-- Con ddl-auto=update Hibernate creaba las columnas de enums como ENUM nativo de MySQL.
+-- Se normalizan a VARCHAR (el mapeo ahora es @JdbcTypeCode(VARCHAR)); en bases nuevas no cambia nada.
+ALTER TABLE licencias MODIFY clase VARCHAR(20) NOT NULL;
+ALTER TABLE titulares
+    MODIFY tipo_documento VARCHAR(20) NOT NULL,
+    MODIFY grupo_sanguineo VARCHAR(5) NOT NULL,
+    MODIFY factor_rh VARCHAR(10) NOT NULL;
+ALTER TABLE tarifario_licencia MODIFY clase_licencia VARCHAR(20) NOT NULL;
+ALTER TABLE usuario_roles MODIFY rol VARCHAR(20) NOT NULL;
+ALTER TABLE contadores MODIFY nombre VARCHAR(40) NOT NULL;
+
+-- existsByTitularIdAndClaseAndVigenteTrueAndFechaVencimientoAfter, findByTitularAndClase y el
+-- historial por titular (findHistorialByTitularId/s) se resuelven solo con el índice
+CREATE INDEX idx_licencias_titular_clase_vigente
+    ON licencias (titular_id, clase, vigente, fecha_vencimiento, fecha_emision);
+
+-- deactivateExpired: WHERE vigente = true AND fecha_vencimiento < ?
+-- (los conteos y listados por fecha_vencimiento usan idx_licencias_vencimiento_id)
+CREATE INDEX idx_licencias_vigente_vencimiento ON licencias (vigente, fecha_vencimiento);
+
+-- findByTipoDocumentoAndNumeroDocumento y la búsqueda de licencias por documento
+CREATE INDEX idx_titulares_tipo_numero_documento ON titulares (tipo_documento, numero_documento);
+
+-- listado de operadores (JOIN u.roles r WHERE r = OPERADOR ORDER BY u.id)
+CREATE INDEX idx_usuario_roles_rol ON usuario_roles (rol, usuario_id);
+
+-- lookup del costo por clase y vigencia
+ALTER TABLE tarifario_licencia
+    ADD CONSTRAINT uk_tarifario_clase_vigencia UNIQUE (clase_licencia, vigencia_anios);
+
+-- purga de respuestas idempotentes expiradas
+CREATE INDEX idx_idempotencia_expira_en ON idempotencia_respuestas (expira_en);
@@ -0,0 +1,8 @@
+-- Bloqueo por job para que un solo nodo ejecute cada tarea programada
+CREATE TABLE bloqueos_job (
+    nombre          VARCHAR(60)  NOT NULL,
+    propietario     VARCHAR(100) NOT NULL,
+    bloqueado_hasta DATETIME(6)  NOT NULL,
+    bloqueado_en    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (nombre)
+) ENGINE = InnoDB;
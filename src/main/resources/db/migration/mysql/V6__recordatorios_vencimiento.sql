@@ -0,0 +1,21 @@
+-- Mail de contacto del titular (opcional) y bandeja de salida de recordatorios de vencimiento
+ALTER TABLE titulares ADD COLUMN mail VARCHAR(100);
+
+CREATE TABLE recordatorios_vencimiento (
+    id                BIGINT        NOT NULL AUTO_INCREMENT,
+    licencia_id       BIGINT        NOT NULL,
+    ventana_dias      INT           NOT NULL,
+    destinatario      VARCHAR(100)  NOT NULL,
+    asunto            VARCHAR(200)  NOT NULL,
+    cuerpo            VARCHAR(2000) NOT NULL,
+    estado            VARCHAR(20)   NOT NULL,
+    intentos          INT           NOT NULL,
+    creado_en         DATETIME(6)   NOT NULL,
+    proximo_intento   DATETIME(6)   NOT NULL,
+    enviado_en        DATETIME(6),
+    ultimo_error      VARCHAR(500),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_recordatorios_licencia_ventana UNIQUE (licencia_id, ventana_dias)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_recordatorios_estado_proximo ON recordatorios_vencimiento (estado, proximo_intento);
@@ -0,0 +1,10 @@
+-- Columnas de búsqueda normalizadas (mayúsculas, sin tildes, espacios colapsados).
+-- Quedan en NULL para las filas existentes: las completa NormalizacionTitularesService por lotes.
+ALTER TABLE titulares
+    ADD COLUMN nombre_normalizado          VARCHAR(255),
+    ADD COLUMN apellido_normalizado        VARCHAR(255),
+    ADD COLUMN nombre_completo_normalizado VARCHAR(511);
+
+CREATE INDEX idx_titulares_apellido_nombre_norm ON titulares (apellido_normalizado, nombre_normalizado);
+CREATE INDEX idx_titulares_nombre_norm ON titulares (nombre_normalizado);
+CREATE INDEX idx_titulares_nombre_completo_norm ON titulares (nombre_completo_normalizado);
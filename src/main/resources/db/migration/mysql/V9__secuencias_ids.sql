@@ -0,0 +1,19 @@
+-- Ids de titulares, licencias y usuarios por bloques de 50 (@SequenceGenerator, optimizador pooled).
+-- MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila (next_val) que avanza de a 50.
+-- next_val es el último id del próximo bloque, así que arranca 50 por encima del máximo actual.
+-- Las columnas id conservan AUTO_INCREMENT pero la aplicación ya no lo usa: un INSERT manual
+-- tiene que tomar el id de estas tablas para no chocar con los bloques que entregue Hibernate.
+CREATE TABLE titulares_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+INSERT INTO titulares_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM titulares;
+
+CREATE TABLE licencias_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+INSERT INTO licencias_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM licencias;
+
+CREATE TABLE usuarios_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+INSERT INTO usuarios_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM usuarios;
@@ -0,0 +1,104 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.repository.BloqueoJobRepository;
+import com.tpagiles.app_licencia.service.impl.BloqueoJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos o más "nodos" (instancias del servicio con distinto propietario) compitiendo por el mismo
+ * job sobre la base H2 de test. Sin @Transactional: cada operación confirma en su propia transacción.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BloqueoJobIntegrationTest {
+
+    private static final Duration VIGENCIA = Duration.ofMinutes(1);
+
+    @Autowired
+    private BloqueoJobRepository repo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BloqueoJobService nodoA;
+    private BloqueoJobService nodoB;
+
+    @BeforeEach
+    void setup() {
+        repo.deleteAll();
+        nodoA = new BloqueoJobService(repo, transactionManager, "nodo-a");
+        nodoB = new BloqueoJobService(repo, transactionManager, "nodo-b");
+    }
+
+    @Test
+    @DisplayName("Solo un nodo toma el job; el otro lo obtiene recién cuando se libera")
+    void adquirir_exclusivo() {
+        assertTrue(nodoA.adquirir("job", VIGENCIA));
+        assertFalse(nodoB.adquirir("job", VIGENCIA));
+        assertFalse(nodoA.adquirir("job", VIGENCIA));
+
+        assertTrue(nodoA.renovar("job", VIGENCIA));
+        assertFalse(nodoB.renovar("job", VIGENCIA));
+
+        nodoA.liberar("job", Instant.now());
+        assertTrue(nodoB.adquirir("job", VIGENCIA));
+        assertEquals("nodo-b", repo.findById("job").orElseThrow().getPropietario());
+    }
+
+    @Test
+    @DisplayName("Si el dueño cae sin liberar, el lease vence y otro nodo toma el job")
+    void adquirir_leaseVencido() throws InterruptedException {
+        assertTrue(nodoA.adquirir("job", Duration.ofMillis(50)));
+        Thread.sleep(100);
+
+        assertTrue(nodoB.adquirir("job", VIGENCIA));
+        assertFalse(nodoA.renovar("job", VIGENCIA));
+    }
+
+    @Test
+    @DisplayName("Liberar con tiempo mínimo: el job queda tomado hasta ese instante")
+    void liberar_respetaMinimo() {
+        assertTrue(nodoA.adquirir("job", VIGENCIA));
+        nodoA.liberar("job", Instant.now().plusSeconds(30));
+
+        assertFalse(nodoB.adquirir("job", VIGENCIA));
+    }
+
+    @Test
+    @DisplayName("Varios nodos a la vez sobre un job que todavía no tiene fila: exactamente uno gana")
+    void adquirir_concurrente() throws Exception {
+        List<BloqueoJobService> nodos = IntStream.range(0, 8)
+                .mapToObj(i -> new BloqueoJobService(repo, transactionManager, "nodo-" + i))
+                .toList();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(nodos.size())) {
+            List<Callable<Boolean>> intentos = nodos.stream()
+                    .<Callable<Boolean>>map(n -> () -> n.adquirir("concurrente", VIGENCIA))
+                    .toList();
+            long ganadores = 0;
+            for (Future<Boolean> f : pool.invokeAll(intentos)) {
+                if (f.get()) {
+                    ganadores++;
+                }
+            }
+            assertEquals(1, ganadores);
+        }
+    }
+}
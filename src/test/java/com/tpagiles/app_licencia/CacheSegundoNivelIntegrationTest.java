@@ -0,0 +1,199 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.config.RegionesCache;
+import com.tpagiles.app_licencia.dto.RegionCacheRecord;
+import com.tpagiles.app_licencia.dto.TitularRecord;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import com.tpagiles.app_licencia.service.ICacheSegundoNivelService;
+import com.tpagiles.app_licencia.service.ITitularService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caché de segundo nivel habilitada (el perfil de test la apaga). Sin @Transactional: las entradas
+ * se publican en la caché al confirmar, así que los datos se crean y se borran en transacciones propias.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+class CacheSegundoNivelIntegrationTest {
+
+    private static final String MAIL = "cache@municipio.gob";
+    private static final String DOCUMENTO = "CACHE001";
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ITitularService titularService;
+
+    @Autowired
+    private ICacheSegundoNivelService cacheService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private TitularRepository titularRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    private Statistics stats;
+    private Long usuarioId;
+    private Long titularId;
+
+    @BeforeEach
+    void setup() {
+        usuarioId = tx.execute(s -> {
+            Usuario u = new Usuario();
+            u.setNombre("Carla");
+            u.setApellido("Cache");
+            u.setMail(MAIL);
+            u.setPassword("x");
+            u.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+            return usuarioRepo.save(u).getId();
+        });
+        titularId = tx.execute(s -> {
+            Titular t = Titular.builder()
+                    .nombre("Tomás")
+                    .apellido("Cacheado")
+                    .fechaNacimiento(LocalDate.of(1980, 1, 1))
+                    .tipoDocumento(TipoDocumento.DNI)
+                    .numeroDocumento(DOCUMENTO)
+                    .grupoSanguineo(GrupoSanguineo.A)
+                    .factorRh(FactorRh.POSITIVO)
+                    .direccion("Calle 1")
+                    .build();
+            t.actualizarCamposBusqueda();
+            return titularRepo.save(t).getId();
+        });
+        cacheService.vaciarTodas();
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(s -> {
+            usuarioRepo.deleteById(usuarioId);
+            titularRepo.deleteById(titularId);
+        });
+        cacheService.vaciarTodas();
+    }
+
+    @Test
+    @DisplayName("Usuario por mail: la segunda carga sale de las cachés de clave natural y de entidad, sin SQL")
+    void usuarioPorMail_desdeCache() {
+        userDetailsService.loadUserByUsername(MAIL);
+        assertTrue(stats.getPrepareStatementCount() > 0);
+
+        stats.clear();
+        var usuario = userDetailsService.loadUserByUsername(MAIL);
+
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(stats.getNaturalIdCacheHitCount() > 0);
+        assertTrue(usuario.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_OPERADOR")));
+    }
+
+    @Test
+    @DisplayName("Titular por id: la segunda carga sale de la caché de entidades, sin SQL")
+    void titularPorId_desdeCache() {
+        titularRepo.findById(titularId);
+        stats.clear();
+
+        assertEquals("Cacheado", titularRepo.findById(titularId).orElseThrow().getApellido());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(stats.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Copia cacheada atrasada (cambio de otro nodo): GET e If-Match usan la versión de la base")
+    void titularConEtag_ignoraLaCopiaAtrasada() {
+        titularRepo.findById(titularId);
+        // otro nodo confirma un cambio: la fila avanza y la caché de este nodo no se entera
+        jdbc.update("UPDATE titulares SET apellido = 'OtroNodo', version = version + 1 WHERE id = ?", titularId);
+        Long version = titularService.obtenerVersion(titularId).version();
+
+        Titular porId = titularService.obtenerPorId(titularId);
+        assertEquals("OtroNodo", porId.getApellido());
+        assertEquals(version, porId.getVersion());
+        assertEquals(version, titularService.obtenerPorTipoYNumeroDocumento(TipoDocumento.DNI, DOCUMENTO).getVersion());
+        // mismo número con otro tipo: no es ese titular
+        assertThrows(ResourceNotFoundException.class,
+                () -> titularService.obtenerPorTipoYNumeroDocumento(TipoDocumento.PASAPORTE, DOCUMENTO));
+
+        // la lectura reemplazó la copia cacheada
+        stats.clear();
+        assertEquals("OtroNodo", titularRepo.findById(titularId).orElseThrow().getApellido());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        // If-Match con la versión vigente: no hay 412 aunque la caché la tuviera atrasada
+        titularService.actualizarTitularPorDocumento(TipoDocumento.DNI, DOCUMENTO, new TitularRecord(
+                "Tomás", "Renombrado", LocalDate.of(1980, 1, 1), TipoDocumento.DNI, "CACHE002",
+                GrupoSanguineo.A, FactorRh.POSITIVO, "Calle 1", false, null),
+                actual -> actual.getVersion().equals(version));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> titularService.obtenerPorTipoYNumeroDocumento(TipoDocumento.DNI, DOCUMENTO));
+        Titular renombrado = titularService.obtenerPorTipoYNumeroDocumento(TipoDocumento.DNI, "CACHE002");
+        assertEquals(titularId, renombrado.getId());
+        assertEquals("Renombrado", renombrado.getApellido());
+        assertEquals(version + 1, renombrado.getVersion());
+    }
+
+    @Test
+    @DisplayName("Estadísticas por región y vaciado manual")
+    void estadisticasYVaciado() {
+        userDetailsService.loadUserByUsername(MAIL);
+        userDetailsService.loadUserByUsername(MAIL);
+
+        RegionCacheRecord usuarios = cacheService.estadisticas().stream()
+                .filter(r -> r.region().equals(RegionesCache.USUARIOS))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(usuarios.aciertos() >= 1);
+        assertEquals(1000L, usuarios.maxEntradas());
+        assertNotNull(usuarios.tasaAciertos());
+
+        cacheService.vaciar(RegionesCache.USUARIOS);
+        stats.clear();
+        userDetailsService.loadUserByUsername(MAIL);
+        assertTrue(stats.getPrepareStatementCount() > 0);
+
+        assertThrows(ResourceNotFoundException.class, () -> cacheService.vaciar("inexistente"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.dto.EmitirCopiaRequest;
+import com.tpagiles.app_licencia.dto.LicenciaResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import com.tpagiles.app_licencia.service.ILicenciaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copias simultáneas de la misma licencia. Sin @Transactional: cada emisión confirma en su propia
+ * transacción, como en producción, y los datos se borran al terminar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CopiaLicenciaConcurrenteIntegrationTest {
+
+    private static final String MAIL = "copias@municipio.gob";
+    private static final int COPIAS = 2;
+
+    @Autowired
+    private ILicenciaService licenciaService;
+
+    @Autowired
+    private LicenciaRepository licenciaRepo;
+
+    @Autowired
+    private TitularRepository titularRepo;
+
+    @Autowired
+    private UsuarioRepository usuarioRepo;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    private Long usuarioId;
+    private Long titularId;
+    private Long originalId;
+
+    @BeforeEach
+    void setup() {
+        tx.executeWithoutResult(s -> {
+            Usuario emisor = new Usuario();
+            emisor.setNombre("Ana");
+            emisor.setApellido("Copias");
+            emisor.setMail(MAIL);
+            emisor.setPassword("x");
+            emisor.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+            usuarioId = usuarioRepo.save(emisor).getId();
+
+            Titular titular = Titular.builder()
+                    .nombre("Carlos")
+                    .apellido("Duplicado")
+                    .fechaNacimiento(LocalDate.of(1985, 3, 2))
+                    .tipoDocumento(TipoDocumento.DNI)
+                    .numeroDocumento("COPIA001")
+                    .grupoSanguineo(GrupoSanguineo.B)
+                    .factorRh(FactorRh.NEGATIVO)
+                    .direccion("Calle 2")
+                    .build();
+            titular.actualizarCamposBusqueda();
+            titularId = titularRepo.save(titular).getId();
+
+            originalId = licenciaRepo.save(Licencia.builder()
+                    .titular(titular)
+                    .clase(ClaseLicencia.B)
+                    .vigenciaAnios(5)
+                    .fechaEmision(LocalDate.now())
+                    .fechaVencimiento(LocalDate.now().plusYears(5))
+                    .costo(40.0)
+                    .emisor(emisor)
+                    .vigente(true)
+                    .build()).getId();
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        tx.executeWithoutResult(s -> {
+            licenciaRepo.deleteAll(licenciaRepo.findAll().stream()
+                    .filter(l -> l.getLicenciaOriginal() != null && l.getLicenciaOriginal().getId().equals(originalId))
+                    .toList());
+            licenciaRepo.deleteById(originalId);
+            titularRepo.deleteById(titularId);
+            usuarioRepo.deleteById(usuarioId);
+        });
+    }
+
+    @Test
+    @DisplayName("Dos copias a la vez de la misma licencia reciben números distintos")
+    void emitirCopia_concurrente_numerosDistintos() throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Callable<LicenciaResponseRecord>> emisiones = IntStream.range(0, COPIAS)
+                .<Callable<LicenciaResponseRecord>>mapToObj(i -> () -> {
+                    largada.await();
+                    return licenciaService.emitirCopia(new EmitirCopiaRequest(originalId, "Extravío " + i, MAIL));
+                })
+                .toList();
+
+        Set<Integer> numeros = new HashSet<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(COPIAS)) {
+            List<Future<LicenciaResponseRecord>> resultados = emisiones.stream().map(pool::submit).toList();
+            largada.countDown();
+            for (Future<LicenciaResponseRecord> f : resultados) {
+                numeros.add(f.get().numeroCopia());
+            }
+        }
+
+        assertEquals(Set.of(1, 2), numeros);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.dto.RespuestaIdempotenteRecord;
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.model.RegistroIdempotencia;
+import com.tpagiles.app_licencia.repository.RegistroIdempotenciaRepository;
+import com.tpagiles.app_licencia.service.impl.IdempotenciaJpaStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Almacén de idempotencia sobre la tabla idempotencia_respuestas. Sin @Transactional: el store
+ * reserva y completa en transacciones propias (REQUIRES_NEW) y las filas se borran al terminar.
+ */
+@SpringBootTest(properties = {
+        "app.idempotencia.store=db",
+        "app.idempotencia.espera-ms=300"
+})
+@ActiveProfiles("test")
+class IdempotenciaJpaStoreIntegrationTest {
+
+    private static final RespuestaIdempotenteRecord RESPUESTA =
+            new RespuestaIdempotenteRecord("h1", 201, "application/json", "{\"id\":1}".getBytes());
+
+    @Autowired
+    private IdempotenciaJpaStore store;
+
+    @Autowired
+    private RegistroIdempotenciaRepository repo;
+
+    @AfterEach
+    void limpiar() {
+        repo.deleteAll();
+    }
+
+    @Test
+    @DisplayName("La reserva inserta la fila en curso; al completarla el reintento recibe la respuesta")
+    void reservarCompletarYRepetir() {
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+        RegistroIdempotencia reservada = repo.findById("k").orElseThrow();
+        assertFalse(reservada.isCompletada());
+        assertEquals("h1", reservada.getHuella());
+        assertTrue(reservada.getExpiraEn().isAfter(Instant.now()));
+
+        store.completar("k", RESPUESTA);
+
+        RespuestaIdempotenteRecord repetida = store.reservarOEsperar("k", "h1").orElseThrow();
+        assertEquals(201, repetida.status());
+        assertEquals("application/json", repetida.contentType());
+        assertArrayEquals(RESPUESTA.cuerpo(), repetida.cuerpo());
+        assertEquals(1, repo.count());
+    }
+
+    @Test
+    @DisplayName("Duplicado de una reserva en curso: espera y falla con SolicitudEnCursoException")
+    void duplicadoEnCurso_venceLaEspera() {
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+
+        assertThrows(SolicitudEnCursoException.class, () -> store.reservarOEsperar("k", "h1"));
+        assertFalse(repo.findById("k").orElseThrow().isCompletada());
+    }
+
+    @Test
+    @DisplayName("Duplicado en espera: recibe la respuesta cuando la original se completa")
+    void duplicadoEnCurso_recibeLaRespuesta() throws Exception {
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+
+        CompletableFuture<Optional<RespuestaIdempotenteRecord>> duplicado =
+                CompletableFuture.supplyAsync(() -> store.reservarOEsperar("k", "h1"));
+        Thread.sleep(50);
+        store.completar("k", RESPUESTA);
+
+        assertEquals(201, duplicado.get(1, TimeUnit.SECONDS).orElseThrow().status());
+    }
+
+    @Test
+    @DisplayName("Liberar borra la reserva y la clave puede tomarse de nuevo")
+    void liberar_permiteReservarDeNuevo() {
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+        store.liberar("k");
+
+        assertFalse(repo.existsById("k"));
+        assertTrue(store.reservarOEsperar("k", "h2").isEmpty());
+        assertEquals("h2", repo.findById("k").orElseThrow().getHuella());
+    }
+
+    @Test
+    @DisplayName("Una respuesta expirada no se repite: la reserva borra la fila y vuelve a insertar")
+    void expirada_seReemplaza() {
+        repo.save(new RegistroIdempotencia("k", "h1", true, 201, null, new byte[0],
+                Instant.now().minus(Duration.ofMinutes(1))));
+
+        assertTrue(store.reservarOEsperar("k", "h2").isEmpty());
+        RegistroIdempotencia reservada = repo.findById("k").orElseThrow();
+        assertFalse(reservada.isCompletada());
+        assertEquals("h2", reservada.getHuella());
+    }
+}
@@ -0,0 +1,153 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.dto.ImportacionTitularesRecord;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.EstadoImportacion;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.IImportacionTitularesService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Importación completa sobre la base H2 de test. Corre en el hilo del test, así que las
+ * transacciones por lote se unen a la del test y todo se deshace al final.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ImportacionTitularesIntegrationTest {
+
+    @Autowired
+    private IImportacionTitularesService importacion;
+
+    @Autowired
+    private TitularRepository titularRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    @DisplayName("Inserta las filas válidas y deja en rechazos las inválidas y los documentos repetidos")
+    void importar_insertaValidasYRechazaResto() throws IOException {
+        em.persist(Titular.builder()
+                .nombre("Previo").apellido("Existente")
+                .fechaNacimiento(LocalDate.of(1970, 1, 1))
+                .tipoDocumento(TipoDocumento.DNI).numeroDocumento("90000001")
+                .grupoSanguineo(GrupoSanguineo.O).factorRh(FactorRh.POSITIVO)
+                .direccion("Calle 1").donanteOrganos(false)
+                .build());
+        em.flush();
+
+        // columnas en otro orden que el de TitularRecord
+        Path csv = escribir("importacion.csv", """
+                numeroDocumento,apellido,nombre,fechaNacimiento,tipoDocumento,grupoSanguineo,factorRh,direccion,donanteOrganos,mail
+                90000002,Núñez,José,1985-03-03,DNI,A,POSITIVO,"San Martín 123, 2° B",true,jose@mail.com
+                90000003,,Ana,1990-01-01,DNI,B,NEGATIVO,Belgrano 50,false,
+                90000001,Repetido,Base,1980-05-05,DNI,O,POSITIVO,Mitre 1,false,
+                90000002,Repetido,Archivo,1980-05-05,DNI,O,POSITIVO,Mitre 2,false,
+                AB123456,Silva,Lucía,1975-12-31,PASAPORTE,AB,NEGATIVO,"Calle
+                con salto",false,
+                90000004,Paz,Luis,31/12/1975,DNI,A,POSITIVO,Mitre 3,false,
+                solo,tres,columnas
+                """);
+        Path rechazos = dir.resolve("rechazos.csv");
+
+        ImportacionTitularesRecord resultado = importacion.importar(csv, rechazos);
+
+        assertEquals(EstadoImportacion.COMPLETADA, resultado.estado());
+        assertEquals(7, resultado.lineasLeidas());
+        assertEquals(2, resultado.insertados());
+        assertEquals(5, resultado.rechazados());
+        assertNull(resultado.error());
+
+        em.clear();
+        Titular jose = titularRepository.findByTipoDocumentoAndNumeroDocumento(TipoDocumento.DNI, "90000002").orElseThrow();
+        assertEquals("Núñez", jose.getApellido());
+        assertEquals("San Martín 123, 2° B", jose.getDireccion());
+        assertEquals("NUNEZ", jose.getApellidoNormalizado());
+        Titular lucia = titularRepository.findByTipoDocumentoAndNumeroDocumento(TipoDocumento.PASAPORTE, "AB123456").orElseThrow();
+        assertEquals("Calle\ncon salto", lucia.getDireccion());
+        assertFalse(titularRepository.existsByNumeroDocumento("90000003"));
+        assertFalse(titularRepository.existsByNumeroDocumento("90000004"));
+
+        List<String> lineas = Files.readAllLines(rechazos, StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "linea,numeroDocumento,motivo",
+                "3,90000003,El apellido no puede estar vacío",
+                "4,90000001,Ya existe un Titular con documento: 90000001",
+                "5,90000002,Ya existe un Titular con documento: 90000002",
+                "8,90000004,fechaNacimiento inválida: 31/12/1975 (formato AAAA-MM-DD)",
+                "9,,Se esperaban 10 columnas y hay 3"), lineas);
+    }
+
+    @Test
+    @DisplayName("Un encabezado sin las columnas esperadas no importa nada")
+    void importar_encabezadoInvalido_falla() throws IOException {
+        Path csv = escribir("mal.csv", "nombre,apellido\nJuan,Pérez\n");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> importacion.importar(csv, dir.resolve("rechazos.csv")));
+    }
+
+    @Test
+    @DisplayName("Sin la columna opcional mail: se importa con el mail en null")
+    void importar_sinColumnaMail() throws IOException {
+        Path csv = escribir("sin-mail.csv", """
+                nombre,apellido,fechaNacimiento,tipoDocumento,numeroDocumento,grupoSanguineo,factorRh,direccion,donanteOrganos
+                José,Núñez,1985-03-03,DNI,90000010,A,POSITIVO,Mitre 1,true
+                Ana,Paz,1990-01-01,DNI,90000011,B,NEGATIVO,Mitre 2,false,ana@mail.com
+                """);
+        Path rechazos = dir.resolve("rechazos.csv");
+
+        ImportacionTitularesRecord resultado = importacion.importar(csv, rechazos);
+
+        assertEquals(1, resultado.insertados());
+        em.clear();
+        Titular jose = titularRepository.findByTipoDocumentoAndNumeroDocumento(TipoDocumento.DNI, "90000010").orElseThrow();
+        assertNull(jose.getMail());
+        assertTrue(jose.isDonanteOrganos());
+        assertEquals(List.of("linea,numeroDocumento,motivo", "3,,Se esperaban 9 columnas y hay 10"),
+                Files.readAllLines(rechazos, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Una columna desconocida o repetida en el encabezado no importa nada")
+    void importar_columnaDesconocidaORepetida_falla() throws IOException {
+        Path desconocida = escribir("desconocida.csv", """
+                nombre,apellido,fechaNacimiento,tipoDocumento,numeroDocumento,grupoSanguineo,factorRh,direccion,donanteOrganos,telefono
+                """);
+        Path repetida = escribir("repetida.csv", """
+                nombre,apellido,fechaNacimiento,tipoDocumento,numeroDocumento,grupoSanguineo,factorRh,direccion,donanteOrganos,mail,mail
+                """);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> importacion.importar(desconocida, dir.resolve("rechazos.csv")));
+        assertThrows(IllegalArgumentException.class,
+                () -> importacion.importar(repetida, dir.resolve("rechazos.csv")));
+    }
+
+    private Path escribir(String nombre, String contenido) throws IOException {
+        return Files.writeString(dir.resolve(nombre), contenido, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.LicenciaBatchRepository;
+import com.tpagiles.app_licencia.repository.TitularBatchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ids por secuencia con bloques de 50: los INSERT por JPA salen en batches y los que se hacen
+ * por JDBC toman ids del mismo generador, sin chocar con los de Hibernate.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class InsercionEnLoteIntegrationTest {
+
+    private static final int TITULARES = 120;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private TitularBatchRepository titularBatchRepo;
+
+    @Autowired
+    private LicenciaBatchRepository licenciaBatchRepo;
+
+    private Usuario emisor;
+    private Statistics stats;
+
+    @BeforeEach
+    void setup() {
+        emisor = new Usuario();
+        emisor.setNombre("Ana");
+        emisor.setApellido("Emisora");
+        emisor.setMail("lotes@municipio.gob");
+        emisor.setPassword("x");
+        emisor.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+        em.persist(emisor);
+        em.flush();
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    @DisplayName("Persistir muchos titulares con licencia ejecuta unas pocas sentencias, no una por fila")
+    void persistir_agrupaInserts() {
+        for (int i = 0; i < TITULARES; i++) {
+            Titular titular = titular("8100" + i);
+            em.persist(titular);
+            em.persist(licencia(titular));
+        }
+        em.flush();
+
+        assertEquals(TITULARES * 2L, stats.getEntityInsertCount());
+        // por tabla: 3 batches de INSERT (50 + 50 + 20) y a lo sumo 4 lecturas de la secuencia
+        assertTrue(stats.getPrepareStatementCount() <= 14,
+                "se prepararon " + stats.getPrepareStatementCount() + " sentencias");
+    }
+
+    @Test
+    @DisplayName("Los ids de las inserciones por JDBC y por JPA salen del mismo generador")
+    void jdbcYJpa_idsSinChoques() {
+        List<Titular> porJdbc = new ArrayList<>();
+        List<Titular> porJpa = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            porJdbc.add(titular("8200" + i));
+            porJpa.add(titular("8300" + i));
+        }
+
+        titularBatchRepo.insertarTodas(porJdbc.subList(0, 15));
+        porJpa.subList(0, 15).forEach(em::persist);
+        titularBatchRepo.insertarTodas(porJdbc.subList(15, 30));
+        porJpa.subList(15, 30).forEach(em::persist);
+        em.flush();
+
+        List<Licencia> licencias = porJdbc.stream().map(this::licencia).toList();
+        licenciaBatchRepo.insertarTodas(licencias);
+        em.persist(licencia(porJpa.getFirst()));
+        em.flush();
+        em.clear();
+
+        Set<Long> ids = new HashSet<>();
+        Stream.concat(porJdbc.stream(), porJpa.stream()).forEach(t -> assertTrue(ids.add(t.getId())));
+        for (Titular t : porJdbc) {
+            assertEquals(t.getNumeroDocumento(), em.find(Titular.class, t.getId()).getNumeroDocumento());
+        }
+        for (Licencia l : licencias) {
+            assertEquals(l.getTitular().getId(), em.find(Licencia.class, l.getId()).getTitular().getId());
+        }
+    }
+
+    private static Titular titular(String documento) {
+        Titular titular = Titular.builder()
+                .nombre("Nombre" + documento)
+                .apellido("Apellido")
+                .fechaNacimiento(LocalDate.of(1980, 1, 1))
+                .tipoDocumento(TipoDocumento.DNI)
+                .numeroDocumento(documento)
+                .grupoSanguineo(GrupoSanguineo.A)
+                .factorRh(FactorRh.POSITIVO)
+                .direccion("Calle " + documento)
+                .build();
+        titular.actualizarCamposBusqueda();
+        return titular;
+    }
+
+    private Licencia licencia(Titular titular) {
+        LocalDate hoy = LocalDate.now();
+        return Licencia.builder()
+                .titular(titular)
+                .clase(ClaseLicencia.B)
+                .vigenciaAnios(5)
+                .fechaEmision(hoy)
+                .fechaVencimiento(hoy.plusYears(5))
+                .costo(40.0)
+                .emisor(emisor)
+                .vigente(true)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.dto.LicenciaResponseRecord;
+import com.tpagiles.app_licencia.dto.PaginaRecord;
+import com.tpagiles.app_licencia.dto.TitularConLicenciasResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.service.ILicenciaService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los caminos de lectura de licencias ejecuten una cantidad fija de
+ * sentencias, sin importar cuántas filas devuelvan (sin N+1 ni cargas en cascada).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class LicenciaFetchPlanTest {
+
+    private static final int TITULARES = 5;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ILicenciaService licenciaService;
+
+    @Autowired
+    private LicenciaRepository licenciaRepo;
+
+    private Statistics stats;
+    private Long copiaId;
+
+    @BeforeEach
+    void setup() {
+        Usuario emisor = new Usuario();
+        emisor.setNombre("Ana");
+        emisor.setApellido("Emisora");
+        emisor.setMail("fetchplan@municipio.gob");
+        emisor.setPassword("x");
+        emisor.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+        em.persist(emisor);
+
+        LocalDate hoy = LocalDate.now();
+        for (int i = 0; i < TITULARES; i++) {
+            Titular titular = Titular.builder()
+                    .nombre("Nombre" + i)
+                    .apellido("Apellido" + i)
+                    .fechaNacimiento(LocalDate.of(1980, 1, 1))
+                    .tipoDocumento(TipoDocumento.DNI)
+                    .numeroDocumento("9000000" + i)
+                    .grupoSanguineo(GrupoSanguineo.A)
+                    .factorRh(FactorRh.POSITIVO)
+                    .direccion("Calle " + i)
+                    .build();
+            em.persist(titular);
+
+            // una cadena original -> copia -> copia, todas vencidas
+            Licencia anterior = null;
+            for (int c = 0; c < 3; c++) {
+                Licencia licencia = Licencia.builder()
+                        .titular(titular)
+                        .clase(ClaseLicencia.B)
+                        .vigenciaAnios(5)
+                        .fechaEmision(hoy.minusYears(6))
+                        .fechaVencimiento(hoy.minusDays(10 + i))
+                        .costo(40.0)
+                        .numeroCopia(c == 0 ? null : c)
+                        .licenciaOriginal(anterior)
+                        .emisor(emisor)
+                        .vigente(false)
+                        .build();
+                em.persist(licencia);
+                anterior = licencia;
+            }
+            copiaId = anterior.getId();
+        }
+        em.flush();
+        em.clear();
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    @DisplayName("Listar vencidas: una consulta para la página y otra para el total")
+    void listarVencidas_cantidadConstanteDeSentencias() {
+        PaginaRecord<LicenciaResponseRecord> pagina = licenciaService.listarLicenciasVencidas(50, null);
+
+        assertTrue(pagina.items().size() >= TITULARES * 3);
+        pagina.items().forEach(l -> assertNotNull(l.titular().apellido()));
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Buscar por documento: una sola consulta trae licencias y titular")
+    void buscarPorDocumento_unaSentencia() {
+        TitularConLicenciasResponseRecord resp =
+                licenciaService.buscarPorTipoYNumeroDocumento(TipoDocumento.DNI, "90000000");
+
+        assertEquals(3, resp.licencias().size());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Renovación/copia: la licencia y su titular en un solo SELECT, sin recorrer la cadena de originales")
+    void findConTitularById_unaSentencia() {
+        Licencia copia = licenciaRepo.findConTitularById(copiaId).orElseThrow();
+
+        assertNotNull(copia.getTitular().getNumeroDocumento());
+        assertNotNull(copia.getEmisor().getId());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+}
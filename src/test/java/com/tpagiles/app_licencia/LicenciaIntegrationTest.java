@@ -69,7 +69,7 @@ class LicenciaIntegrationTest {
                 LocalDate.of(1992, 7, 14),
                 TipoDocumento.DNI, "11223344",
                 GrupoSanguineo.O, FactorRh.POSITIVO,
-                "Calle Falsa 123", false
+                "Calle Falsa 123", false, null
         );
         String jsonTitular = objectMapper.writeValueAsString(titular);
         var creado = mvc.perform(post("/api/titulares")
@@ -132,6 +132,7 @@ class LicenciaIntegrationTest {
     void listarLicenciasVencidas() throws Exception {
         mvc.perform(get("/api/licencias/vencidas"))
                 .andExpect(status().isOk())
+                .andExpect(header().exists("X-Total-Count"))
                 .andExpect(jsonPath("$").isArray());
     }
 
@@ -160,7 +161,7 @@ class LicenciaIntegrationTest {
                 LocalDate.of(1990, 5, 20),
                 TipoDocumento.DNI, "12345678",
                 GrupoSanguineo.A, FactorRh.POSITIVO,
-                "Calle Real 456", false
+                "Calle Real 456", false, null
         );
         String jsonTitular = objectMapper.writeValueAsString(titular);
         var creado = mvc.perform(post("/api/titulares")
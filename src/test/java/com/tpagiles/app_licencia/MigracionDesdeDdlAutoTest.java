@@ -0,0 +1,56 @@
+package com.tpagiles.app_licencia;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Una base creada por la versión anterior a Flyway (ddl-auto=update) se registra con baseline en V1
+ * y recibe el resto de las migraciones, con la misma configuración que application.properties.
+ */
+class MigracionDesdeDdlAutoTest {
+
+    private static final String URL = "jdbc:h2:mem:ddl_auto_previo;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Test
+    @DisplayName("Baseline en V1 sobre el esquema de ddl-auto: se aplican V1.1 en adelante y conservan los datos")
+    void migrar_desdeEsquemaDdlAuto() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL, "sa", "");
+             Statement st = con.createStatement()) {
+            st.execute("RUNSCRIPT FROM 'classpath:db/esquema-ddl-auto-previo.sql'");
+
+            MigrateResult resultado = Flyway.configure()
+                    .dataSource(URL, "sa", "")
+                    .locations("classpath:db/migration/h2")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+
+            assertTrue(resultado.success);
+            assertEquals("1.1", resultado.migrations.getFirst().version);
+            assertEquals(0, contar(st, "SELECT COUNT(*) FROM idempotencia_respuestas"));
+            assertEquals(0, contar(st, "SELECT COUNT(*) FROM contadores"));
+            // V3 reemplaza el tarifario que dejaba data.sql en lugar de duplicarlo
+            assertEquals(28, contar(st, "SELECT COUNT(*) FROM tarifario_licencia"));
+            assertEquals(1, contar(st, "SELECT COUNT(*) FROM licencias l JOIN titulares t ON t.id = l.titular_id"
+                    + " WHERE t.numero_documento = '20111222' AND t.version = 0"));
+        }
+    }
+
+    private static long contar(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.dto.CursorKeyset;
+import com.tpagiles.app_licencia.dto.FiltroTitularesVigentesRecord;
+import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.TitularBusquedaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recorrido completo de las consultas keyset de vencidas y de titulares con licencias vigentes,
+ * con muchas filas que comparten la clave de orden y tamaños de página que no coinciden con los grupos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PaginacionKeysetIntegrationTest {
+
+    private static final FiltroTitularesVigentesRecord SIN_FILTROS =
+            new FiltroTitularesVigentesRecord(null, null, null, null, false);
+    private static final LocalDate HOY = LocalDate.now();
+    private static final int TODAS = 10_000;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private LicenciaRepository licenciaRepo;
+
+    @Autowired
+    private TitularBusquedaRepository busqueda;
+
+    private Usuario emisor;
+    private int documentos;
+
+    @BeforeEach
+    void setup() {
+        emisor = new Usuario();
+        emisor.setNombre("Ana");
+        emisor.setApellido("Paginadora");
+        emisor.setMail("keyset@municipio.gob");
+        emisor.setPassword("x");
+        emisor.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+        em.persist(emisor);
+
+        // tres titulares con el mismo apellido y nombre, dos licencias vigentes cada uno
+        for (int i = 0; i < 3; i++) {
+            titular("Ana", "Gómez", 2, HOY.minusDays(10));
+        }
+        titular("Beto", "Gómez", 3, HOY.minusDays(10));
+        titular("Ana", "Álvarez", 1, HOY.minusDays(30));
+        titular("Zoe", "Zárate", 2, HOY.minusDays(30));
+        em.flush();
+        em.clear();
+    }
+
+    // cada titular suma una licencia vencida en la fecha indicada, compartida con otros titulares
+    private void titular(String nombre, String apellido, int licenciasVigentes, LocalDate vencida) {
+        Titular t = Titular.builder()
+                .nombre(nombre).apellido(apellido)
+                .fechaNacimiento(LocalDate.of(1985, 3, 3))
+                .tipoDocumento(TipoDocumento.DNI).numeroDocumento("KEYSET" + documentos++)
+                .grupoSanguineo(GrupoSanguineo.A).factorRh(FactorRh.POSITIVO)
+                .direccion("Calle 1").donanteOrganos(false)
+                .build();
+        t.actualizarCamposBusqueda();
+        em.persist(t);
+        for (int i = 0; i < licenciasVigentes; i++) {
+            em.persist(licencia(t, HOY.plusYears(5), true));
+        }
+        em.persist(licencia(t, vencida, false));
+        em.persist(licencia(t, vencida, false));
+    }
+
+    private Licencia licencia(Titular t, LocalDate vencimiento, boolean vigente) {
+        return Licencia.builder()
+                .titular(t).clase(ClaseLicencia.B).vigenciaAnios(5)
+                .fechaEmision(vencimiento.minusYears(5)).fechaVencimiento(vencimiento)
+                .costo(40.0).emisor(emisor).vigente(vigente)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Vencidas: recorrer con cualquier tamaño de página da las mismas filas que una sola consulta")
+    void vencidas_sinHuecosNiRepetidas() {
+        List<Long> esperadas = licenciaRepo.findVencidasPrimeraPagina(HOY, Limit.of(TODAS)).stream()
+                .map(Licencia::getId)
+                .toList();
+        assertTrue(esperadas.size() >= 12);
+        assertEquals(esperadas.size(), Set.copyOf(esperadas).size());
+
+        for (int tamanio = 1; tamanio <= 5; tamanio++) {
+            List<Long> recorridas = new ArrayList<>();
+            List<Licencia> pagina = licenciaRepo.findVencidasPrimeraPagina(HOY, Limit.of(tamanio));
+            while (!pagina.isEmpty()) {
+                assertTrue(pagina.size() <= tamanio);
+                pagina.forEach(l -> recorridas.add(l.getId()));
+                Licencia ultima = pagina.getLast();
+                pagina = licenciaRepo.findVencidasDespuesDe(HOY, ultima.getFechaVencimiento(), ultima.getId(),
+                        Limit.of(tamanio));
+            }
+            assertEquals(esperadas, recorridas, "tamaño de página " + tamanio);
+        }
+    }
+
+    @Test
+    @DisplayName("Titulares con licencias vigentes: sin huecos ni repetidas con apellido y nombre repetidos")
+    void titulares_sinHuecosNiRepetidas() {
+        List<Long> esperadas = busqueda.buscarConLicenciasVigentes(SIN_FILTROS, null, TODAS).stream()
+                .map(TitularLicenciaVigenteResponseRecord::licenciaId)
+                .toList();
+        assertEquals(12, esperadas.size());
+        assertEquals(esperadas.size(), Set.copyOf(esperadas).size());
+
+        for (int tamanio = 1; tamanio <= 5; tamanio++) {
+            List<Long> recorridas = new ArrayList<>();
+            CursorKeyset cursor = null;
+            while (true) {
+                List<TitularLicenciaVigenteResponseRecord> pagina =
+                        busqueda.buscarConLicenciasVigentes(SIN_FILTROS, cursor, tamanio);
+                if (pagina.isEmpty()) {
+                    break;
+                }
+                assertTrue(pagina.size() <= tamanio);
+                pagina.forEach(r -> recorridas.add(r.licenciaId()));
+                TitularLicenciaVigenteResponseRecord ultima = pagina.getLast();
+                // ida y vuelta por el token, como entre dos solicitudes
+                cursor = CursorKeyset.decodificar(
+                        CursorKeyset.de(ultima.licenciaId(), ultima.apellido(), ultima.nombre()).codificar(), 2);
+            }
+            assertEquals(esperadas, recorridas, "tamaño de página " + tamanio);
+        }
+    }
+}
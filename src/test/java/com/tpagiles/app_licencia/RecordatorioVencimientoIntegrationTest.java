@@ -0,0 +1,121 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.RecordatorioVencimiento;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.RecordatorioVencimientoRepository;
+import com.tpagiles.app_licencia.service.IRecordatorioVencimientoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generación de recordatorios sobre H2 con el esquema de las migraciones.
+ */
+@SpringBootTest(properties = "app.recordatorios.tamanio-lote=2")
+@ActiveProfiles("test")
+@Transactional
+class RecordatorioVencimientoIntegrationTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 6, 10);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private IRecordatorioVencimientoService recordatorios;
+
+    @Autowired
+    private RecordatorioVencimientoRepository recordatorioRepo;
+
+    private Usuario emisor;
+    private final Map<Integer, Long> licenciaPorDias = new HashMap<>();
+
+    @BeforeEach
+    void setup() {
+        emisor = new Usuario();
+        emisor.setNombre("Ana");
+        emisor.setApellido("Emisora");
+        emisor.setMail("recordatorios@municipio.gob");
+        emisor.setPassword("x");
+        emisor.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+        em.persist(emisor);
+
+        Titular conMail = titular("70000001", "ana@mail.com");
+        Titular sinMail = titular("70000002", null);
+        for (int dias : new int[]{3, 10, 12, 20, 45, -2}) {
+            licenciaPorDias.put(dias, licencia(conMail, dias, true).getId());
+        }
+        licencia(conMail, 5, false);
+        licencia(sinMail, 10, true);
+        em.flush();
+        em.clear();
+    }
+
+    private Titular titular(String documento, String mail) {
+        Titular titular = Titular.builder()
+                .nombre("Nombre").apellido("Apellido")
+                .fechaNacimiento(LocalDate.of(1980, 1, 1))
+                .tipoDocumento(TipoDocumento.DNI).numeroDocumento(documento)
+                .grupoSanguineo(GrupoSanguineo.A).factorRh(FactorRh.POSITIVO)
+                .direccion("Calle 1").mail(mail)
+                .build();
+        em.persist(titular);
+        return titular;
+    }
+
+    private Licencia licencia(Titular titular, int diasParaVencer, boolean vigente) {
+        Licencia licencia = Licencia.builder()
+                .titular(titular).clase(ClaseLicencia.B).vigenciaAnios(5)
+                .fechaEmision(HOY.minusYears(5)).fechaVencimiento(HOY.plusDays(diasParaVencer))
+                .costo(40.0).emisor(emisor).vigente(vigente)
+                .build();
+        em.persist(licencia);
+        return licencia;
+    }
+
+    @Test
+    @DisplayName("Un recordatorio por licencia en la ventana que le corresponde; repetir no duplica")
+    void generar_idempotentePorLicenciaYVentana() {
+        assertEquals(4, recordatorios.generar(HOY));
+        assertEquals(0, recordatorios.generar(HOY));
+
+        Map<Long, Integer> ventanaPorLicencia = recordatorioRepo.findAll().stream()
+                .collect(Collectors.toMap(RecordatorioVencimiento::getLicenciaId, RecordatorioVencimiento::getVentanaDias));
+        assertEquals(Map.of(
+                licenciaPorDias.get(3), 7,
+                licenciaPorDias.get(10), 15,
+                licenciaPorDias.get(12), 15,
+                licenciaPorDias.get(20), 30), ventanaPorLicencia);
+    }
+
+    @Test
+    @DisplayName("Al día siguiente de cruzar a otra ventana se genera el recordatorio de esa ventana")
+    void generar_siguienteVentana() {
+        recordatorios.generar(HOY);
+
+        // cinco días después las de 10 y 12 días entran en la ventana de 7 y la de 20 en la de 15
+        assertEquals(3, recordatorios.generar(HOY.plusDays(5)));
+        assertEquals(7, recordatorioRepo.count());
+    }
+}
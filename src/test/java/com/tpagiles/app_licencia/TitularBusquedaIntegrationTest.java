@@ -0,0 +1,207 @@
+package com.tpagiles.app_licencia;
+
+import com.tpagiles.app_licencia.dto.CursorKeyset;
+import com.tpagiles.app_licencia.dto.FiltroTitularesVigentesRecord;
+import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularBusquedaRepository;
+import com.tpagiles.app_licencia.service.INormalizacionTitularesService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TitularBusquedaIntegrationTest {
+
+    private static final FiltroTitularesVigentesRecord SIN_FILTROS =
+            new FiltroTitularesVigentesRecord(null, null, null, null, false);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TitularBusquedaRepository busqueda;
+
+    @Autowired
+    private INormalizacionTitularesService normalizacion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario emisor;
+
+    @BeforeEach
+    void setup() {
+        emisor = new Usuario();
+        emisor.setNombre("Ana");
+        emisor.setApellido("Emisora");
+        emisor.setMail("busqueda@municipio.gob");
+        emisor.setPassword("x");
+        emisor.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+        em.persist(emisor);
+
+        titular("Juan", "Pérez", TipoDocumento.DNI, GrupoSanguineo.A, FactorRh.POSITIVO, true, 2);
+        titular("María", "Gómez", TipoDocumento.DNI, GrupoSanguineo.O, FactorRh.NEGATIVO, false, 1);
+        titular("Lucía", "Perez", TipoDocumento.PASAPORTE, GrupoSanguineo.B, FactorRh.NEGATIVO, true, 1);
+        titular("Pedro", "Álvarez", TipoDocumento.DNI, GrupoSanguineo.AB, FactorRh.POSITIVO, false, 0);
+        em.flush();
+        em.clear();
+    }
+
+    private void titular(String nombre, String apellido, TipoDocumento tipo, GrupoSanguineo grupo,
+                         FactorRh factor, boolean donante, int licenciasVigentes) {
+        Titular t = Titular.builder()
+                .nombre(nombre).apellido(apellido)
+                .fechaNacimiento(LocalDate.of(1985, 3, 3))
+                .tipoDocumento(tipo).numeroDocumento(nombre + apellido)
+                .grupoSanguineo(grupo).factorRh(factor)
+                .direccion("Calle 1").donanteOrganos(donante)
+                .build();
+        em.persist(t);
+        ClaseLicencia[] clases = {ClaseLicencia.B, ClaseLicencia.A};
+        for (int i = 0; i < licenciasVigentes; i++) {
+            em.persist(Licencia.builder()
+                    .titular(t).clase(clases[i]).vigenciaAnios(5)
+                    .fechaEmision(LocalDate.now()).fechaVencimiento(LocalDate.now().plusYears(5))
+                    .costo(40.0).emisor(emisor).vigente(true)
+                    .build());
+        }
+        // una vencida que nunca debe aparecer
+        em.persist(Licencia.builder()
+                .titular(t).clase(ClaseLicencia.C).vigenciaAnios(5)
+                .fechaEmision(LocalDate.now().minusYears(6)).fechaVencimiento(LocalDate.now().minusYears(1))
+                .costo(40.0).emisor(emisor).vigente(false)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Sin filtros: todas las licencias vigentes ordenadas por apellido y nombre")
+    void sinFiltros() {
+        List<TitularLicenciaVigenteResponseRecord> filas = busqueda.buscarConLicenciasVigentes(SIN_FILTROS, null, 10);
+
+        assertEquals(List.of("Gómez", "Perez", "Pérez", "Pérez"),
+                filas.stream().map(TitularLicenciaVigenteResponseRecord::apellido).toList());
+        assertEquals(4, busqueda.contarConLicenciasVigentes(SIN_FILTROS));
+    }
+
+    @Test
+    @DisplayName("Solo se aplican los filtros enviados")
+    void combinaFiltros() {
+        var porNombre = new FiltroTitularesVigentesRecord("lucia", null, null, null, false);
+        var porGrupoYFactor = new FiltroTitularesVigentesRecord(null, List.of(GrupoSanguineo.O, GrupoSanguineo.B),
+                FactorRh.NEGATIVO, null, false);
+        var donantes = new FiltroTitularesVigentesRecord(null, List.of(), null, true, false);
+
+        assertEquals(1, busqueda.contarConLicenciasVigentes(porNombre));
+        assertEquals(2, busqueda.contarConLicenciasVigentes(porGrupoYFactor));
+        assertEquals(3, busqueda.contarConLicenciasVigentes(donantes));
+        assertEquals("Lucía", busqueda.buscarConLicenciasVigentes(porNombre, null, 10).getFirst().nombre());
+    }
+
+    @Test
+    @DisplayName("Nombre: prefijo sin distinguir tildes ni mayúsculas, sobre apellido, nombre o ambos")
+    void nombre_prefijoNormalizado() {
+        assertEquals(3, busqueda.contarConLicenciasVigentes(porNombre("perez")));
+        assertEquals(3, busqueda.contarConLicenciasVigentes(porNombre("  PÉR ")));
+        assertEquals(2, busqueda.contarConLicenciasVigentes(porNombre("pérez  ju")));
+        assertEquals(1, busqueda.contarConLicenciasVigentes(porNombre("Maria")));
+        // ya no es "contiene": un sufijo no matchea
+        assertEquals(0, busqueda.contarConLicenciasVigentes(porNombre("ez")));
+        // los comodines de LIKE se buscan literalmente
+        assertEquals(0, busqueda.contarConLicenciasVigentes(porNombre("%")));
+        assertEquals(0, busqueda.contarConLicenciasVigentes(porNombre("_erez")));
+    }
+
+    @Test
+    @DisplayName("Nombre fonético: encuentra variantes de grafía, también por prefijo")
+    void nombre_fonetico() {
+        assertEquals(0, busqueda.contarConLicenciasVigentes(porNombre("peres")));
+        assertEquals(3, busqueda.contarConLicenciasVigentes(porSonido("peres")));
+        assertEquals(1, busqueda.contarConLicenciasVigentes(porSonido("gomes")));
+        assertEquals(2, busqueda.contarConLicenciasVigentes(porSonido("Pérez  Ju")));
+        assertEquals(1, busqueda.contarConLicenciasVigentes(porSonido("luzia")));
+        assertEquals(0, busqueda.contarConLicenciasVigentes(porSonido("paez")));
+        assertEquals("María", busqueda.buscarConLicenciasVigentes(porSonido("Gomes Maria"), null, 10).getFirst().nombre());
+    }
+
+    @Test
+    @DisplayName("Backfill: completa las columnas normalizadas y fonéticas de filas cargadas sin ellas")
+    void backfill_completaColumnasNormalizadas() {
+        jdbcTemplate.update("UPDATE titulares SET nombre_normalizado = NULL, apellido_normalizado = NULL, "
+                + "nombre_completo_normalizado = NULL");
+        jdbcTemplate.update("UPDATE titulares SET nombre_fonetico = NULL, apellido_fonetico = NULL, "
+                + "nombre_completo_fonetico = NULL WHERE nombre = 'María'");
+        assertEquals(0, busqueda.contarConLicenciasVigentes(porNombre("perez")));
+        assertEquals(0, busqueda.contarConLicenciasVigentes(porSonido("gomes")));
+
+        assertEquals(4, normalizacion.completarPendientes());
+
+        assertEquals("ALVAREZ PEDRO", jdbcTemplate.queryForObject(
+                "SELECT nombre_completo_normalizado FROM titulares WHERE nombre = 'Pedro'", String.class));
+        assertEquals("GOMES MARIA", jdbcTemplate.queryForObject(
+                "SELECT nombre_completo_fonetico FROM titulares WHERE nombre = 'María'", String.class));
+        assertEquals(3, busqueda.contarConLicenciasVigentes(porNombre("perez")));
+        assertEquals(1, busqueda.contarConLicenciasVigentes(porSonido("gomes")));
+        // segunda corrida: no queda nada pendiente
+        assertEquals(0, normalizacion.completarPendientes());
+    }
+
+    private static FiltroTitularesVigentesRecord porNombre(String nombreApellido) {
+        return new FiltroTitularesVigentesRecord(nombreApellido, null, null, null, false);
+    }
+
+    private static FiltroTitularesVigentesRecord porSonido(String nombreApellido) {
+        return new FiltroTitularesVigentesRecord(nombreApellido, null, null, null, true);
+    }
+
+    @Test
+    @DisplayName("El cursor continúa donde terminó la página anterior, sin repetir ni saltear filas")
+    void paginaConCursor() {
+        List<TitularLicenciaVigenteResponseRecord> todas = busqueda.buscarConLicenciasVigentes(SIN_FILTROS, null, 10);
+
+        List<TitularLicenciaVigenteResponseRecord> recorridas = new ArrayList<>();
+        CursorKeyset cursor = null;
+        while (true) {
+            List<TitularLicenciaVigenteResponseRecord> pagina = busqueda.buscarConLicenciasVigentes(SIN_FILTROS, cursor, 1);
+            if (pagina.isEmpty()) {
+                break;
+            }
+            recorridas.addAll(pagina);
+            var ultima = pagina.getLast();
+            cursor = CursorKeyset.de(ultima.licenciaId(), ultima.apellido(), ultima.nombre());
+        }
+        assertEquals(todas, recorridas);
+    }
+
+    @Test
+    @DisplayName("Exportación: el stream devuelve las mismas filas que la búsqueda")
+    void stream() {
+        try (Stream<TitularLicenciaVigenteResponseRecord> filas = busqueda.streamConLicenciasVigentes(SIN_FILTROS)) {
+            assertEquals(busqueda.buscarConLicenciasVigentes(SIN_FILTROS, null, 10), filas.toList());
+        }
+    }
+}
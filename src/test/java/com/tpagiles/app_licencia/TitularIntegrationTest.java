@@ -69,7 +69,7 @@ class TitularIntegrationTest {
                 LocalDate.of(1975, 12, 1),
                 TipoDocumento.PASAPORTE, "X1234567",
                 GrupoSanguineo.B, FactorRh.NEGATIVO,
-                "Calle Real 456", true
+                "Calle Real 456", true, null
         );
         String json = objectMapper.writeValueAsString(record);
 
@@ -115,7 +115,7 @@ class TitularIntegrationTest {
                 LocalDate.of(1990, 5, 20),
                 TipoDocumento.DNI, "12345678",
                 GrupoSanguineo.A, FactorRh.POSITIVO,
-                "Calle Real 456", false
+                "Calle Real 456", false, null
         );
         String jsonTitular = objectMapper.writeValueAsString(titular);
 
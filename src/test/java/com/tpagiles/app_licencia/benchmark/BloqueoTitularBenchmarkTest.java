@@ -0,0 +1,83 @@
+package com.tpagiles.app_licencia.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.helper.BloqueoTitularHelper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throughput de la sección crítica por titular según la cantidad de hilos.
+ * Compara: todos sobre el mismo titular, cada hilo con titulares propios (stripes) y un lock global.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class BloqueoTitularBenchmarkTest {
+
+    private static final int[] HILOS = {1, 2, 4, 8, 16, 32};
+    private static final long DURACION_MS = 1000;
+    // simula el tiempo de las consultas y el INSERT dentro de la transacción
+    private static final long TRABAJO_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Test
+    void throughputSegunHilos() throws Exception {
+        BloqueoTitularHelper helper = new BloqueoTitularHelper(mock(TitularRepository.class), 1024, 10_000, false);
+        ReentrantLock global = new ReentrantLock();
+
+        System.out.printf("%6s %18s %18s %18s%n", "hilos", "mismo titular", "titulares dist.", "lock global");
+        double distintos8 = 0;
+        double global8 = 0;
+        for (int hilos : HILOS) {
+            double mismo = medir(hilos, h -> helper.lockDe(42L));
+            double distintos = medir(hilos, h -> helper.lockDe((long) h * 7919 + 1));
+            double unico = medir(hilos, h -> global);
+            System.out.printf("%6d %14.0f op/s %14.0f op/s %14.0f op/s%n", hilos, mismo, distintos, unico);
+            if (hilos == 8) {
+                distintos8 = distintos;
+                global8 = unico;
+            }
+        }
+        assertTrue(distintos8 > global8 * 2,
+                "con 8 hilos los stripes deberían escalar bastante más que un lock global");
+    }
+
+    private static double medir(int hilos, IntFunction<Lock> lockDelHilo) throws InterruptedException {
+        LongAdder operaciones = new LongAdder();
+        CountDownLatch inicio = new CountDownLatch(1);
+        long fin = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURACION_MS);
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        for (int h = 0; h < hilos; h++) {
+            Lock lock = lockDelHilo.apply(h);
+            pool.submit(() -> {
+                inicio.await();
+                while (System.nanoTime() < fin) {
+                    lock.lock();
+                    try {
+                        LockSupport.parkNanos(TRABAJO_NANOS);
+                    } finally {
+                        lock.unlock();
+                    }
+                    operaciones.increment();
+                }
+                return null;
+            });
+        }
+        long t0 = System.nanoTime();
+        inicio.countDown();
+        pool.shutdown();
+        pool.awaitTermination(DURACION_MS * 5, TimeUnit.MILLISECONDS);
+        return operaciones.sum() / ((System.nanoTime() - t0) / 1e9);
+    }
+}
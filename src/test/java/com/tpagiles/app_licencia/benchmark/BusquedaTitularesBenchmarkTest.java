@@ -0,0 +1,192 @@
+package com.tpagiles.app_licencia.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.tpagiles.app_licencia.dto.CursorKeyset;
+import com.tpagiles.app_licencia.dto.FiltroTitularesVigentesRecord;
+import com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.repository.TitularBusquedaRepository;
+import com.tpagiles.app_licencia.service.helper.NormalizadorTexto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Listado de titulares con licencias vigentes: consulta anterior con {@code (:x IS NULL OR ...)}
+ * contra la armada con Criteria, sobre {@code -Dbenchmark.titulares} titulares (por defecto un millón)
+ * con una licencia vigente cada uno, en una base H2 propia.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:benchmark_busqueda;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@ActiveProfiles("test")
+class BusquedaTitularesBenchmarkTest {
+
+    private static final int TITULARES = Integer.getInteger("benchmark.titulares", 1_000_000);
+    private static final int LOTE_INSERCION = 10_000;
+    private static final int PAGINA = 50;
+    private static final int REPETICIONES = 10;
+
+    private static final String[] APELLIDOS = {
+            "Acosta", "Benítez", "Castro", "Díaz", "Fernández", "García", "Giménez", "Gómez", "González",
+            "Herrera", "López", "Martínez", "Medina", "Molina", "Morales", "Pérez", "Ramírez", "Romero",
+            "Ruiz", "Sánchez", "Silva", "Sosa", "Suárez", "Torres", "Vázquez"
+    };
+    private static final String[] NOMBRES = {
+            "Ana", "Carlos", "Diego", "Elena", "Facundo", "Gabriela", "Hernán", "Julieta", "Lucía", "Martín",
+            "Natalia", "Pablo", "Sofía", "Tomás", "Valentina"
+    };
+
+    // la consulta reemplazada, tal como estaba en TitularRepository
+    private static final String CONSULTA_ANTERIOR = """
+            SELECT new com.tpagiles.app_licencia.dto.TitularLicenciaVigenteResponseRecord(
+                t.nombre, t.apellido, t.tipoDocumento, t.numeroDocumento, t.grupoSanguineo,
+                t.factorRh, t.donanteOrganos, l.clase, l.fechaVencimiento, l.id)
+            FROM Titular t
+            JOIN t.licencias l
+            WHERE l.vigente = true
+            AND t.tipoDocumento IN (com.tpagiles.app_licencia.model.enums.TipoDocumento.DNI, com.tpagiles.app_licencia.model.enums.TipoDocumento.PASAPORTE)
+            AND (:nombreApellido IS NULL OR
+                 UPPER(t.nombre) LIKE :nombreApellido OR
+                 UPPER(t.apellido) LIKE :nombreApellido)
+            AND (:grupoSanguineo IS NULL OR t.grupoSanguineo IN (:grupoSanguineo))
+            AND (:factorRh IS NULL OR t.factorRh = :factorRh)
+            AND (:soloDonantes IS NULL OR t.donanteOrganos = :soloDonantes)
+            AND (:despuesApellido IS NULL
+                 OR t.apellido > :despuesApellido
+                 OR (t.apellido = :despuesApellido AND t.nombre > :despuesNombre)
+                 OR (t.apellido = :despuesApellido AND t.nombre = :despuesNombre AND l.id > :despuesId))
+            ORDER BY t.apellido ASC, t.nombre ASC, l.id ASC
+            """;
+
+    private record Escenario(String nombre, FiltroTitularesVigentesRecord filtro, CursorKeyset cursor) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TitularBusquedaRepository busqueda;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @BeforeAll
+    void poblar() {
+        long inicio = System.nanoTime();
+        jdbc.update("INSERT INTO usuarios (nombre, apellido, mail, password, activo) VALUES ('B', 'B', 'bench@municipio.gob', 'x', TRUE)");
+        long emisor = jdbc.queryForObject("SELECT id FROM usuarios WHERE mail = 'bench@municipio.gob'", Long.class);
+        GrupoSanguineo[] grupos = GrupoSanguineo.values();
+        Date nacimiento = Date.valueOf("1980-01-01");
+        Date emision = Date.valueOf("2024-01-01");
+        Date vencimiento = Date.valueOf("2029-01-01");
+
+        for (int desde = 0; desde < TITULARES; desde += LOTE_INSERCION) {
+            List<Object[]> titulares = new ArrayList<>(LOTE_INSERCION);
+            for (int i = desde; i < Math.min(desde + LOTE_INSERCION, TITULARES); i++) {
+                String nombre = NOMBRES[i % NOMBRES.length];
+                String apellido = APELLIDOS[(i / 7) % APELLIDOS.length] + (i % 1000);
+                titulares.add(new Object[]{
+                        nombre,
+                        apellido,
+                        nacimiento,
+                        i % 10 == 0 ? "CEDULA_IDENTIDAD" : "DNI",
+                        String.valueOf(20_000_000 + i),
+                        grupos[i % grupos.length].name(),
+                        i % 3 == 0 ? "NEGATIVO" : "POSITIVO",
+                        "Calle " + i,
+                        i % 2 == 0,
+                        NormalizadorTexto.normalizar(nombre),
+                        NormalizadorTexto.normalizar(apellido),
+                        NormalizadorTexto.nombreCompleto(apellido, nombre)});
+            }
+            jdbc.batchUpdate("""
+                    INSERT INTO titulares (nombre, apellido, fecha_nacimiento, tipo_documento, numero_documento,
+                                           grupo_sanguineo, factor_rh, direccion, donante_organos,
+                                           nombre_normalizado, apellido_normalizado, nombre_completo_normalizado)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    """, titulares);
+        }
+        jdbc.update("""
+                INSERT INTO licencias (titular_id, clase, vigencia_anios, fecha_emision, fecha_vencimiento, costo, vigente, emisor_id)
+                SELECT id, 'B', 5, ?, ?, 40.0, TRUE, ? FROM titulares
+                """, emision, vencimiento, emisor);
+        System.out.printf("%,d titulares cargados en %,d ms%n", TITULARES, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @Test
+    void consultaAnteriorVsCriteria() {
+        FiltroTitularesVigentesRecord sinFiltros = new FiltroTitularesVigentesRecord(null, null, null, null, false);
+        // cursor a mitad de la tabla: la página profunda es la que más sufre sin rango sobre el índice
+        String apellidoMedio = APELLIDOS[APELLIDOS.length / 2] + "500";
+        List<Escenario> escenarios = List.of(
+                new Escenario("primera página, sin filtros", sinFiltros, null),
+                new Escenario("primera página, factor RH", new FiltroTitularesVigentesRecord(null, null, FactorRh.NEGATIVO, null, false), null),
+                new Escenario("grupos + donantes", new FiltroTitularesVigentesRecord(null,
+                        List.of(GrupoSanguineo.A, GrupoSanguineo.AB), null, true, false), null),
+                new Escenario("nombre por prefijo", new FiltroTitularesVigentesRecord("mor", null, null, null, false), null),
+                new Escenario("página profunda, sin filtros", sinFiltros, CursorKeyset.de(0, apellidoMedio, "")),
+                new Escenario("página profunda, factor RH", new FiltroTitularesVigentesRecord(null, null, FactorRh.POSITIVO, null, false),
+                        CursorKeyset.de(0, apellidoMedio, ""))
+        );
+
+        System.out.printf("%-32s %14s %14s%n", "escenario", "anterior", "criteria");
+        for (Escenario e : escenarios) {
+            List<TitularLicenciaVigenteResponseRecord> anterior = tx.execute(s -> consultaAnterior(e));
+            List<TitularLicenciaVigenteResponseRecord> nueva = tx.execute(s -> busqueda.buscarConLicenciasVigentes(e.filtro(), e.cursor(), PAGINA));
+            assertEquals(anterior, nueva, e.nombre() + ": las dos consultas deben devolver las mismas filas");
+
+            double msAnterior = medianaMs(() -> tx.execute(s -> consultaAnterior(e)));
+            double msNueva = medianaMs(() -> tx.execute(s -> busqueda.buscarConLicenciasVigentes(e.filtro(), e.cursor(), PAGINA)));
+            System.out.printf("%-32s %11.1f ms %11.1f ms%n", e.nombre(), msAnterior, msNueva);
+        }
+    }
+
+    private List<TitularLicenciaVigenteResponseRecord> consultaAnterior(Escenario e) {
+        FiltroTitularesVigentesRecord f = e.filtro();
+        TypedQuery<TitularLicenciaVigenteResponseRecord> q = em.createQuery(CONSULTA_ANTERIOR, TitularLicenciaVigenteResponseRecord.class);
+        // mismo prefijo que la búsqueda nueva, pero con UPPER() sobre la columna: no puede usar índice
+        q.setParameter("nombreApellido", f.nombreApellido() != null ? f.nombreApellido().toUpperCase() + "%" : null);
+        q.setParameter("grupoSanguineo", f.gruposSanguineos());
+        q.setParameter("factorRh", f.factorRh());
+        q.setParameter("soloDonantes", f.soloDonantes());
+        q.setParameter("despuesApellido", e.cursor() != null ? e.cursor().clave(0) : null);
+        q.setParameter("despuesNombre", e.cursor() != null ? e.cursor().clave(1) : null);
+        q.setParameter("despuesId", e.cursor() != null ? e.cursor().id() : null);
+        return q.setMaxResults(PAGINA).getResultList();
+    }
+
+    private static double medianaMs(Supplier<?> consulta) {
+        for (int i = 0; i < 2; i++) {
+            consulta.get();
+        }
+        double[] tiempos = new double[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long t0 = System.nanoTime();
+            consulta.get();
+            tiempos[i] = (System.nanoTime() - t0) / 1e6;
+        }
+        Arrays.sort(tiempos);
+        return tiempos[REPETICIONES / 2];
+    }
+}
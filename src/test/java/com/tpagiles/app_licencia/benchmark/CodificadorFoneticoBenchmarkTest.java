@@ -0,0 +1,79 @@
+package com.tpagiles.app_licencia.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.tpagiles.app_licencia.service.helper.CodificadorFonetico;
+import com.tpagiles.app_licencia.service.helper.NormalizadorTexto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Costo por titular de las columnas de búsqueda que se calculan en cada alta y cambio: código
+ * fonético contra la normalización (Normalizer + regex). Con el perfilador de GC, JMH informa
+ * además los bytes asignados por operación (gc.alloc.rate.norm).
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodificadorFoneticoBenchmarkTest {
+
+    private final String[] nombres = {
+            "González", "María José", "Giménez", "Lucía", "Vázquez", "Juan Pablo", "Hernández", "Sofía",
+            "Llanes", "Guillermo", "Quiroga", "Ximena", "Chávez", "Agustín", "Yáñez", "Güemes"
+    };
+
+    @Benchmark
+    public void codificar(Blackhole bh) {
+        for (String nombre : nombres) {
+            bh.consume(CodificadorFonetico.codificar(nombre));
+        }
+    }
+
+    @Benchmark
+    public void normalizar(Blackhole bh) {
+        for (String nombre : nombres) {
+            bh.consume(NormalizadorTexto.normalizar(nombre));
+        }
+    }
+
+    @Test
+    void codificarVsNormalizar() throws Exception {
+        Collection<RunResult> resultados = new Runner(new OptionsBuilder()
+                .include(CodificadorFoneticoBenchmarkTest.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+
+        Map<String, Double> nanosPorOperacion = resultados.stream().collect(Collectors.toMap(
+                r -> r.getParams().getBenchmark().substring(r.getParams().getBenchmark().lastIndexOf('.') + 1),
+                r -> r.getPrimaryResult().getScore()));
+        System.out.printf("%-12s %10.1f ns / %d nombres%n", "codificar", nanosPorOperacion.get("codificar"), nombres.length);
+        System.out.printf("%-12s %10.1f ns / %d nombres%n", "normalizar", nanosPorOperacion.get("normalizar"), nombres.length);
+        assertTrue(nanosPorOperacion.get("codificar") < nanosPorOperacion.get("normalizar"),
+                "el código fonético no debería costar más que la normalización que ya se hace en cada escritura");
+    }
+}
@@ -0,0 +1,284 @@
+package com.tpagiles.app_licencia.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Alta de {@code -Dbenchmark.inserciones} titulares (por defecto 20.000) con una licencia cada
+ * uno, en transacciones de 500, en una base H2 propia. Primero las sentencias que manda Hibernate
+ * en cada caso, por JDBC directo para que la diferencia sea solo el patrón de sentencias:
+ * <ul>
+ *   <li>IDENTITY: un INSERT y una lectura de la clave por fila;</li>
+ *   <li>secuencia pooled sin batch: una consulta a la secuencia cada 50 filas y un INSERT por fila;</li>
+ *   <li>secuencia pooled con batches de 50.</li>
+ * </ul>
+ * Después las entidades con la sesión de Hibernate, sin batch y con el batch de la configuración;
+ * esas dos filas suman el costo del contexto de persistencia y se comparan entre sí, no con las de JDBC.
+ * H2 en memoria no tiene red de por medio: contra MySQL cada ida y vuelta ahorrada pesa bastante más.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:benchmark_insercion;DB_CLOSE_DELAY=-1;MODE=MySQL")
+@ActiveProfiles("test")
+class InsercionEntidadesBenchmarkTest {
+
+    private static final int INSERCIONES = Integer.getInteger("benchmark.inserciones", 20_000);
+    private static final int POR_TRANSACCION = 500;
+    // incremento de las secuencias (allocationSize) y hibernate.jdbc.batch_size
+    private static final int BLOQUE = 50;
+    // ids de las variantes por secuencia: lejos de los bloques de Hibernate y por debajo de los de
+    // IDENTITY, porque en H2 un id explícito mayor adelanta la columna
+    private static final long PRIMER_ID_SECUENCIA = 500_000_000L;
+
+    private static final String INSERT_TITULAR = """
+            INSERT INTO titulares (nombre, apellido, fecha_nacimiento, tipo_documento, numero_documento,
+                                   grupo_sanguineo, factor_rh, direccion, donante_organos)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_LICENCIA = """
+            INSERT INTO licencias (titular_id, clase, vigencia_anios, fecha_emision, fecha_vencimiento,
+                                   costo, vigente, emisor_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_TITULAR_CON_ID = """
+            INSERT INTO titulares (nombre, apellido, fecha_nacimiento, tipo_documento, numero_documento,
+                                   grupo_sanguineo, factor_rh, direccion, donante_organos, id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_LICENCIA_CON_ID = """
+            INSERT INTO licencias (titular_id, clase, vigencia_anios, fecha_emision, fecha_vencimiento,
+                                   costo, vigente, emisor_id, id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    private Usuario emisor;
+    private long proximoIdSecuencia = PRIMER_ID_SECUENCIA;
+
+    @BeforeAll
+    void crearEmisor() {
+        // las filas con IDENTITY quedan lejos de los ids que entrega la secuencia
+        jdbc.execute("ALTER TABLE titulares ALTER COLUMN id RESTART WITH 1000000000");
+        jdbc.execute("ALTER TABLE licencias ALTER COLUMN id RESTART WITH 1000000000");
+        emisor = tx.execute(s -> {
+            Usuario u = new Usuario();
+            u.setNombre("B");
+            u.setApellido("B");
+            u.setMail("bench-insercion@municipio.gob");
+            u.setPassword("x");
+            u.setRoles(new HashSet<>(Set.of(Rol.OPERADOR)));
+            em.persist(u);
+            return u;
+        });
+    }
+
+    @Test
+    void identityVsSecuenciaConBatch() {
+        // calentamiento de todos los caminos con otros documentos
+        medir("identity", INSERCIONES / 10, this::insertarComoIdentity);
+        medir("secuencia", INSERCIONES / 10, docs -> insertarConSecuencia(docs, false));
+        medir("secuencia-batch", INSERCIONES / 10, docs -> insertarConSecuencia(docs, true));
+        medir("sin-batch", INSERCIONES / 10, docs -> persistir(docs, 1));
+        medir("batch", INSERCIONES / 10, docs -> persistir(docs, null));
+
+        double identity = medir("IDENTITY", INSERCIONES, this::insertarComoIdentity);
+        double secuencia = medir("SECUENCIA", INSERCIONES, docs -> insertarConSecuencia(docs, false));
+        double secuenciaBatch = medir("SECUENCIA_BATCH", INSERCIONES, docs -> insertarConSecuencia(docs, true));
+        double sesionSinBatch = medir("SESION", INSERCIONES, docs -> persistir(docs, 1));
+        double sesionBatch = medir("SESION_BATCH", INSERCIONES, docs -> persistir(docs, null));
+
+        System.out.printf("%-44s %16s%n", "escenario", "titulares/s");
+        System.out.printf("%-44s %,16.0f%n", "JDBC: IDENTITY, un INSERT por fila (antes)", identity);
+        System.out.printf("%-44s %,16.0f%n", "JDBC: secuencia pooled, sin batch", secuencia);
+        System.out.printf("%-44s %,16.0f%n", "JDBC: secuencia pooled, batch de 50", secuenciaBatch);
+        System.out.printf("%-44s %,16.0f%n", "Hibernate: secuencia pooled, sin batch", sesionSinBatch);
+        System.out.printf("%-44s %,16.0f%n", "Hibernate: secuencia pooled, batch de 50", sesionBatch);
+        assertTrue(secuenciaBatch > identity, "los INSERT agrupados deberían superar a uno por fila");
+        assertTrue(sesionBatch > sesionSinBatch, "el batch de la sesión debería superar a un INSERT por fila");
+    }
+
+    private double medir(String prefijo, int cantidad, Consumer<List<String>> insertarLote) {
+        long t0 = System.nanoTime();
+        for (int desde = 0; desde < cantidad; desde += POR_TRANSACCION) {
+            List<String> documentos = IntStream.range(desde, Math.min(desde + POR_TRANSACCION, cantidad))
+                    .mapToObj(i -> prefijo + "-" + i)
+                    .toList();
+            tx.executeWithoutResult(s -> {
+                insertarLote.accept(documentos);
+                em.flush();
+                em.clear();
+            });
+        }
+        double segundos = (System.nanoTime() - t0) / 1e9;
+        long insertados = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM titulares WHERE numero_documento LIKE ?", Long.class, prefijo + "-%");
+        assertEquals(cantidad, insertados);
+        return cantidad / segundos;
+    }
+
+    // tamanioBatch null: el de la configuración (hibernate.jdbc.batch_size)
+    private void persistir(List<String> documentos, Integer tamanioBatch) {
+        em.unwrap(Session.class).setJdbcBatchSize(tamanioBatch);
+        LocalDate hoy = LocalDate.now();
+        for (String documento : documentos) {
+            Titular titular = titular(documento);
+            em.persist(titular);
+            em.persist(Licencia.builder()
+                    .titular(titular)
+                    .clase(ClaseLicencia.B)
+                    .vigenciaAnios(5)
+                    .fechaEmision(hoy)
+                    .fechaVencimiento(hoy.plusYears(5))
+                    .costo(40.0)
+                    .emisor(em.getReference(Usuario.class, emisor.getId()))
+                    .vigente(true)
+                    .build());
+        }
+    }
+
+    // lo que ejecutaba Hibernate por entidad con IDENTITY: INSERT inmediato y lectura de la clave generada
+    private void insertarComoIdentity(List<String> documentos) {
+        jdbc.execute((Connection con) -> {
+            try (PreparedStatement titulares = con.prepareStatement(INSERT_TITULAR, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement licencias = con.prepareStatement(INSERT_LICENCIA, Statement.RETURN_GENERATED_KEYS)) {
+                for (String documento : documentos) {
+                    asignarTitular(titulares, titular(documento));
+                    titulares.executeUpdate();
+                    asignarLicencia(licencias, clave(titulares));
+                    licencias.executeUpdate();
+                    clave(licencias);
+                }
+            }
+            return null;
+        });
+    }
+
+    /*
+     * Lo que ejecuta Hibernate con la secuencia pooled: una consulta por secuencia cada 50 ids y los
+     * INSERT con el id ya asignado, de a uno o agrupados en batches de 50 (titulares antes que licencias,
+     * como con hibernate.order_inserts). El valor de la secuencia se descarta: los ids salen de un rango
+     * propio para no pisar los bloques que entrega Hibernate en las otras variantes.
+     */
+    private void insertarConSecuencia(List<String> documentos, boolean batch) {
+        jdbc.execute((Connection con) -> {
+            try (PreparedStatement titulares = con.prepareStatement(INSERT_TITULAR_CON_ID);
+                 PreparedStatement licencias = con.prepareStatement(INSERT_LICENCIA_CON_ID);
+                 Statement secuencias = con.createStatement()) {
+                for (int i = 0; i < documentos.size(); i++) {
+                    if (i % BLOQUE == 0) {
+                        siguienteValor(secuencias, "titulares_seq");
+                        siguienteValor(secuencias, "licencias_seq");
+                    }
+                    long titularId = proximoIdSecuencia++;
+                    asignarTitular(titulares, titular(documentos.get(i)));
+                    titulares.setLong(10, titularId);
+                    asignarLicencia(licencias, titularId);
+                    licencias.setLong(9, titularId);
+                    if (!batch) {
+                        titulares.executeUpdate();
+                        licencias.executeUpdate();
+                        continue;
+                    }
+                    titulares.addBatch();
+                    licencias.addBatch();
+                    if ((i + 1) % BLOQUE == 0 || i == documentos.size() - 1) {
+                        titulares.executeBatch();
+                        licencias.executeBatch();
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void siguienteValor(Statement st, String secuencia) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT NEXT VALUE FOR " + secuencia)) {
+            rs.next();
+        }
+    }
+
+    private static void asignarTitular(PreparedStatement ps, Titular t) throws SQLException {
+        ps.setString(1, t.getNombre());
+        ps.setString(2, t.getApellido());
+        ps.setDate(3, Date.valueOf(t.getFechaNacimiento()));
+        ps.setString(4, t.getTipoDocumento().name());
+        ps.setString(5, t.getNumeroDocumento());
+        ps.setString(6, t.getGrupoSanguineo().name());
+        ps.setString(7, t.getFactorRh().name());
+        ps.setString(8, t.getDireccion());
+        ps.setBoolean(9, t.isDonanteOrganos());
+    }
+
+    private void asignarLicencia(PreparedStatement ps, long titularId) throws SQLException {
+        LocalDate hoy = LocalDate.now();
+        ps.setLong(1, titularId);
+        ps.setString(2, ClaseLicencia.B.name());
+        ps.setInt(3, 5);
+        ps.setDate(4, Date.valueOf(hoy));
+        ps.setDate(5, Date.valueOf(hoy.plusYears(5)));
+        ps.setDouble(6, 40.0);
+        ps.setBoolean(7, true);
+        ps.setLong(8, emisor.getId());
+    }
+
+    private static long clave(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static Titular titular(String documento) {
+        return Titular.builder()
+                .nombre("Nombre")
+                .apellido("Apellido")
+                .fechaNacimiento(LocalDate.of(1980, 1, 1))
+                .tipoDocumento(TipoDocumento.DNI)
+                .numeroDocumento(documento)
+                .grupoSanguineo(GrupoSanguineo.A)
+                .factorRh(FactorRh.POSITIVO)
+                .direccion("Calle " + documento)
+                .build();
+    }
+}
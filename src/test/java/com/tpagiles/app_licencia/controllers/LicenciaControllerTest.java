@@ -5,8 +5,11 @@ import com.tpagiles.app_licencia.dto.LicenciaRecord;
 import com.tpagiles.app_licencia.dto.LicenciaResponseRecord;
 import com.tpagiles.app_licencia.exception.ResourceAlreadyExistsException;
 import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.service.IEmisionAsyncService;
+import com.tpagiles.app_licencia.service.ILicenciaLoteService;
 import com.tpagiles.app_licencia.service.ILicenciaService;
 import com.tpagiles.app_licencia.service.JwtService;
+import com.tpagiles.app_licencia.config.ErrorResponseFactory;
 import com.tpagiles.app_licencia.config.SecurityConfig;
 import com.tpagiles.app_licencia.security.JwtAuthenticationFilter;
 import com.tpagiles.app_licencia.service.impl.UsuarioService;
@@ -27,12 +30,13 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = LicenciaController.class)
-@Import({ SecurityConfig.class, JwtAuthenticationFilter.class })
+@Import({ SecurityConfig.class, JwtAuthenticationFilter.class, ErrorResponseFactory.class })
 @AutoConfigureMockMvc(addFilters = false)
 class LicenciaControllerTest {
 
@@ -48,6 +52,12 @@ class LicenciaControllerTest {
     @MockitoBean
     private ILicenciaService licenciaService;
 
+    @MockitoBean
+    private ILicenciaLoteService licenciaLoteService;
+
+    @MockitoBean
+    private IEmisionAsyncService emisionAsyncService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -153,5 +163,16 @@ class LicenciaControllerTest {
                 .andExpect(jsonPath("$.message")
                         .value("Error interno del servidor"));
     }
-}
 
+    @Test
+    @DisplayName("POST /api/licencias/lote → 400 BAD REQUEST con un elemento nulo, sin llegar al servicio")
+    void emitirLote_elementoNulo() throws Exception {
+        mvc.perform(post("/api/licencias/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"licencias\":[null]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+
+        then(licenciaLoteService).shouldHaveNoInteractions();
+    }
+}
@@ -1,13 +1,20 @@
 package com.tpagiles.app_licencia.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpagiles.app_licencia.dto.ImportacionTitularesRecord;
+import com.tpagiles.app_licencia.dto.SugerenciaTitularRecord;
+import com.tpagiles.app_licencia.dto.TitularBusquedaResponseRecord;
 import com.tpagiles.app_licencia.dto.TitularRecord;
 import com.tpagiles.app_licencia.dto.TitularResponseRecord;
+import com.tpagiles.app_licencia.dto.VersionTitularRecord;
+import com.tpagiles.app_licencia.exception.PrecondicionFallidaException;
 import com.tpagiles.app_licencia.exception.ResourceAlreadyExistsException;
 import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.EstadoImportacion;
 import com.tpagiles.app_licencia.model.enums.FactorRh;
 import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.service.IImportacionTitularesService;
 import com.tpagiles.app_licencia.service.ITitularService;
 import com.tpagiles.app_licencia.service.JwtService;
 import io.jsonwebtoken.impl.DefaultClaims;
@@ -16,17 +23,28 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TitularController.class)
@@ -39,6 +57,9 @@ class TitularControllerTest {
     @MockitoBean
     private ITitularService titularService;
 
+    @MockitoBean
+    private IImportacionTitularesService importacionService;
+
     @MockitoBean
     private JwtService jwtService;          // para que no falte el bean en el contexto
 
@@ -64,14 +85,15 @@ class TitularControllerTest {
                 GrupoSanguineo.AB,
                 FactorRh.NEGATIVO,
                 "Av. Siempre Viva 742",
-                false
+                false,
+                null
         );
         expectedResponse = new TitularResponseRecord(
                 100L, "Ana", "García",
                 LocalDate.of(1985,5,20),
                 "DNI", "87654321",
                 "AB", "NEGATIVO",
-                "Av. Siempre Viva 742", false
+                "Av. Siempre Viva 742", false, null
         );
     }
 
@@ -110,7 +132,8 @@ class TitularControllerTest {
                 validRecord.fechaNacimiento(), validRecord.tipoDocumento(),
                 validRecord.numeroDocumento(), validRecord.grupoSanguineo(),
                 validRecord.factorRh(), validRecord.direccion(),
-                validRecord.donanteOrganos()
+                validRecord.donanteOrganos(),
+                null
         );
 
         mvc.perform(post("/api/titulares")
@@ -146,4 +169,161 @@ class TitularControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.message").value("Error interno del servidor"));
     }
+
+    @Test
+    @DisplayName("GET /api/titulares/search → 200 con los resultados del índice")
+    void buscarTitulares_exito() throws Exception {
+        given(titularService.buscarTitulares("garcia an", 20)).willReturn(List.of(
+                new TitularBusquedaResponseRecord(100L, "Ana", "García", TipoDocumento.DNI,
+                        "87654321", "Av. Siempre Viva 742", 7.5f)));
+
+        mvc.perform(get("/api/titulares/search").param("q", "garcia an"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(100))
+                .andExpect(jsonPath("$[0].apellido").value("García"))
+                .andExpect(jsonPath("$[0].relevancia").value(7.5));
+    }
+
+    @Test
+    @DisplayName("GET /api/titulares/autocomplete → 200 con las sugerencias")
+    void autocompletarTitulares_exito() throws Exception {
+        given(titularService.sugerirTitulares("gar", 10)).willReturn(List.of(
+                new SugerenciaTitularRecord("García", "apellido", 12)));
+
+        mvc.perform(get("/api/titulares/autocomplete").param("prefix", "gar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].texto").value("García"))
+                .andExpect(jsonPath("$[0].campo").value("apellido"))
+                .andExpect(jsonPath("$[0].titulares").value(12));
+    }
+
+    @Test
+    @DisplayName("POST /api/titulares/import → 202 con Location al progreso de la importación")
+    void importarTitulares_aceptada() throws Exception {
+        UUID id = UUID.fromString("3f2b9c1e-8a4d-4f7a-9c55-0d1e2f3a4b5c");
+        given(importacionService.iniciar(any())).willReturn(new ImportacionTitularesRecord(
+                id, EstadoImportacion.EN_CURSO, Instant.parse("2025-06-11T10:00:00Z"), null, 0, 0, 0, null));
+
+        mvc.perform(post("/api/titulares/import")
+                        .contentType("text/csv")
+                        .content("nombre,apellido\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/titulares/import/" + id))
+                .andExpect(jsonPath("$.estado").value("EN_CURSO"));
+    }
+
+    @Test
+    @DisplayName("GET /api/titulares/{id} → 200 con ETag id-versión")
+    void obtenerTitular_conEtag() throws Exception {
+        given(titularService.obtenerPorId(100L)).willReturn(titularConVersion(3L));
+
+        mvc.perform(get("/api/titulares/100"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"100-3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.id").value(100));
+    }
+
+    @Test
+    @DisplayName("GET /api/titulares/{id} con If-None-Match vigente → 304 sin cargar el titular")
+    void obtenerTitular_noModificado() throws Exception {
+        given(titularService.obtenerVersion(100L)).willReturn(new VersionTitularRecord(100L, 3L));
+
+        mvc.perform(get("/api/titulares/100").header(HttpHeaders.IF_NONE_MATCH, "W/\"100-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"100-3\""))
+                .andExpect(content().string(""));
+
+        then(titularService).should(never()).obtenerPorId(anyLong());
+    }
+
+    @Test
+    @DisplayName("PUT /api/titulares?tipoDocumento&numeroDocumento con If-Match desactualizado → 412 PRECONDITION FAILED")
+    void actualizarTitular_ifMatchDesactualizado() throws Exception {
+        Titular actual = titularConVersion(4L);
+        given(titularService.actualizarTitularPorDocumento(
+                eq(TipoDocumento.DNI), eq("87654321"), any(), any()))
+                .willAnswer(inv -> {
+                    Predicate<Titular> precondicion = inv.getArgument(3);
+                    if (!precondicion.test(actual)) {
+                        throw new PrecondicionFallidaException(
+                                "El titular fue modificado desde la versión indicada en If-Match");
+                    }
+                    return actual;
+                });
+
+        mvc.perform(put("/api/titulares")
+                        .param("tipoDocumento", "DNI")
+                        .param("numeroDocumento", "87654321")
+                        .header(HttpHeaders.IF_MATCH, "\"100-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRecord)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message")
+                        .value("El titular fue modificado desde la versión indicada en If-Match"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/titulares?tipoDocumento&numeroDocumento sin If-Match → 428 PRECONDITION REQUIRED")
+    void actualizarTitular_sinIfMatch() throws Exception {
+        mvc.perform(put("/api/titulares")
+                        .param("tipoDocumento", "DNI")
+                        .param("numeroDocumento", "87654321")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRecord)))
+                .andExpect(status().isPreconditionRequired())
+                .andExpect(jsonPath("$.message")
+                        .value("Falta la cabecera If-Match con el ETag del titular que se modifica"));
+
+        then(titularService).should(never()).actualizarTitularPorDocumento(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("PUT /api/titulares?tipoDocumento&numeroDocumento con If-Match vigente → 200 con el nuevo ETag")
+    void actualizarTitular_ifMatchVigente() throws Exception {
+        Titular actual = titularConVersion(3L);
+        given(titularService.actualizarTitularPorDocumento(
+                eq(TipoDocumento.DNI), eq("87654321"), any(), any()))
+                .willAnswer(inv -> {
+                    Predicate<Titular> precondicion = inv.getArgument(3);
+                    assertTrue(precondicion.test(actual));
+                    return titularConVersion(4L);
+                });
+
+        mvc.perform(put("/api/titulares")
+                        .param("tipoDocumento", "DNI")
+                        .param("numeroDocumento", "87654321")
+                        .header(HttpHeaders.IF_MATCH, "\"100-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRecord)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"100-4\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/titulares/licencias-vigentes/export con grupo sanguíneo inválido → 400 antes de escribir")
+    void exportar_filtroInvalido() throws Exception {
+        mvc.perform(get("/api/titulares/licencias-vigentes/export")
+                        .param("grupoSanguineo", "A", "Z"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Grupo sanguíneo inválido: Z"));
+
+        then(titularService).should(never()).exportarTitularesConLicenciasVigentes(any(), any(), any());
+    }
+
+    private Titular titularConVersion(Long version) {
+        Titular titular = Titular.builder()
+                .nombre(validRecord.nombre())
+                .apellido(validRecord.apellido())
+                .fechaNacimiento(validRecord.fechaNacimiento())
+                .tipoDocumento(validRecord.tipoDocumento())
+                .numeroDocumento(validRecord.numeroDocumento())
+                .grupoSanguineo(validRecord.grupoSanguineo())
+                .factorRh(validRecord.factorRh())
+                .direccion(validRecord.direccion())
+                .build();
+        titular.setId(100L);
+        titular.setVersion(version);
+        return titular;
+    }
 }
@@ -0,0 +1,73 @@
+package com.tpagiles.app_licencia.scheduler;
+
+import com.tpagiles.app_licencia.service.IBloqueoJobService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EjecucionExclusivaAspectTest {
+
+    @Mock
+    private IBloqueoJobService bloqueos;
+
+    @Mock
+    private ProceedingJoinPoint pjp;
+
+    private EjecucionExclusivaAspect aspect;
+
+    @AfterEach
+    void detener() {
+        if (aspect != null) {
+            aspect.detener();
+        }
+    }
+
+    @EjecucionExclusiva(nombre = "job", vigenciaMs = 90, minimoMs = 0)
+    void job() {
+    }
+
+    private EjecucionExclusiva anotacion() throws NoSuchMethodException {
+        return getClass().getDeclaredMethod("job").getAnnotation(EjecucionExclusiva.class);
+    }
+
+    @Test
+    @DisplayName("Sin el bloqueo el método no se ejecuta")
+    void otroNodo_omite() throws Throwable {
+        aspect = new EjecucionExclusivaAspect(bloqueos);
+        when(bloqueos.adquirir(eq("job"), any(Duration.class))).thenReturn(false);
+
+        assertNull(aspect.ejecutar(pjp, anotacion()));
+
+        verify(pjp, never()).proceed();
+        verify(bloqueos, never()).liberar(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Con el bloqueo: late mientras corre y libera aunque el método falle")
+    void conBloqueo_lateYLibera() throws Throwable {
+        aspect = new EjecucionExclusivaAspect(bloqueos);
+        when(bloqueos.adquirir(eq("job"), any(Duration.class))).thenReturn(true);
+        when(bloqueos.renovar(eq("job"), any(Duration.class))).thenReturn(true);
+        when(pjp.proceed()).thenAnswer(inv -> {
+            Thread.sleep(200);
+            throw new IllegalStateException("falla");
+        });
+
+        assertThrows(IllegalStateException.class, () -> aspect.ejecutar(pjp, anotacion()));
+
+        verify(bloqueos, atLeastOnce()).renovar(eq("job"), eq(Duration.ofMillis(90)));
+        verify(bloqueos).liberar(eq("job"), any(Instant.class));
+    }
+}
@@ -0,0 +1,119 @@
+package com.tpagiles.app_licencia.security;
+
+import com.tpagiles.app_licencia.exception.OperacionNoPermitidaException;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.Rol;
+import com.tpagiles.app_licencia.repository.NaturalIdRepository;
+import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmisorResolverTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepo;
+
+    @Mock
+    private NaturalIdRepository naturalIds;
+
+    @InjectMocks
+    private EmisorResolver resolver;
+
+    @AfterEach
+    void limpiarContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Sin emisor indicado: referencia al autenticado por id, sin buscar por mail")
+    void resolver_sinOverrideUsaAutenticado() {
+        autenticar(usuario(7L, "operador@municipio.gob", Rol.OPERADOR));
+        Usuario referencia = usuario(7L, null);
+        when(usuarioRepo.getReferenceById(7L)).thenReturn(referencia);
+
+        assertSame(referencia, resolver.resolver(null));
+        assertSame(referencia, resolver.resolver("  OPERADOR@municipio.gob "));
+        verifyNoInteractions(naturalIds);
+    }
+
+    @Test
+    @DisplayName("SUPER_USER puede emitir a nombre de otro usuario")
+    void resolver_superUserOverride() {
+        autenticar(usuario(1L, "admin@municipio.gob", Rol.SUPER_USER));
+        Usuario otro = usuario(2L, "otro@municipio.gob", Rol.OPERADOR);
+        when(naturalIds.buscarUsuarioPorMail("otro@municipio.gob")).thenReturn(Optional.of(otro));
+
+        assertEquals("otro@municipio.gob", resolver.mailDeOverride(" otro@municipio.gob "));
+        assertEquals("otro@municipio.gob", resolver.mailEfectivo("otro@municipio.gob"));
+        assertSame(otro, resolver.resolver("otro@municipio.gob"));
+        verify(usuarioRepo, never()).getReferenceById(any());
+    }
+
+    @Test
+    @DisplayName("OPERADOR que indica otro emisor: OperacionNoPermitidaException")
+    void resolver_operadorConOtroEmisorRechazado() {
+        autenticar(usuario(7L, "operador@municipio.gob", Rol.OPERADOR));
+
+        assertThrows(OperacionNoPermitidaException.class, () -> resolver.resolver("otro@municipio.gob"));
+        assertThrows(OperacionNoPermitidaException.class, () -> resolver.mailEfectivo("otro@municipio.gob"));
+        verifyNoInteractions(naturalIds, usuarioRepo);
+    }
+
+    @Test
+    @DisplayName("Mail de emisor inexistente: ResourceNotFoundException")
+    void resolver_emisorDesconocido() {
+        autenticar(usuario(1L, "admin@municipio.gob", Rol.SUPER_USER));
+        when(naturalIds.buscarUsuarioPorMail("nadie@municipio.gob")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> resolver.resolver("nadie@municipio.gob"));
+    }
+
+    @Test
+    @DisplayName("Sin usuario autenticado: exige el emisor explícito")
+    void sinAutenticado() {
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolver(null));
+        assertThrows(IllegalArgumentException.class, () -> resolver.mailEfectivo(" "));
+        assertThrows(IllegalArgumentException.class, () -> resolver.referenciaAutenticado());
+        // llamadas internas: el mail indicado se usa tal cual, sin control de rol
+        assertEquals("interno@municipio.gob", resolver.mailEfectivo("interno@municipio.gob"));
+        verifyNoInteractions(usuarioRepo);
+    }
+
+    @Test
+    @DisplayName("Mail efectivo sin override: el del usuario autenticado")
+    void mailEfectivo_autenticado() {
+        autenticar(usuario(7L, "operador@municipio.gob", Rol.OPERADOR));
+
+        assertEquals("operador@municipio.gob", resolver.mailEfectivo(null));
+        assertNull(resolver.mailDeOverride(""));
+    }
+
+    private static void autenticar(Usuario usuario) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+    }
+
+    private static Usuario usuario(Long id, String mail, Rol... roles) {
+        Usuario u = new Usuario();
+        u.setId(id);
+        u.setMail(mail);
+        u.setRoles(new HashSet<>(Set.of(roles)));
+        return u;
+    }
+}
@@ -0,0 +1,196 @@
+package com.tpagiles.app_licencia.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpagiles.app_licencia.config.ErrorResponseFactory;
+import com.tpagiles.app_licencia.service.impl.IdempotenciaMemoriaStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Filtro sobre el almacén en memoria y una cadena que cuenta las llamadas al controlador.
+ */
+class IdempotenciaFilterTest {
+
+    private static final String RUTA = "/api/titulares";
+    private static final String CUERPO = "{\"numeroDocumento\":\"20111222\"}";
+
+    private final AtomicInteger procesadas = new AtomicInteger();
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotenciaFilter filtro(long esperaMs) {
+        return new IdempotenciaFilter(new IdempotenciaMemoriaStore(60, esperaMs, 100), Set.of(RUTA),
+                new ErrorResponseFactory(), mapper);
+    }
+
+    // el controlador: lee el cuerpo ya cacheado y responde con el status indicado
+    private FilterChain controlador(int status) {
+        return (req, res) -> {
+            String cuerpo = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            ((HttpServletResponse) res).setStatus(status);
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getWriter().write("{\"n\":" + procesadas.incrementAndGet() + ",\"cuerpo\":" + cuerpo + "}");
+        };
+    }
+
+    private static MockHttpServletRequest post(String clave, String cuerpo) {
+        MockHttpServletRequest req = new MockHttpServletRequest("POST", RUTA);
+        req.addHeader(IdempotenciaFilter.HEADER, clave);
+        req.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        req.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return req;
+    }
+
+    private MockHttpServletResponse enviar(IdempotenciaFilter filtro, MockHttpServletRequest req, FilterChain chain)
+            throws Exception {
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filtro.doFilter(req, res, chain);
+        return res;
+    }
+
+    @Test
+    @DisplayName("Reintento con el mismo cuerpo: devuelve la respuesta guardada sin volver al controlador")
+    void reintento_mismoCuerpo_repiteRespuesta() throws Exception {
+        IdempotenciaFilter filtro = filtro(1000);
+
+        MockHttpServletResponse primera = enviar(filtro, post("k1", CUERPO), controlador(201));
+        MockHttpServletResponse repetida = enviar(filtro, post("k1", CUERPO), controlador(201));
+
+        assertEquals(1, procesadas.get());
+        assertEquals(201, repetida.getStatus());
+        assertEquals(primera.getContentAsString(), repetida.getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, repetida.getContentType());
+        assertEquals("true", repetida.getHeader(IdempotenciaFilter.HEADER_REPETIDA));
+        assertNull(primera.getHeader(IdempotenciaFilter.HEADER_REPETIDA));
+    }
+
+    @Test
+    @DisplayName("Misma clave con otro cuerpo: 422 sin procesar")
+    void mismaClave_otroCuerpo_422() throws Exception {
+        IdempotenciaFilter filtro = filtro(1000);
+        enviar(filtro, post("k1", CUERPO), controlador(201));
+
+        MockHttpServletResponse res = enviar(filtro, post("k1", "{\"numeroDocumento\":\"30999888\"}"), controlador(201));
+
+        assertEquals(422, res.getStatus());
+        assertEquals(1, procesadas.get());
+        assertNull(res.getHeader(IdempotenciaFilter.HEADER_REPETIDA));
+    }
+
+    @Test
+    @DisplayName("Respuesta 5xx: no se guarda y el reintento vuelve a procesarse")
+    void error5xx_noSeGuarda() throws Exception {
+        IdempotenciaFilter filtro = filtro(1000);
+
+        assertEquals(503, enviar(filtro, post("k1", CUERPO), controlador(503)).getStatus());
+        MockHttpServletResponse reintento = enviar(filtro, post("k1", CUERPO), controlador(201));
+
+        assertEquals(201, reintento.getStatus());
+        assertEquals(2, procesadas.get());
+        assertNull(reintento.getHeader(IdempotenciaFilter.HEADER_REPETIDA));
+    }
+
+    @Test
+    @DisplayName("Duplicado mientras la primera sigue en curso: 409 al vencer la espera")
+    void duplicadoConcurrente_409() throws Exception {
+        IdempotenciaFilter filtro = filtro(50);
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        FilterChain lento = (req, res) -> {
+            enCurso.countDown();
+            try {
+                terminar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            controlador(201).doFilter(req, res);
+        };
+
+        CompletableFuture<MockHttpServletResponse> primera = CompletableFuture.supplyAsync(() -> {
+            try {
+                return enviar(filtro, post("k1", CUERPO), lento);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(enCurso.await(1, TimeUnit.SECONDS));
+
+        MockHttpServletResponse duplicada = enviar(filtro, post("k1", CUERPO), controlador(201));
+        terminar.countDown();
+
+        assertEquals(409, duplicada.getStatus());
+        assertEquals(201, primera.get(1, TimeUnit.SECONDS).getStatus());
+        assertEquals(1, procesadas.get());
+    }
+
+    @Test
+    @DisplayName("Cuerpo cacheado: también se puede leer con un ReadListener (lectura no bloqueante)")
+    void cuerpoCacheado_readListener() throws Exception {
+        ByteArrayOutputStream leido = new ByteArrayOutputStream();
+        AtomicBoolean completo = new AtomicBoolean();
+        FilterChain noBloqueante = (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[8];
+                    while (in.isReady() && !in.isFinished()) {
+                        leido.write(buffer, 0, in.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    completo.set(in.isFinished());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+            ((HttpServletResponse) res).setStatus(201);
+        };
+
+        enviar(filtro(1000), post("k1", CUERPO), noBloqueante);
+
+        assertTrue(completo.get());
+        assertEquals(CUERPO, leido.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Clave vacía: 400; sin cabecera o en otra ruta el filtro no interviene")
+    void claveInvalida_yRutasExcluidas() throws Exception {
+        IdempotenciaFilter filtro = filtro(1000);
+
+        assertEquals(400, enviar(filtro, post(" ", CUERPO), controlador(201)).getStatus());
+
+        MockHttpServletRequest sinClave = new MockHttpServletRequest("POST", RUTA);
+        enviar(filtro, sinClave, controlador(201));
+        enviar(filtro, sinClave, controlador(201));
+        MockHttpServletRequest otraRuta = post("k1", CUERPO);
+        otraRuta.setRequestURI("/api/usuarios");
+        enviar(filtro, otraRuta, controlador(201));
+        enviar(filtro, otraRuta, controlador(201));
+
+        assertEquals(4, procesadas.get());
+    }
+}
@@ -0,0 +1,181 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.SugerenciaTitularRecord;
+import com.tpagiles.app_licencia.dto.TitularIndiceRecord;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.impl.AutocompletarService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompletarServiceTest {
+
+    @Mock
+    private TitularRepository titularRepo;
+
+    // la "base"
+    private final TreeMap<Long, TitularIndiceRecord> titulares = new TreeMap<>();
+
+    private SimpleMeterRegistry registry;
+    private AutocompletarService autocompletar;
+
+    @BeforeEach
+    void setUp() {
+        poner(1L, "González", "20.123.456");
+        poner(2L, "Gonzalez", "20123457");
+        poner(3L, "Gómez", "31000111");
+        poner(4L, "Pérez", "AB123");
+        poner(5L, "Gonzaga", "20999000");
+
+        lenient().when(titularRepo.findParaIndice(anyLong(), eq(Long.MAX_VALUE), any(Limit.class))).thenAnswer(inv ->
+                titulares.tailMap(inv.<Long>getArgument(0), false).values().stream()
+                        .limit(inv.<Limit>getArgument(2).max()).toList());
+
+        registry = new SimpleMeterRegistry();
+        // lotes de dos y compactación cada dos claves: se ejercitan la paginación y la fusión
+        autocompletar = new AutocompletarService(titularRepo, registry, 2, 2);
+        autocompletar.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void poner(long id, String apellido, String documento) {
+        titulares.put(id, new TitularIndiceRecord(id, "Nombre", apellido, TipoDocumento.DNI, documento, "Calle 1"));
+    }
+
+    private static Titular titular(long id, String apellido, String documento) {
+        Titular t = new Titular();
+        t.setId(id);
+        t.setApellido(apellido);
+        t.setNumeroDocumento(documento);
+        return t;
+    }
+
+    private List<String> textos(String prefijo) {
+        return autocompletar.sugerir(prefijo, 10).stream().map(SugerenciaTitularRecord::texto).toList();
+    }
+
+    @Test
+    @DisplayName("Apellidos sin tildes ni mayúsculas, agrupados y en orden alfabético")
+    void sugerir_apellidos() {
+        List<SugerenciaTitularRecord> r = autocompletar.sugerir("gonz", 10);
+
+        assertEquals(List.of(
+                new SugerenciaTitularRecord("Gonzaga", "apellido", 1),
+                new SugerenciaTitularRecord("González", "apellido", 2)), r);
+        assertEquals(List.of("Gómez"), textos("GÓM"));
+        assertEquals(List.of("Gómez"), autocompletar.sugerir("go", 1).stream().map(SugerenciaTitularRecord::texto).toList());
+        assertEquals(List.of(), textos("x"));
+    }
+
+    @Test
+    @DisplayName("Documentos ignorando puntos; con un dígito inicial van primero los documentos")
+    void sugerir_documentos() {
+        List<SugerenciaTitularRecord> r = autocompletar.sugerir("20.12", 10);
+
+        assertEquals(List.of(
+                new SugerenciaTitularRecord("20.123.456", "numeroDocumento", 1),
+                new SugerenciaTitularRecord("20123457", "numeroDocumento", 1)), r);
+        // "ab" matchea un documento alfanumérico, después de los apellidos
+        assertEquals("numeroDocumento", autocompletar.sugerir("ab", 10).get(0).campo());
+    }
+
+    @Test
+    @DisplayName("Altas, cambios y bajas actualizan las sugerencias, también después de compactar")
+    void cambios_actualizanSugerencias() {
+        autocompletar.registrarAlta(titular(6L, "Gonzalvo", "40111222"));
+        autocompletar.registrarAlta(titular(7L, "Ibarra", "40111223"));
+        autocompletar.registrarAlta(titular(8L, "Gonzalez", "40111224"));
+        assertEquals(List.of("Gonzaga", "González", "Gonzalvo"), textos("gonz"));
+        assertEquals(3, autocompletar.sugerir("gonzalez", 10).get(0).titulares());
+
+        // el titular 4 cambia de apellido y de documento
+        autocompletar.registrarCambio("Pérez", "AB123", titular(4L, "Peralta", "AB124"));
+        assertEquals(List.of("Peralta"), textos("pe"));
+        assertEquals(List.of("AB124"), textos("ab"));
+
+        autocompletar.registrarBaja("Gonzaga", "20999000");
+        assertEquals(List.of("González", "Gonzalvo"), textos("gonz"));
+        assertEquals(List.of(), textos("2099"));
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción los cambios esperan al commit y se descartan en rollback")
+    void cambios_respetanTransaccion() {
+        TransactionSynchronizationManager.initSynchronization();
+        autocompletar.registrarAlta(titular(6L, "Zabala", "50000000"));
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(List.of(), textos("zab"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        autocompletar.registrarAlta(titular(6L, "Zabala", "50000000"));
+        assertEquals(List.of(), textos("zab"));
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of("Zabala"), textos("zab"));
+    }
+
+    @Test
+    @DisplayName("Reconstruir: levanta los cambios de otros nodos y no pierde los confirmados mientras corre")
+    void reconstruir_conCambiosConcurrentes() {
+        // alta hecha en otro nodo: solo la ve la reconstrucción
+        poner(9L, "Acosta", "60000000");
+
+        AtomicBoolean cambiado = new AtomicBoolean();
+        doAnswer(inv -> {
+            long despuesId = inv.getArgument(0);
+            List<TitularIndiceRecord> leidos = titulares.tailMap(despuesId, false).values().stream()
+                    .limit(inv.<Limit>getArgument(2).max()).toList();
+            if (despuesId > 2L && cambiado.compareAndSet(false, true)) {
+                // alta confirmada cuando la reconstrucción ya pasó por su rango de ids
+                poner(0L, "Benítez", "70000000");
+                autocompletar.registrarAlta(titular(0L, "Benítez", "70000000"));
+            }
+            return leidos;
+        }).when(titularRepo).findParaIndice(anyLong(), eq(Long.MAX_VALUE), any(Limit.class));
+
+        assertEquals(6, autocompletar.reconstruir());
+
+        assertEquals(List.of("Acosta"), textos("ac"));
+        assertEquals(List.of("Benítez"), textos("beni"));
+    }
+
+    @Test
+    @DisplayName("Publica claves y memoria por campo, y el tiempo de cada consulta")
+    void metricas() {
+        autocompletar.sugerir("gon", 10);
+
+        assertEquals(4.0, registry.get("titulares.autocompletar.claves").tag("campo", "apellido").gauge().value());
+        assertEquals(5.0, registry.get("titulares.autocompletar.claves").tag("campo", "numeroDocumento").gauge().value());
+        assertTrue(registry.get("titulares.autocompletar.memoria").tag("campo", "apellido").gauge().value() > 0);
+        assertEquals(1, registry.get("titulares.autocompletar.consulta").timer().count());
+    }
+}
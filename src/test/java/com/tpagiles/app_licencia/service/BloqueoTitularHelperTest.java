@@ -0,0 +1,98 @@
+package com.tpagiles.app_licencia.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.helper.BloqueoTitularHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class BloqueoTitularHelperTest {
+
+    @Mock
+    private TitularRepository titularRepository;
+
+    @Test
+    @DisplayName("el lock del titular se mantiene hasta que termina la transacción")
+    void bloqueo_seLiberaAlCompletarLaTransaccion() throws Exception {
+        BloqueoTitularHelper helper = new BloqueoTitularHelper(titularRepository, 64, 50, false);
+
+        enTransaccion(() -> {
+            helper.bloquearHastaFinDeTransaccion(7L);
+            // otro hilo no puede tomar el mismo titular mientras la transacción sigue abierta
+            CompletableFuture<Void> otro = CompletableFuture.runAsync(() -> enTransaccion(
+                    () -> helper.bloquearHastaFinDeTransaccion(7L)));
+            assertThrows(Exception.class, () -> otro.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(SolicitudEnCursoException.class, otro.handle((r, e) -> e.getCause()).join());
+        });
+
+        // tras el afterCompletion el lock quedó libre
+        assertTrue(helper.lockDe(7L).tryLock());
+        helper.lockDe(7L).unlock();
+    }
+
+    @Test
+    @DisplayName("titulares en distinto stripe no se bloquean entre sí")
+    void bloqueo_titularesDistintosEnParalelo() throws Exception {
+        BloqueoTitularHelper helper = new BloqueoTitularHelper(titularRepository, 64, 50, false);
+        assertNotSame(helper.lockDe(1L), helper.lockDe(2L));
+
+        enTransaccion(() -> {
+            helper.bloquearHastaFinDeTransaccion(1L);
+            CompletableFuture<Void> otro = CompletableFuture.runAsync(() -> enTransaccion(
+                    () -> helper.bloquearHastaFinDeTransaccion(2L)));
+            assertDoesNotThrow(() -> otro.get(1, TimeUnit.SECONDS));
+        });
+    }
+
+    @Test
+    @DisplayName("con bloqueo en base se hace SELECT FOR UPDATE de los titulares ordenados")
+    void bloqueo_dbFallback() {
+        BloqueoTitularHelper helper = new BloqueoTitularHelper(titularRepository, 64, 50, true);
+
+        enTransaccion(() -> helper.bloquearHastaFinDeTransaccion(List.of(9L, 3L, 9L)));
+
+        verify(titularRepository).bloquearPorIds(List.of(3L, 9L));
+    }
+
+    @Test
+    @DisplayName("sin transacción activa lanza IllegalStateException")
+    void bloqueo_sinTransaccion() {
+        BloqueoTitularHelper helper = new BloqueoTitularHelper(titularRepository, 64, 50, false);
+
+        assertThrows(IllegalStateException.class, () -> helper.bloquearHastaFinDeTransaccion(1L));
+        verifyNoInteractions(titularRepository);
+    }
+
+    @Test
+    @DisplayName("la cantidad de stripes debe ser potencia de 2")
+    void constructor_stripesInvalidos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BloqueoTitularHelper(titularRepository, 100, 50, false));
+    }
+
+    /** Simula el ciclo de sincronización de una transacción en el hilo actual. */
+    static void enTransaccion(Runnable cuerpo) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cuerpo.run();
+        } finally {
+            List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            syncs.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.service.helper.CodificadorFonetico;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodificadorFoneticoTest {
+
+    @Test
+    void codificar_variantesDeGrafiaIguales() {
+        assertEquals("GONSALES", CodificadorFonetico.codificar("González"));
+        assertEquals("GONSALES", CodificadorFonetico.codificar("Gonsales"));
+        assertEquals("GONSALES", CodificadorFonetico.codificar("gonzáles"));
+        assertEquals("JIMENES", CodificadorFonetico.codificar("Giménez"));
+        assertEquals("JIMENES", CodificadorFonetico.codificar("Ximénez"));
+        assertEquals("BASKES", CodificadorFonetico.codificar("Vázquez"));
+        assertEquals("BASKES", CodificadorFonetico.codificar("Vasques"));
+        assertEquals("ERNANDES", CodificadorFonetico.codificar("Hernández"));
+        assertEquals("YANES", CodificadorFonetico.codificar("Llanes"));
+        assertEquals("YANES", CodificadorFonetico.codificar("Yáñez"));
+        assertEquals("KIROGA", CodificadorFonetico.codificar("Quiroga"));
+        assertEquals("XABES", CodificadorFonetico.codificar("Chávez"));
+        assertEquals("SABEDRA", CodificadorFonetico.codificar("Saavedra"));
+        assertEquals("REI", CodificadorFonetico.codificar("Rey"));
+    }
+
+    @Test
+    void codificar_distingueSonidosDistintos() {
+        assertEquals("GEBARA", CodificadorFonetico.codificar("Guevara"));
+        assertEquals("GUEMES", CodificadorFonetico.codificar("Güemes"));
+        assertEquals("ALEKSANDER", CodificadorFonetico.codificar("Alexander"));
+        assertNotEquals(CodificadorFonetico.codificar("Pérez"), CodificadorFonetico.codificar("Páez"));
+    }
+
+    @Test
+    void codificar_palabrasYSignos() {
+        assertEquals("MARIA JOSE", CodificadorFonetico.codificar("  María \t José "));
+        assertEquals("ALBARES RUIS", CodificadorFonetico.codificar("Álvarez-Ruiz"));
+        assertEquals("DANJELO", CodificadorFonetico.codificar("D'Angelo"));
+        // "é" precompuesta (U+00E9) y "e" + acento combinante (U+0301)
+        assertEquals(CodificadorFonetico.codificar("P\u00e9rez"), CodificadorFonetico.codificar("Pe\u0301rez"));
+        assertEquals("", CodificadorFonetico.codificar(" - "));
+        assertNull(CodificadorFonetico.codificar(null));
+    }
+
+    @Test
+    void nombreCompleto_apellidoPrimero() {
+        assertEquals("GOMES MARIA JOSE", CodificadorFonetico.nombreCompleto("Gómez", "María  José"));
+        assertEquals("GOMES", CodificadorFonetico.nombreCompleto("Gómez", null));
+    }
+}
@@ -0,0 +1,137 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.model.Contador;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
+import com.tpagiles.app_licencia.repository.ContadorRepository;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.impl.ContadorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContadorServiceTest {
+
+    @Mock
+    private ContadorRepository contadorRepo;
+
+    @Mock
+    private LicenciaRepository licenciaRepo;
+
+    @Mock
+    private TitularRepository titularRepo;
+
+    @InjectMocks
+    private ContadorService service;
+
+    @AfterEach
+    void limpiarSincronizacion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Arranque: usa los valores persistidos y cuenta en la base solo los que faltan")
+    void inicializar_cargaPersistidos() {
+        when(contadorRepo.findAll()).thenReturn(List.of(
+                new Contador(TipoContador.LICENCIAS_EMITIDAS, 120, Instant.now()),
+                new Contador(TipoContador.LICENCIAS_VENCIDAS, 15, Instant.now())));
+        when(titularRepo.count()).thenReturn(40L);
+
+        service.inicializar();
+
+        assertEquals(120, service.valor(TipoContador.LICENCIAS_EMITIDAS));
+        assertEquals(15, service.valor(TipoContador.LICENCIAS_VENCIDAS));
+        assertEquals(40, service.valor(TipoContador.TITULARES));
+        verify(licenciaRepo, never()).count();
+    }
+
+    @Test
+    @DisplayName("Lecturas: no consultan la base una vez inicializado")
+    void valor_sinIO() {
+        when(contadorRepo.findAll()).thenReturn(List.of());
+        service.inicializar();
+        clearInvocations(contadorRepo, licenciaRepo, titularRepo);
+
+        IntStream.range(0, 100).forEach(i -> service.valor(TipoContador.TITULARES));
+
+        verifyNoInteractions(contadorRepo, licenciaRepo, titularRepo);
+    }
+
+    @Test
+    @DisplayName("sumar: concurrente y sin transacción se aplica en el momento")
+    void sumar_concurrente() {
+        when(contadorRepo.findAll()).thenReturn(List.of());
+        service.inicializar();
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> service.sumar(TipoContador.TITULARES, 1));
+
+        assertEquals(10_000, service.valor(TipoContador.TITULARES));
+    }
+
+    @Test
+    @DisplayName("sumar: dentro de una transacción espera al commit y se descarta en rollback")
+    void sumar_respetaTransaccion() {
+        when(contadorRepo.findAll()).thenReturn(List.of());
+        service.inicializar();
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.sumar(TipoContador.LICENCIAS_EMITIDAS, 3);
+        assertEquals(0, service.valor(TipoContador.LICENCIAS_EMITIDAS));
+
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(3, service.valor(TipoContador.LICENCIAS_EMITIDAS));
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.sumar(TipoContador.LICENCIAS_EMITIDAS, 5);
+        // rollback: nunca se llama a afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(3, service.valor(TipoContador.LICENCIAS_EMITIDAS));
+    }
+
+    @Test
+    @DisplayName("conciliar: corrige el desvío contra la base y persiste los valores")
+    @SuppressWarnings("unchecked")
+    void conciliar_corrigeYPersiste() {
+        when(contadorRepo.findAll()).thenReturn(List.of(
+                new Contador(TipoContador.LICENCIAS_EMITIDAS, 10, Instant.now()),
+                new Contador(TipoContador.LICENCIAS_VENCIDAS, 2, Instant.now()),
+                new Contador(TipoContador.TITULARES, 5, Instant.now())));
+        service.inicializar();
+        service.sumar(TipoContador.LICENCIAS_EMITIDAS, 1);
+
+        when(licenciaRepo.count()).thenReturn(14L);
+        when(licenciaRepo.countByFechaVencimientoBefore(any(LocalDate.class))).thenReturn(2L);
+        when(titularRepo.count()).thenReturn(4L);
+
+        service.conciliar();
+
+        assertEquals(14, service.valor(TipoContador.LICENCIAS_EMITIDAS));
+        assertEquals(2, service.valor(TipoContador.LICENCIAS_VENCIDAS));
+        assertEquals(4, service.valor(TipoContador.TITULARES));
+
+        ArgumentCaptor<List<Contador>> guardados = ArgumentCaptor.forClass(List.class);
+        verify(contadorRepo).saveAll(guardados.capture());
+        assertEquals(List.of(14L, 2L, 4L), guardados.getValue().stream().map(Contador::getValor).toList());
+    }
+}
@@ -0,0 +1,65 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.service.helper.CambiosDuranteReconstruccion;
+import com.tpagiles.app_licencia.service.helper.DespuesDelCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DespuesDelCommitTest {
+
+    private final AtomicInteger aplicados = new AtomicInteger();
+
+    @AfterEach
+    void limpiar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Sin transacción: se aplica enseguida")
+    void sinTransaccion_aplicaEnseguida() {
+        DespuesDelCommit.ejecutar(aplicados::incrementAndGet);
+
+        assertEquals(1, aplicados.get());
+    }
+
+    @Test
+    @DisplayName("Con transacción: se aplica al confirmar y no si hace rollback")
+    void conTransaccion_soloAlConfirmar() {
+        TransactionSynchronizationManager.initSynchronization();
+        DespuesDelCommit.ejecutar(aplicados::incrementAndGet);
+        assertEquals(0, aplicados.get());
+
+        List<TransactionSynchronization> registradas = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, registradas.size());
+        registradas.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(0, aplicados.get());
+        registradas.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, aplicados.get());
+    }
+
+    @Test
+    @DisplayName("Cambios durante la reconstrucción: solo entre iniciar y terminar, en orden")
+    void cambiosDuranteReconstruccion() {
+        CambiosDuranteReconstruccion<Integer> cambios = new CambiosDuranteReconstruccion<>();
+        cambios.registrar(1);
+        assertEquals(List.of(), cambios.terminar());
+
+        cambios.iniciar();
+        cambios.registrar(2);
+        cambios.registrarTodos(List.of(3, 4));
+        assertEquals(List.of(2, 3, 4), cambios.terminar());
+
+        cambios.registrar(5);
+        assertEquals(List.of(), cambios.terminar());
+    }
+}
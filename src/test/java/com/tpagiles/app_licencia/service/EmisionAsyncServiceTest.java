@@ -0,0 +1,205 @@
+package com.tpagiles.app_licencia.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.tpagiles.app_licencia.dto.LicenciaRecord;
+import com.tpagiles.app_licencia.dto.LicenciaResponseRecord;
+import com.tpagiles.app_licencia.dto.LoteLicenciasResponseRecord;
+import com.tpagiles.app_licencia.dto.ResultadoLoteLicenciaRecord;
+import com.tpagiles.app_licencia.dto.TicketEmisionRecord;
+import com.tpagiles.app_licencia.exception.ColaSaturadaException;
+import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.EstadoTicket;
+import com.tpagiles.app_licencia.security.EmisorResolver;
+import com.tpagiles.app_licencia.service.impl.EmisionAsyncService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EmisionAsyncServiceTest {
+
+    @Mock
+    private ILicenciaLoteService licenciaLoteService;
+
+    @Mock
+    private EmisorResolver emisorResolver;
+
+    private SimpleMeterRegistry registry;
+    private EmisionAsyncService service;
+
+    private final LicenciaRecord req = LicenciaRecord.builder()
+            .titularId(10L)
+            .clase(ClaseLicencia.B)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        lenient().when(emisorResolver.mailEfectivo(null)).thenReturn("admin@municipio.gob");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.detenerWorkers();
+        }
+    }
+
+    @Test
+    @DisplayName("encolar: el worker procesa la solicitud con el emisor fijado y completa el ticket")
+    void encolar_procesaYCompleta() throws Exception {
+        LicenciaResponseRecord licencia = mock(LicenciaResponseRecord.class);
+        when(licenciaLoteService.emitirLote(anyList())).thenAnswer(inv -> {
+            List<LicenciaRecord> lote = inv.getArgument(0);
+            assertEquals("admin@municipio.gob", lote.get(0).emisor());
+            return LoteLicenciasResponseRecord.from(
+                    List.of(ResultadoLoteLicenciaRecord.exito(0, lote.get(0), licencia)));
+        });
+        service = new EmisionAsyncService(licenciaLoteService, emisorResolver, registry, 10, 1, 5, 60, 1000);
+        service.iniciarWorkers();
+
+        TicketEmisionRecord ticket = service.encolar(req);
+        assertEquals(EstadoTicket.PENDIENTE, ticket.estado());
+
+        TicketEmisionRecord fin = esperarFinalizado(ticket.id());
+        assertEquals(EstadoTicket.COMPLETADO, fin.estado());
+        assertSame(licencia, fin.licencia());
+        assertEquals(1, registry.get("licencias.emision.cola.espera").timer().count());
+    }
+
+    @Test
+    @DisplayName("encolar: un rechazo de validación deja el ticket RECHAZADO con el motivo")
+    void encolar_rechazoDeValidacion() throws Exception {
+        when(licenciaLoteService.emitirLote(anyList())).thenAnswer(inv -> {
+            List<LicenciaRecord> lote = inv.getArgument(0);
+            return LoteLicenciasResponseRecord.from(
+                    List.of(ResultadoLoteLicenciaRecord.rechazo(0, lote.get(0), "Titular no encontrado con id: 10")));
+        });
+        service = new EmisionAsyncService(licenciaLoteService, emisorResolver, registry, 10, 1, 5, 60, 1000);
+        service.iniciarWorkers();
+
+        TicketEmisionRecord fin = esperarFinalizado(service.encolar(req).id());
+        assertEquals(EstadoTicket.RECHAZADO, fin.estado());
+        assertEquals("Titular no encontrado con id: 10", fin.error());
+    }
+
+    @Test
+    @DisplayName("encolar: con la cola llena lanza ColaSaturadaException y cuenta el rechazo")
+    void encolar_colaLlena() {
+        // sin workers iniciados la cola no se drena
+        service = new EmisionAsyncService(licenciaLoteService, emisorResolver, registry, 1, 1, 5, 60, 1000);
+
+        service.encolar(req);
+        assertThrows(ColaSaturadaException.class, () -> service.encolar(req));
+        assertEquals(1.0, registry.get("licencias.emision.cola.rechazadas").counter().count());
+        assertEquals(1.0, registry.get("licencias.emision.cola.profundidad").gauge().value());
+        verifyNoInteractions(licenciaLoteService);
+    }
+
+    @Test
+    @DisplayName("consultar: ticket inexistente lanza ResourceNotFoundException")
+    void consultar_inexistente() {
+        service = new EmisionAsyncService(licenciaLoteService, emisorResolver, registry, 1, 1, 5, 60, 1000);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.consultar(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("procesar: si falla el lote entero, se reintenta de a una y solo falla la culpable")
+    void loteFallido_reintentaDeAUna() throws Exception {
+        LicenciaResponseRecord licencia = mock(LicenciaResponseRecord.class);
+        LicenciaRecord culpable = LicenciaRecord.builder().titularId(99L).clase(ClaseLicencia.B).build();
+        when(licenciaLoteService.emitirLote(anyList())).thenAnswer(inv -> {
+            List<LicenciaRecord> lote = inv.getArgument(0);
+            if (lote.stream().anyMatch(r -> r.titularId() == 99L)) {
+                throw new IllegalStateException("fallo de persistencia");
+            }
+            return LoteLicenciasResponseRecord.from(
+                    List.of(ResultadoLoteLicenciaRecord.exito(0, lote.get(0), licencia)));
+        });
+        service = new EmisionAsyncService(licenciaLoteService, emisorResolver, registry, 10, 1, 5, 60, 1000);
+        // encoladas antes de arrancar: el worker las toma en un solo lote
+        UUID buena = service.encolar(req).id();
+        UUID mala = service.encolar(culpable).id();
+        service.iniciarWorkers();
+
+        assertEquals(EstadoTicket.COMPLETADO, esperarFinalizado(buena).estado());
+        TicketEmisionRecord fallida = esperarFinalizado(mala);
+        assertEquals(EstadoTicket.FALLIDO, fallida.estado());
+        assertNotNull(fallida.error());
+        verify(licenciaLoteService, times(3)).emitirLote(anyList());
+    }
+
+    @Test
+    @DisplayName("detenerWorkers: deja de aceptar y los workers vacían la cola antes de terminar")
+    void detener_vaciaLaCola() {
+        when(licenciaLoteService.emitirLote(anyList())).thenAnswer(inv -> {
+            List<LicenciaRecord> lote = inv.getArgument(0);
+            return LoteLicenciasResponseRecord.from(
+                    List.of(ResultadoLoteLicenciaRecord.exito(0, lote.get(0), mock(LicenciaResponseRecord.class))));
+        });
+        service = new EmisionAsyncService(licenciaLoteService, emisorResolver, registry, 10, 1, 1, 60, 1000);
+        List<UUID> encoladas = List.of(service.encolar(req).id(), service.encolar(req).id(), service.encolar(req).id());
+        service.iniciarWorkers();
+
+        service.detenerWorkers();
+
+        encoladas.forEach(id -> assertEquals(EstadoTicket.COMPLETADO, service.consultar(id).estado()));
+        assertThrows(ColaSaturadaException.class, () -> service.encolar(req));
+    }
+
+    @Test
+    @DisplayName("detenerWorkers: vencida la espera, lo que sigue en la cola queda FALLIDO")
+    void detener_esperaVencida_marcaFallidas() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(licenciaLoteService.emitirLote(anyList())).thenAnswer(inv -> {
+            enCurso.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            List<LicenciaRecord> lote = inv.getArgument(0);
+            return LoteLicenciasResponseRecord.from(
+                    List.of(ResultadoLoteLicenciaRecord.exito(0, lote.get(0), mock(LicenciaResponseRecord.class))));
+        });
+        service = new EmisionAsyncService(licenciaLoteService, emisorResolver, registry, 10, 1, 1, 60, 50);
+        service.encolar(req);
+        UUID sinTomar = service.encolar(req).id();
+        service.iniciarWorkers();
+        assertTrue(enCurso.await(1, TimeUnit.SECONDS));
+
+        try {
+            service.detenerWorkers();
+        } finally {
+            liberar.countDown();
+        }
+
+        TicketEmisionRecord fallida = service.consultar(sinTomar);
+        assertEquals(EstadoTicket.FALLIDO, fallida.estado());
+        assertNotNull(fallida.error());
+        assertEquals(0.0, registry.get("licencias.emision.cola.profundidad").gauge().value());
+    }
+
+    private TicketEmisionRecord esperarFinalizado(UUID id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            TicketEmisionRecord t = service.consultar(id);
+            if (t.estado().finalizado()) {
+                return t;
+            }
+            Thread.sleep(20);
+        }
+        return fail("El ticket no finalizó a tiempo");
+    }
+}
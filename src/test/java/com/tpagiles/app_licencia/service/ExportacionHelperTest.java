@@ -0,0 +1,90 @@
+package com.tpagiles.app_licencia.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpagiles.app_licencia.model.enums.FormatoExportacion;
+import com.tpagiles.app_licencia.service.helper.ExportacionHelper;
+import com.tpagiles.app_licencia.service.helper.ExportacionHelper.Columna;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportacionHelperTest {
+
+    private record Fila(long id, String nombre) {
+    }
+
+    private static final List<Columna<Fila>> COLUMNAS = List.of(
+            new Columna<>("id", Fila::id),
+            new Columna<>("nombre", Fila::nombre)
+    );
+
+    private final ExportacionHelper helper = new ExportacionHelper(new ObjectMapper());
+
+    @Test
+    void csv_escribeEncabezadoYEscapaValores() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long filas = helper.escribir(
+                Stream.of(new Fila(1, "Pérez, Juan"), new Fila(2, "Dice \"hola\""), new Fila(3, null)),
+                COLUMNAS, FormatoExportacion.CSV, out);
+
+        assertEquals(3, filas);
+        assertEquals("id,nombre\r\n"
+                        + "1,\"Pérez, Juan\"\r\n"
+                        + "2,\"Dice \"\"hola\"\"\"\r\n"
+                        + "3,\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjson_escribeUnObjetoPorLinea() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long filas = helper.escribir(
+                Stream.of(new Fila(1, "Ana"), new Fila(2, "Luis")),
+                COLUMNAS, FormatoExportacion.NDJSON, out);
+
+        assertEquals(2, filas);
+        assertEquals("{\"id\":1,\"nombre\":\"Ana\"}\n{\"id\":2,\"nombre\":\"Luis\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sinFilas_csvSoloEncabezado() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long filas = helper.escribir(Stream.<Fila>empty(), COLUMNAS, FormatoExportacion.CSV, out);
+
+        assertEquals(0, filas);
+        assertEquals("id,nombre\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void columnaTexto_valorNullQuedaVacio() throws Exception {
+        record Vencimiento(long id, LocalDate fecha) {
+        }
+        List<Columna<Vencimiento>> columnas = List.of(
+                new Columna<>("id", Vencimiento::id),
+                Columna.texto("fecha", Vencimiento::fecha));
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        helper.escribir(Stream.of(new Vencimiento(1, LocalDate.of(2025, 6, 1)), new Vencimiento(2, null)),
+                columnas, FormatoExportacion.CSV, csv);
+        helper.escribir(Stream.of(new Vencimiento(2, null)), columnas, FormatoExportacion.NDJSON, ndjson);
+
+        assertEquals("id,fecha\r\n1,2025-06-01\r\n2,\r\n", csv.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"id\":2,\"fecha\":null}\n", ndjson.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void formatoDesconocido_lanzaIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> FormatoExportacion.desde("xml"));
+    }
+}
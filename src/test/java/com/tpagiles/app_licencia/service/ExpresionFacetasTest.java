@@ -0,0 +1,61 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.model.enums.Faceta;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.No;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.O;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.Valores;
+import com.tpagiles.app_licencia.service.helper.ExpresionFacetas.Y;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpresionFacetasTest {
+
+    @Test
+    @DisplayName("AND liga más fuerte que OR; la coma es un OR de valores")
+    void parsear_precedencia() {
+        assertEquals(
+                new O(List.of(
+                        new Y(List.of(
+                                new Valores(Faceta.GRUPO_SANGUINEO, List.of("O")),
+                                new Valores(Faceta.FACTOR_RH, List.of("NEGATIVO")))),
+                        new Valores(Faceta.CLASE, List.of("D", "E")))),
+                ExpresionFacetas.parsear("grupoSanguineo:o and factorRh:negativo OR clase:d, e"));
+    }
+
+    @Test
+    @DisplayName("NOT y paréntesis")
+    void parsear_notYParentesis() {
+        assertEquals(
+                new Y(List.of(
+                        new Valores(Faceta.DONANTE_ORGANOS, List.of("true")),
+                        new No(new O(List.of(
+                                new Valores(Faceta.VIGENTE, List.of("true")),
+                                new Valores(Faceta.CLASE, List.of("A"))))))),
+                ExpresionFacetas.parsear("donanteOrganos:TRUE AND NOT (vigente:true OR clase:A)"));
+    }
+
+    @Test
+    @DisplayName("Facetas, valores o sintaxis inválidos → IllegalArgumentException")
+    void parsear_invalidos() {
+        assertThrows(IllegalArgumentException.class, () -> ExpresionFacetas.parsear("color:rojo"));
+        assertThrows(IllegalArgumentException.class, () -> ExpresionFacetas.parsear("clase:Z"));
+        assertThrows(IllegalArgumentException.class, () -> ExpresionFacetas.parsear("(clase:A"));
+        assertThrows(IllegalArgumentException.class, () -> ExpresionFacetas.parsear("clase:A AND"));
+        assertThrows(IllegalArgumentException.class, () -> ExpresionFacetas.parsear("clase:A vigente:true"));
+        assertThrows(IllegalArgumentException.class, () -> ExpresionFacetas.parsear("clase=A"));
+    }
+
+    @Test
+    @DisplayName("usaFacetasDeLicencia detecta clase o vigente en cualquier nivel")
+    void usaFacetasDeLicencia() {
+        assertFalse(ExpresionFacetas.usaFacetasDeLicencia(
+                ExpresionFacetas.parsear("grupoSanguineo:A OR NOT donanteOrganos:true")));
+        assertTrue(ExpresionFacetas.usaFacetasDeLicencia(
+                ExpresionFacetas.parsear("grupoSanguineo:A OR NOT (factorRh:POSITIVO AND vigente:false)")));
+    }
+}
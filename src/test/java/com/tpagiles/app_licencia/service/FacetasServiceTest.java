@@ -0,0 +1,204 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.FacetaLicenciaRecord;
+import com.tpagiles.app_licencia.dto.FacetaTitularRecord;
+import com.tpagiles.app_licencia.dto.FacetasResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.UnidadFacetas;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.impl.FacetasService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class FacetasServiceTest {
+
+    @Mock
+    private TitularRepository titularRepo;
+
+    @Mock
+    private LicenciaRepository licenciaRepo;
+
+    // la "base"
+    private final TreeMap<Long, FacetaTitularRecord> titulares = new TreeMap<>();
+    private final TreeMap<Long, FacetaLicenciaRecord> licencias = new TreeMap<>();
+
+    private FacetasService facetas;
+
+    @BeforeEach
+    void setUp() {
+        titulares.put(1L, new FacetaTitularRecord(1L, GrupoSanguineo.O, FactorRh.POSITIVO, true));
+        titulares.put(2L, new FacetaTitularRecord(2L, GrupoSanguineo.A, FactorRh.NEGATIVO, false));
+        titulares.put(3L, new FacetaTitularRecord(3L, GrupoSanguineo.O, FactorRh.NEGATIVO, true));
+        licencias.put(10L, new FacetaLicenciaRecord(10L, 1L, ClaseLicencia.B, true));
+        licencias.put(11L, new FacetaLicenciaRecord(11L, 1L, ClaseLicencia.A, false));
+        licencias.put(12L, new FacetaLicenciaRecord(12L, 2L, ClaseLicencia.B, true));
+        licencias.put(13L, new FacetaLicenciaRecord(13L, 3L, ClaseLicencia.D, true));
+
+        lenient().when(titularRepo.findFacetas(anyLong(), any(Limit.class))).thenAnswer(inv ->
+                titulares.tailMap(inv.<Long>getArgument(0), false).values().stream()
+                        .limit(inv.<Limit>getArgument(1).max()).toList());
+        lenient().when(licenciaRepo.findFacetas(anyLong(), any(Limit.class))).thenAnswer(inv ->
+                licencias.tailMap(inv.<Long>getArgument(0), false).values().stream()
+                        .limit(inv.<Limit>getArgument(1).max()).toList());
+
+        // lotes de dos: la carga recorre varias páginas
+        facetas = new FacetasService(titularRepo, licenciaRepo, 2);
+        facetas.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private long total(String filtro, UnidadFacetas unidad) {
+        return facetas.contar(filtro, unidad).total();
+    }
+
+    private static Titular titular(long id, GrupoSanguineo grupo, FactorRh factor, boolean donante) {
+        Titular t = new Titular();
+        t.setId(id);
+        t.setGrupoSanguineo(grupo);
+        t.setFactorRh(factor);
+        t.setDonanteOrganos(donante);
+        return t;
+    }
+
+    private static Licencia licencia(long id, Titular titular, ClaseLicencia clase, boolean vigente) {
+        return Licencia.builder().id(id).titular(titular).clase(clase).vigente(vigente).build();
+    }
+
+    @Test
+    @DisplayName("Sin filtro: totales y desglose de licencias con los atributos de su titular")
+    void contar_sinFiltro() {
+        FacetasResponseRecord r = facetas.contar(null, UnidadFacetas.LICENCIAS);
+
+        assertEquals(4, r.total());
+        assertEquals(3L, r.facetas().get("grupoSanguineo").get("O"));
+        assertEquals(1L, r.facetas().get("grupoSanguineo").get("A"));
+        assertEquals(0L, r.facetas().get("grupoSanguineo").get("AB"));
+        assertEquals(2L, r.facetas().get("clase").get("B"));
+        assertEquals(Map.of("true", 3L, "false", 1L), r.facetas().get("vigente"));
+
+        FacetasResponseRecord porTitular = facetas.contar("", UnidadFacetas.TITULARES);
+        assertEquals(3, porTitular.total());
+        assertEquals(List.of("grupoSanguineo", "factorRh", "donanteOrganos"),
+                List.copyOf(porTitular.facetas().keySet()));
+    }
+
+    @Test
+    @DisplayName("Filtros AND/OR/NOT; con facetas de licencia, los titulares se cuentan una vez")
+    void contar_conFiltro() {
+        assertEquals(2, total("donanteOrganos:true AND vigente:true", UnidadFacetas.LICENCIAS));
+        assertEquals(3, total("clase:B,D", UnidadFacetas.LICENCIAS));
+        assertEquals(1, total("NOT vigente:true", UnidadFacetas.LICENCIAS));
+        assertEquals(2, total("grupoSanguineo:O AND (clase:D OR NOT vigente:true)", UnidadFacetas.LICENCIAS));
+
+        assertEquals(2, total("grupoSanguineo:O", UnidadFacetas.TITULARES));
+        assertEquals(1, total("NOT factorRh:NEGATIVO", UnidadFacetas.TITULARES));
+        // el titular 1 tiene dos licencias que cumplen: cuenta una sola vez
+        assertEquals(2, total("clase:A,B", UnidadFacetas.TITULARES));
+        FacetasResponseRecord r = facetas.contar("clase:A,B", UnidadFacetas.TITULARES);
+        assertEquals(1L, r.facetas().get("donanteOrganos").get("true"));
+    }
+
+    @Test
+    @DisplayName("Cambios: altas, cambios de titular, vencimientos y bajas actualizan los bitmaps")
+    void cambios_actualizanConteos() {
+        Titular nuevo = titular(4L, GrupoSanguineo.AB, FactorRh.POSITIVO, false);
+        facetas.registrarTitular(nuevo);
+        facetas.registrarLicencia(licencia(14L, nuevo, ClaseLicencia.E, true));
+        assertEquals(1, total("grupoSanguineo:AB AND clase:E", UnidadFacetas.LICENCIAS));
+
+        // el titular 2 pasa a ser donante: su licencia lo refleja
+        facetas.registrarTitular(titular(2L, GrupoSanguineo.A, FactorRh.NEGATIVO, true));
+        assertEquals(3, total("donanteOrganos:true AND vigente:true", UnidadFacetas.LICENCIAS));
+
+        facetas.marcarNoVigentes(List.of(10L, 12L));
+        assertEquals(3, total("vigente:false", UnidadFacetas.LICENCIAS));
+
+        facetas.eliminarTitular(1L);
+        assertEquals(3, total(null, UnidadFacetas.LICENCIAS));
+        assertEquals(3, total(null, UnidadFacetas.TITULARES));
+        assertEquals(1, total("vigente:false", UnidadFacetas.LICENCIAS));
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción los cambios esperan al commit y se descartan en rollback")
+    void cambios_respetanTransaccion() {
+        Titular t3 = titular(3L, GrupoSanguineo.O, FactorRh.NEGATIVO, true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        facetas.registrarLicencia(licencia(20L, t3, ClaseLicencia.G, true));
+        // rollback: nunca se llama a afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(0, total("clase:G", UnidadFacetas.LICENCIAS));
+
+        TransactionSynchronizationManager.initSynchronization();
+        facetas.registrarLicencia(licencia(20L, t3, ClaseLicencia.G, true));
+        assertEquals(0, total("clase:G", UnidadFacetas.LICENCIAS));
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, total("clase:G", UnidadFacetas.LICENCIAS));
+    }
+
+    @Test
+    @DisplayName("Reconstruir: corrige desvíos y no pierde los cambios confirmados mientras corre")
+    void reconstruir_conCambiosConcurrentes() {
+        // cambio hecho en otro nodo: solo lo ve la reconstrucción
+        licencias.put(15L, new FacetaLicenciaRecord(15L, 2L, ClaseLicencia.C, true));
+
+        AtomicBoolean cambiado = new AtomicBoolean();
+        doAnswer(inv -> {
+            long despuesId = inv.getArgument(0);
+            List<FacetaLicenciaRecord> leidas = licencias.tailMap(despuesId, false).values().stream()
+                    .limit(inv.<Limit>getArgument(1).max()).toList();
+            if (despuesId > 10L && cambiado.compareAndSet(false, true)) {
+                // la licencia 10 vence después de que la reconstrucción ya la leyó como vigente
+                licencias.put(10L, new FacetaLicenciaRecord(10L, 1L, ClaseLicencia.B, false));
+                facetas.marcarNoVigentes(List.of(10L));
+            }
+            return leidas;
+        }).when(licenciaRepo).findFacetas(anyLong(), any(Limit.class));
+
+        facetas.reconstruir();
+
+        assertEquals(1, total("clase:C", UnidadFacetas.LICENCIAS));
+        assertEquals(2, total("vigente:false", UnidadFacetas.LICENCIAS));
+        assertEquals(0, total("clase:B AND grupoSanguineo:O AND vigente:true", UnidadFacetas.LICENCIAS));
+    }
+
+    @Test
+    @DisplayName("Filtro inválido → IllegalArgumentException")
+    void contar_filtroInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> facetas.contar("clase:Z", UnidadFacetas.LICENCIAS));
+    }
+}
@@ -0,0 +1,93 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.RespuestaIdempotenteRecord;
+import com.tpagiles.app_licencia.exception.SolicitudEnCursoException;
+import com.tpagiles.app_licencia.service.impl.IdempotenciaMemoriaStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaMemoriaStoreTest {
+
+    private static final RespuestaIdempotenteRecord RESPUESTA =
+            new RespuestaIdempotenteRecord("h1", 201, "application/json", "{\"id\":1}".getBytes());
+
+    @Test
+    void primeraSolicitud_reservaYLuegoRepite() {
+        IdempotenciaMemoriaStore store = new IdempotenciaMemoriaStore(60, 1000, 100);
+
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+        store.completar("k", RESPUESTA);
+
+        Optional<RespuestaIdempotenteRecord> repetida = store.reservarOEsperar("k", "h1");
+        assertTrue(repetida.isPresent());
+        assertEquals(201, repetida.get().status());
+    }
+
+    @Test
+    void duplicadoConcurrente_esperaALaPrimera() throws Exception {
+        IdempotenciaMemoriaStore store = new IdempotenciaMemoriaStore(60, 5000, 100);
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+
+        CompletableFuture<Optional<RespuestaIdempotenteRecord>> duplicado =
+                CompletableFuture.supplyAsync(() -> store.reservarOEsperar("k", "h1"));
+        Thread.sleep(50);
+        assertFalse(duplicado.isDone());
+
+        store.completar("k", RESPUESTA);
+        assertEquals(RESPUESTA, duplicado.get(1, TimeUnit.SECONDS).orElseThrow());
+    }
+
+    @Test
+    void duplicadoConcurrente_tomaLaClaveSiLaPrimeraSeLibera() throws Exception {
+        IdempotenciaMemoriaStore store = new IdempotenciaMemoriaStore(60, 5000, 100);
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+
+        CompletableFuture<Optional<RespuestaIdempotenteRecord>> duplicado =
+                CompletableFuture.supplyAsync(() -> store.reservarOEsperar("k", "h1"));
+        Thread.sleep(50);
+        store.liberar("k");
+
+        assertTrue(duplicado.get(1, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void duplicadoConcurrente_fallaAlVencerLaEspera() {
+        IdempotenciaMemoriaStore store = new IdempotenciaMemoriaStore(60, 50, 100);
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+
+        assertThrows(SolicitudEnCursoException.class, () -> store.reservarOEsperar("k", "h1"));
+    }
+
+    @Test
+    void superaElMaximo_descartaLasCompletadasMasViejas() throws Exception {
+        IdempotenciaMemoriaStore store = new IdempotenciaMemoriaStore(60, 1000, 2);
+        for (String k : new String[]{"a", "b", "c"}) {
+            assertTrue(store.reservarOEsperar(k, "h1").isEmpty());
+            store.completar(k, RESPUESTA);
+            Thread.sleep(5);
+        }
+
+        // "a" fue descartada y vuelve a reservarse; "c" sigue guardada
+        assertTrue(store.reservarOEsperar("a", "h1").isEmpty());
+        assertTrue(store.reservarOEsperar("c", "h1").isPresent());
+    }
+
+    @Test
+    void purga_noTocaUnaClaveReservadaDeNuevo() throws Exception {
+        IdempotenciaMemoriaStore store = new IdempotenciaMemoriaStore(0, 50, 100);
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+        store.completar("k", RESPUESTA);
+        Thread.sleep(5);
+
+        // la completada venció: la clave se vuelve a reservar y queda en curso
+        assertTrue(store.reservarOEsperar("k", "h1").isEmpty());
+        store.purgarExpiradas();
+
+        assertThrows(SolicitudEnCursoException.class, () -> store.reservarOEsperar("k", "h1"));
+    }
+}
@@ -0,0 +1,189 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.TitularBusquedaResponseRecord;
+import com.tpagiles.app_licencia.dto.TitularIndiceRecord;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularRepository;
+import com.tpagiles.app_licencia.service.impl.IndiceTitularesService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceTitularesServiceTest {
+
+    @Mock
+    private TitularRepository titularRepo;
+
+    // la "base": el índice siempre relee de acá
+    private final ConcurrentSkipListMap<Long, TitularIndiceRecord> base = new ConcurrentSkipListMap<>();
+
+    private IndiceTitularesService indice;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        guardar(1, "Juan", "Pérez", "20.111.222", "San Martín 100");
+        guardar(2, "Juana", "Perea", "20111333", "Belgrano 200");
+        guardar(3, "María José", "González", "30444555", "Rivadavia 300");
+        guardar(4, "Pedro", "Martínez", "X123456", "Mitre 400");
+        guardar(5, "Lucía", "Gómez", "40666777", "Sarmiento 500");
+
+        lenient().when(titularRepo.findMaxId()).thenAnswer(inv -> base.isEmpty() ? 0L : base.lastKey());
+        lenient().when(titularRepo.findParaIndice(anyLong(), anyLong(), any(Limit.class))).thenAnswer(inv -> {
+            long despuesId = inv.getArgument(0);
+            long hastaId = inv.getArgument(1);
+            Limit limite = inv.getArgument(2);
+            return base.subMap(despuesId, false, hastaId, true).values().stream().limit(limite.max()).toList();
+        });
+        lenient().when(titularRepo.findParaIndiceById(any())).thenAnswer(inv ->
+                Optional.ofNullable(base.get(inv.<Long>getArgument(0))));
+
+        // dos hilos y lotes de dos: la reconstrucción recorre varios rangos y varias páginas
+        indice = new IndiceTitularesService(titularRepo, "", 2, 2, false);
+        indice.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        indice.cerrar();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void guardar(long id, String nombre, String apellido, String documento, String direccion) {
+        base.put(id, new TitularIndiceRecord(id, nombre, apellido, TipoDocumento.DNI, documento, direccion));
+    }
+
+    private List<Long> ids(String consulta) {
+        return indice.buscar(consulta, 10).stream().map(TitularBusquedaResponseRecord::id).toList();
+    }
+
+    @Test
+    @DisplayName("Reconstruir: indexa todos los titulares recorriendo rangos en paralelo")
+    void reconstruir_indexaTodo() {
+        assertEquals(5, indice.reconstruir());
+
+        TitularBusquedaResponseRecord juan = indice.buscar("juan perez", 10).getFirst();
+        assertEquals(1L, juan.id());
+        assertEquals("Pérez", juan.apellido());
+        assertEquals("20.111.222", juan.numeroDocumento());
+        assertEquals(TipoDocumento.DNI, juan.tipoDocumento());
+    }
+
+    @Test
+    @DisplayName("Buscar: aproximada, por prefijo y sin distinguir tildes ni mayúsculas")
+    void buscar_aproximadaYPrefijo() {
+        indice.reconstruir();
+
+        assertEquals(3L, ids("gonzales").getFirst());
+        assertEquals(List.of(5L), ids("GOMEZ"));
+        assertEquals(4L, ids("mart").getFirst());
+        assertEquals(3L, ids("maria jose gonzalez").getFirst());
+        // documento por prefijo, con o sin puntos
+        assertEquals(1L, ids("20.111.2").getFirst());
+        assertEquals(List.of(4L), ids("x1234"));
+        assertEquals(List.of(), ids("   "));
+        assertEquals(List.of(), ids("zzzzzz"));
+    }
+
+    @Test
+    @DisplayName("Buscar: la coincidencia exacta aparece antes que la aproximada")
+    void buscar_ordenaPorRelevancia() {
+        indice.reconstruir();
+
+        List<TitularBusquedaResponseRecord> resultado = indice.buscar("perez", 10);
+
+        assertEquals(List.of(1L, 2L), resultado.stream().map(TitularBusquedaResponseRecord::id).toList());
+        assertTrue(resultado.get(0).relevancia() > resultado.get(1).relevancia());
+    }
+
+    @Test
+    @DisplayName("registrarCambio: altas, cambios y bajas se ven después de sincronizar")
+    void registrarCambio_actualizaIndice() {
+        indice.reconstruir();
+
+        guardar(6, "Tomás", "Acosta", "50888999", "Urquiza 600");
+        guardar(5, "Lucía", "Fernández", "40666777", "Sarmiento 500");
+        base.remove(2L);
+        indice.registrarCambio(6L);
+        indice.registrarCambio(5L);
+        indice.registrarCambio(2L);
+        indice.sincronizar();
+
+        assertEquals(List.of(6L), ids("acosta"));
+        assertEquals(List.of(5L), ids("fernandez"));
+        assertEquals(List.of(), ids("gomez"));
+        assertEquals(List.of(1L), ids("perea juana"));
+    }
+
+    @Test
+    @DisplayName("registrarCambio: dentro de una transacción espera al commit y se descarta en rollback")
+    void registrarCambio_respetaTransaccion() {
+        guardar(6, "Tomás", "Acosta", "50888999", "Urquiza 600");
+
+        TransactionSynchronizationManager.initSynchronization();
+        indice.registrarCambio(6L);
+        // rollback: nunca se llama a afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+        indice.sincronizar();
+        assertEquals(List.of(), ids("acosta"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        indice.registrarCambio(6L);
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+        indice.sincronizar();
+        assertEquals(List.of(6L), ids("acosta"));
+    }
+
+    @Test
+    @DisplayName("Reconstruir con escrituras concurrentes: no deja datos viejos ni titulares borrados")
+    void reconstruir_conCambiosConcurrentes() {
+        indice.reconstruir();
+        base.remove(5L);
+
+        AtomicBoolean cambiado = new AtomicBoolean();
+        lenient().doAnswer(inv -> {
+            long despuesId = inv.getArgument(0);
+            long hastaId = inv.getArgument(1);
+            Limit limite = inv.getArgument(2);
+            List<TitularIndiceRecord> leidos =
+                    base.subMap(despuesId, false, hastaId, true).values().stream().limit(limite.max()).toList();
+            if (despuesId == 0 && cambiado.compareAndSet(false, true)) {
+                // otro request renombra al titular 1 después de que la reconstrucción lo leyó
+                // y el indexador lo aplica antes de que la reconstrucción escriba su copia vieja
+                guardar(1, "Juan", "Zapata", "20.111.222", "San Martín 100");
+                indice.registrarCambio(1L);
+                indice.sincronizar();
+            }
+            return leidos;
+        }).when(titularRepo).findParaIndice(anyLong(), anyLong(), any(Limit.class));
+
+        assertEquals(4, indice.reconstruir());
+        indice.sincronizar();
+
+        assertEquals(List.of(1L), ids("zapata"));
+        assertFalse(ids("perez").contains(1L));
+        // el titular 5 se borró de la base sin pasar por el servicio: lo limpia la reconstrucción
+        assertEquals(List.of(), ids("lucia gomez"));
+    }
+}
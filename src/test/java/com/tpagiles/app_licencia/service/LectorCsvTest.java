@@ -0,0 +1,75 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.service.helper.ConjuntoDocumentos;
+import com.tpagiles.app_licencia.service.helper.LectorCsv;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorCsvTest {
+
+    @Test
+    void leer_camposSimplesConCrlfYLf() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a,b,c\r\n1,,3\nx,y,z"));
+
+        assertEquals(List.of("a", "b", "c"), lector.leer());
+        assertEquals(1, lector.linea());
+        assertEquals(List.of("1", "", "3"), lector.leer());
+        assertEquals(2, lector.linea());
+        assertEquals(List.of("x", "y", "z"), lector.leer());
+        assertEquals(3, lector.linea());
+        assertNull(lector.leer());
+    }
+
+    @Test
+    void leer_comillasConComasComillasYSaltos() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader(
+                "\"Pérez, Juan\",\"dice \"\"hola\"\"\",\"Calle 1\nPiso 2\"\r\nfin,,\n"));
+
+        assertEquals(List.of("Pérez, Juan", "dice \"hola\"", "Calle 1\nPiso 2"), lector.leer());
+        assertEquals(1, lector.linea());
+        // el registro anterior ocupó dos líneas físicas
+        assertEquals(List.of("fin", "", ""), lector.leer());
+        assertEquals(3, lector.linea());
+        assertNull(lector.leer());
+    }
+
+    @Test
+    void leer_ignoraBomInicial() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("\uFEFFnombre,apellido\n"));
+
+        assertEquals(List.of("nombre", "apellido"), lector.leer());
+        assertNull(lector.leer());
+    }
+
+    @Test
+    void leer_comillaSinCerrar_lanzaExcepcion() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("ok\n\"abierta,sin cerrar\n"));
+
+        assertEquals(List.of("ok"), lector.leer());
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, lector::leer);
+        assertTrue(ex.getMessage().contains("línea 2"));
+    }
+
+    @Test
+    void conjuntoDocumentos_detectaRepetidosNumericosYAlfanumericos() {
+        ConjuntoDocumentos documentos = new ConjuntoDocumentos();
+
+        assertTrue(documentos.agregar("30123456"));
+        assertTrue(documentos.agregar("4294967295"));
+        assertTrue(documentos.agregar("AAA123456"));
+        // con cero a la izquierda es otro documento
+        assertTrue(documentos.agregar("030123456"));
+        assertTrue(documentos.agregar("4294967296"));
+
+        assertFalse(documentos.agregar("30123456"));
+        assertFalse(documentos.agregar("AAA123456"));
+        assertFalse(documentos.agregar("030123456"));
+        assertFalse(documentos.agregar("4294967296"));
+        assertEquals(5, documentos.tamanio());
+    }
+}
@@ -0,0 +1,133 @@
+package com.tpagiles.app_licencia.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.tpagiles.app_licencia.dto.HistorialLicenciaRecord;
+import com.tpagiles.app_licencia.dto.LicenciaRecord;
+import com.tpagiles.app_licencia.dto.LoteLicenciasResponseRecord;
+import com.tpagiles.app_licencia.model.Licencia;
+import com.tpagiles.app_licencia.model.Titular;
+import com.tpagiles.app_licencia.model.Usuario;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.LicenciaBatchRepository;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import com.tpagiles.app_licencia.security.EmisorResolver;
+import com.tpagiles.app_licencia.service.helper.BloqueoTitularHelper;
+import com.tpagiles.app_licencia.service.helper.CostoLicenciaHelper;
+import com.tpagiles.app_licencia.service.helper.LicenciaHelper;
+import com.tpagiles.app_licencia.service.impl.LicenciaLoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LicenciaLoteServiceTest {
+
+    @Mock
+    private LicenciaRepository licenciaRepo;
+
+    @Mock
+    private LicenciaBatchRepository licenciaBatchRepo;
+
+    @Mock
+    private UsuarioRepository usuarioRepo;
+
+    @Mock
+    private EmisorResolver emisorResolver;
+
+    @Mock
+    private CostoLicenciaHelper costoHelper;
+
+    @Mock
+    private BloqueoTitularHelper bloqueoTitular;
+
+    @Mock
+    private IContadorService contadores;
+
+    @Mock
+    private IMotorVencimientoService motorVencimientos;
+
+    @Mock
+    private IFacetasService facetas;
+
+    @Spy
+    private LicenciaHelper licenciaHelper = new LicenciaHelper();
+
+    @InjectMocks
+    private LicenciaLoteService service;
+
+    private Titular titular;
+    private Usuario emisor;
+
+    @BeforeEach
+    void setUp() {
+        titular = new Titular();
+        titular.setId(10L);
+        titular.setNombre("Juan");
+        titular.setApellido("Pérez");
+        titular.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        titular.setTipoDocumento(TipoDocumento.DNI);
+        titular.setNumeroDocumento("12345678");
+        titular.setGrupoSanguineo(GrupoSanguineo.O);
+        titular.setFactorRh(FactorRh.POSITIVO);
+        titular.setDireccion("Calle Falsa 123");
+
+        emisor = new Usuario();
+        emisor.setId(5L);
+        emisor.setMail("admin@municipio.gob");
+    }
+
+    @Test
+    @DisplayName("emitirLote → emite los válidos en un solo batch y rechaza el resto")
+    void emitirLote_resultadosPorElemento() {
+        when(licenciaRepo.findHistorialByTitularIds(anySet())).thenReturn(List.of(
+                new HistorialLicenciaRecord(titular, ClaseLicencia.A, true,
+                        LocalDate.now().minusYears(1), LocalDate.now().plusYears(4))
+        ));
+        when(usuarioRepo.findByMailIn(anySet())).thenReturn(List.of(emisor));
+        // sin usuario autenticado: se usa el mail indicado en cada elemento
+        when(emisorResolver.mailDeOverride(anyString())).thenAnswer(inv -> inv.getArgument(0));
+        when(costoHelper.obtenerCosto(any(), anyInt())).thenReturn(48.0);
+        doAnswer(inv -> {
+            List<Licencia> licencias = inv.getArgument(0);
+            for (int i = 0; i < licencias.size(); i++) licencias.get(i).setId(100L + i);
+            return null;
+        }).when(licenciaBatchRepo).insertarTodas(anyList());
+
+        List<LicenciaRecord> lote = List.of(
+                new LicenciaRecord(10L, ClaseLicencia.B, null, null, "admin@municipio.gob"), // ok
+                new LicenciaRecord(10L, ClaseLicencia.A, null, null, "admin@municipio.gob"), // ya vigente
+                new LicenciaRecord(10L, ClaseLicencia.B, null, null, "admin@municipio.gob"), // duplicada en el lote
+                new LicenciaRecord(99L, ClaseLicencia.B, null, null, "admin@municipio.gob"), // titular inexistente
+                new LicenciaRecord(10L, ClaseLicencia.G, null, null, "otro@municipio.gob")   // emisor inexistente
+        );
+
+        LoteLicenciasResponseRecord resp = service.emitirLote(lote);
+
+        assertEquals(5, resp.total());
+        assertEquals(1, resp.emitidas());
+        assertEquals(4, resp.rechazadas());
+        assertTrue(resp.resultados().get(0).exitoso());
+        assertEquals(100L, resp.resultados().get(0).licencia().id());
+        assertFalse(resp.resultados().get(1).exitoso());
+        assertFalse(resp.resultados().get(2).exitoso());
+        assertTrue(resp.resultados().get(3).error().contains("Titular no encontrado"));
+        assertTrue(resp.resultados().get(4).error().contains("emisor"));
+        verify(licenciaBatchRepo, times(1)).insertarTodas(argThat(l -> l.size() == 1));
+        verify(licenciaRepo, never()).save(any());
+    }
+}
@@ -6,8 +6,10 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
+import com.tpagiles.app_licencia.dto.CursorKeyset;
+import com.tpagiles.app_licencia.dto.ElegibilidadTitularRecord;
+import com.tpagiles.app_licencia.dto.HistorialLicenciaRecord;
 import com.tpagiles.app_licencia.dto.LicenciaRecord;
 import com.tpagiles.app_licencia.dto.LicenciaResponseRecord;
 import com.tpagiles.app_licencia.dto.TitularConLicenciasResponseRecord;
@@ -19,10 +21,12 @@ import com.tpagiles.app_licencia.model.Usuario;
 import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
 import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
 import com.tpagiles.app_licencia.model.enums.FactorRh;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
 import com.tpagiles.app_licencia.repository.LicenciaRepository;
-import com.tpagiles.app_licencia.repository.UsuarioRepository;
+import com.tpagiles.app_licencia.security.EmisorResolver;
 import com.tpagiles.app_licencia.service.impl.LicenciaService;
+import com.tpagiles.app_licencia.service.helper.BloqueoTitularHelper;
 import com.tpagiles.app_licencia.service.helper.CostoLicenciaHelper;
 import com.tpagiles.app_licencia.service.helper.LicenciaHelper;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,13 +35,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 class LicenciaServiceTest {
 
-    @Mock
-    private ITitularService titularService;
-
     @Mock
     private LicenciaRepository licenciaRepo;
 
@@ -48,7 +50,22 @@ class LicenciaServiceTest {
     private LicenciaHelper licenciaHelper;
 
     @Mock
-    private UsuarioRepository usuarioRepo;
+    private EmisorResolver emisorResolver;
+
+    @Mock
+    private BloqueoTitularHelper bloqueoTitular;
+
+    @Mock
+    private IContadorService contadores;
+
+    @Mock
+    private IMotorVencimientoService motorVencimientos;
+
+    @Mock
+    private IFacetasService facetas;
+
+    @Mock
+    private IAutocompletarService autocompletar;
 
     @InjectMocks
     private LicenciaService service;
@@ -105,19 +122,15 @@ class LicenciaServiceTest {
     @Test
     @DisplayName("emitirLicencia → éxito, retorna LicenciaResponseRecord")
     void emitirLicencia_success() {
-        when(titularService.obtenerPorId(record.titularId()))
-                .thenReturn(titular);
-        when(licenciaRepo.existsByTitularIdAndClaseAndVigenteTrueAndFechaVencimientoAfter(
-                eq(record.titularId()), eq(record.clase()), any(LocalDate.class)))
-                .thenReturn(false);
-        doNothing().when(licenciaHelper).validarClaseBasica(record.clase());
-        doNothing().when(licenciaHelper).validarEdadMinima(titular);
-        when(licenciaHelper.calcularVigencia(titular)).thenReturn(5);
+        when(licenciaRepo.findHistorialByTitularId(record.titularId()))
+                .thenReturn(List.of(sinLicencias()));
+        when(licenciaHelper.calcularVigencia(any(ElegibilidadTitularRecord.class))).thenReturn(5);
+        when(licenciaHelper.calcularFechaVencimiento(any(), any(), eq(5)))
+                .thenReturn(LocalDate.now().plusYears(5));
         when(costoHelper.obtenerCosto(record.clase(), 5)).thenReturn(100.0);
 
-        // ← Aquí cambiamos a findByMail(...)
-        when(usuarioRepo.findByMail(record.emisor()))
-                .thenReturn(Optional.of(emisor));
+        when(emisorResolver.resolver(record.emisor()))
+                .thenReturn(emisor);
         when(licenciaRepo.save(any(Licencia.class)))
                 .thenReturn(licenciaEntity);
 
@@ -125,75 +138,128 @@ class LicenciaServiceTest {
 
         assertEquals(licenciaEntity.getId(), resp.id());
         assertEquals("A", resp.clase());
+        verify(bloqueoTitular).bloquearHastaFinDeTransaccion(record.titularId());
+        verify(licenciaHelper).validarClaseYRestricciones(any(ElegibilidadTitularRecord.class), eq(record.clase()));
         verify(licenciaRepo).save(any());
+        verify(contadores).sumar(TipoContador.LICENCIAS_EMITIDAS, 1);
+        verify(facetas).registrarLicencia(any(Licencia.class));
     }
 
     @Test
     @DisplayName("emitirLicencia → ya existe vigente → lanza ResourceAlreadyExistsException")
     void emitirLicencia_existingActiveLicenseThrows() {
-        when(titularService.obtenerPorId(record.titularId()))
-                .thenReturn(titular);
-        when(licenciaRepo.existsByTitularIdAndClaseAndVigenteTrueAndFechaVencimientoAfter(
-                anyLong(), any(), any()))
-                .thenReturn(true);
+        when(licenciaRepo.findHistorialByTitularId(record.titularId()))
+                .thenReturn(List.of(new HistorialLicenciaRecord(
+                        titular, ClaseLicencia.A, true,
+                        LocalDate.now().minusYears(1), LocalDate.now().plusYears(4))));
 
         assertThrows(ResourceAlreadyExistsException.class,
                 () -> service.emitirLicencia(record));
         verify(licenciaRepo, never()).save(any());
     }
 
+    @Test
+    @DisplayName("emitirLicencia → titular inexistente → lanza ResourceNotFoundException")
+    void emitirLicencia_titularNotFoundThrows() {
+        when(licenciaRepo.findHistorialByTitularId(record.titularId()))
+                .thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.emitirLicencia(record));
+        verify(licenciaRepo, never()).save(any());
+    }
+
     @Test
     @DisplayName("emitirLicencia → emisor no encontrado → lanza ResourceNotFoundException")
     void emitirLicencia_emisorNotFoundThrows() {
-        when(titularService.obtenerPorId(record.titularId()))
-                .thenReturn(titular);
-        when(licenciaRepo.existsByTitularIdAndClaseAndVigenteTrueAndFechaVencimientoAfter(
-                anyLong(), any(), any()))
-                .thenReturn(false);
-        when(licenciaHelper.calcularVigencia(titular)).thenReturn(5);
+        when(licenciaRepo.findHistorialByTitularId(record.titularId()))
+                .thenReturn(List.of(sinLicencias()));
+        when(licenciaHelper.calcularVigencia(any(ElegibilidadTitularRecord.class))).thenReturn(5);
         when(costoHelper.obtenerCosto(record.clase(), 5)).thenReturn(100.0);
 
-        // ← ahora buscamos por mail y devolvemos Optional.empty()
-        when(usuarioRepo.findByMail(record.emisor()))
-                .thenReturn(Optional.empty());
+        when(emisorResolver.resolver(record.emisor()))
+                .thenThrow(new ResourceNotFoundException("Usuario emisor no encontrado: " + record.emisor()));
 
         assertThrows(ResourceNotFoundException.class,
                 () -> service.emitirLicencia(record));
     }
 
+    private HistorialLicenciaRecord sinLicencias() {
+        return new HistorialLicenciaRecord(titular, null, null, null, null);
+    }
+
     @Test
-    @DisplayName("listarLicenciasVencidas → retorna lista de DTOs")
-    void listarLicenciasVencidas_returnsList() {
+    @DisplayName("listarLicenciasVencidas → primera página con cursor a la siguiente")
+    void listarLicenciasVencidas_primeraPagina() {
         LocalDate hoy = LocalDate.now();
-        Licencia l1 = licenciaEntity;
-        Licencia l2 = Licencia.builder()
-                .id(21L).titular(titular).clase(ClaseLicencia.B)
-                .vigenciaAnios(3).fechaEmision(hoy.minusYears(4))
-                .fechaVencimiento(hoy.minusDays(1))
-                .costo(80.0).emisor(emisor).vigente(false)
-                .build();
+        Licencia l1 = vencida(21L, hoy.minusDays(3));
+        Licencia l2 = vencida(22L, hoy.minusDays(2));
+        Licencia l3 = vencida(23L, hoy.minusDays(1));
+
+        // limit 2 → se piden 3 filas para saber si hay más
+        when(licenciaRepo.findVencidasPrimeraPagina(hoy, Limit.of(3)))
+                .thenReturn(List.of(l1, l2, l3));
+        when(licenciaRepo.countByFechaVencimientoBefore(hoy)).thenReturn(3L);
+
+        var pagina = service.listarLicenciasVencidas(2, null);
+
+        assertEquals(2, pagina.items().size());
+        assertEquals(3L, pagina.total());
+        assertNotNull(pagina.siguienteCursor());
+        CursorKeyset cursor = CursorKeyset.decodificar(pagina.siguienteCursor(), 1);
+        assertEquals(22L, cursor.id());
+        assertEquals(hoy.minusDays(2), cursor.fecha(0));
+    }
 
-        when(licenciaRepo.findByFechaVencimientoBefore(hoy))
-                .thenReturn(List.of(l1, l2));
+    @Test
+    @DisplayName("listarLicenciasVencidas → con cursor busca después de la última fila y termina")
+    void listarLicenciasVencidas_siguientePagina() {
+        LocalDate hoy = LocalDate.now();
+        Licencia l3 = vencida(23L, hoy.minusDays(1));
+        String after = CursorKeyset.de(22L, hoy.minusDays(2).toString()).codificar();
 
-        var list = service.listarLicenciasVencidas();
-        assertEquals(2, list.size());
-        verify(licenciaRepo).findByFechaVencimientoBefore(hoy);
+        when(licenciaRepo.findVencidasDespuesDe(hoy, hoy.minusDays(2), 22L, Limit.of(3)))
+                .thenReturn(List.of(l3));
+        when(licenciaRepo.countByFechaVencimientoBefore(hoy)).thenReturn(3L);
+
+        var pagina = service.listarLicenciasVencidas(2, after);
+
+        assertEquals(1, pagina.items().size());
+        assertEquals(23L, pagina.items().getFirst().id());
+        assertNull(pagina.siguienteCursor());
+        verify(licenciaRepo, never()).findVencidasPrimeraPagina(any(), any());
+    }
+
+    @Test
+    @DisplayName("listarLicenciasVencidas → cursor mal formado lanza IllegalArgumentException")
+    void listarLicenciasVencidas_cursorInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.listarLicenciasVencidas(2, "no-es-un-cursor"));
+    }
+
+    private Licencia vencida(Long id, LocalDate vencimiento) {
+        return Licencia.builder()
+                .id(id).titular(titular).clase(ClaseLicencia.B)
+                .vigenciaAnios(3).fechaEmision(vencimiento.minusYears(3))
+                .fechaVencimiento(vencimiento)
+                .costo(80.0).emisor(emisor).vigente(false)
+                .build();
     }
 
     @Test
     @DisplayName("contarLicenciasVencidas → devuelve conteo")
     void contarLicenciasVencidas_returnsCount() {
-        when(licenciaRepo.countByFechaVencimientoBefore(any(LocalDate.class)))
-                .thenReturn(7L);
+        when(contadores.valor(TipoContador.LICENCIAS_VENCIDAS)).thenReturn(7L);
         assertEquals(7L, service.contarLicenciasVencidas());
+        verifyNoInteractions(licenciaRepo);
     }
 
     @Test
     @DisplayName("contarTotalLicenciasEmitidas → devuelve conteo total")
     void contarTotalLicenciasEmitidas_returnsCount() {
-        when(licenciaRepo.count()).thenReturn(42L);
+        when(contadores.valor(TipoContador.LICENCIAS_EMITIDAS)).thenReturn(42L);
         assertEquals(42L, service.contarTotalLicenciasEmitidas());
+        verifyNoInteractions(licenciaRepo);
     }
 
     @Test
@@ -0,0 +1,32 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.service.helper.LimitadorTasa;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorTasaTest {
+
+    @Test
+    void adquirir_respetaLaTasaConVariosHilos() {
+        LimitadorTasa limitador = new LimitadorTasa(100);
+
+        long inicio = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            IntStream.range(0, 21).forEach(i -> pool.submit(limitador::adquirir));
+        }
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        // 21 turnos a 100/s: el primero es inmediato y los otros 20 ocupan 200 ms
+        assertTrue(ms >= 190, "terminó en " + ms + " ms");
+    }
+
+    @Test
+    void tasaInvalida_lanzaIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorTasa(0));
+    }
+}
@@ -0,0 +1,82 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.VencimientoProgramadoRecord;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.service.impl.MotorVencimientoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MotorVencimientoServiceTest {
+
+    @Mock
+    private LicenciaRepository licenciaRepo;
+
+    @Mock
+    private IFacetasService facetas;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MotorVencimientoService motor;
+    private LocalDate hoy;
+
+    @BeforeEach
+    void setUp() {
+        motor = new MotorVencimientoService(licenciaRepo, facetas, transactionManager, true, 16, 2);
+        hoy = LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("Carga inicial: las vencidas que siguen vigentes se desactivan en el primer tick, en lotes")
+    void tick_desactivaVencidasCargadas() {
+        when(licenciaRepo.findVigentesQueVencenAntesDe(any())).thenReturn(List.of(
+                new VencimientoProgramadoRecord(1L, hoy.minusDays(3)),
+                new VencimientoProgramadoRecord(2L, hoy.minusDays(1)),
+                new VencimientoProgramadoRecord(3L, hoy.minusDays(1)),
+                new VencimientoProgramadoRecord(4L, hoy.plusDays(5))));
+        motor.cargar();
+
+        motor.tick();
+
+        // tamaño de lote 2: tres vencidas, dos lotes; la 4 sigue agendada
+        verify(licenciaRepo, times(2)).desactivarVencidas(anyCollection(), eq(hoy));
+        verify(licenciaRepo).desactivarVencidas(argThat(ids -> ids.size() == 1), eq(hoy));
+        verify(facetas, times(2)).marcarNoVigentes(anyCollection());
+    }
+
+    @Test
+    @DisplayName("registrar: una licencia nueva ya vencida se desactiva en el siguiente tick")
+    void registrar_agendaYDesactiva() {
+        when(licenciaRepo.findVigentesQueVencenAntesDe(any())).thenReturn(List.of());
+        motor.cargar();
+        motor.tick();
+        verify(licenciaRepo, never()).desactivarVencidas(anyCollection(), any());
+
+        motor.registrar(9L, hoy.minusDays(1));
+        motor.registrar(10L, hoy.plusYears(5));
+        motor.tick();
+
+        verify(licenciaRepo).desactivarVencidas(eq(List.of(9L)), eq(hoy));
+    }
+
+    @Test
+    @DisplayName("Sin carga inicial no agenda nada (lo leerá la carga desde la base)")
+    void registrar_antesDeCargar() {
+        motor.registrar(9L, hoy.minusDays(1));
+        motor.tick();
+
+        verifyNoInteractions(licenciaRepo);
+    }
+}
@@ -0,0 +1,30 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.service.helper.NormalizadorTexto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizadorTextoTest {
+
+    @Test
+    void normalizar_quitaTildesYColapsaEspacios() {
+        assertEquals("PEREZ NUNEZ", NormalizadorTexto.normalizar("  Pérez \t Núñez "));
+        assertEquals("MULLER", NormalizadorTexto.normalizar("Müller"));
+        assertEquals("LUCIA", NormalizadorTexto.normalizar("lucía"));
+        assertEquals("", NormalizadorTexto.normalizar("   "));
+        assertNull(NormalizadorTexto.normalizar(null));
+    }
+
+    @Test
+    void normalizar_formasCompuestaYDescompuestaIguales() {
+        // "é" precompuesta (U+00E9) y "e" + acento combinante (U+0301)
+        assertEquals(NormalizadorTexto.normalizar("P\u00e9rez"), NormalizadorTexto.normalizar("Pe\u0301rez"));
+    }
+
+    @Test
+    void nombreCompleto_apellidoPrimero() {
+        assertEquals("GOMEZ MARIA JOSE", NormalizadorTexto.nombreCompleto("Gómez", "María  José"));
+        assertEquals("GOMEZ", NormalizadorTexto.nombreCompleto("Gómez", null));
+    }
+}
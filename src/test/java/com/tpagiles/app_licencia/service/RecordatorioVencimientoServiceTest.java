@@ -0,0 +1,175 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.LicenciaPorVencerRecord;
+import com.tpagiles.app_licencia.model.RecordatorioVencimiento;
+import com.tpagiles.app_licencia.model.enums.ClaseLicencia;
+import com.tpagiles.app_licencia.model.enums.EstadoRecordatorio;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.RecordatorioBatchRepository;
+import com.tpagiles.app_licencia.repository.RecordatorioVencimientoRepository;
+import com.tpagiles.app_licencia.service.impl.RecordatorioVencimientoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecordatorioVencimientoServiceTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 6, 10);
+
+    @Mock
+    private LicenciaRepository licenciaRepo;
+
+    @Mock
+    private RecordatorioVencimientoRepository recordatorioRepo;
+
+    @Mock
+    private RecordatorioBatchRepository batchRepo;
+
+    @Mock
+    private IRemitenteNotificaciones remitente;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RecordatorioVencimientoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RecordatorioVencimientoService(licenciaRepo, recordatorioRepo, batchRepo, remitente,
+                transactionManager, new int[]{7, 30, 15}, 2, 2, 1000, 3);
+    }
+
+    private static LicenciaPorVencerRecord licencia(long id, LocalDate vence) {
+        return new LicenciaPorVencerRecord(id, "t" + id + "@mail.com", "Ana", "Gómez", ClaseLicencia.B, vence);
+    }
+
+    private static RecordatorioVencimiento pendiente(long id, int intentos) {
+        return RecordatorioVencimiento.builder()
+                .id(id).licenciaId(id).ventanaDias(30).destinatario("t" + id + "@mail.com")
+                .asunto("asunto").cuerpo("cuerpo").estado(EstadoRecordatorio.PENDIENTE)
+                .intentos(intentos).proximoIntento(Instant.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("generar: cada ventana recorre su tramo de fechas, de la más lejana a la más cercana")
+    void generar_rangosPorVentana() {
+        when(licenciaRepo.findPorVencerSinRecordatorio(any(), any(), anyInt(), any(), anyLong(), any(Limit.class)))
+                .thenReturn(List.of());
+
+        service.generar(HOY);
+
+        verify(licenciaRepo).findPorVencerSinRecordatorio(
+                eq(HOY.plusDays(15)), eq(HOY.plusDays(30)), eq(30), eq(HOY.plusDays(15)), eq(0L), any(Limit.class));
+        verify(licenciaRepo).findPorVencerSinRecordatorio(
+                eq(HOY.plusDays(7)), eq(HOY.plusDays(15)), eq(15), eq(HOY.plusDays(7)), eq(0L), any(Limit.class));
+        verify(licenciaRepo).findPorVencerSinRecordatorio(
+                eq(HOY.minusDays(1)), eq(HOY.plusDays(7)), eq(7), eq(HOY.minusDays(1)), eq(0L), any(Limit.class));
+        verifyNoInteractions(batchRepo);
+    }
+
+    @Test
+    @DisplayName("generar: pagina por keyset y escribe un batch por página")
+    @SuppressWarnings("unchecked")
+    void generar_porLotesKeyset() {
+        LocalDate vence = HOY.plusDays(20);
+        when(licenciaRepo.findPorVencerSinRecordatorio(any(), any(), anyInt(), any(), anyLong(), any(Limit.class)))
+                .thenReturn(List.of());
+        when(licenciaRepo.findPorVencerSinRecordatorio(any(), any(), eq(30), eq(HOY.plusDays(15)), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(licencia(1, vence), licencia(2, vence)));
+        when(licenciaRepo.findPorVencerSinRecordatorio(any(), any(), eq(30), eq(vence), eq(2L), any(Limit.class)))
+                .thenReturn(List.of(licencia(5, vence.plusDays(1))));
+
+        assertEquals(3, service.generar(HOY));
+
+        ArgumentCaptor<List<RecordatorioVencimiento>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(batchRepo, times(2)).insertarTodos(lotes.capture());
+        assertEquals(List.of(2, 1), lotes.getAllValues().stream().map(List::size).toList());
+        RecordatorioVencimiento r = lotes.getAllValues().getFirst().getFirst();
+        assertEquals(30, r.getVentanaDias());
+        assertEquals("t1@mail.com", r.getDestinatario());
+        assertEquals(EstadoRecordatorio.PENDIENTE, r.getEstado());
+        assertTrue(r.getAsunto().contains("30/06/2025"));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("generar: un duplicado en el lote no descarta las demás filas, se insertan de a una")
+    @SuppressWarnings("unchecked")
+    void generar_duplicadoReintentaFilaPorFila() {
+        LocalDate vence = HOY.plusDays(20);
+        when(licenciaRepo.findPorVencerSinRecordatorio(any(), any(), anyInt(), any(), anyLong(), any(Limit.class)))
+                .thenReturn(List.of());
+        when(licenciaRepo.findPorVencerSinRecordatorio(any(), any(), eq(30), eq(HOY.plusDays(15)), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(licencia(1, vence), licencia(2, vence)));
+        // la licencia 2 ya tiene recordatorio (otra corrida): falla el batch y su fila individual
+        doThrow(new DuplicateKeyException("uk_recordatorio"))
+                .when(batchRepo).insertarTodos(argThat(l -> l.stream().anyMatch(r -> r.getLicenciaId() == 2L)));
+
+        assertEquals(1, service.generar(HOY));
+
+        ArgumentCaptor<List<RecordatorioVencimiento>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(batchRepo, times(3)).insertarTodos(lotes.capture());
+        assertEquals(List.of(2, 1, 1), lotes.getAllValues().stream().map(List::size).toList());
+        assertEquals(1L, lotes.getAllValues().get(1).getFirst().getLicenciaId());
+    }
+
+    @Test
+    @DisplayName("enviarPendientes: confirma los enviados y reprograma los que fallan")
+    @SuppressWarnings("unchecked")
+    void enviarPendientes_reintentos() {
+        RecordatorioVencimiento ok = pendiente(1, 0);
+        RecordatorioVencimiento falla = pendiente(2, 0);
+        // el lote viene lleno (tamaño 2), así que se pide otro y ya no quedan pendientes
+        when(recordatorioRepo.findPendientes(any(Instant.class), any(Limit.class)))
+                .thenReturn(List.of(ok, falla), List.of());
+        doAnswer(inv -> {
+            if ("t2@mail.com".equals(inv.getArgument(0))) {
+                throw new MailSendException("buzón lleno");
+            }
+            return null;
+        }).when(remitente).enviar(any(), any(), any());
+
+        assertEquals(1, service.enviarPendientes());
+
+        verify(recordatorioRepo).marcarEnviados(eq(List.of(1L)), any(Instant.class));
+        ArgumentCaptor<List<RecordatorioVencimiento>> reprogramados = ArgumentCaptor.forClass(List.class);
+        verify(recordatorioRepo).saveAll(reprogramados.capture());
+        assertEquals(List.of(falla), reprogramados.getValue());
+        assertEquals(EstadoRecordatorio.PENDIENTE, falla.getEstado());
+        assertEquals(1, falla.getIntentos());
+        assertTrue(falla.getProximoIntento().isAfter(Instant.now()));
+        assertEquals("buzón lleno", falla.getUltimoError());
+    }
+
+    @Test
+    @DisplayName("enviarPendientes: agotados los intentos el recordatorio queda FALLIDO")
+    void enviarPendientes_agotaIntentos() {
+        RecordatorioVencimiento ultimo = pendiente(3, 2);
+        when(recordatorioRepo.findPendientes(any(Instant.class), any(Limit.class))).thenReturn(List.of(ultimo));
+        doThrow(new MailSendException("rechazado")).when(remitente).enviar(any(), any(), any());
+
+        assertEquals(0, service.enviarPendientes());
+
+        assertEquals(EstadoRecordatorio.FALLIDO, ultimo.getEstado());
+        assertEquals(3, ultimo.getIntentos());
+        verify(recordatorioRepo, never()).marcarEnviados(any(), any());
+    }
+}
@@ -0,0 +1,90 @@
+package com.tpagiles.app_licencia.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.tpagiles.app_licencia.model.RecordatorioVencimiento;
+import com.tpagiles.app_licencia.model.enums.EstadoRecordatorio;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.repository.RecordatorioBatchRepository;
+import com.tpagiles.app_licencia.repository.RecordatorioVencimientoRepository;
+import com.tpagiles.app_licencia.service.impl.RecordatorioVencimientoService;
+import com.tpagiles.app_licencia.service.impl.RemitenteSmtp;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Envío real por SMTP contra un servidor en memoria (GreenMail).
+ */
+class RemitenteSmtpTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private RemitenteSmtp remitente;
+
+    @BeforeEach
+    void setup() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        remitente = new RemitenteSmtp(mailSender, "no-responder@licencias.local");
+    }
+
+    @Test
+    void enviar_entregaElMensaje() throws Exception {
+        remitente.enviar("juan@mail.com", "Su licencia clase B vence el 10/07/2025", "Hola Juan");
+
+        MimeMessage[] recibidos = greenMail.getReceivedMessages();
+        assertEquals(1, recibidos.length);
+        assertEquals("Su licencia clase B vence el 10/07/2025", recibidos[0].getSubject());
+        assertEquals("juan@mail.com", recibidos[0].getAllRecipients()[0].toString());
+        assertEquals("no-responder@licencias.local", recibidos[0].getFrom()[0].toString());
+        assertEquals("Hola Juan", GreenMailUtil.getBody(recibidos[0]).trim());
+    }
+
+    @Test
+    void enviarPendientes_entregaTodoElLotePorSmtp() {
+        LicenciaRepository licenciaRepo = mock(LicenciaRepository.class);
+        RecordatorioVencimientoRepository recordatorioRepo = mock(RecordatorioVencimientoRepository.class);
+        List<RecordatorioVencimiento> pendientes = LongStream.rangeClosed(1, 12)
+                .mapToObj(id -> RecordatorioVencimiento.builder()
+                        .id(id).licenciaId(id).ventanaDias(30)
+                        .destinatario("titular" + id + "@mail.com")
+                        .asunto("Recordatorio " + id).cuerpo("cuerpo")
+                        .estado(EstadoRecordatorio.PENDIENTE).proximoIntento(Instant.now())
+                        .build())
+                .toList();
+        when(recordatorioRepo.findPendientes(any(Instant.class), any(Limit.class))).thenReturn(pendientes);
+
+        RecordatorioVencimientoService service = new RecordatorioVencimientoService(
+                licenciaRepo, recordatorioRepo, mock(RecordatorioBatchRepository.class), remitente,
+                mock(PlatformTransactionManager.class), new int[]{30, 15, 7}, 50, 4, 1000, 3);
+
+        assertEquals(12, service.enviarPendientes());
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 12));
+        assertEquals(12, Arrays.stream(greenMail.getReceivedMessages()).map(m -> {
+            try {
+                return m.getAllRecipients()[0].toString();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).distinct().count());
+        verify(recordatorioRepo).marcarEnviados(argThat(ids -> ids.size() == 12), any(Instant.class));
+    }
+}
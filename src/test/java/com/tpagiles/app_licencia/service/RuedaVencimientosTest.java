@@ -0,0 +1,73 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.service.helper.RuedaVencimientos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuedaVencimientosTest {
+
+    private static final long HOY = 20_000;
+
+    @Test
+    @DisplayName("Avanzar un día devuelve solo las licencias de ese día")
+    void avanzar_devuelvePorDia() {
+        RuedaVencimientos rueda = new RuedaVencimientos(8, HOY);
+        rueda.agregar(1, HOY + 1);
+        rueda.agregar(2, HOY + 2);
+        rueda.agregar(3, HOY + 1);
+
+        assertEquals(0, rueda.avanzarHasta(HOY).length);
+        assertArrayEquals(new long[]{1, 3}, ordenados(rueda.avanzarHasta(HOY + 1)));
+        assertArrayEquals(new long[]{2}, rueda.avanzarHasta(HOY + 2));
+        assertEquals(0, rueda.pendientes());
+    }
+
+    @Test
+    @DisplayName("Fechas pasadas quedan en el casillero actual; más allá del horizonte se rechazan")
+    void agregar_pasadasYHorizonte() {
+        RuedaVencimientos rueda = new RuedaVencimientos(8, HOY);
+
+        assertTrue(rueda.agregar(1, HOY - 30));
+        assertTrue(rueda.agregar(2, HOY + 7));
+        assertFalse(rueda.agregar(3, HOY + 8));
+
+        assertArrayEquals(new long[]{1}, rueda.avanzarHasta(HOY));
+        assertEquals(1, rueda.pendientes());
+    }
+
+    @Test
+    @DisplayName("Saltar más días que casilleros vacía la rueda sin repetir ids")
+    void avanzar_saltoLargo() {
+        RuedaVencimientos rueda = new RuedaVencimientos(4, HOY);
+        for (long d = 0; d < 4; d++) {
+            rueda.agregar(100 + d, HOY + d);
+        }
+
+        long[] vencidas = rueda.avanzarHasta(HOY + 50);
+
+        assertArrayEquals(new long[]{100, 101, 102, 103}, ordenados(vencidas));
+        assertEquals(HOY + 53, rueda.horizonte());
+        assertTrue(rueda.agregar(7, HOY + 53));
+    }
+
+    @Test
+    @DisplayName("Los casilleros crecen más allá de su capacidad inicial")
+    void agregar_muchasEnUnDia() {
+        RuedaVencimientos rueda = new RuedaVencimientos(8, HOY);
+        for (long id = 0; id < 10_000; id++) {
+            rueda.agregar(id, HOY + 3);
+        }
+
+        assertEquals(10_000, rueda.avanzarHasta(HOY + 3).length);
+    }
+
+    private static long[] ordenados(long[] ids) {
+        long[] copia = ids.clone();
+        Arrays.sort(copia);
+        return copia;
+    }
+}
@@ -3,13 +3,16 @@ package com.tpagiles.app_licencia.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.tpagiles.app_licencia.dto.TitularIndiceRecord;
 import com.tpagiles.app_licencia.dto.TitularRecord;
 import com.tpagiles.app_licencia.exception.ResourceAlreadyExistsException;
 import com.tpagiles.app_licencia.exception.ResourceNotFoundException;
 import com.tpagiles.app_licencia.model.Titular;
 import com.tpagiles.app_licencia.model.enums.FactorRh;
 import com.tpagiles.app_licencia.model.enums.GrupoSanguineo;
+import com.tpagiles.app_licencia.model.enums.TipoContador;
 import com.tpagiles.app_licencia.model.enums.TipoDocumento;
+import com.tpagiles.app_licencia.repository.TitularBusquedaRepository;
 import com.tpagiles.app_licencia.repository.TitularRepository;
 import com.tpagiles.app_licencia.service.impl.TitularService;
 
@@ -33,6 +36,21 @@ class TitularServiceTest {
     @Mock
     private TitularRepository repo;
 
+    @Mock
+    private TitularBusquedaRepository titularBusqueda;
+
+    @Mock
+    private IContadorService contadores;
+
+    @Mock
+    private IIndiceTitularesService indiceTitulares;
+
+    @Mock
+    private IFacetasService facetas;
+
+    @Mock
+    private IAutocompletarService autocompletar;
+
     @InjectMocks
     private TitularService service;
 
@@ -46,7 +64,7 @@ class TitularServiceTest {
                 LocalDate.of(1990, 1, 1),
                 TipoDocumento.DNI, "12345678",
                 GrupoSanguineo.O, FactorRh.POSITIVO,
-                "Calle Falsa 123", true
+                "Calle Falsa 123", true, null
         );
         sampleEntity = new Titular();
         sampleEntity.setId(1L);
@@ -77,7 +95,12 @@ class TitularServiceTest {
 
         assertNotNull(result.getId());
         assertEquals("Juan", result.getNombre());
+        assertEquals("PEREZ JUAN", result.getNombreCompletoNormalizado());
+        assertEquals("PERES JUAN", result.getNombreCompletoFonetico());
         verify(repo).save(any());
+        verify(indiceTitulares).registrarCambio(42L);
+        verify(facetas).registrarTitular(result);
+        verify(autocompletar).registrarAlta(result);
     }
 
     @Test
@@ -95,7 +118,7 @@ class TitularServiceTest {
     @Test
     @DisplayName("obtenerPorId → id existente → devuelve Titular")
     void obtenerPorId_found() {
-        when(repo.findById(1L)).thenReturn(Optional.of(sampleEntity));
+        when(repo.findActualById(1L)).thenReturn(Optional.of(sampleEntity));
 
         Titular t = service.obtenerPorId(1L);
         assertEquals(1L, t.getId());
@@ -105,7 +128,7 @@ class TitularServiceTest {
     @Test
     @DisplayName("obtenerPorId → no existe → lanza ResourceNotFoundException")
     void obtenerPorId_notFoundThrows() {
-        when(repo.findById(99L)).thenReturn(Optional.empty());
+        when(repo.findActualById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () ->
                 service.obtenerPorId(99L)
@@ -125,32 +148,37 @@ class TitularServiceTest {
     }
 
     @Test
-    @DisplayName("actualizarTitular → éxito, actualiza y devuelve")
-    void actualizarTitular_success() {
+    @DisplayName("actualizarTitularPorDocumento → éxito, actualiza y devuelve")
+    void actualizarTitularPorDocumento_success() {
         TitularRecord updated = new TitularRecord(
                 "Luis", "Gómez",
                 LocalDate.of(1985, 5, 5),
                 TipoDocumento.PASAPORTE, "X123",
                 GrupoSanguineo.AB, FactorRh.NEGATIVO,
-                "Av. Siempre Viva 742", false
+                "Av. Siempre Viva 742", false, null
         );
-        when(repo.findById(1L)).thenReturn(Optional.of(sampleEntity));
+        when(repo.findActualByTipoDocumentoAndNumeroDocumento(TipoDocumento.DNI, "12345678"))
+                .thenReturn(Optional.of(sampleEntity));
+        when(repo.existsByNumeroDocumento("X123")).thenReturn(false);
         when(repo.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        Titular modificado = service.actualizarTitular(1L, updated);
+        Titular modificado = service.actualizarTitularPorDocumento(TipoDocumento.DNI, "12345678", updated, null);
         assertEquals("Luis", modificado.getNombre());
         assertEquals("X123", modificado.getNumeroDocumento());
+        assertEquals("GOMEZ", modificado.getApellidoNormalizado());
+        assertEquals("GOMEZ LUIS", modificado.getNombreCompletoNormalizado());
+        assertEquals("GOMES", modificado.getApellidoFonetico());
         verify(repo).save(modificado);
     }
 
     @Test
-    @DisplayName("actualizarTitular → no existe → lanza ResourceNotFoundException")
-    void actualizarTitular_notFoundThrows() {
-        when(repo.findById(99L)).thenReturn(Optional.empty());
+    @DisplayName("actualizarTitularPorDocumento → no existe → lanza ResourceNotFoundException")
+    void actualizarTitularPorDocumento_notFoundThrows() {
+        when(repo.findActualByTipoDocumentoAndNumeroDocumento(TipoDocumento.DNI, "99999999")).thenReturn(Optional.empty());
 
         TitularRecord dummy = validRecord;
         assertThrows(ResourceNotFoundException.class, () ->
-                service.actualizarTitular(99L, dummy)
+                service.actualizarTitularPorDocumento(TipoDocumento.DNI, "99999999", dummy, null)
         );
         verify(repo, never()).save(any());
     }
@@ -158,16 +186,21 @@ class TitularServiceTest {
     @Test
     @DisplayName("eliminarTitular → éxito, llama a deleteById")
     void eliminarTitular_success() {
-        when(repo.existsById(1L)).thenReturn(true);
+        when(repo.findParaIndiceById(1L)).thenReturn(Optional.of(new TitularIndiceRecord(
+                1L, "Juan", "Pérez", TipoDocumento.DNI, "12345678", "Calle Falsa 123")));
 
         service.eliminarTitular(1L);
         verify(repo).deleteById(1L);
+        verify(contadores).sumar(TipoContador.TITULARES, -1);
+        verify(indiceTitulares).registrarCambio(1L);
+        verify(facetas).eliminarTitular(1L);
+        verify(autocompletar).registrarBaja("Pérez", "12345678");
     }
 
     @Test
     @DisplayName("eliminarTitular → no existe → lanza ResourceNotFoundException")
     void eliminarTitular_notFoundThrows() {
-        when(repo.existsById(5L)).thenReturn(false);
+        when(repo.findParaIndiceById(5L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () ->
                 service.eliminarTitular(5L)
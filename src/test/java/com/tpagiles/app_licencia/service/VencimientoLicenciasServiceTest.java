@@ -0,0 +1,107 @@
+package com.tpagiles.app_licencia.service;
+
+import com.tpagiles.app_licencia.dto.ResultadoVencimientoRecord;
+import com.tpagiles.app_licencia.model.EjecucionJob;
+import com.tpagiles.app_licencia.repository.EjecucionJobRepository;
+import com.tpagiles.app_licencia.repository.LicenciaRepository;
+import com.tpagiles.app_licencia.service.impl.VencimientoLicenciasService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VencimientoLicenciasServiceTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 6, 10);
+
+    @Mock
+    private LicenciaRepository licenciaRepo;
+
+    @Mock
+    private EjecucionJobRepository ejecucionRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private VencimientoLicenciasService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new VencimientoLicenciasService(licenciaRepo, ejecucionRepo, transactionManager, 1000, 0);
+    }
+
+    @Test
+    @DisplayName("Corrida nueva: recorre la tabla en rangos de id y confirma cada lote")
+    void procesar_porLotes() {
+        when(ejecucionRepo.findById(anyString())).thenReturn(Optional.empty());
+        when(licenciaRepo.findMaxId()).thenReturn(2500L);
+        when(licenciaRepo.desactivarVencidasEnRango(eq(HOY), anyLong(), anyLong())).thenReturn(10, 20, 5);
+
+        ResultadoVencimientoRecord resultado = service.procesar(HOY);
+
+        InOrder orden = inOrder(licenciaRepo);
+        orden.verify(licenciaRepo).desactivarVencidasEnRango(HOY, 0, 1000);
+        orden.verify(licenciaRepo).desactivarVencidasEnRango(HOY, 1000, 2000);
+        orden.verify(licenciaRepo).desactivarVencidasEnRango(HOY, 2000, 2500);
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(35, resultado.filas());
+        assertEquals(3, resultado.lotes());
+        assertFalse(resultado.reanudada());
+    }
+
+    @Test
+    @DisplayName("Corrida interrumpida: retoma desde la marca de agua")
+    void procesar_reanudaDesdeMarcaDeAgua() {
+        EjecucionJob enCurso = EjecucionJob.builder()
+                .nombre("marcar-vencidas").fechaEnCurso(HOY).ultimoId(2000).filas(30).build();
+        when(ejecucionRepo.findById(anyString())).thenReturn(Optional.of(enCurso));
+        when(licenciaRepo.findMaxId()).thenReturn(2500L);
+        when(licenciaRepo.desactivarVencidasEnRango(HOY, 2000, 2500)).thenReturn(5);
+
+        ResultadoVencimientoRecord resultado = service.procesar(HOY);
+
+        verify(licenciaRepo, times(1)).desactivarVencidasEnRango(any(), anyLong(), anyLong());
+        assertTrue(resultado.reanudada());
+        assertEquals(5, resultado.filas());
+        assertEquals(35, enCurso.getFilas());
+        assertEquals(HOY, enCurso.getFechaProcesada());
+        assertNull(enCurso.getFechaEnCurso());
+        assertFalse(service.pendiente(HOY));
+    }
+
+    @Test
+    @DisplayName("Corrida ya completada para la fecha: no hace nada")
+    void procesar_yaCompletada() {
+        EjecucionJob completada = EjecucionJob.builder()
+                .nombre("marcar-vencidas").fechaProcesada(HOY).ultimoId(2500).build();
+        when(ejecucionRepo.findById(anyString())).thenReturn(Optional.of(completada));
+
+        ResultadoVencimientoRecord resultado = service.procesar(HOY);
+
+        assertEquals(0, resultado.filas());
+        verifyNoInteractions(licenciaRepo);
+    }
+
+    @Test
+    @DisplayName("pendiente: detecta la medianoche perdida")
+    void pendiente_corridaPerdida() {
+        EjecucionJob ayer = EjecucionJob.builder()
+                .nombre("marcar-vencidas").fechaProcesada(HOY.minusDays(1)).build();
+        when(ejecucionRepo.findById(anyString())).thenReturn(Optional.of(ayer));
+
+        assertTrue(service.pendiente(HOY));
+        assertFalse(service.pendiente(HOY.minusDays(1)));
+    }
+}
@@ -0,0 +1,94 @@
+-- Esquema que creaba la aplicación antes de Flyway (ddl-auto=update, H2Dialect) y el tarifario que
+-- cargaba data.sql en cada arranque. Generado con Hibernate a partir de las entidades de esa versión.
+
+create table licencias (
+    costo float(53) not null,
+    fecha_emision date not null,
+    fecha_vencimiento date not null,
+    numero_copia integer,
+    vigencia_anios integer not null,
+    vigente boolean not null,
+    emisor_id bigint not null,
+    id bigint generated by default as identity,
+    licencia_original_id bigint,
+    titular_id bigint not null,
+    motivo_copia varchar(200),
+    clase enum ('A','B','C','D','E','F','G') not null,
+    primary key (id)
+);
+
+create table tarifario_licencia (
+    costo float(53) not null,
+    vigencia_anios integer not null,
+    id bigint generated by default as identity,
+    clase_licencia enum ('A','B','C','D','E','F','G') not null,
+    primary key (id)
+);
+
+create table titulares (
+    donante_organos boolean not null,
+    fecha_nacimiento date not null,
+    id bigint generated by default as identity,
+    numero_documento varchar(50) not null,
+    direccion varchar(200) not null,
+    apellido varchar(255) not null,
+    nombre varchar(255) not null,
+    factor_rh enum ('NEGATIVO','POSITIVO') not null,
+    grupo_sanguineo enum ('A','AB','B','O') not null,
+    tipo_documento enum ('CEDULA_IDENTIDAD','DNI','OTRO','PASAPORTE') not null,
+    primary key (id),
+    unique (numero_documento)
+);
+
+create table usuario_roles (
+    usuario_id bigint not null,
+    rol enum ('OPERADOR','SUPER_USER')
+);
+
+create table usuarios (
+    activo boolean not null,
+    id bigint generated by default as identity,
+    apellido varchar(100) not null,
+    mail varchar(100) not null unique,
+    nombre varchar(100) not null,
+    password varchar(100) not null,
+    primary key (id)
+);
+
+alter table if exists licencias
+   add constraint FK8f327ykes8i9gqgmiwst68stg
+   foreign key (emisor_id)
+   references usuarios;
+
+alter table if exists licencias
+   add constraint FKkym6nbthcy6x7hkt7mehmp83a
+   foreign key (licencia_original_id)
+   references licencias;
+
+alter table if exists licencias
+   add constraint FKg6fpg22v955h2mo9hglpbf9u8
+   foreign key (titular_id)
+   references titulares;
+
+alter table if exists usuario_roles
+   add constraint FKuu9tea04xb29m2km5lwe46ua
+   foreign key (usuario_id)
+   references usuarios;
+
+insert into tarifario_licencia (clase_licencia, vigencia_anios, costo) values
+('A', 5, 40.0), ('A', 4, 30.0), ('A', 3, 25.0), ('A', 1, 20.0),
+('B', 5, 40.0), ('B', 4, 30.0), ('B', 3, 25.0), ('B', 1, 20.0),
+('C', 5, 47.0), ('C', 4, 35.0), ('C', 3, 30.0), ('C', 1, 23.0),
+('D', 5, 50.0), ('D', 4, 38.0), ('D', 3, 32.0), ('D', 1, 25.0),
+('E', 5, 59.0), ('E', 4, 44.0), ('E', 3, 39.0), ('E', 1, 29.0),
+('F', 5, 40.0), ('F', 4, 30.0), ('F', 3, 25.0), ('F', 1, 20.0),
+('G', 5, 40.0), ('G', 4, 30.0), ('G', 3, 25.0), ('G', 1, 20.0);
+
+insert into usuarios (activo, apellido, mail, nombre, password)
+values (true, 'Previo', 'previo@municipio.gob', 'Pablo', 'x');
+insert into usuario_roles (usuario_id, rol) values (1, 'SUPER_USER');
+insert into titulares (donante_organos, fecha_nacimiento, numero_documento, direccion, apellido, nombre,
+                       factor_rh, grupo_sanguineo, tipo_documento)
+values (false, '1980-01-01', '20111222', 'Calle 1', 'Núñez', 'José', 'POSITIVO', 'A', 'DNI');
+insert into licencias (costo, fecha_emision, fecha_vencimiento, vigencia_anios, vigente, emisor_id, titular_id, clase)
+values (48.0, '2024-01-10', '2029-01-10', 5, true, 1, 1, 'B');